@@ -0,0 +1,90 @@
+package machineLearningBenchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import machineLearningClassifiers.DecisionTreeClassifier.DecisionTreeClassifier;
+import machineLearningClassifiers.KNNClassifier.KNNClassifier;
+import machineLearningClassifiers.NaiveBayesClassifier.NaiveBayesClassifier;
+import machineLearningTools.Data;
+import machineLearningTools.RealValuedData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ClassifierBenchmark
+ *
+ * Time to train each classifier on the training corpus, and to classify
+ * the testing corpus with a trained classifier. Training includes loading
+ * the training file, since that is what MachineLearningClassifier#train does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassifierBenchmark {
+
+	@Param({"5"})
+	public int K;
+
+	@Param({"cosine"})
+	public String simFunction;
+
+	@Param({"5"})
+	public int maxDepth;
+
+	private Data testingData;
+	private KNNClassifier knnClassifier;
+	private NaiveBayesClassifier naiveBayesClassifier;
+
+	@Setup(Level.Trial)
+	public void trainClassifiers(final CorpusState corpus) {
+		this.testingData = new RealValuedData(corpus.testingFile.getPath());
+		this.knnClassifier = new KNNClassifier(this.K, this.simFunction, corpus.outputFile("knn.sys.txt"));
+		this.knnClassifier.train(corpus.trainingFile.getPath());
+		this.naiveBayesClassifier = this.newNaiveBayesClassifier(corpus);
+		this.naiveBayesClassifier.train(corpus.trainingFile.getPath());
+	}
+
+	private NaiveBayesClassifier newNaiveBayesClassifier(final CorpusState corpus) {
+		return new NaiveBayesClassifier(0.0d, 0.1d, corpus.outputFile("nb.sys.txt"), corpus.outputFile("nb.model.txt"));
+	}
+
+	@Benchmark
+	public Data knnClassify() {
+		this.knnClassifier.classify(this.testingData);
+		return this.testingData;
+	}
+
+	@Benchmark
+	public NaiveBayesClassifier naiveBayesTrain(final CorpusState corpus) {
+		NaiveBayesClassifier classifier = this.newNaiveBayesClassifier(corpus);
+		classifier.train(corpus.trainingFile.getPath());
+		return classifier;
+	}
+
+	@Benchmark
+	public Data naiveBayesClassify() {
+		this.naiveBayesClassifier.classify(this.testingData);
+		return this.testingData;
+	}
+
+	@Benchmark
+	public DecisionTreeClassifier decisionTreeTrain(final CorpusState corpus) {
+		DecisionTreeClassifier classifier = new DecisionTreeClassifier(this.maxDepth, 0.0d, corpus.outputFile("dt.sys.txt"), corpus.outputFile("dt.model.txt"));
+		classifier.train(corpus.trainingFile.getPath());
+		return classifier;
+	}
+}
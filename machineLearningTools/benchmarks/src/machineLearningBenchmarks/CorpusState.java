@@ -0,0 +1,74 @@
+package machineLearningBenchmarks;
+
+import java.io.File;
+import java.io.IOException;
+
+import machineLearningTools.CorpusGenerator;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * CorpusState
+ *
+ * Benchmark state holding a synthetic training and testing corpus,
+ * written once per trial with a CorpusGenerator. The corpus is scaled
+ * with the documents, vocabulary, labels, tokensPerDocument, zipfExponent
+ * and labelSkew parameters, which can be overridden from the JMH command
+ * line with -p name=value.
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+
+	@Param({"1000"})
+	public int documents;
+
+	@Param({"5000"})
+	public int vocabulary;
+
+	@Param({"10"})
+	public int labels;
+
+	@Param({"40"})
+	public int tokensPerDocument;
+
+	@Param({"1.0"})
+	public double zipfExponent;
+
+	@Param({"0.0"})
+	public double labelSkew;
+
+	public File trainingFile;
+	public File testingFile;
+	public File outputDirectory;
+
+	@Setup(Level.Trial)
+	public void writeCorpus() throws IOException {
+		this.trainingFile = File.createTempFile("benchmark", ".train.vectors.txt");
+		this.testingFile = File.createTempFile("benchmark", ".test.vectors.txt");
+		this.outputDirectory = this.trainingFile.getParentFile();
+		new CorpusGenerator(this.documents, this.vocabulary, this.labels, this.tokensPerDocument, this.zipfExponent, this.labelSkew, 1L).write(this.trainingFile.getPath());
+		// Testing documents are a tenth of the training documents
+		new CorpusGenerator(Math.max(this.documents/10, 1), this.vocabulary, this.labels, this.tokensPerDocument, this.zipfExponent, this.labelSkew, 2L).write(this.testingFile.getPath());
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteCorpus() {
+		this.trainingFile.delete();
+		this.testingFile.delete();
+	}
+
+	/**
+	 * Return a path in the temporary directory for classifier output.
+	 *
+	 * @param name
+	 * @return path for an output file
+	 */
+	public String outputFile(final String name) {
+		return new File(this.outputDirectory, "benchmark." + name).getPath();
+	}
+}
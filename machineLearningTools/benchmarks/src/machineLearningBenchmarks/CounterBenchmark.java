@@ -0,0 +1,77 @@
+package machineLearningBenchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import machineLearningTools.Counter;
+import machineLearningTools.NestedCounter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CounterBenchmark
+ *
+ * Time to count a stream of keys with Counter and NestedCounter. The keys
+ * are drawn from vocabulary distinct strings, so both new and repeated
+ * keys are counted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CounterBenchmark {
+
+	@Param({"100000"})
+	public int increments;
+
+	@Param({"5000"})
+	public int vocabulary;
+
+	@Param({"10"})
+	public int labels;
+
+	private String[] keys;
+	private String[] labelKeys;
+
+	@Setup(Level.Trial)
+	public void createKeys() {
+		Random random = new Random(1L);
+		this.keys = new String[this.increments];
+		this.labelKeys = new String[this.increments];
+		for (int i = 0; i < this.increments; i++) {
+			this.keys[i] = "f" + random.nextInt(this.vocabulary);
+			this.labelKeys[i] = "label" + random.nextInt(this.labels);
+		}
+	}
+
+	@Benchmark
+	public Counter<String> counterIncrement() {
+		Counter<String> counter = new Counter<String>();
+		for (String key: this.keys) {
+			counter.increment(key);
+		}
+		return counter;
+	}
+
+	@Benchmark
+	public NestedCounter<String> nestedCounterIncrement() {
+		NestedCounter<String> counter = new NestedCounter<String>();
+		for (int i = 0; i < this.increments; i++) {
+			counter.increment(this.labelKeys[i], this.keys[i]);
+		}
+		return counter;
+	}
+}
@@ -0,0 +1,39 @@
+package machineLearningBenchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import machineLearningTools.BinaryValuedData;
+import machineLearningTools.Data;
+import machineLearningTools.RealValuedData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * DataLoadingBenchmark
+ *
+ * Time to parse the training corpus into RealValuedData and
+ * BinaryValuedData objects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DataLoadingBenchmark {
+
+	@Benchmark
+	public Data loadRealValuedData(final CorpusState corpus) {
+		return new RealValuedData(corpus.trainingFile.getPath());
+	}
+
+	@Benchmark
+	public Data loadBinaryValuedData(final CorpusState corpus) {
+		return new BinaryValuedData(corpus.trainingFile.getPath());
+	}
+}
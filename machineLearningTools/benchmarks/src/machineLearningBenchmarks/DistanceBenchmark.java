@@ -0,0 +1,72 @@
+package machineLearningBenchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import machineLearningTools.CosineSimilarity;
+import machineLearningTools.Document;
+import machineLearningTools.EuclideanDistance;
+import machineLearningTools.RealValuedData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * DistanceBenchmark
+ *
+ * Time for one document to be compared to every training document with
+ * EuclideanDistance and CosineSimilarity, as KNNClassifier does for each
+ * document it classifies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceBenchmark {
+
+	private ArrayList<Document> documents;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void loadDocuments(final CorpusState corpus) {
+		this.documents = new RealValuedData(corpus.trainingFile.getPath()).getDocs();
+		Collections.sort(this.documents);
+	}
+
+	/**
+	 * Return the next document to compare, cycling through the corpus.
+	 */
+	private Document nextDocument() {
+		this.next = (this.next+1) % this.documents.size();
+		return this.documents.get(this.next);
+	}
+
+	@Benchmark
+	public void euclideanDistance(final Blackhole blackhole) {
+		Document document = this.nextDocument();
+		for (Document other: this.documents) {
+			blackhole.consume(new EuclideanDistance(document, other).getDistance());
+		}
+	}
+
+	@Benchmark
+	public void cosineSimilarity(final Blackhole blackhole) {
+		Document document = this.nextDocument();
+		for (Document other: this.documents) {
+			blackhole.consume(new CosineSimilarity(document, other).getDistance());
+		}
+	}
+}
@@ -7,6 +7,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -14,7 +16,9 @@ import machineLearningTools.ConfusionMatrix;
 import machineLearningTools.Data;
 import machineLearningTools.Document;
 import machineLearningTools.MachineLearningClassifier;
+import machineLearningTools.Metrics;
 import machineLearningTools.Rule;
+import machineLearningTools.SystemOutputWriter;
 import machineLearningTools.Tree;
 
 /**
@@ -62,7 +66,6 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 
 	// Output values
 	private BufferedWriter modelOutput;
-	private BufferedWriter sysOutput;
 
 	/**
 	 * Construct a new DecisionTreeClassifier object to do classification.
@@ -75,23 +78,39 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 	 * @author T.J. Trimble
 	 */
 	public DecisionTreeClassifier(int maxDepth, Double minGain, String sysOutputFileName, String modelFileName, boolean binarized) throws IllegalArgumentException {
-		super(binarized);
-		if (minGain == null || sysOutputFileName == null || modelFileName == null) {
+		this(maxDepth, minGain, binarized);
+		if (sysOutputFileName == null || modelFileName == null) {
 			throw new NullPointerException("DecisionTreeClassifier constructor received a null argument;");
 		}
-		if (maxDepth < 1 || minGain < 0) {
-			throw new IllegalArgumentException("DecisionTreeClassifier constructor parameter preconditions violated;");
-		}
 		// Test if files exist
 //		if ((!new File(sysOutputFileName).isFile()) || (!new File(modelFileName).isFile())) {
 //			throw new IllegalArgumentException("DecisionTreeClassifier sysOutput file or model file not found;");
 //		}
-		this.maxDepth = maxDepth;
-		this.minGain = minGain;
 		this.sysOutputFile = sysOutputFileName;
 		this.modelFile = modelFileName;
 	}
 
+	/**
+	 * Construct a DecisionTreeClassifier object that is only trained
+	 * on and classifies loaded Data, such as for a DecisionTreeTuner,
+	 * and has no system output or model file.
+	 *
+	 * @param maxDepth must be greater than or equal to 1
+	 * @param minGain must be greater than or equal to 0
+	 * @param binarized
+	 */
+	DecisionTreeClassifier(int maxDepth, Double minGain, boolean binarized) throws IllegalArgumentException {
+		super(binarized);
+		if (minGain == null) {
+			throw new NullPointerException("DecisionTreeClassifier constructor received a null argument;");
+		}
+		if (maxDepth < 1 || minGain < 0) {
+			throw new IllegalArgumentException("DecisionTreeClassifier constructor parameter preconditions violated;");
+		}
+		this.maxDepth = maxDepth;
+		this.minGain = minGain;
+	}
+
 	/**
 	 * Construct a new DecisionTreeClassifier object to do classification.
 	 *
@@ -111,12 +130,9 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 		if (trainingDataFileName == null) {
 			throw new NullPointerException();
 		}
-		this.trainingData = this.getData(trainingDataFileName);
-		// Recurse to build decision tree
-		this.tree = this.calculateTree(this.trainingData.getIDs(), 1);
-		// Calculate rules and save to object
-		this.rules = this.tree.getRules();
+		this.train(this.getTrainingData(trainingDataFileName));
 		// Create model file
+		long start = this.metrics.start();
 		try {
 			this.modelOutput = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(this.modelFile), "utf-8"));
 			this.writeModelFile(this.modelOutput);
@@ -126,6 +142,27 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 			System.err.println("Error writing model file.");
 			e.printStackTrace();
 		}
+		this.metrics.stop(Metrics.MODEL_WRITE, start);
+	}
+
+	/**
+	 * Build the decision tree and its rules from the training data,
+	 * without writing the model file.
+	 *
+	 * @see machineLearningTools.MachineLearningClassifier#train(machineLearningTools.Data)
+	 */
+	@Override
+	public void train(Data trainingData) {
+		if (trainingData == null) {
+			throw new NullPointerException("DecisionTreeClassifier#train received a null parameter: trainingData!");
+		}
+		long start = this.metrics.start();
+		this.trainingData = trainingData;
+		// Recurse to build decision tree
+		this.tree = this.calculateTree(this.trainingData.getIDs(), 1);
+		// Calculate rules and save to object
+		this.rules = this.tree.getRules();
+		this.metrics.stop(Metrics.TRAIN, start);
 	}
 
 	/**
@@ -165,6 +202,7 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 		//// Initializations
 		// Initialize this node
 		Tree result = new Tree(nodeFeature, docIDs, depth, this.trainingData);
+		this.metrics.increment(Metrics.NODES, 1L);
 		if (docIDs.size() <= 1 || depth >= this.maxDepth) {
 			return result;
 		}
@@ -173,53 +211,46 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 		String bestFeature = "";
 		Double bestWithEnt = 0.0d;
 		Double bestWithOutEnt = 0.0d;
-		HashSet<Integer> documentsWithSplit = null;
-		HashSet<Integer> documentsWithOutSplit = null;
+		HashSet<Integer> documentsWithSplit = new HashSet<Integer>();
+		HashSet<Integer> documentsWithOutSplit = new HashSet<Integer>();
 		// Initializations
-		HashSet<Integer> documentsWithFeature;
-		HashSet<Integer> documentsWithOutFeature;
 		Tree withChild;
 		Tree withOutChild;
-		Double withEnt;
-		Double withOutEnt;
-		Double gain;
+		double gain;
+		int[] counts;
+		int labelID;
 
-		//// Loop through features to get best
-		// Get features from these documents
+		//// Count labels per feature
+		// In one pass over these documents, count the documents with each
+		// feature by label ID, with the number of documents in the last slot
+		int[] topCounts = this.trainingData.getLabelCounts(docIDs);
+		int sizeSlot = topCounts.length;
 		HashSet<String> features = new HashSet<String>();
+		HashMap<String, int[]> featureCounts = new HashMap<String, int[]>();
 		for (Integer id: docIDs) {
-			features.addAll(this.trainingData.getFeatures(id));
-		}
-
-		//// Split documents based on feature
-		// Loop through each feature in document set to
-		// find the best split
-		for (String feature: features) {
-			// Split documents based on feature
-			documentsWithFeature = new HashSet<Integer>();
-			documentsWithOutFeature = new HashSet<Integer>();
-			for (Integer id: docIDs) {
-				if (this.trainingData.getDoc(id).contains(feature)) {
-					documentsWithFeature.add(id);
-				}
-				else {
-					documentsWithOutFeature.add(id);
+			labelID = this.trainingData.getLabelID(id);
+			for (String feature: this.trainingData.getFeatures(id)) {
+				counts = featureCounts.get(feature);
+				if (counts == null) {
+					features.add(feature);
+					counts = new int[sizeSlot+1];
+					featureCounts.put(feature, counts);
 				}
+				counts[labelID]++;
+				counts[sizeSlot]++;
 			}
+		}
 
-			// Calculate entropy and information gain
-			withEnt = this.trainingData.getEntropy(documentsWithFeature);
-			withOutEnt = this.trainingData.getEntropy(documentsWithOutFeature);
-			gain = informationGain(withEnt, documentsWithFeature.size(), withOutEnt, documentsWithOutFeature.size(), topEnt);
-
+		//// Find the best split
+		// Loop through each feature in document set, calculating
+		// information gain from the label counts of each side
+		for (String feature: features) {
+			counts = featureCounts.get(feature);
+			gain = informationGain(counts, counts[sizeSlot], topCounts, docIDs.size(), topEnt);
 			// Store values for best information gain
 			if (gain > bestGain) {
 				bestGain = gain;
 				bestFeature = feature;
-				documentsWithSplit = documentsWithFeature;
-				documentsWithOutSplit = documentsWithOutFeature;
-				bestWithEnt = withEnt;
-				bestWithOutEnt = withOutEnt;
 			}
 		}
 
@@ -227,6 +258,18 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 			return result;
 		}
 
+		// Split documents based on the best feature
+		for (Integer id: docIDs) {
+			if (this.trainingData.getDoc(id).contains(bestFeature)) {
+				documentsWithSplit.add(id);
+			}
+			else {
+				documentsWithOutSplit.add(id);
+			}
+		}
+		bestWithEnt = this.trainingData.getEntropy(documentsWithSplit);
+		bestWithOutEnt = this.trainingData.getEntropy(documentsWithOutSplit);
+
 		// Recurse down each path
 		String notFeature = "!"+bestFeature;
 		withChild = this.calculateTree(documentsWithSplit, depth+1, bestWithEnt, result, bestFeature);
@@ -234,6 +277,7 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 		if ((withChild != null) && (withOutChild != null)) {
 			result.addChild(withChild);
 			result.addChild(withOutChild);
+			result.setGain(bestGain);
 		}
 		return result;
 	}
@@ -253,13 +297,19 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 			throw new NullPointerException("Classify called before training completed;");
 		}
 		// Classify data
-		for (Document document: testingData.getDocs()) {
+		long start;
+		ArrayList<Document> documents = testingData.getDocs();
+		Collections.sort(documents);
+		for (Document document: documents) {
+			start = this.metrics.start();
 			for (Rule rule: this.rules) {
 				if (rule.accepts(document)) {
 					document.setSysOutput(rule);
 					break; // out of rules
 				}
 			}
+			this.metrics.stop(Metrics.CLASSIFY, start, document.getSysOutput());
+			this.classified(document);
 		}
 	}
 
@@ -272,19 +322,29 @@ public class DecisionTreeClassifier extends MachineLearningClassifier {
 		if (testResult == null || trainOrTest == null) {
 			throw new NullPointerException();
 		}
+		long start = this.metrics.start();
 		try {
-			this.sysOutput = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(this.sysOutputFile), "utf-8"));
-			this.writeSysOutput(testResult, this.sysOutput);
-			this.sysOutput.close();
+			SystemOutputWriter sysOutput = this.openSystemOutput();
+			sysOutput.write(testResult);
+			sysOutput.close();
 		} catch (IOException e) {
 			System.err.println("Failed to write results. Check your system output filename and system setup.");
 			e.printStackTrace();
 		}
+		this.metrics.stop(Metrics.OUTPUT_WRITE, start);
 
 		// Output confusion matrix to stdout
 		System.out.println(new ConfusionMatrix(testResult, trainOrTest));
 	}
 
+	/**
+	 * @see machineLearningTools.MachineLearningClassifier#openSystemOutput()
+	 */
+	@Override
+	protected SystemOutputWriter openSystemOutput() throws IOException {
+		return new SystemOutputWriter(this.sysOutputFile, false);
+	}
+
 	/**
 	 * @param modelOutput
 	 * @throws IOException
@@ -0,0 +1,139 @@
+package machineLearningClassifiers.DecisionTreeClassifier;
+
+import static machineLearningTools.Util.maxKeyByValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import machineLearningTools.ClassifierTuner;
+import machineLearningTools.Data;
+import machineLearningTools.Document;
+import machineLearningTools.Tree;
+
+/**
+ * DecisionTreeTuner
+ *
+ * Tunes the maxDepth and minGain parameters of a DecisionTreeClassifier
+ * for a HyperparameterSearch. <br><br>
+ *
+ * Whether a node is split depends on maxDepth and minGain, but the
+ * feature it is split on does not. So one tree is grown per fold with
+ * the largest maxDepth and smallest minGain of the configurations, and
+ * each configuration prunes it: a node is a leaf if it is at maxDepth
+ * or its information gain is below minGain. <br><br>
+ *
+ * As with DecisionTreeClassifier, a tree pruned to its *TOP* node has
+ * no rules and leaves documents unclassified.
+ */
+public class DecisionTreeTuner extends ClassifierTuner {
+
+	private static final String[] parameters = new String[]{"maxDepth", "minGain"};
+
+	private final int maxDepth;
+	private final double minGain;
+	private final boolean binarized;
+
+	/**
+	 * Construct a DecisionTreeTuner over the given configurations
+	 * of {maxDepth, minGain}.
+	 *
+	 * @param configurations
+	 * @param binarized
+	 */
+	public DecisionTreeTuner(final List<double[]> configurations, final boolean binarized) {
+		super(DecisionTreeTuner.parameters, configurations);
+		this.binarized = binarized;
+		double maxDepth = 1.0d;
+		double minGain = Double.POSITIVE_INFINITY;
+		for (double[] configuration: configurations) {
+			if (configuration[0] < 1 || configuration[0] != Math.floor(configuration[0]) || configuration[1] < 0) {
+				throw new IllegalArgumentException("DecisionTreeTuner requires integer maxDepth of at least 1 and minGain of at least 0;");
+			}
+			maxDepth = Math.max(maxDepth, configuration[0]);
+			minGain = Math.min(minGain, configuration[1]);
+		}
+		this.maxDepth = (int) maxDepth;
+		this.minGain = minGain;
+	}
+
+	/**
+	 * Grow the tree over trainingData and find the path of each
+	 * document of testingData down it.
+	 *
+	 * @see machineLearningTools.ClassifierTuner#prepare(machineLearningTools.Data, machineLearningTools.Data)
+	 */
+	@Override
+	public Evaluator prepare(final Data trainingData, final Data testingData) {
+		DecisionTreeClassifier classifier = new DecisionTreeClassifier(this.maxDepth, this.minGain, this.binarized);
+		classifier.train(trainingData);
+		Tree top = classifier.getTree();
+		// Label nodes as the Rule of a leaf would
+		IdentityHashMap<Tree, String> labels = new IdentityHashMap<Tree, String>();
+		List<Document> documents = testingData.getDocs();
+		Collections.sort(documents);
+		String[][] pathLabels = new String[documents.size()][];
+		int[][] pathDepths = new int[documents.size()][];
+		double[][] pathGains = new double[documents.size()][];
+		ArrayList<Tree> path = new ArrayList<Tree>();
+		Tree node;
+		for (int i = 0; i < documents.size(); i++) {
+			// Children are split with the feature first, then without
+			path.clear();
+			node = top;
+			path.add(node);
+			while (node.getChildren().size() > 0) {
+				node = node.getChildren().get(documents.get(i).contains(node.getChildren().get(0).getFeature()) ? 0 : 1);
+				path.add(node);
+			}
+			pathLabels[i] = new String[path.size()];
+			pathDepths[i] = new int[path.size()];
+			pathGains[i] = new double[path.size()];
+			for (int j = 0; j < path.size(); j++) {
+				node = path.get(j);
+				if (!labels.containsKey(node)) {
+					labels.put(node, maxKeyByValue(node.getLabelProbabilities()));
+				}
+				pathLabels[i][j] = labels.get(node);
+				pathDepths[i][j] = node.getDepth();
+				pathGains[i][j] = node.getGain();
+			}
+		}
+		return new TreeEvaluator(pathLabels, pathDepths, pathGains);
+	}
+
+	/**
+	 * Labels each testing document with the last node of its path
+	 * that is not pruned by a configuration.
+	 */
+	private static class TreeEvaluator extends Evaluator {
+
+		private final String[][] pathLabels;
+		private final int[][] pathDepths;
+		private final double[][] pathGains;
+
+		TreeEvaluator(final String[][] pathLabels, final int[][] pathDepths, final double[][] pathGains) {
+			this.pathLabels = pathLabels;
+			this.pathDepths = pathDepths;
+			this.pathGains = pathGains;
+		}
+
+		@Override
+		public String[] classify(final double[] configuration) {
+			double maxDepth = configuration[0];
+			double minGain = configuration[1];
+			String[] result = new String[this.pathLabels.length];
+			int leaf;
+			for (int i = 0; i < result.length; i++) {
+				// Descend while the node would have been split
+				leaf = 0;
+				while (leaf < this.pathLabels[i].length-1 && this.pathDepths[i][leaf] < maxDepth && this.pathGains[i][leaf] >= minGain) {
+					leaf++;
+				}
+				result[i] = (leaf == 0) ? null : this.pathLabels[i][leaf];
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package machineLearningClassifiers.DecisionTreeClassifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+
+import machineLearningTools.BinaryValuedData;
+import machineLearningTools.ClassifierTuner;
+import machineLearningTools.CorpusGenerator;
+import machineLearningTools.CrossValidation;
+import machineLearningTools.Data;
+import machineLearningTools.Document;
+import machineLearningTools.HyperparameterSearch;
+import machineLearningTools.TunerTestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DecisionTreeTunerTest extends TunerTestCase {
+
+	// Parameters
+	private final double[] maxDepths = new double[]{1, 2, 4, 8};
+	private final double[] minGains = new double[]{0.0d, 0.01d, 0.05d, 0.2d};
+
+	// Variables
+	private Data data;
+
+	@Override
+	protected CorpusGenerator corpusGenerator() {
+		return new CorpusGenerator(200, 100, 3, 20, 5L);
+	}
+
+	@Before
+	public void setupData() {
+		this.data = new BinaryValuedData(this.corpusFile.getPath());
+	}
+
+	@Test
+	public void testDecisionTreeTunerMatchesClassifier() {
+		CrossValidation crossValidation = new CrossValidation(this.data, 3, 7L);
+		DecisionTreeTuner tuner = new DecisionTreeTuner(HyperparameterSearch.grid(this.maxDepths, this.minGains), true);
+		for (int fold = 0; fold < crossValidation.getFolds(); fold++) {
+			Data testingData = crossValidation.getTestingData(fold);
+			ClassifierTuner.Evaluator evaluator = tuner.prepare(crossValidation.getTrainingData(fold), testingData);
+			for (double[] configuration: tuner.getConfigurations()) {
+				// Clear the system output, as a tree with no rules sets none
+				for (Document document: testingData.getDocs()) {
+					testingData.setSysOutput(document.getDocID(), Collections.singletonMap("", 1.0d));
+				}
+				DecisionTreeClassifier classifier = new DecisionTreeClassifier((int) configuration[0], configuration[1], true);
+				classifier.train(crossValidation.getTrainingData(fold));
+				classifier.classify(testingData);
+				String[] expected = TunerTestCase.sysOutput(testingData);
+				for (int i = 0; i < expected.length; i++) {
+					if ("".equals(expected[i])) {
+						expected[i] = null;
+					}
+				}
+				assertArrayEquals(expected, evaluator.classify(configuration));
+			}
+		}
+	}
+
+	@Test
+	public void testDecisionTreeTunerSearch() {
+		DecisionTreeTuner tuner = new DecisionTreeTuner(HyperparameterSearch.grid(this.maxDepths, this.minGains), true);
+		HyperparameterSearch search = new HyperparameterSearch(new CrossValidation(this.data, 3, 7L));
+		HyperparameterSearch.Result result = search.run(tuner, 4);
+		assertEquals(search.run(tuner, 1).toString(), result.toString());
+		// A tree pruned to its top node classifies nothing
+		assertEquals(0.0d, result.getAccuracy(0), 0.0d);
+	}
+}
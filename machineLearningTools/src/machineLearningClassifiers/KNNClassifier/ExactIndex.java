@@ -0,0 +1,25 @@
+package machineLearningClassifiers.KNNClassifier;
+
+import machineLearningTools.SparseMatrix;
+
+/**
+ * ExactIndex
+ *
+ * A NeighborIndex that compares the query to every training row.
+ * Used as the reference when measuring the recall of approximate
+ * indexes.
+ */
+public class ExactIndex extends NeighborIndex {
+
+	@Override
+	public int[] search(SparseMatrix queries, int query, int K) {
+		if (queries == null) {
+			throw new NullPointerException("ExactIndex#search received a null parameter: queries!");
+		}
+		NodeHeap nearest = new NodeHeap(K, true);
+		for (int row = 0; row < this.training.rows(); row++) {
+			nearest.offerBounded(row, this.distance(queries, query, row), K);
+		}
+		return nearest.toSortedNodes();
+	}
+}
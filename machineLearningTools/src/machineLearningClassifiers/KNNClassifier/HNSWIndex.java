@@ -0,0 +1,443 @@
+package machineLearningClassifiers.KNNClassifier;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import machineLearningTools.SparseMatrix;
+
+/**
+ * HNSWIndex
+ *
+ * Approximate nearest neighbor index over the training documents of a
+ * KNNClassifier, using a hierarchical navigable small world graph
+ * (Malkov and Yashunin, 2016). <br><br>
+ *
+ * Each training row is inserted at a random level, with exponentially
+ * fewer rows at each higher level, and linked to its nearest rows on
+ * each level up to its own. A search greedily descends from the top
+ * level entry point, then runs a best-first search of the bottom level.
+ * <br><br>
+ *
+ * <b>Parameters:</b> <br><br>
+ * 	<b>M:</b> number of links per row per level (2*M on the bottom level) <br>
+ * 	<b>efConstruction:</b> size of the candidate list when inserting rows <br>
+ * 	<b>efSearch:</b> size of the candidate list when searching; larger
+ * 		values trade speed for recall <br>
+ * 	<b>indexFile:</b> file to save the graph to after building, and to load
+ * 		it from on later builds over the same training data; may be null <br><br>
+ *
+ * HNSWIndex is not synchronized, and searches share scratch space, so
+ * an index should only be searched from one thread at a time.
+ */
+public class HNSWIndex extends NeighborIndex {
+
+	public static final int DEFAULT_M = 16;
+	public static final int DEFAULT_EF_CONSTRUCTION = 200;
+	public static final int DEFAULT_EF_SEARCH = 50;
+
+	private static final int MAGIC = 0x484E5357; // HNSW
+	private static final int VERSION = 2;
+
+	// Parameters
+	private final int M;
+	private final int maxM0;
+	private final int efConstruction;
+	private int efSearch;
+	private final String indexFile;
+	private final long seed;
+	private final double levelMultiplier;
+
+	// Graph: links[row][level] holds linkCounts[row][level] neighbors
+	private int[][][] links;
+	private int[][] linkCounts;
+	private int entryPoint;
+	private int maxLevel;
+
+	// Search scratch
+	private int[] visited;
+	private int visitStamp;
+
+	/**
+	 * Construct an HNSWIndex with the given parameters.
+	 *
+	 * @param M must be at least 2
+	 * @param efConstruction must be at least 1
+	 * @param efSearch must be at least 1
+	 * @param indexFile file to persist the graph to, or null
+	 * @param seed seed for choosing row levels
+	 */
+	public HNSWIndex(int M, int efConstruction, int efSearch, String indexFile, long seed) {
+		if (M < 2 || efConstruction < 1 || efSearch < 1) {
+			throw new IllegalArgumentException("HNSWIndex requires M >= 2, efConstruction >= 1, and efSearch >= 1;");
+		}
+		this.M = M;
+		this.maxM0 = 2*M;
+		this.efConstruction = efConstruction;
+		this.efSearch = efSearch;
+		this.indexFile = indexFile;
+		this.seed = seed;
+		this.levelMultiplier = 1.0d/Math.log(M);
+	}
+
+	/**
+	 * Construct an HNSWIndex with the given parameters.
+	 *
+	 * @param M must be at least 2
+	 * @param efConstruction must be at least 1
+	 * @param efSearch must be at least 1
+	 * @param indexFile file to persist the graph to, or null
+	 */
+	public HNSWIndex(int M, int efConstruction, int efSearch, String indexFile) {
+		this(M, efConstruction, efSearch, indexFile, 42L);
+	}
+
+	/**
+	 * Construct an HNSWIndex with the default parameters, which is not
+	 * persisted.
+	 */
+	public HNSWIndex() {
+		this(HNSWIndex.DEFAULT_M, HNSWIndex.DEFAULT_EF_CONSTRUCTION, HNSWIndex.DEFAULT_EF_SEARCH, null);
+	}
+
+	/**
+	 * Build the graph over the training rows, or load it from the index
+	 * file if one was saved for the same training data.
+	 *
+	 * @see machineLearningClassifiers.KNNClassifier.NeighborIndex#build(machineLearningTools.SparseMatrix, boolean)
+	 */
+	@Override
+	public void build(SparseMatrix training, boolean cosine) {
+		super.build(training, cosine);
+		this.visited = new int[training.rows()];
+		this.visitStamp = 0;
+		if (this.indexFile != null && new File(this.indexFile).isFile() && this.load(this.indexFile)) {
+			return;
+		}
+		this.links = new int[training.rows()][][];
+		this.linkCounts = new int[training.rows()][];
+		this.entryPoint = -1;
+		this.maxLevel = -1;
+		Random random = new Random(this.seed);
+		for (int row = 0; row < training.rows(); row++) {
+			this.insert(row, (int)(-Math.log(1.0d-random.nextDouble())*this.levelMultiplier));
+		}
+		if (this.indexFile != null) {
+			this.save(this.indexFile);
+		}
+	}
+
+	/**
+	 * @see machineLearningClassifiers.KNNClassifier.NeighborIndex#search(machineLearningTools.SparseMatrix, int, int)
+	 */
+	@Override
+	public int[] search(SparseMatrix queries, int query, int K) {
+		if (queries == null) {
+			throw new NullPointerException("HNSWIndex#search received a null parameter: queries!");
+		}
+		if (this.entryPoint < 0) {
+			return new int[0];
+		}
+		int nearest = this.entryPoint;
+		for (int level = this.maxLevel; level > 0; level--) {
+			nearest = this.searchGreedy(queries, query, nearest, level);
+		}
+		int[] result = this.searchLevel(queries, query, nearest, Math.max(this.efSearch, K), 0).toSortedNodes();
+		return (result.length > K) ? Arrays.copyOf(result, K) : result;
+	}
+
+	/**
+	 * Set the size of the candidate list used when searching.
+	 *
+	 * @param efSearch must be at least 1
+	 */
+	public void setEfSearch(int efSearch) {
+		if (efSearch < 1) {
+			throw new IllegalArgumentException("HNSWIndex requires efSearch >= 1;");
+		}
+		this.efSearch = efSearch;
+	}
+
+	// Construction
+
+	/**
+	 * Insert a training row into the graph at the given level.
+	 *
+	 * @param row
+	 * @param level
+	 */
+	private void insert(int row, int level) {
+		this.links[row] = new int[level+1][];
+		this.linkCounts[row] = new int[level+1];
+		for (int i = 0; i <= level; i++) {
+			this.links[row][i] = new int[(i == 0) ? this.maxM0 : this.M];
+		}
+		if (this.entryPoint < 0) {
+			this.entryPoint = row;
+			this.maxLevel = level;
+			return;
+		}
+		int nearest = this.entryPoint;
+		for (int i = this.maxLevel; i > level; i--) {
+			nearest = this.searchGreedy(this.training, row, nearest, i);
+		}
+		NodeHeap candidates;
+		int[] neighbors;
+		for (int i = Math.min(level, this.maxLevel); i >= 0; i--) {
+			candidates = this.searchLevel(this.training, row, nearest, this.efConstruction, i);
+			// Nearest candidates by distance from row
+			NodeHeap sorted = new NodeHeap(candidates.size(), false);
+			for (int node: candidates.getNodes()) {
+				sorted.push(node, this.distance(row, node));
+			}
+			nearest = sorted.peekNode();
+			neighbors = this.selectNeighbors(row, sorted, this.M);
+			System.arraycopy(neighbors, 0, this.links[row][i], 0, neighbors.length);
+			this.linkCounts[row][i] = neighbors.length;
+			for (int neighbor: neighbors) {
+				this.addLink(neighbor, row, i);
+			}
+		}
+		if (level > this.maxLevel) {
+			this.entryPoint = row;
+			this.maxLevel = level;
+		}
+	}
+
+	/**
+	 * Link node to newNeighbor on the given level, pruning the links of
+	 * node with the neighbor selection heuristic if it has too many.
+	 *
+	 * @param node
+	 * @param newNeighbor
+	 * @param level
+	 */
+	private void addLink(int node, int newNeighbor, int level) {
+		int[] nodeLinks = this.links[node][level];
+		int count = this.linkCounts[node][level];
+		if (count < nodeLinks.length) {
+			nodeLinks[count] = newNeighbor;
+			this.linkCounts[node][level]++;
+			return;
+		}
+		NodeHeap sorted = new NodeHeap(count+1, false);
+		for (int i = 0; i < count; i++) {
+			sorted.push(nodeLinks[i], this.distance(node, nodeLinks[i]));
+		}
+		sorted.push(newNeighbor, this.distance(node, newNeighbor));
+		int[] neighbors = this.selectNeighbors(node, sorted, nodeLinks.length);
+		System.arraycopy(neighbors, 0, nodeLinks, 0, neighbors.length);
+		this.linkCounts[node][level] = neighbors.length;
+	}
+
+	/**
+	 * Select up to m neighbors for row from candidates sorted nearest first,
+	 * preferring candidates nearer to row than to any neighbor selected so
+	 * far, which keeps links spread across clusters. Pruned candidates fill
+	 * any remaining links. Empties the candidates heap.
+	 *
+	 * @param row
+	 * @param sorted nearest first heap of candidates and their distances from row
+	 * @param m
+	 * @return selected neighbors
+	 */
+	private int[] selectNeighbors(int row, NodeHeap sorted, int m) {
+		int[] selected = new int[m];
+		int selectedCount = 0;
+		int[] pruned = new int[sorted.size()];
+		int prunedCount = 0;
+		int candidate;
+		double candidateDistance;
+		boolean keep;
+		while (!sorted.isEmpty() && selectedCount < m) {
+			candidateDistance = sorted.peekDistance();
+			candidate = sorted.pop();
+			if (candidate == row) {
+				continue;
+			}
+			keep = true;
+			for (int i = 0; i < selectedCount; i++) {
+				if (this.distance(candidate, selected[i]) < candidateDistance) {
+					keep = false;
+					break;
+				}
+			}
+			if (keep) {
+				selected[selectedCount++] = candidate;
+			}
+			else {
+				pruned[prunedCount++] = candidate;
+			}
+		}
+		for (int i = 0; i < prunedCount && selectedCount < m; i++) {
+			selected[selectedCount++] = pruned[i];
+		}
+		return Arrays.copyOf(selected, selectedCount);
+	}
+
+	// Search
+
+	/**
+	 * Follow links on the given level from start towards the query while
+	 * they lead nearer, returning the nearest row found.
+	 */
+	private int searchGreedy(SparseMatrix queries, int query, int start, int level) {
+		int nearest = start;
+		double nearestDistance = this.distance(queries, query, nearest);
+		double distance;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			int[] nodeLinks = this.links[nearest][level];
+			int count = this.linkCounts[nearest][level];
+			for (int i = 0; i < count; i++) {
+				distance = this.distance(queries, query, nodeLinks[i]);
+				if (distance < nearestDistance) {
+					nearestDistance = distance;
+					nearest = nodeLinks[i];
+					changed = true;
+				}
+			}
+		}
+		return nearest;
+	}
+
+	/**
+	 * Best-first search of the given level from start, returning a
+	 * farthest first heap of the ef nearest rows found.
+	 */
+	private NodeHeap searchLevel(SparseMatrix queries, int query, int start, int ef, int level) {
+		if (this.visitStamp == Integer.MAX_VALUE) {
+			Arrays.fill(this.visited, 0);
+			this.visitStamp = 0;
+		}
+		this.visitStamp++;
+		NodeHeap candidates = new NodeHeap(ef, false);
+		NodeHeap results = new NodeHeap(ef+1, true);
+		double distance = this.distance(queries, query, start);
+		this.visited[start] = this.visitStamp;
+		candidates.push(start, distance);
+		results.push(start, distance);
+		int node;
+		int neighbor;
+		while (!candidates.isEmpty()) {
+			if (candidates.peekDistance() > results.peekDistance() && results.size() >= ef) {
+				break;
+			}
+			node = candidates.pop();
+			int[] nodeLinks = this.links[node][level];
+			int count = this.linkCounts[node][level];
+			for (int i = 0; i < count; i++) {
+				neighbor = nodeLinks[i];
+				if (this.visited[neighbor] == this.visitStamp) {
+					continue;
+				}
+				this.visited[neighbor] = this.visitStamp;
+				distance = this.distance(queries, query, neighbor);
+				if (results.size() < ef || distance < results.peekDistance()) {
+					candidates.push(neighbor, distance);
+					results.push(neighbor, distance);
+					if (results.size() > ef) {
+						results.pop();
+					}
+				}
+			}
+		}
+		return results;
+	}
+
+	// Persistence
+
+	/**
+	 * Fingerprint of the training data, checked when loading a saved graph.
+	 */
+	private long fingerprint() {
+		return this.training.fingerprint();
+	}
+
+	/**
+	 * Save the graph to the given file.
+	 *
+	 * @param fileName
+	 */
+	private void save(String fileName) {
+		try {
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)));
+			output.writeInt(HNSWIndex.MAGIC);
+			output.writeInt(HNSWIndex.VERSION);
+			output.writeInt(this.M);
+			output.writeInt(this.efConstruction);
+			output.writeBoolean(this.cosine);
+			output.writeInt(this.training.rows());
+			output.writeLong(this.fingerprint());
+			output.writeInt(this.entryPoint);
+			output.writeInt(this.maxLevel);
+			for (int row = 0; row < this.training.rows(); row++) {
+				output.writeInt(this.linkCounts[row].length);
+				for (int level = 0; level < this.linkCounts[row].length; level++) {
+					output.writeInt(this.linkCounts[row][level]);
+					for (int i = 0; i < this.linkCounts[row][level]; i++) {
+						output.writeInt(this.links[row][level][i]);
+					}
+				}
+			}
+			output.close();
+		} catch (IOException e) {
+			System.err.println("Failed to write HNSW index file at HNSWIndex#save(fileName). Check your index filename and system setup.");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Load the graph from the given file if it was saved with the same
+	 * parameters, similarity function, and training data.
+	 *
+	 * @param fileName
+	 * @return true iff the graph was loaded
+	 */
+	private boolean load(String fileName) {
+		try {
+			DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+			try {
+				if (input.readInt() != HNSWIndex.MAGIC || input.readInt() != HNSWIndex.VERSION) {
+					System.err.println(String.format("%s is not an HNSW index file; rebuilding.", fileName));
+					return false;
+				}
+				if (input.readInt() != this.M || input.readInt() != this.efConstruction || input.readBoolean() != this.cosine || input.readInt() != this.training.rows() || input.readLong() != this.fingerprint()) {
+					return false; // Saved for other parameters or training data
+				}
+				this.entryPoint = input.readInt();
+				this.maxLevel = input.readInt();
+				this.links = new int[this.training.rows()][][];
+				this.linkCounts = new int[this.training.rows()][];
+				int levels;
+				for (int row = 0; row < this.training.rows(); row++) {
+					levels = input.readInt();
+					this.links[row] = new int[levels][];
+					this.linkCounts[row] = new int[levels];
+					for (int level = 0; level < levels; level++) {
+						this.links[row][level] = new int[(level == 0) ? this.maxM0 : this.M];
+						this.linkCounts[row][level] = input.readInt();
+						for (int i = 0; i < this.linkCounts[row][level]; i++) {
+							this.links[row][level][i] = input.readInt();
+						}
+					}
+				}
+				return true;
+			} finally {
+				input.close();
+			}
+		} catch (IOException e) {
+			System.err.println(String.format("Failed to read HNSW index file %s; rebuilding.", fileName));
+			e.printStackTrace();
+			return false;
+		}
+	}
+}
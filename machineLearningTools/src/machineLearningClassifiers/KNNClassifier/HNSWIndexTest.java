@@ -0,0 +1,147 @@
+package machineLearningClassifiers.KNNClassifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import machineLearningTools.Document;
+import machineLearningTools.Interner;
+import machineLearningTools.RealValuedData;
+import machineLearningTools.SparseMatrix;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class HNSWIndexTest {
+
+	/**
+	 * Exception catcher
+	 */
+	@org.junit.Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	// Parameters
+	private final int documentCount = 600;
+	private final int K = 10;
+	private final double minRecall = 0.9d;
+
+	// Variables
+	private File dataFile;
+	private File indexFile;
+	private SparseMatrix matrix;
+
+	@Before
+	public void setupCorpus() throws IOException {
+		this.dataFile = File.createTempFile("hnsw", ".vectors.txt");
+		this.indexFile = File.createTempFile("hnsw", ".index");
+		this.indexFile.delete();
+		HNSWIndexTest.writeCorpus(this.dataFile, this.documentCount);
+		this.matrix = HNSWIndexTest.readMatrix(this.dataFile);
+	}
+
+	/**
+	 * Write a corpus of documents drawn around a few topics, so
+	 * neighborhoods are meaningful.
+	 *
+	 * @param file
+	 * @param documentCount
+	 * @throws IOException
+	 */
+	static void writeCorpus(final File file, final int documentCount) throws IOException {
+		int topicCount = 12;
+		int featureCount = 300;
+		Random random = new Random(7);
+		FileWriter writer = new FileWriter(file);
+		TreeSet<Integer> features = new TreeSet<Integer>();
+		int topic;
+		for (int i = 0; i < documentCount; i++) {
+			topic = random.nextInt(topicCount);
+			features.clear();
+			while (features.size() < 15) {
+				if (random.nextInt(3) > 0) {
+					features.add((topic*(featureCount/topicCount)) + random.nextInt(featureCount/topicCount));
+				}
+				else {
+					features.add(random.nextInt(featureCount));
+				}
+			}
+			writer.write("topic" + topic);
+			for (int feature: features) {
+				writer.write(" f" + feature + ":" + (1+random.nextInt(4)));
+			}
+			writer.write("\n");
+		}
+		writer.close();
+	}
+
+	/**
+	 * Read a file of documents into a SparseMatrix in document ID order.
+	 *
+	 * @param file
+	 * @return matrix of the documents
+	 */
+	static SparseMatrix readMatrix(final File file) {
+		List<Document> documents = new RealValuedData(file.getPath()).getDocs();
+		Collections.sort(documents);
+		return new SparseMatrix(documents, new Interner(), true);
+	}
+
+	@After
+	public void cleanup() {
+		this.dataFile.delete();
+		this.indexFile.delete();
+	}
+
+	@Test
+	public void testHNSWIndexCosineRecall() {
+		HNSWIndex index = new HNSWIndex(8, 100, 50, null);
+		index.build(this.matrix, true);
+		double recall = index.recall(this.matrix, this.K);
+		assertTrue("recall was " + recall, recall >= this.minRecall);
+	}
+
+	@Test
+	public void testHNSWIndexEuclideanRecall() {
+		HNSWIndex index = new HNSWIndex(8, 100, 50, null);
+		index.build(this.matrix, false);
+		double recall = index.recall(this.matrix, this.K);
+		assertTrue("recall was " + recall, recall >= this.minRecall);
+	}
+
+	@Test
+	public void testHNSWIndexSearchSize() {
+		HNSWIndex index = new HNSWIndex(8, 100, 50, null);
+		index.build(this.matrix, true);
+		assertEquals(this.K, index.search(this.matrix, 0, this.K).length);
+		assertEquals(this.documentCount, index.search(this.matrix, 0, this.documentCount+5).length);
+	}
+
+	@Test
+	public void testHNSWIndexPersistence() {
+		HNSWIndex saved = new HNSWIndex(8, 100, 50, this.indexFile.getPath(), 1L);
+		saved.build(this.matrix, true);
+		assertTrue(this.indexFile.exists());
+		// A different seed would build a different graph, so equal results mean it was loaded
+		HNSWIndex loaded = new HNSWIndex(8, 100, 50, this.indexFile.getPath(), 2L);
+		loaded.build(this.matrix, true);
+		for (int query = 0; query < this.matrix.rows(); query++) {
+			assertArrayEquals(saved.search(this.matrix, query, this.K), loaded.search(this.matrix, query, this.K));
+		}
+	}
+
+	@Test
+	public void testHNSWIndexRejectsInvalidParameters() {
+		this.exception.expect(IllegalArgumentException.class);
+		new HNSWIndex(1, 100, 50, null);
+	}
+}
@@ -1,23 +1,27 @@
 package machineLearningClassifiers.KNNClassifier;
 
-import static machineLearningTools.Util.sortedKeysByValue;
+import static machineLearningTools.Util.topKeysByValue;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 
+import machineLearningTools.BatchCosineSimilarity;
 import machineLearningTools.ConfusionMatrix;
 import machineLearningTools.CosineSimilarity;
 import machineLearningTools.Data;
 import machineLearningTools.Document;
 import machineLearningTools.EuclideanDistance;
+import machineLearningTools.Interner;
 import machineLearningTools.MachineLearningClassifier;
+import machineLearningTools.Metrics;
+import machineLearningTools.SparseMatrix;
 import machineLearningTools.SymmetricMeasure;
+import machineLearningTools.SystemOutputWriter;
 
 /**
  * KNNClassifier
@@ -37,6 +41,9 @@ import machineLearningTools.SymmetricMeasure;
  *      	[2,c,[Cc]osine] Use Cosine similarity as the measure between vectors <br>
  *   	<b>sysOutput:</b> filename to output system output containing
  *   		a sorted list of instances with label to probabilities <br>
+ *   	<b>index:</b> optional NeighborIndex, such as an HNSWIndex or LSHIndex,
+ *   		to find approximate neighbors without comparing to every training
+ *   		document <br>
  * <b>Output:</b> <br>
  * 	<b>stdout:</b> confusion matrices over training and testing data <br>
  * 	<b>Files:</b> <br>
@@ -56,6 +63,13 @@ public class KNNClassifier extends MachineLearningClassifier {
 	private final String sysOutputFile;
 	private HashMap<Document, SymmetricMeasure> distances;
 
+	// Sparse scoring
+	private Interner features;
+	private SparseMatrix trainingMatrix;
+	private BatchCosineSimilarity batchSimilarity;
+	private final NeighborIndex index;
+	private boolean indexBuilt;
+
 	private static final List<String> euclideanOptions = Arrays.asList(new String[]{"1","e","euclidean"});
 	private static final List<String> cosineOptions = Arrays.asList(new String[]{"2","c","cosine"});
 
@@ -69,21 +83,43 @@ public class KNNClassifier extends MachineLearningClassifier {
 	 *      	[2,c,[Cc]osine] Use Cosine similarity as the measure between vectors <br>
  	 *   	<b>sysOutput:</b> filename to output system output containing
  	 *   		a sorted list of instances with label to probabilities <br>
+	 *   	<b>index:</b> NeighborIndex to search for neighbors with, such as
+	 *   		an approximate HNSWIndex or LSHIndex, or null to compare each
+	 *   		document to every training document <br>
 	 *
-	 * @author T.J. Trimble
 	 * @param sysOutputFile
+	 * @param index
 	 */
-	public KNNClassifier(Integer Kvalue, String simFunction, String sysOutputFile, boolean binarized) {
+	public KNNClassifier(Integer Kvalue, String simFunction, String sysOutputFile, boolean binarized, NeighborIndex index) {
 		super(binarized);
 		this.Kvalue = Kvalue;
 		this.sysOutputFile = sysOutputFile;
 		this.simFunction = simFunction.toLowerCase();
+		this.index = index;
 		// Verify similarity function
 		if (!(KNNClassifier.euclideanOptions.contains(simFunction) || KNNClassifier.cosineOptions.contains(simFunction))) {
 			throw new IllegalArgumentException("simFunction parameter of KNNClassifier must be one of {1,E,e,[Ee]uclidean,2,C,e,[Cc]osine}");
 		}
 	}
 
+	/**
+	 * Construct a KNNClassifier object with the given parameters.
+	 *
+	 * <b>Parameters:</b> <br><br>
+	 *   	<b>K:</b> number of neighbors to consider when classifying <br>
+	 *      <b>simFunction:</b><br>
+	 *      	[1,e,[Ee]uclidean] Use Euclidean distance as the measure between vectors <br>
+	 *      	[2,c,[Cc]osine] Use Cosine similarity as the measure between vectors <br>
+ 	 *   	<b>sysOutput:</b> filename to output system output containing
+ 	 *   		a sorted list of instances with label to probabilities <br>
+	 *
+	 * @author T.J. Trimble
+	 * @param sysOutputFile
+	 */
+	public KNNClassifier(Integer Kvalue, String simFunction, String sysOutputFile, boolean binarized) {
+		this(Kvalue, simFunction, sysOutputFile, binarized, null);
+	}
+
 	/**
 	 * Construct a KNNClassifier object with the given parameters.
 	 *
@@ -104,29 +140,226 @@ public class KNNClassifier extends MachineLearningClassifier {
 
 	/**
 	 * Classify each document in the given testingData by majority vote
-	 * of the K most similar documents in the training data.
+	 * of the K most similar documents in the training data. <br><br>
+	 *
+	 * If this classifier was constructed with a NeighborIndex, neighbors
+	 * are found with the index. Otherwise, Cosine similarity is scored for
+	 * all of testingData at once with a BatchCosineSimilarity kernel.
 	 *
 	 * @see machineLearningTools.MachineLearningClassifier#classify(machineLearningTools.Data)
 	 */
 	@Override
 	public void classify(Data testingData) {
+		if (this.index != null) {
+			this.classifyIndexed(testingData);
+			return;
+		}
+		if (KNNClassifier.cosineOptions.contains(this.simFunction)) {
+			this.classifyBatch(testingData);
+			return;
+		}
 		// Initializations
-		List<Document> topK;
-		Integer mapSize = testingData.size();
+		long start;
+		List<Document> documents = testingData.getDocs();
+		Collections.sort(documents);
 		// Classify documents
-		for (Document documentToClassify: testingData.getDocs()) {
-			this.distances = new HashMap<Document, SymmetricMeasure>(mapSize);
-			for (Document documentToCompare: this.trainingData.getDocs()) {
-				if (documentToClassify.getDocID() == documentToCompare.getDocID()) {
+		for (Document documentToClassify: documents) {
+			start = this.metrics.start();
+			documentToClassify.setSysOutput(this.nearest(documentToClassify));
+			this.metrics.stop(Metrics.CLASSIFY, start, documentToClassify.getSysOutput());
+			this.classified(documentToClassify);
+		}
+	}
+
+	/**
+	 * Return the K training documents nearest to the given document,
+	 * nearest first, comparing it to every training document.
+	 *
+	 * @param documentToClassify
+	 * @return the K nearest training documents
+	 */
+	private List<Document> nearest(Document documentToClassify) {
+		this.distances = new HashMap<Document, SymmetricMeasure>(this.trainingData.size());
+		for (Document documentToCompare: this.trainingData.getDocs()) {
+			if (documentToClassify.getDocID() == documentToCompare.getDocID()) {
+				continue; // Don't compare document to itself
+			}
+			// Calculate distances
+			this.distances.put(documentToCompare, this.getDistance(documentToClassify, documentToCompare));
+		}
+		this.metrics.increment(Metrics.DISTANCES, this.distances.size());
+		// Select the K nearest neighbors without sorting all distances
+		return topKeysByValue(this.distances, this.Kvalue);
+	}
+
+	/**
+	 * Return the K training documents nearest to each document of
+	 * testingData in document ID order, nearest first, without
+	 * classifying them. Neighbors are found as by classify(), except
+	 * that a NeighborIndex is not used.
+	 *
+	 * @param testingData
+	 * @return the K nearest training documents of each document
+	 */
+	List<List<Document>> neighbors(Data testingData) {
+		List<Document> documents = testingData.getDocs();
+		Collections.sort(documents);
+		if (KNNClassifier.cosineOptions.contains(this.simFunction)) {
+			return this.nearestBatch(documents);
+		}
+		List<List<Document>> result = new ArrayList<List<Document>>(documents.size());
+		for (Document document: documents) {
+			result.add(this.nearest(document));
+		}
+		return result;
+	}
+
+	/**
+	 * Classify testingData by scoring it against the training data as a
+	 * sparse matrix product, treating both as SparseMatrix objects over
+	 * the training features.
+	 *
+	 * @param testingData
+	 */
+	private void classifyBatch(Data testingData) {
+		long start = this.metrics.start();
+		List<Document> documents = testingData.getDocs();
+		Collections.sort(documents);
+		List<List<Document>> neighbors = this.nearestBatch(documents);
+		// Set system output from the nearest neighbors
+		String[] labels = new String[documents.size()];
+		for (int i = 0; i < documents.size(); i++) {
+			documents.get(i).setSysOutput(neighbors.get(i));
+			this.classified(documents.get(i));
+			labels[i] = documents.get(i).getSysOutput();
+		}
+		// Documents are scored together, so each is timed as an equal share
+		this.metrics.stop(Metrics.CLASSIFY, start, labels);
+	}
+
+	/**
+	 * Return the K training documents most similar to each of the
+	 * given documents, most similar first, scoring them together
+	 * with the BatchCosineSimilarity kernel.
+	 *
+	 * @param documents
+	 * @return the K nearest training documents of each document
+	 */
+	private List<List<Document>> nearestBatch(List<Document> documents) {
+		if (this.batchSimilarity == null) {
+			this.batchSimilarity = new BatchCosineSimilarity(this.getTrainingMatrix());
+		}
+		int[][] neighbors = this.batchSimilarity.nearest(this.getQueryMatrix(documents), this.Kvalue);
+		List<List<Document>> result = new ArrayList<List<Document>>(documents.size());
+		List<Document> topK;
+		for (int i = 0; i < documents.size(); i++) {
+			topK = new ArrayList<Document>(neighbors[i].length);
+			for (int row: neighbors[i]) {
+				topK.add(this.trainingData.getDoc(this.trainingMatrix.getRowID(row)));
+			}
+			result.add(topK);
+		}
+		this.metrics.increment(Metrics.DISTANCES, (long)documents.size()*this.trainingMatrix.rows());
+		return result;
+	}
+
+	/**
+	 * Classify testingData by searching the NeighborIndex for the
+	 * neighbors of each document, building the index on first use.
+	 *
+	 * @param testingData
+	 */
+	private void classifyIndexed(Data testingData) {
+		NeighborIndex index = this.getIndex();
+		List<Document> documents = testingData.getDocs();
+		Collections.sort(documents);
+		SparseMatrix queries = this.getQueryMatrix(documents);
+		List<Document> topK;
+		int docID;
+		long start;
+		long distanceCount = index.getDistanceCount();
+		for (int i = 0; i < documents.size(); i++) {
+			start = this.metrics.start();
+			// Search one extra neighbor in case the document is in the training data
+			topK = new ArrayList<Document>(this.Kvalue);
+			for (int row: index.search(queries, i, this.Kvalue+1)) {
+				docID = this.trainingMatrix.getRowID(row);
+				if (docID == documents.get(i).getDocID()) {
 					continue; // Don't compare document to itself
 				}
-				// Calculate distances
-				this.distances.put(documentToCompare, this.getDistance(documentToClassify, documentToCompare));
+				if (topK.size() < this.Kvalue) {
+					topK.add(this.trainingData.getDoc(docID));
+				}
+			}
+			documents.get(i).setSysOutput(topK);
+			this.metrics.stop(Metrics.CLASSIFY, start, documents.get(i).getSysOutput());
+			this.classified(documents.get(i));
+		}
+		this.metrics.increment(Metrics.DISTANCES, index.getDistanceCount() - distanceCount);
+	}
+
+	/**
+	 * Return the training data as a SparseMatrix, one row per document
+	 * in document ID order, building it on first use. For Cosine
+	 * similarity the rows are normalized, so similarities are dot products.
+	 *
+	 * @return training data as a SparseMatrix
+	 */
+	private SparseMatrix getTrainingMatrix() {
+		if (this.trainingMatrix == null) {
+			List<Document> trainingDocuments = this.trainingData.getDocs();
+			Collections.sort(trainingDocuments);
+			this.trainingData.precomputeMagnitudes();
+			this.features = new Interner();
+			this.trainingMatrix = new SparseMatrix(trainingDocuments, this.features, true);
+			if (KNNClassifier.cosineOptions.contains(this.simFunction)) {
+				this.trainingMatrix = this.trainingMatrix.normalize();
 			}
-			// Sort distances and get K nearest neighbors
-			topK = sortedKeysByValue(this.distances).subList(0, this.Kvalue);
-			documentToClassify.setSysOutput(topK);
 		}
+		return this.trainingMatrix;
+	}
+
+	/**
+	 * Return the given documents as a SparseMatrix over the training
+	 * features, normalized like the training matrix.
+	 *
+	 * @param documents
+	 * @return documents as a SparseMatrix
+	 */
+	private SparseMatrix getQueryMatrix(List<Document> documents) {
+		SparseMatrix queries = new SparseMatrix(documents, this.features, false);
+		return this.trainingMatrix.isNormalized() ? queries.normalize() : queries;
+	}
+
+	/**
+	 * Return the NeighborIndex, building it over the training data
+	 * on first use.
+	 *
+	 * @return the NeighborIndex
+	 */
+	private NeighborIndex getIndex() {
+		if (!this.indexBuilt) {
+			this.index.build(this.getTrainingMatrix(), KNNClassifier.cosineOptions.contains(this.simFunction));
+			this.indexBuilt = true;
+		}
+		return this.index;
+	}
+
+	/**
+	 * Return the fraction of the exact K nearest neighbors of each document
+	 * in testingData that this classifier's NeighborIndex finds.
+	 *
+	 * @param testingData
+	 * @return recall of the NeighborIndex
+	 */
+	public double getIndexRecall(Data testingData) {
+		if (this.index == null) {
+			throw new IllegalStateException("KNNClassifier#getIndexRecall requires a NeighborIndex;");
+		}
+		NeighborIndex index = this.getIndex();
+		List<Document> documents = testingData.getDocs();
+		Collections.sort(documents);
+		return index.recall(this.getQueryMatrix(documents), this.Kvalue);
 	}
 
 	/**
@@ -159,30 +392,26 @@ public class KNNClassifier extends MachineLearningClassifier {
 		if (testResult == null || trainOrTest == null) {
 			throw new NullPointerException();
 		}
+		long start = this.metrics.start();
 		try {
-			BufferedWriter sysOutput = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(this.sysOutputFile), "utf-8"));
-			this.writeSysOutput(testResult, sysOutput);
+			SystemOutputWriter sysOutput = this.openSystemOutput();
+			sysOutput.write(testResult);
 			sysOutput.close();
 		} catch (IOException e) {
 			System.err.println("Failed to write results at KNNClassifier#outputResults(testResult, trainOrTest). Check your system output filename and system setup.");
 			e.printStackTrace();
 		}
+		this.metrics.stop(Metrics.OUTPUT_WRITE, start);
 		// Output confusion matrix to stdout
 		System.out.println(new ConfusionMatrix(testResult, trainOrTest));
 	}
 
 	/**
-	 * Writes the system output for each vector.
-	 *
-	 * @param testResult
-	 * @param sysOutput
-	 * @throws IOException
+	 * @see machineLearningTools.MachineLearningClassifier#openSystemOutput()
 	 */
-	private void writeSysOutput(Data testResult, BufferedWriter sysOutput) throws IOException {
-		if (testResult == null || sysOutput == null) {
-			throw new NullPointerException();
-		}
-		sysOutput.write(testResult.getFormattedSystemOutput());
+	@Override
+	protected SystemOutputWriter openSystemOutput() throws IOException {
+		return new SystemOutputWriter(this.sysOutputFile, false);
 	}
 
 	/**
@@ -193,7 +422,26 @@ public class KNNClassifier extends MachineLearningClassifier {
 	 */
 	@Override
 	public void train(String trainingDataFileName) {
-		this.trainingData = this.getData(trainingDataFileName);
+		this.train(this.getTrainingData(trainingDataFileName));
+	}
+
+	/**
+	 * Because KNNClassifier does not train a model, this
+	 * stores the training data to compare documents to.
+	 *
+	 * @see machineLearningTools.MachineLearningClassifier#train(machineLearningTools.Data)
+	 */
+	@Override
+	public void train(Data trainingData) {
+		if (trainingData == null) {
+			throw new NullPointerException("KNNClassifier#train received a null parameter: trainingData!");
+		}
+		long start = this.metrics.start();
+		this.trainingData = trainingData;
+		this.trainingMatrix = null;
+		this.batchSimilarity = null;
+		this.indexBuilt = false;
+		this.metrics.stop(Metrics.TRAIN, start);
 	}
 
 	/**
@@ -0,0 +1,111 @@
+package machineLearningClassifiers.KNNClassifier;
+
+import static machineLearningTools.Util.maxKeyByValue;
+
+import java.util.HashMap;
+import java.util.List;
+
+import machineLearningTools.ClassifierTuner;
+import machineLearningTools.Data;
+import machineLearningTools.Document;
+
+/**
+ * KNNTuner
+ *
+ * Tunes the K parameter of a KNNClassifier for a HyperparameterSearch.
+ * <br><br>
+ *
+ * The K nearest neighbors of a document are the first K of its K_max
+ * nearest neighbors. So the K_max nearest neighbors of each testing
+ * document are found once per fold, for the largest K of the
+ * configurations, and each configuration takes a majority vote of
+ * the first K, as Document#setSysOutput(topK) does.
+ */
+public class KNNTuner extends ClassifierTuner {
+
+	private static final String[] parameters = new String[]{"K"};
+
+	private final String simFunction;
+	private final int maxK;
+
+	/**
+	 * Construct a KNNTuner over the given configurations of {K},
+	 * with the given similarity function: <br>
+	 * 	[1,e,[Ee]uclidean] Use Euclidean distance as the measure between vectors <br>
+	 * 	[2,c,[Cc]osine] Use Cosine similarity as the measure between vectors <br>
+	 *
+	 * @param configurations
+	 * @param simFunction
+	 */
+	public KNNTuner(final List<double[]> configurations, final String simFunction) {
+		super(KNNTuner.parameters, configurations);
+		if (simFunction == null) {
+			throw new NullPointerException("KNNTuner constructor received a null parameter: simFunction!");
+		}
+		double maxK = 1.0d;
+		for (double[] configuration: configurations) {
+			if (configuration[0] < 1 || configuration[0] != Math.floor(configuration[0])) {
+				throw new IllegalArgumentException("KNNTuner requires integer K of at least 1;");
+			}
+			maxK = Math.max(maxK, configuration[0]);
+		}
+		this.simFunction = simFunction;
+		this.maxK = (int) maxK;
+	}
+
+	/**
+	 * Find the K_max nearest training documents of each
+	 * document of testingData.
+	 *
+	 * @see machineLearningTools.ClassifierTuner#prepare(machineLearningTools.Data, machineLearningTools.Data)
+	 */
+	@Override
+	public Evaluator prepare(final Data trainingData, final Data testingData) {
+		// No system output is written
+		KNNClassifier classifier = new KNNClassifier(this.maxK, this.simFunction, null);
+		classifier.train(trainingData);
+		List<List<Document>> neighbors = classifier.neighbors(testingData);
+		String[][] neighborLabels = new String[neighbors.size()][];
+		for (int i = 0; i < neighborLabels.length; i++) {
+			neighborLabels[i] = new String[neighbors.get(i).size()];
+			for (int j = 0; j < neighborLabels[i].length; j++) {
+				neighborLabels[i][j] = neighbors.get(i).get(j).getLabel();
+			}
+		}
+		return new NeighborEvaluator(neighborLabels);
+	}
+
+	/**
+	 * Labels each testing document by majority vote of the labels
+	 * of its first K neighbors.
+	 */
+	private static class NeighborEvaluator extends Evaluator {
+
+		private final String[][] neighborLabels;
+
+		NeighborEvaluator(final String[][] neighborLabels) {
+			this.neighborLabels = neighborLabels;
+		}
+
+		@Override
+		public String[] classify(final double[] configuration) {
+			String[] result = new String[this.neighborLabels.length];
+			HashMap<String, Double> probabilities;
+			int K;
+			Double toAdd;
+			Double probability;
+			for (int i = 0; i < result.length; i++) {
+				K = Math.min((int) configuration[0], this.neighborLabels[i].length);
+				// Vote as Document#setSysOutput(topK)
+				probabilities = new HashMap<String, Double>();
+				toAdd = 1.0d/K;
+				for (int j = 0; j < K; j++) {
+					probability = probabilities.get(this.neighborLabels[i][j]);
+					probabilities.put(this.neighborLabels[i][j], (probability == null) ? toAdd : probability+toAdd);
+				}
+				result[i] = maxKeyByValue(probabilities);
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package machineLearningClassifiers.KNNClassifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import machineLearningTools.ClassifierTuner;
+import machineLearningTools.CorpusGenerator;
+import machineLearningTools.CrossValidation;
+import machineLearningTools.Data;
+import machineLearningTools.HyperparameterSearch;
+import machineLearningTools.RealValuedData;
+import machineLearningTools.TunerTestCase;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class KNNTunerTest extends TunerTestCase {
+
+	// Parameters
+	private final double[] Kvalues = new double[]{1, 3, 5, 10};
+
+	// Variables
+	private Data data;
+
+	@Override
+	protected CorpusGenerator corpusGenerator() {
+		return new CorpusGenerator(200, 200, 3, 20, 5L);
+	}
+
+	@Before
+	public void setupData() {
+		this.data = new RealValuedData(this.corpusFile.getPath());
+	}
+
+	/**
+	 * Check that the tuner labels each fold as a KNNClassifier
+	 * with each K does.
+	 */
+	private void assertMatchesClassifier(String simFunction) {
+		CrossValidation crossValidation = new CrossValidation(this.data, 3, 7L);
+		KNNTuner tuner = new KNNTuner(HyperparameterSearch.grid(this.Kvalues), simFunction);
+		for (int fold = 0; fold < crossValidation.getFolds(); fold++) {
+			Data testingData = crossValidation.getTestingData(fold);
+			ClassifierTuner.Evaluator evaluator = tuner.prepare(crossValidation.getTrainingData(fold), testingData);
+			for (double[] configuration: tuner.getConfigurations()) {
+				KNNClassifier classifier = new KNNClassifier((int) configuration[0], simFunction, "knn.output.txt");
+				classifier.train(crossValidation.getTrainingData(fold));
+				classifier.classify(testingData);
+				assertArrayEquals(TunerTestCase.sysOutput(testingData), evaluator.classify(configuration));
+			}
+		}
+	}
+
+	@Test
+	public void testKNNTunerMatchesClassifierCosine() {
+		this.assertMatchesClassifier("cosine");
+	}
+
+	@Test
+	public void testKNNTunerMatchesClassifierEuclidean() {
+		this.assertMatchesClassifier("euclidean");
+	}
+
+	@Test
+	public void testKNNTunerSearch() {
+		KNNTuner tuner = new KNNTuner(HyperparameterSearch.grid(this.Kvalues), "cosine");
+		HyperparameterSearch search = new HyperparameterSearch(new CrossValidation(this.data, 3, 7L));
+		assertEquals(search.run(tuner, 1).toString(), search.run(tuner, 4).toString());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testKNNTunerFractionalKThrows() {
+		new KNNTuner(HyperparameterSearch.grid(new double[]{1.5}), "cosine");
+	}
+}
@@ -0,0 +1,340 @@
+package machineLearningClassifiers.KNNClassifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import machineLearningTools.SparseMatrix;
+
+/**
+ * LSHIndex
+ *
+ * Approximate nearest neighbor index over the training documents of a
+ * KNNClassifier using locality-sensitive hashing. <br><br>
+ *
+ * Each of the hash tables keys a row by hashesPerTable random projections
+ * of it. For Cosine similarity the key is the sign of each projection
+ * onto a Gaussian random hyperplane (SimHash). For Euclidean distance,
+ * which in this package is the sum of absolute differences, the key is
+ * floor((projection + offset)/bucketWidth) of each projection onto a
+ * Cauchy random vector, which is 1-stable and so preserves that distance.
+ * <br><br>
+ *
+ * A search collects the training rows sharing a bucket with the query in
+ * any table and ranks them with the exact measure. If fewer than K rows
+ * are collected, every training row is ranked, so a search always returns
+ * K rows when the training data has them. <br><br>
+ *
+ * Projections are generated per feature from the seed, so new features
+ * need no rebuild. Building over a training matrix that starts with the
+ * rows already indexed, such as one loaded from a training file that has
+ * been appended to, only hashes the new rows. <br><br>
+ *
+ * <b>Parameters:</b> <br><br>
+ * 	<b>tables:</b> number of hash tables; more tables trade memory and
+ * 		speed for recall <br>
+ * 	<b>hashesPerTable:</b> number of projections per key; more projections
+ * 		give smaller buckets. At most 64 for Cosine similarity <br>
+ * 	<b>bucketWidth:</b> width of each bucket along a projection for
+ * 		Euclidean distance, or 0 to estimate it from the training data <br><br>
+ *
+ * LSHIndex is not synchronized, and searches share scratch space, so
+ * an index should only be searched from one thread at a time.
+ */
+public class LSHIndex extends NeighborIndex {
+
+	public static final int DEFAULT_TABLES = 16;
+	public static final int DEFAULT_HASHES_PER_TABLE = 6;
+
+	// Number of row pairs sampled to estimate the bucket width, and the
+	// multiple of their mean distance to use as the width
+	private static final int WIDTH_SAMPLE_SIZE = 200;
+	private static final double WIDTH_SCALE = 4.0d;
+
+	// Parameters
+	private final int tables;
+	private final int hashesPerTable;
+	private final double initialBucketWidth;
+	private final long seed;
+
+	// Projections: projections[column*hashes + hash], generated as columns appear
+	private float[] projections;
+	private float[] offsets;
+	private int projectedColumns;
+	private double bucketWidth;
+
+	// Tables: bucket key to rows
+	private ArrayList<HashMap<Long, Bucket>> buckets;
+	private int indexedRows;
+
+	// Search scratch
+	private double[] projected;
+	private int[] visited;
+	private int visitStamp;
+
+	/**
+	 * Construct an LSHIndex with the given parameters.
+	 *
+	 * @param tables must be at least 1
+	 * @param hashesPerTable must be between 1 and 64
+	 * @param bucketWidth must be positive, or 0 to estimate it
+	 * @param seed seed for generating projections
+	 */
+	public LSHIndex(final int tables, final int hashesPerTable, final double bucketWidth, final long seed) {
+		if (tables < 1 || hashesPerTable < 1 || hashesPerTable > 64 || bucketWidth < 0) {
+			throw new IllegalArgumentException("LSHIndex requires tables >= 1, 1 <= hashesPerTable <= 64, and bucketWidth >= 0;");
+		}
+		this.tables = tables;
+		this.hashesPerTable = hashesPerTable;
+		this.initialBucketWidth = bucketWidth;
+		this.seed = seed;
+	}
+
+	/**
+	 * Construct an LSHIndex with the given parameters.
+	 *
+	 * @param tables must be at least 1
+	 * @param hashesPerTable must be between 1 and 64
+	 */
+	public LSHIndex(final int tables, final int hashesPerTable) {
+		this(tables, hashesPerTable, 0.0d, 42L);
+	}
+
+	/**
+	 * Construct an LSHIndex with the default parameters.
+	 */
+	public LSHIndex() {
+		this(LSHIndex.DEFAULT_TABLES, LSHIndex.DEFAULT_HASHES_PER_TABLE);
+	}
+
+	/**
+	 * Hash the training rows into the tables. If the training matrix
+	 * starts with the rows already indexed, with the same measure, only
+	 * the rows after them are hashed.
+	 *
+	 * @see machineLearningClassifiers.KNNClassifier.NeighborIndex#build(machineLearningTools.SparseMatrix, boolean)
+	 */
+	@Override
+	public void build(final SparseMatrix training, final boolean cosine) {
+		boolean extend = this.training != null && this.cosine == cosine && training.startsWith(this.training, this.indexedRows);
+		super.build(training, cosine);
+		if (!extend) {
+			this.buckets = new ArrayList<HashMap<Long, Bucket>>(this.tables);
+			for (int table = 0; table < this.tables; table++) {
+				this.buckets.add(new HashMap<Long, Bucket>());
+			}
+			this.indexedRows = 0;
+			this.projectedColumns = 0;
+			this.projections = new float[0];
+			this.bucketWidth = (cosine || this.initialBucketWidth > 0) ? this.initialBucketWidth : this.estimateBucketWidth(training);
+			this.generateOffsets();
+		}
+		this.project(training.columns());
+		this.visited = new int[training.rows()];
+		this.visitStamp = 0;
+		long[] keys = new long[this.tables];
+		for (int row = this.indexedRows; row < training.rows(); row++) {
+			this.hash(training, row, keys);
+			for (int table = 0; table < this.tables; table++) {
+				Bucket bucket = this.buckets.get(table).get(keys[table]);
+				if (bucket == null) {
+					bucket = new Bucket();
+					this.buckets.get(table).put(keys[table], bucket);
+				}
+				bucket.add(row);
+			}
+		}
+		this.indexedRows = training.rows();
+	}
+
+	/**
+	 * @see machineLearningClassifiers.KNNClassifier.NeighborIndex#search(machineLearningTools.SparseMatrix, int, int)
+	 */
+	@Override
+	public int[] search(final SparseMatrix queries, final int query, final int K) {
+		if (queries == null) {
+			throw new NullPointerException("LSHIndex#search received a null parameter: queries!");
+		}
+		this.project(queries.columns());
+		if (this.visitStamp == Integer.MAX_VALUE) {
+			Arrays.fill(this.visited, 0);
+			this.visitStamp = 0;
+		}
+		this.visitStamp++;
+		long[] keys = new long[this.tables];
+		this.hash(queries, query, keys);
+		NodeHeap nearest = new NodeHeap(K, true);
+		int candidates = 0;
+		Bucket bucket;
+		int row;
+		for (int table = 0; table < this.tables; table++) {
+			bucket = this.buckets.get(table).get(keys[table]);
+			if (bucket == null) {
+				continue;
+			}
+			for (int i = 0; i < bucket.size; i++) {
+				row = bucket.rows[i];
+				if (this.visited[row] != this.visitStamp) {
+					this.visited[row] = this.visitStamp;
+					nearest.offerBounded(row, this.distance(queries, query, row), K);
+					candidates++;
+				}
+			}
+		}
+		if (candidates < K) {
+			// Too few candidates to fill K, so rank the remaining rows
+			for (row = 0; row < this.training.rows(); row++) {
+				if (this.visited[row] != this.visitStamp) {
+					nearest.offerBounded(row, this.distance(queries, query, row), K);
+				}
+			}
+		}
+		return nearest.toSortedNodes();
+	}
+
+	/**
+	 * Return the bucket width used for Euclidean distance, which is
+	 * estimated from the training data unless one was given.
+	 *
+	 * @return bucket width
+	 */
+	public double getBucketWidth() {
+		return this.bucketWidth;
+	}
+
+	/**
+	 * Compute the key of a row in each table.
+	 *
+	 * @param matrix
+	 * @param row
+	 * @param keys one per table
+	 */
+	private void hash(final SparseMatrix matrix, final int row, final long[] keys) {
+		int hashes = this.tables*this.hashesPerTable;
+		if (this.projected == null || this.projected.length < hashes) {
+			this.projected = new double[hashes];
+		}
+		matrix.multiply(row, this.projections, hashes, this.projected);
+		long key;
+		int hash;
+		for (int table = 0; table < this.tables; table++) {
+			key = 0L;
+			for (int i = 0; i < this.hashesPerTable; i++) {
+				hash = table*this.hashesPerTable + i;
+				if (this.cosine) {
+					key = (key << 1) | ((this.projected[hash] >= 0) ? 1L : 0L);
+				}
+				else {
+					key = LSHIndex.mix(key + (long)Math.floor((this.projected[hash] + this.offsets[hash])/this.bucketWidth));
+				}
+			}
+			keys[table] = key;
+		}
+	}
+
+	/**
+	 * Generate the projections of every column up to the given number
+	 * of columns, keeping those already generated.
+	 *
+	 * @param columns
+	 */
+	private void project(final int columns) {
+		if (columns <= this.projectedColumns) {
+			return;
+		}
+		int hashes = this.tables*this.hashesPerTable;
+		this.projections = Arrays.copyOf(this.projections, columns*hashes);
+		long random;
+		double uniform;
+		for (int column = this.projectedColumns; column < columns; column++) {
+			for (int hash = 0; hash < hashes; hash++) {
+				random = LSHIndex.mix(this.seed ^ LSHIndex.mix(((long)column << 32) | hash));
+				// Uniform in (0, 1) from the top 53 bits
+				uniform = ((random >>> 11) + 0.5d)/(1L << 53);
+				if (this.cosine) {
+					// Gaussian by inverting its CDF
+					this.projections[column*hashes + hash] = (float)(LSHIndex.inverseNormal(uniform));
+				}
+				else {
+					// Cauchy by inverting its CDF
+					this.projections[column*hashes + hash] = (float)Math.tan(Math.PI*(uniform - 0.5d));
+				}
+			}
+		}
+		this.projectedColumns = columns;
+	}
+
+	/**
+	 * Generate the offset of each Euclidean projection, uniform in
+	 * [0, bucketWidth).
+	 */
+	private void generateOffsets() {
+		Random random = new Random(this.seed);
+		this.offsets = new float[this.tables*this.hashesPerTable];
+		for (int hash = 0; hash < this.offsets.length; hash++) {
+			this.offsets[hash] = (float)(random.nextFloat()*this.bucketWidth);
+		}
+	}
+
+	/**
+	 * Estimate a bucket width as a multiple of the mean distance between
+	 * sampled pairs of training rows.
+	 *
+	 * @param training
+	 * @return bucket width
+	 */
+	private double estimateBucketWidth(final SparseMatrix training) {
+		double width = 1.0d;
+		if (training.rows() > 1) {
+			Random random = new Random(this.seed);
+			double sum = 0.0d;
+			for (int i = 0; i < LSHIndex.WIDTH_SAMPLE_SIZE; i++) {
+				sum += training.euclideanDistance(random.nextInt(training.rows()), training, random.nextInt(training.rows()));
+			}
+			width = Math.max(LSHIndex.WIDTH_SCALE*sum/LSHIndex.WIDTH_SAMPLE_SIZE, Double.MIN_NORMAL);
+		}
+		return width;
+	}
+
+	/**
+	 * Approximate the inverse of the standard normal CDF
+	 * (Abramowitz and Stegun 26.2.23, error below 4.5e-4).
+	 *
+	 * @param p in (0, 1)
+	 * @return x such that P(Z < x) = p
+	 */
+	private static double inverseNormal(final double p) {
+		double q = (p < 0.5d) ? p : 1.0d - p;
+		double t = Math.sqrt(-2.0d*Math.log(q));
+		double x = t - ((2.515517d + (0.802853d*t) + (0.010328d*t*t))/(1.0d + (1.432788d*t) + (0.189269d*t*t) + (0.001308d*t*t*t)));
+		return (p < 0.5d) ? -x : x;
+	}
+
+	/**
+	 * Mix the bits of a long (the SplitMix64 finalizer).
+	 *
+	 * @param value
+	 * @return mixed value
+	 */
+	private static long mix(long value) {
+		value = (value ^ (value >>> 30))*0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27))*0x94d049bb133111ebL;
+		return value ^ (value >>> 31);
+	}
+
+	/**
+	 * Growable list of the rows in a bucket.
+	 */
+	private static class Bucket {
+		int[] rows = new int[2];
+		int size;
+
+		void add(final int row) {
+			if (this.size == this.rows.length) {
+				this.rows = Arrays.copyOf(this.rows, this.size*2);
+			}
+			this.rows[this.size++] = row;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package machineLearningClassifiers.KNNClassifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import machineLearningTools.SparseMatrix;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class LSHIndexTest {
+
+	/**
+	 * Exception catcher
+	 */
+	@org.junit.Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	// Parameters
+	private final int documentCount = 600;
+	private final int firstDocumentCount = 400;
+	private final int K = 10;
+	private final double minRecall = 0.9d;
+
+	// Variables
+	private File dataFile;
+	private File firstDataFile;
+	private SparseMatrix matrix;
+	private SparseMatrix firstMatrix;
+
+	@Before
+	public void setupCorpus() throws IOException {
+		// The first file holds the start of the full file, as if it were appended to later
+		this.dataFile = File.createTempFile("lsh", ".vectors.txt");
+		this.firstDataFile = File.createTempFile("lsh", ".first.vectors.txt");
+		HNSWIndexTest.writeCorpus(this.dataFile, this.documentCount);
+		HNSWIndexTest.writeCorpus(this.firstDataFile, this.firstDocumentCount);
+		this.matrix = HNSWIndexTest.readMatrix(this.dataFile);
+		this.firstMatrix = HNSWIndexTest.readMatrix(this.firstDataFile);
+	}
+
+	@After
+	public void cleanup() {
+		this.dataFile.delete();
+		this.firstDataFile.delete();
+	}
+
+	@Test
+	public void testLSHIndexCosineRecall() {
+		LSHIndex index = new LSHIndex(20, 4);
+		index.build(this.matrix, true);
+		double recall = index.recall(this.matrix, this.K);
+		assertTrue("recall was " + recall, recall >= this.minRecall);
+	}
+
+	@Test
+	public void testLSHIndexEuclideanRecall() {
+		LSHIndex index = new LSHIndex(20, 5);
+		index.build(this.matrix, false);
+		assertTrue(index.getBucketWidth() > 0);
+		double recall = index.recall(this.matrix, this.K);
+		assertTrue("recall was " + recall, recall >= this.minRecall);
+	}
+
+	@Test
+	public void testLSHIndexSearchSize() {
+		LSHIndex index = new LSHIndex(2, 16);
+		index.build(this.matrix, true);
+		assertEquals(this.K, index.search(this.matrix, 0, this.K).length);
+		assertEquals(this.documentCount, index.search(this.matrix, 0, this.documentCount+5).length);
+	}
+
+	@Test
+	public void testLSHIndexExtendMatchesBuild() {
+		assertTrue(this.matrix.startsWith(this.firstMatrix, this.firstDocumentCount));
+		for (boolean cosine: new boolean[]{true, false}) {
+			LSHIndex extended = new LSHIndex(10, 6, 8.0d, 3L);
+			extended.build(this.firstMatrix, cosine);
+			extended.build(this.matrix, cosine);
+			LSHIndex built = new LSHIndex(10, 6, 8.0d, 3L);
+			built.build(this.matrix, cosine);
+			for (int query = 0; query < this.matrix.rows(); query++) {
+				assertArrayEquals(built.search(this.matrix, query, this.K), extended.search(this.matrix, query, this.K));
+			}
+		}
+	}
+
+	@Test
+	public void testLSHIndexRejectsInvalidParameters() {
+		this.exception.expect(IllegalArgumentException.class);
+		new LSHIndex(4, 65);
+	}
+}
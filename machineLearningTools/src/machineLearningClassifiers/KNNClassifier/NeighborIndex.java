@@ -0,0 +1,120 @@
+package machineLearningClassifiers.KNNClassifier;
+
+import machineLearningTools.SparseMatrix;
+
+/**
+ * NeighborIndex
+ *
+ * An index over the training documents of a KNNClassifier for finding
+ * the nearest training rows to a query. Subclasses build the index in
+ * build() and answer queries in search(). <br><br>
+ *
+ * Distances are measured with the KNNClassifier similarity function:
+ * the sum of absolute differences for Euclidean distance, and
+ * 1 - similarity for Cosine similarity, so smaller is always nearer.
+ */
+public abstract class NeighborIndex {
+
+	protected SparseMatrix training;
+	protected boolean cosine;
+
+	// Number of distances computed between a query and a training row
+	private long distanceCount;
+
+	/**
+	 * Build the index over the rows of the training matrix.
+	 *
+	 * @param training
+	 * @param cosine true to use Cosine similarity, false to use Euclidean distance
+	 */
+	public void build(SparseMatrix training, boolean cosine) {
+		if (training == null) {
+			throw new NullPointerException("NeighborIndex#build received a null parameter: training!");
+		}
+		this.training = training;
+		this.cosine = cosine;
+	}
+
+	/**
+	 * Return up to K training rows nearest to the given row of the
+	 * queries matrix, nearest first. The queries matrix must be built
+	 * with the training features Interner.
+	 *
+	 * @param queries
+	 * @param query row of queries to search for
+	 * @param K
+	 * @return training rows nearest to the query
+	 */
+	public abstract int[] search(SparseMatrix queries, int query, int K);
+
+	/**
+	 * Return the distance from the given query row to the given training row.
+	 *
+	 * @param queries
+	 * @param query
+	 * @param row
+	 * @return distance from query to row
+	 */
+	protected double distance(SparseMatrix queries, int query, int row) {
+		this.distanceCount++;
+		if (this.cosine) {
+			return 1.0d - queries.cosineSimilarity(query, this.training, row);
+		}
+		return queries.euclideanDistance(query, this.training, row);
+	}
+
+	/**
+	 * Return the distance between two training rows.
+	 *
+	 * @param row1
+	 * @param row2
+	 * @return distance between the rows
+	 */
+	protected double distance(int row1, int row2) {
+		return this.distance(this.training, row1, row2);
+	}
+
+	/**
+	 * Return the number of distances this index has computed, in
+	 * building and in searching.
+	 *
+	 * @return number of distances computed
+	 */
+	public long getDistanceCount() {
+		return this.distanceCount;
+	}
+
+	/**
+	 * Return the fraction of the K exact nearest training rows to each
+	 * query that this index also returns.
+	 *
+	 * @param queries
+	 * @param K
+	 * @return recall of this index against an ExactIndex
+	 */
+	public double recall(SparseMatrix queries, int K) {
+		if (this.training == null) {
+			throw new IllegalStateException("NeighborIndex#recall called before build();");
+		}
+		ExactIndex exact = new ExactIndex();
+		exact.build(this.training, this.cosine);
+		int found = 0;
+		int total = 0;
+		int[] expected;
+		int[] actual;
+		for (int query = 0; query < queries.rows(); query++) {
+			expected = exact.search(queries, query, K);
+			actual = this.search(queries, query, K);
+			for (int row: expected) {
+				for (int other: actual) {
+					if (row == other) {
+						found++;
+						break;
+					}
+				}
+			}
+			total += expected.length;
+		}
+		return (total == 0) ? 1.0d : found/(double)total;
+	}
+}
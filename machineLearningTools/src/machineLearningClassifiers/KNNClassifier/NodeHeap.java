@@ -0,0 +1,168 @@
+package machineLearningClassifiers.KNNClassifier;
+
+import java.util.Arrays;
+
+/**
+ * NodeHeap
+ *
+ * Binary heap of (node, distance) pairs stored in primitive arrays.
+ * The heap is ordered either farthest first or nearest first, with
+ * ties between equal distances broken by node. Grows as needed.
+ */
+class NodeHeap {
+
+	private int[] nodes;
+	private double[] distances;
+	private int size;
+	private final boolean farthestFirst;
+
+	/**
+	 * @param capacity initial capacity
+	 * @param farthestFirst true to keep the farthest node on top,
+	 * 	false to keep the nearest node on top
+	 */
+	NodeHeap(int capacity, boolean farthestFirst) {
+		this.nodes = new int[Math.max(capacity, 1)];
+		this.distances = new double[Math.max(capacity, 1)];
+		this.farthestFirst = farthestFirst;
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	int peekNode() {
+		return this.nodes[0];
+	}
+
+	double peekDistance() {
+		return this.distances[0];
+	}
+
+	void clear() {
+		this.size = 0;
+	}
+
+	void push(int node, double distance) {
+		if (this.size == this.nodes.length) {
+			this.nodes = Arrays.copyOf(this.nodes, this.size*2);
+			this.distances = Arrays.copyOf(this.distances, this.size*2);
+		}
+		this.nodes[this.size] = node;
+		this.distances[this.size] = distance;
+		this.siftUp(this.size++);
+	}
+
+	/**
+	 * Remove the top of the heap and return its node.
+	 *
+	 * @return node on top of the heap
+	 */
+	int pop() {
+		int node = this.nodes[0];
+		this.size--;
+		this.nodes[0] = this.nodes[this.size];
+		this.distances[0] = this.distances[this.size];
+		this.siftDown(0);
+		return node;
+	}
+
+	/**
+	 * For farthest first heaps, push the node and drop the farthest
+	 * nodes so at most bound nodes are kept.
+	 *
+	 * @param node
+	 * @param distance
+	 * @param bound
+	 */
+	void offerBounded(int node, double distance, int bound) {
+		if (this.size < bound) {
+			this.push(node, distance);
+		}
+		else if (this.isAbove(this.nodes[0], this.distances[0], node, distance)) {
+			this.nodes[0] = node;
+			this.distances[0] = distance;
+			this.siftDown(0);
+		}
+	}
+
+	/**
+	 * Empty the heap, returning its nodes nearest first.
+	 *
+	 * @return nodes nearest first
+	 */
+	int[] toSortedNodes() {
+		int[] result = new int[this.size];
+		if (this.farthestFirst) {
+			for (int i = result.length-1; i >= 0; i--) {
+				result[i] = this.pop();
+			}
+		}
+		else {
+			for (int i = 0; i < result.length; i++) {
+				result[i] = this.pop();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return a copy of the nodes in the heap, in heap order.
+	 *
+	 * @return nodes in the heap
+	 */
+	int[] getNodes() {
+		return Arrays.copyOf(this.nodes, this.size);
+	}
+
+	/**
+	 * Return true iff node1 belongs above node2 in the heap. For farthest
+	 * first heaps, this is true if node1 is farther; for nearest first
+	 * heaps, if node1 is nearer.
+	 */
+	private boolean isAbove(int node1, double distance1, int node2, double distance2) {
+		if (distance1 == distance2) {
+			return this.farthestFirst ? node1 > node2 : node1 < node2;
+		}
+		return this.farthestFirst ? distance1 > distance2 : distance1 < distance2;
+	}
+
+	private void siftUp(int i) {
+		int parent;
+		while (i > 0) {
+			parent = (i-1)/2;
+			if (!this.isAbove(this.nodes[i], this.distances[i], this.nodes[parent], this.distances[parent])) {
+				break;
+			}
+			this.swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void siftDown(int i) {
+		int child;
+		while ((child = (2*i)+1) < this.size) {
+			if (child+1 < this.size && this.isAbove(this.nodes[child+1], this.distances[child+1], this.nodes[child], this.distances[child])) {
+				child++;
+			}
+			if (!this.isAbove(this.nodes[child], this.distances[child], this.nodes[i], this.distances[i])) {
+				break;
+			}
+			this.swap(i, child);
+			i = child;
+		}
+	}
+
+	private void swap(int i, int j) {
+		int node = this.nodes[i];
+		double distance = this.distances[i];
+		this.nodes[i] = this.nodes[j];
+		this.distances[i] = this.distances[j];
+		this.nodes[j] = node;
+		this.distances[j] = distance;
+	}
+}
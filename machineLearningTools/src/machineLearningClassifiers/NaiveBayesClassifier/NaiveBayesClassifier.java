@@ -5,6 +5,8 @@ import java.io.BufferedWriter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 
@@ -12,9 +14,15 @@ import machineLearningTools.ConfusionMatrix;
 import machineLearningTools.Counter;
 import machineLearningTools.Data;
 import machineLearningTools.Document;
+import machineLearningTools.FeatureHasher;
+import machineLearningTools.FrozenCounter;
+import machineLearningTools.FrozenNestedCounter;
+import machineLearningTools.Interner;
 import machineLearningTools.MachineLearningClassifier;
+import machineLearningTools.Metrics;
 import machineLearningTools.NestedCounter;
 import machineLearningTools.NestedDictionary;
+import machineLearningTools.SystemOutputWriter;
 
 /**
  * NaiveBayesClassifier
@@ -69,10 +77,10 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 	private HashSet<String> allFeatures;
 
 	// Method values
-	private Counter<String> classCounts;
-	private NestedCounter<String> featPerClassCounts;
+	private FrozenCounter<String> classCounts;
+	private FrozenNestedCounter<String> featPerClassCounts;
 	private NestedDictionary<String, Integer> featuresPerClass;
-	private Counter<String> featureCountPerClass;
+	private FrozenCounter<String> featureCountPerClass;
 	private HashMap<String, Double> logReciprocalFeatToClassProbs;
 	private Double probability;
 	private HashMap<String, Double> logProbDenominators;
@@ -114,7 +122,24 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 	}
 
 	/**
-	 * train(trainingDataFileName) calculates the P(C) and P(F|C) for
+	 * Set the FeatureHasher of all data this classifier loads, as
+	 * MachineLearningClassifier#setFeatureHasher(FeatureHasher) does.
+	 * The hasher must not be signed: signed counts of colliding features
+	 * may sum to a negative count, whose log probability is NaN.
+	 *
+	 * @param hasher unsigned FeatureHasher, or null to keep features
+	 * @throws IllegalArgumentException if hasher is signed
+	 */
+	@Override
+	public void setFeatureHasher(final FeatureHasher hasher) {
+		if (hasher != null && hasher.isSigned()) {
+			throw new IllegalArgumentException("NaiveBayesClassifier#setFeatureHasher requires an unsigned FeatureHasher, as counts may not be negative;");
+		}
+		super.setFeatureHasher(hasher);
+	}
+
+	/**
+	 * train(trainingData) calculates the P(C) and P(F|C) for
 	 * each class C, feature F, and document D. Probabilities are
 	 * specified in real number form and in log base 10. <br><br>
 	 *
@@ -127,12 +152,14 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 	 * In the multinomial case, P(F.t|C.i) is calculated in the following fashion:<br>
 	 * <b>P(F.t|C.i) = (condDelta + SUM.j(N.jt*P(C.i|D.j)))/((condDelta*count(V)) + SUM.k->V(SUM.l->D(N.kl*P(C.i|D.j))))</b><br>
 	 *
-	 * @param trainingDataFileName
+	 * The model file is not written; see train(trainingDataFileName).
+	 *
+	 * @param trainingData
 	 */
 	@Override
-	public void train(String trainingDataFileName) {
-		if (trainingDataFileName == null) {
-			throw new NullPointerException("parameter trainingDataFileName is null at NaiveBayesClassifier#train(trainingDataFileName);");
+	public void train(Data trainingData) {
+		if (trainingData == null) {
+			throw new NullPointerException("parameter trainingData is null at NaiveBayesClassifier#train(trainingData);");
 		}
 		//// Constants:
 		// count(C): number of classes
@@ -160,17 +187,18 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 		//	 This means, only calculate probability for the labeled class
 
 		//// Initializations
-		this.trainingData = this.getData(trainingDataFileName);
+		long start = this.metrics.start();
+		this.trainingData = trainingData;
 		final Integer docCount = this.trainingData.size();
 
 		this.classProbs = new HashMap<String, Double>(); // P(C)
 		this.featLogProbs = new NestedDictionary<String, Double>(); // P(F|C)
 
-		this.classCounts = new Counter<String>(); // Total number of documents with a given label; label->docCount
-		this.featureCountPerClass = new Counter<String>(); // Count of features in documents per class; label->featCount;
+		Counter<String> classCounts = new Counter<String>(); // Total number of documents with a given label; label->docCount
+		Counter<String> featureCountPerClass = new Counter<String>(); // Count of features in documents per class; label->featCount;
 		// TODO: featureCountPerClass could be calculated by summing the values of each of the inner Counters per outer key; f2(class->feature->count) = class->count
 
-		this.featPerClassCounts = new NestedCounter<String>(); // Count of documents (binary-valued feature counts) that have a given feature per class; class->feature->count
+		NestedCounter<String> featPerClassCounts = new NestedCounter<String>(); // Count of documents (binary-valued feature counts) that have a given feature per class; class->feature->count
 		this.featuresPerClass = new NestedDictionary<String, Integer>(); // Real-valued count of times feature occurs in documents per class; class->feature->count;
 
 		if (this.useBinarizedFeatures) {
@@ -182,9 +210,9 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 		Integer newCount;
 		this.allFeatures = new HashSet<String>();
 		for (Document document: this.trainingData.getDocs()) {
-			this.classCounts.increment(document.getLabel());
+			classCounts.increment(document.getLabel());
 			for (String feature: document.getWords()) {
-				this.featPerClassCounts.increment(document.getLabel(), feature);
+				featPerClassCounts.increment(document.getLabel(), feature);
 				// Add value to featurePerClass
 				if (this.featuresPerClass.hasValueAt(document.getLabel(), feature)) {
 					newCount = (this.featuresPerClass.get(document.getLabel(), feature)+document.getFeatCount(feature));
@@ -193,16 +221,20 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 				else {
 					this.featuresPerClass.put(document.getLabel(), feature, document.getFeatCount(feature));
 				}
-				this.featureCountPerClass.increment(document.getLabel());
+				featureCountPerClass.increment(document.getLabel());
 				this.allFeatures.add(feature);
 			}
 		}
+		// Counts are only read from here on, e.g. for every label and feature
+		this.classCounts = classCounts.freeze();
+		this.featureCountPerClass = featureCountPerClass.freeze();
+		this.featPerClassCounts = featPerClassCounts.freeze();
 
 		//// Constants
 		// Calculate denominator values
 		Double classDenominator = Math.log10((this.classDelta*this.classCounts.size()) + docCount);
 		// denominatorCounter is either the feature counts per class or the total class counts
-		Counter<String> denominatorCounter = (this.useBinarizedFeatures) ? this.classCounts : this.featureCountPerClass;
+		FrozenCounter<String> denominatorCounter = (this.useBinarizedFeatures) ? this.classCounts : this.featureCountPerClass;
 		this.logProbDenominators = new HashMap<String, Double>();
 		this.probDenominators = new HashMap<String, Double>();
 		for (String label: this.trainingData.getAllLabels()) {
@@ -231,6 +263,21 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 			}
 		}
 
+		this.metrics.stop(Metrics.TRAIN, start);
+	}
+
+	/**
+	 * Load the training data, train the model as in train(trainingData),
+	 * and write the model file.
+	 *
+	 * @param trainingDataFileName
+	 */
+	@Override
+	public void train(String trainingDataFileName) {
+		if (trainingDataFileName == null) {
+			throw new NullPointerException("parameter trainingDataFileName is null at NaiveBayesClassifier#train(trainingDataFileName);");
+		}
+		this.train(this.getTrainingData(trainingDataFileName));
 		// Create model file
 		this.writeModelFile(this.modelFile);
 	}
@@ -365,7 +412,8 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 		if (testingData == null) {
 			throw new NullPointerException("testingData is null at NaiveBayesClassifier#classify(testingData);");
 		}
-		HashMap<String, Double> probabilities;
+		Interner labels = this.trainingData.getLabels();
+		double[] probabilities;
 		// Calculate constants
 		if (this.useBinarizedFeatures) {
 			// Calculate SUM.k(log(1 - P(w.k|c.j)))
@@ -380,15 +428,26 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 			}
 		}
 		// Classify documents
-		for (Document document: testingData.getDocs()) {
+		long start;
+		long lookups = 0L;
+		int labelCount = labels.size();
+		ArrayList<Document> documents = testingData.getDocs();
+		Collections.sort(documents);
+		for (Document document: documents) {
+			start = this.metrics.start();
 			if (this.useBinarizedFeatures) {
-				probabilities = this.classifyBinary(document);
+				probabilities = this.classifyBinary(document, labels);
+				lookups += 2L*labelCount*document.size();
 			}
 			else {
-				probabilities = this.classifyReal(document);
+				probabilities = this.classifyReal(document, labels);
+				lookups += (long)labelCount*document.size();
 			}
-			document.setSysOutput(probabilities);
+			document.setSysOutput(labels, probabilities);
+			this.metrics.stop(Metrics.CLASSIFY, start, document.getSysOutput());
+			this.classified(document);
 		}
+		this.metrics.increment(Metrics.FEATURE_LOOKUPS, lookups);
 	}
 
 	/**
@@ -409,16 +468,19 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 	 * @param document
 	 * @return
 	 */
-	private HashMap<String, Double> classifyBinary(Document document) {
-		HashMap<String, Double> result = new HashMap<String, Double>();
-		for (String label: this.trainingData.getAllLabels()) {
-			this.probability = 0.0d;
+	private double[] classifyBinary(Document document, Interner labels) {
+		double[] result = new double[labels.size()];
+		String label;
+		double probability;
+		for (int id = 0; id < result.length; id++) {
+			label = labels.get(id);
+			probability = 0.0d;
 			for (String feature: document.getFeatures()) {
-				this.probability += (this.featLogProbs.safeGet(label, feature, 0.0d) - Math.log10(1 - this.featProbs.safeGet(label, feature, 0.0d)));
+				probability += (this.featLogProbs.safeGet(label, feature, 0.0d) - Math.log10(1 - this.featProbs.safeGet(label, feature, 0.0d)));
 			}
-			this.probability += this.classProbs.get(label);
-			this.probability += this.logReciprocalFeatToClassProbs.get(label);
-			result.put(label, this.probability);
+			probability += this.classProbs.get(label);
+			probability += this.logReciprocalFeatToClassProbs.get(label);
+			result[id] = probability;
 		}
 		return result;
 	}
@@ -439,15 +501,18 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 	 * @param document
 	 * @return
 	 */
-	private HashMap<String, Double> classifyReal(Document document) {
-		HashMap<String, Double> result = new HashMap<String, Double>();
-		for (String label: this.trainingData.getAllLabels()) {
-			this.probability = 0.0d;
+	private double[] classifyReal(Document document, Interner labels) {
+		double[] result = new double[labels.size()];
+		String label;
+		double probability;
+		for (int id = 0; id < result.length; id++) {
+			label = labels.get(id);
+			probability = 0.0d;
 			for (String feature: document.getFeatures()) {
-				this.probability += (document.getFeatCount(feature) * this.featLogProbs.safeGet(label, feature, 0.0d));
+				probability += (document.getFeatCount(feature) * this.featLogProbs.safeGet(label, feature, 0.0d));
 			}
-			this.probability += this.classProbs.get(label);
-			result.put(label, this.probability);
+			probability += this.classProbs.get(label);
+			result[id] = probability;
 		}
 		return result;
 	}
@@ -464,18 +529,31 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 		if (testResult == null || trainOrTest == null) {
 			throw new NullPointerException();
 		}
+		long start = this.metrics.start();
 		try {
-			BufferedWriter sysOutput = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(this.sysOutputFile), "utf-8"));
-			this.writeSysOutput(testResult, sysOutput);
+			SystemOutputWriter sysOutput = this.openSystemOutput();
+			sysOutput.write(testResult);
 			sysOutput.close();
 		} catch (IOException e) {
 			System.err.println("Failed to write results at NaiveBayesClassifier#outputResults(testResult, trainOrTest). Check your system output filename and system setup.");
 			e.printStackTrace();
 		}
+		this.metrics.stop(Metrics.OUTPUT_WRITE, start);
 		// Output confusion matrix to stdout
 		System.out.println(new ConfusionMatrix(testResult, trainOrTest));
 	}
 
+	/**
+	 * Return a SystemOutputWriter for the system output file,
+	 * converting log probabilities to probabilities.
+	 *
+	 * @see machineLearningTools.MachineLearningClassifier#openSystemOutput()
+	 */
+	@Override
+	protected SystemOutputWriter openSystemOutput() throws IOException {
+		return new SystemOutputWriter(this.sysOutputFile, true);
+	}
+
 	/**
 	 * Shortcut to open and close specified file to write model file.
 	 *
@@ -484,6 +562,7 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 	 * @see writeModelFile
 	 */
 	private void writeModelFile(String modelOutputFile) {
+		long start = this.metrics.start();
 		try {
 			BufferedWriter modelOutput = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(this.modelFile), "utf-8"));
 			this.writeModelFile(modelOutput);
@@ -491,6 +570,7 @@ public class NaiveBayesClassifier extends MachineLearningClassifier {
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+		this.metrics.stop(Metrics.MODEL_WRITE, start);
 	}
 
 	/**
@@ -2,11 +2,21 @@ package machineLearningClassifiers.NaiveBayesClassifier;
 
 import static machineLearningTools.MLMath.pseudoEqual;
 import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.HashMap;
 
+import machineLearningTools.ClassifierFactory;
+import machineLearningTools.CrossValidation;
+import machineLearningTools.Data;
+import machineLearningTools.FeatureHasher;
+import machineLearningTools.MachineLearningClassifier;
+import machineLearningTools.Metrics;
+import machineLearningTools.MetricsRegistry;
 import machineLearningTools.NestedDictionary;
+import machineLearningTools.RealValuedData;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -162,6 +172,48 @@ public class NaiveBayesClassifierTest {
 		}
 	}
 
+	@Test
+	public void testNaiveBayesClassifierMetrics() {
+		MetricsRegistry metrics = new MetricsRegistry();
+		this.realTrainer.setMetrics(metrics);
+		this.realTrainer.train(this.trainingFile);
+		Data testData = new RealValuedData(this.trainingFile);
+		this.realTrainer.classify(testData);
+		assertEquals(1L, metrics.getCount(Metrics.LOAD));
+		assertEquals(1L, metrics.getCount(Metrics.TRAIN));
+		assertEquals(1L, metrics.getCount(Metrics.MODEL_WRITE));
+		assertEquals(testData.size(), metrics.getCount(Metrics.CLASSIFY));
+		assertTrue(metrics.getCounter(Metrics.FEATURE_LOOKUPS) > 0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNaiveBayesClassifierSignedFeatureHasherThrows() {
+		this.realTrainer.setFeatureHasher(new FeatureHasher(10, true));
+	}
+
+	@Test
+	public void testNaiveBayesClassifierUnsignedFeatureHasher() {
+		this.realTrainer.setFeatureHasher(new FeatureHasher(10, false));
+		this.realTrainer.setFeatureHasher(null);
+	}
+
+	@Test
+	public void testNaiveBayesClassifierCrossValidation() {
+		Data data = new RealValuedData(this.trainingFile);
+		CrossValidation crossValidation = new CrossValidation(data, 3, 7L);
+		ClassifierFactory factory = new ClassifierFactory() {
+			@Override
+			public MachineLearningClassifier create() {
+				return new NaiveBayesClassifier(NaiveBayesClassifierTest.this.classDelta, NaiveBayesClassifierTest.this.condDelta,
+						NaiveBayesClassifierTest.this.sysOutputFile, NaiveBayesClassifierTest.this.modelFile);
+			}
+		};
+		CrossValidation.Result parallel = crossValidation.run(factory, 3);
+		CrossValidation.Result serial = crossValidation.run(factory, 1);
+		assertEquals(serial.toString(), parallel.toString());
+		assertTrue(parallel.getAccuracy() > 0.5d);
+	}
+
 //	@Test
 //	public void testNaiveBayesClassifierClassifyBinary() {
 //		this.binaryTrainer.train(this.trainingFile);
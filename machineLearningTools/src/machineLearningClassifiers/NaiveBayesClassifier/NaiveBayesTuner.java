@@ -0,0 +1,201 @@
+package machineLearningClassifiers.NaiveBayesClassifier;
+
+import static machineLearningTools.Util.argmax;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import machineLearningTools.ClassifierTuner;
+import machineLearningTools.Data;
+import machineLearningTools.Document;
+import machineLearningTools.Interner;
+
+/**
+ * NaiveBayesTuner
+ *
+ * Tunes the classDelta and condDelta smoothing parameters of a
+ * NaiveBayesClassifier for a HyperparameterSearch. <br><br>
+ *
+ * The sufficient statistics of the model, the count of documents per
+ * class and of each feature per class, do not depend on the smoothing
+ * parameters. So they are counted once per fold, and each configuration
+ * only recomputes the smoothed log probabilities of the features of the
+ * testing documents, with the equations of NaiveBayesClassifier. <br><br>
+ *
+ * In the binary case, the sum over all features of log(1 - P(f|c)) is
+ * taken in one term for the features never seen with class c, which
+ * share the same probability.
+ */
+public class NaiveBayesTuner extends ClassifierTuner {
+
+	private static final String[] parameters = new String[]{"classDelta", "condDelta"};
+
+	private final boolean binarized;
+
+	/**
+	 * Construct a NaiveBayesTuner over the given configurations
+	 * of {classDelta, condDelta}.
+	 *
+	 * @param configurations
+	 * @param binarized true for the binary Bernoulli model, false for the multinomial model
+	 */
+	public NaiveBayesTuner(final List<double[]> configurations, final boolean binarized) {
+		super(NaiveBayesTuner.parameters, configurations);
+		this.binarized = binarized;
+	}
+
+	/**
+	 * Count documents per class and features per class over
+	 * trainingData, and look up the counts of the features of
+	 * each document of testingData.
+	 *
+	 * @see machineLearningTools.ClassifierTuner#prepare(machineLearningTools.Data, machineLearningTools.Data)
+	 */
+	@Override
+	public Evaluator prepare(final Data trainingData, final Data testingData) {
+		Interner labels = trainingData.getLabels();
+		int labelCount = labels.size();
+		int[] classCounts = new int[labelCount];
+		// Count of distinct features in documents per class
+		int[] featureCountPerClass = new int[labelCount];
+		// Documents with each feature per class in the binary case,
+		// occurrences of each feature per class in the multinomial case
+		HashMap<String, int[]> featureCounts = new HashMap<String, int[]>();
+		int[] counts;
+		int labelID;
+		for (Document document: trainingData.getDocs()) {
+			labelID = labels.getID(document.getLabel());
+			classCounts[labelID]++;
+			for (String feature: document.getWords()) {
+				counts = featureCounts.get(feature);
+				if (counts == null) {
+					counts = new int[labelCount];
+					featureCounts.put(feature, counts);
+				}
+				counts[labelID] += this.binarized ? 1 : document.getFeatCount(feature);
+				featureCountPerClass[labelID]++;
+			}
+		}
+		// Features seen with each class, for the binary case
+		int[] seenFeatures = new int[labelCount];
+		for (int[] featureCount: featureCounts.values()) {
+			for (int id = 0; id < labelCount; id++) {
+				if (featureCount[id] > 0) {
+					seenFeatures[id]++;
+				}
+			}
+		}
+		// Testing document features, in document ID order, as the counts
+		// of each feature per class, or null for unknown features
+		List<Document> documents = testingData.getDocs();
+		Collections.sort(documents);
+		int[][][] documentCounts = new int[documents.size()][][];
+		int[][] documentFeatureCounts = new int[documents.size()][];
+		int j;
+		for (int i = 0; i < documents.size(); i++) {
+			Document document = documents.get(i);
+			documentCounts[i] = new int[document.getFeatures().size()][];
+			documentFeatureCounts[i] = new int[documentCounts[i].length];
+			j = 0;
+			for (String feature: document.getFeatures()) {
+				documentCounts[i][j] = featureCounts.get(feature);
+				documentFeatureCounts[i][j] = document.getFeatCount(feature);
+				j++;
+			}
+		}
+		return new NaiveBayesEvaluator(this.binarized, labels, classCounts, featureCountPerClass, featureCounts, seenFeatures, trainingData.size(), documentCounts, documentFeatureCounts);
+	}
+
+	/**
+	 * Scores the testing documents under each configuration
+	 * from the shared counts.
+	 */
+	private static class NaiveBayesEvaluator extends Evaluator {
+
+		private final boolean binarized;
+		private final Interner labels;
+		private final int[] classCounts;
+		private final int[] featureCountPerClass;
+		private final Map<String, int[]> featureCounts;
+		private final int[] seenFeatures;
+		private final int docCount;
+		private final int[][][] documentCounts;
+		private final int[][] documentFeatureCounts;
+
+		NaiveBayesEvaluator(final boolean binarized, final Interner labels, final int[] classCounts, final int[] featureCountPerClass,
+				final Map<String, int[]> featureCounts, final int[] seenFeatures, final int docCount,
+				final int[][][] documentCounts, final int[][] documentFeatureCounts) {
+			this.binarized = binarized;
+			this.labels = labels;
+			this.classCounts = classCounts;
+			this.featureCountPerClass = featureCountPerClass;
+			this.featureCounts = featureCounts;
+			this.seenFeatures = seenFeatures;
+			this.docCount = docCount;
+			this.documentCounts = documentCounts;
+			this.documentFeatureCounts = documentFeatureCounts;
+		}
+
+		@Override
+		public String[] classify(final double[] configuration) {
+			double classDelta = configuration[0];
+			double condDelta = configuration[1];
+			int labelCount = this.classCounts.length;
+			int vocabulary = this.featureCounts.size();
+			// P(C) and the denominators of P(F|C)
+			double classDenominator = Math.log10((classDelta*labelCount) + this.docCount);
+			double condDeltaSum = condDelta * (this.binarized ? labelCount : vocabulary);
+			double[] classProbs = new double[labelCount];
+			double[] probDenominators = new double[labelCount];
+			double[] logProbDenominators = new double[labelCount];
+			for (int id = 0; id < labelCount; id++) {
+				classProbs[id] = Math.log10(classDelta + this.classCounts[id]) - classDenominator;
+				probDenominators[id] = condDeltaSum + (double)(this.binarized ? this.classCounts[id] : this.featureCountPerClass[id]);
+				logProbDenominators[id] = Math.log10(probDenominators[id]);
+			}
+			// SUM.k(log(1 - P(w.k|c.j))) in the binary case
+			double[] logReciprocals = new double[labelCount];
+			if (this.binarized) {
+				for (int[] counts: this.featureCounts.values()) {
+					for (int id = 0; id < labelCount; id++) {
+						if (counts[id] > 0) {
+							logReciprocals[id] += Math.log10(1.0d - ((condDelta + counts[id])/probDenominators[id]));
+						}
+					}
+				}
+				for (int id = 0; id < labelCount; id++) {
+					logReciprocals[id] += (vocabulary - this.seenFeatures[id]) * Math.log10(1.0d - (condDelta/probDenominators[id]));
+				}
+			}
+			// Score each document
+			String[] result = new String[this.documentCounts.length];
+			double[] probabilities = new double[labelCount];
+			double featProb;
+			int[] counts;
+			for (int i = 0; i < result.length; i++) {
+				for (int id = 0; id < labelCount; id++) {
+					probabilities[id] = 0.0d;
+					for (int j = 0; j < this.documentCounts[i].length; j++) {
+						counts = this.documentCounts[i][j];
+						if (counts == null) {
+							continue; // Unknown features do not contribute
+						}
+						if (this.binarized) {
+							featProb = (condDelta + (double)counts[id])/probDenominators[id];
+							probabilities[id] += (Math.log10(featProb) - Math.log10(1 - featProb));
+						}
+						else {
+							probabilities[id] += (this.documentFeatureCounts[i][j] * (Math.log10(condDelta + (double)counts[id]) - logProbDenominators[id]));
+						}
+					}
+					probabilities[id] += classProbs[id];
+					probabilities[id] += logReciprocals[id];
+				}
+				result[i] = this.labels.get(argmax(probabilities));
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package machineLearningClassifiers.NaiveBayesClassifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import machineLearningTools.BinaryValuedData;
+import machineLearningTools.ClassifierTuner;
+import machineLearningTools.CorpusGenerator;
+import machineLearningTools.CrossValidation;
+import machineLearningTools.Data;
+import machineLearningTools.HyperparameterSearch;
+import machineLearningTools.RealValuedData;
+import machineLearningTools.TunerTestCase;
+
+import org.junit.Test;
+
+public class NaiveBayesTunerTest extends TunerTestCase {
+
+	// Parameters
+	private final double[] classDeltas = new double[]{0.0d, 0.1d, 1.0d};
+	private final double[] condDeltas = new double[]{0.01d, 0.1d, 1.0d};
+
+	@Override
+	protected CorpusGenerator corpusGenerator() {
+		return new CorpusGenerator(300, 200, 3, 20, 5L);
+	}
+
+	/**
+	 * Check that the tuner labels each fold as a NaiveBayesClassifier
+	 * trained with each configuration does.
+	 */
+	private void assertMatchesClassifier(Data data, boolean binarized) {
+		CrossValidation crossValidation = new CrossValidation(data, 3, 7L);
+		NaiveBayesTuner tuner = new NaiveBayesTuner(HyperparameterSearch.grid(this.classDeltas, this.condDeltas), binarized);
+		for (int fold = 0; fold < crossValidation.getFolds(); fold++) {
+			Data testingData = crossValidation.getTestingData(fold);
+			ClassifierTuner.Evaluator evaluator = tuner.prepare(crossValidation.getTrainingData(fold), testingData);
+			for (double[] configuration: tuner.getConfigurations()) {
+				NaiveBayesClassifier classifier = new NaiveBayesClassifier(configuration[0], configuration[1], "nb.output.txt", "nb.model.txt", binarized);
+				classifier.train(crossValidation.getTrainingData(fold));
+				classifier.classify(testingData);
+				assertArrayEquals(TunerTestCase.sysOutput(testingData), evaluator.classify(configuration));
+			}
+		}
+	}
+
+	@Test
+	public void testNaiveBayesTunerMatchesClassifierReal() {
+		this.assertMatchesClassifier(new RealValuedData(this.corpusFile.getPath()), false);
+	}
+
+	@Test
+	public void testNaiveBayesTunerMatchesClassifierBinary() {
+		this.assertMatchesClassifier(new BinaryValuedData(this.corpusFile.getPath()), true);
+	}
+
+	@Test
+	public void testNaiveBayesTunerSearch() {
+		Data data = new RealValuedData(this.corpusFile.getPath());
+		NaiveBayesTuner tuner = new NaiveBayesTuner(HyperparameterSearch.grid(this.classDeltas, this.condDeltas), false);
+		HyperparameterSearch search = new HyperparameterSearch(new CrossValidation(data, 3, 7L));
+		HyperparameterSearch.Result result = search.run(tuner, 4);
+		assertEquals(result.toString(), search.run(tuner, 1).toString());
+	}
+}
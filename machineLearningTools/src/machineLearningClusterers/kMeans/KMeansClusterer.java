@@ -1,17 +1,25 @@
 package machineLearningClusterers.kMeans;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Random;
 
 import machineLearningTools.Data;
-import machineLearningTools.Document;
-import machineLearningTools.EuclideanDistance;
+import machineLearningTools.MLMath;
 import machineLearningTools.MachineLearningClusterer;
+import machineLearningTools.RandomProjection;
 
 /**
+ * Clusters documents into k clusters with Lloyd's algorithm, seeded
+ * with k-means++. <br><br>
  *
- *
+ * Documents are first projected to dense vectors of a few dimensions by
+ * a RandomProjection, so each distance between a document and a centroid
+ * is computed over those dimensions rather than over the sparse union of
+ * their features. The system output of each document is its cluster,
+ * "cluster0" to "cluster" + (k-1).
  *
  * See http://stackoverflow.com/questions/1545606/python-k-means-algorithm
  *
@@ -19,91 +27,168 @@ import machineLearningTools.MachineLearningClusterer;
  */
 public class KMeansClusterer extends MachineLearningClusterer {
 
+	private static final int DEFAULT_DIMENSIONS = 128;
+	private static final int MAX_ITERATIONS = 100;
+
 	private final int k;
+	private final long seed;
+	private final RandomProjection projection;
 
 	public KMeansClusterer(boolean binarized, int k) {
+		this(binarized, k, KMeansClusterer.DEFAULT_DIMENSIONS, 0L);
+	}
+
+	/**
+	 * Construct a KMeansClusterer of k clusters over documents projected
+	 * to the given number of dimensions, seeding the projection and the
+	 * initial centroids with seed.
+	 *
+	 * @param binarized
+	 * @param k at least 1
+	 * @param dimensions at least 1
+	 * @param seed
+	 */
+	public KMeansClusterer(boolean binarized, int k, int dimensions, long seed) {
 		super(binarized);
+		if (k < 1) {
+			throw new IllegalArgumentException("KMeansClusterer requires k of at least 1;");
+		}
 		this.k = k;
+		this.seed = seed;
+		this.projection = new RandomProjection(dimensions, seed);
 	}
 
 	/**
-	 * Initializes centroids randomly.
+	 * Project the documents, seed centroids with k-means++, then
+	 * alternate assigning each document to its closest centroid and
+	 * moving each centroid to the mean of its documents, until no
+	 * document moves.
 	 *
 	 * @param testingData
 	 */
-	// TODO: make split documents utility function
-	// TODO: make seedCentroids() method
 	@Override
 	public void cluster(Data testingData) {
-		// Split documents
-		List<Document> sublist;
+		if (testingData == null) {
+			throw new NullPointerException("KMeansClusterer#cluster received a null parameter: testingData!");
+		}
+		if (testingData.size() < this.k) {
+			throw new IllegalArgumentException(String.format("KMeansClusterer requires at least %d documents;", this.k));
+		}
+		// Project documents, in document ID order
+		HashMap<Integer, float[]> vectors = this.projection.project(testingData);
+		ArrayList<Integer> ids = new ArrayList<Integer>(vectors.keySet());
+		Collections.sort(ids);
+		float[][] points = new float[ids.size()][];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = vectors.get(ids.get(i));
+		}
+		float[][] centroids = this.seedCentroids(points, new Random(this.seed));
+		// Lloyd's algorithm
+		int[] assignments = new int[points.length];
+		int[] sizes = new int[this.k];
+		double[][] sums = new double[this.k][this.projection.getDimensions()];
 		boolean completed = false;
-		List<Document> documents = testingData.getDocs();
-		List<List<Document>> splits = new ArrayList<List<Document>>(this.k);
-		int docsPerSplit = testingData.size()/this.k;
-		for (int i = 0; i < this.k; i++) {
-			if (i < this.k-1) {
-				sublist = documents.subList(i*docsPerSplit, (i+1)*docsPerSplit);
+		for (int iteration = 0; iteration < KMeansClusterer.MAX_ITERATIONS && !completed; iteration++) {
+			completed = true;
+			// Assign documents, breaking ties by the lowest cluster to avoid cycling
+			int closest;
+			for (int i = 0; i < points.length; i++) {
+				closest = KMeansClusterer.closest(points[i], centroids);
+				if (iteration == 0 || closest != assignments[i]) {
+					assignments[i] = closest;
+					completed = false;
+				}
 			}
-			else {
-				// Last split gets the rest
-				sublist = documents.subList(i*docsPerSplit, documents.size());
+			if (completed) {
+				break;
 			}
-			splits.add(i, sublist);
-		}
-		// Initialize centroids randomly
-		ArrayList<Document> centroids = new ArrayList<Document>(this.k);
-		Random random = new Random();
-		ArrayList<Integer> selected = new ArrayList<Integer>(this.k);
-		Integer next;
-		for (int i = 0; i < this.k; i++) {
-			// Get a unique list of random elements
-			next = random.nextInt();
-			while (selected.indexOf(next) >= 0) {
-				next = random.nextInt();
+			// Recompute centroids: centroid_MU(cluster_W) = (1/size(cluster_W)) * sum_X<W(X)
+			for (int c = 0; c < this.k; c++) {
+				sizes[c] = 0;
+				Arrays.fill(sums[c], 0.0d);
 			}
-			centroids.add(documents.get(next));
-		}
-		// Setup algorithm
-		Document closestDoc;
-		EuclideanDistance closestDistance;
-		EuclideanDistance distance;
-		while (!completed) {
-			completed = true;
-			for (int i=0; i < this.k; i++) {
-				// Assign documents
-				for (Document doc: testingData.getDocs()) {
-					// Get closest document
-					// TODO: Assign closest document as document with
-					// lowest ID to avoid cycling
-					// if (moved) {
-					//     completed = false;
-					// }
+			for (int i = 0; i < points.length; i++) {
+				sizes[assignments[i]]++;
+				for (int d = 0; d < points[i].length; d++) {
+					sums[assignments[i]][d] += points[i][d];
+				}
+			}
+			for (int c = 0; c < this.k; c++) {
+				// An empty cluster keeps its centroid
+				if (sizes[c] > 0) {
+					for (int d = 0; d < sums[c].length; d++) {
+						centroids[c][d] = (float)(sums[c][d]/sizes[c]);
+					}
 				}
-				if (!completed) {
-					for (int j=0; j < this.k; j++) {
-						// Recompute centroids
-						// centroid_MU(cluster_W) = (1/size(cluster_W)) * sum_X<W(X)
+			}
+		}
+		HashMap<String, Double> probabilities;
+		for (int i = 0; i < points.length; i++) {
+			probabilities = new HashMap<String, Double>();
+			probabilities.put("cluster" + assignments[i], 1.0d);
+			testingData.setSysOutput(ids.get(i), probabilities);
+		}
+	}
+
+	/**
+	 * Choose k initial centroids with k-means++: the first uniformly,
+	 * and each next with probability proportional to its squared
+	 * distance from the closest centroid chosen so far.
+	 *
+	 * @param points
+	 * @param random
+	 * @return copies of the chosen points
+	 */
+	private float[][] seedCentroids(final float[][] points, final Random random) {
+		float[][] result = new float[this.k][];
+		result[0] = points[random.nextInt(points.length)].clone();
+		double[] distances = new double[points.length];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		double total;
+		double target;
+		int chosen;
+		for (int c = 1; c < this.k; c++) {
+			total = 0.0d;
+			for (int i = 0; i < points.length; i++) {
+				distances[i] = Math.min(distances[i], MLMath.squaredDistance(points[i], result[c-1]));
+				total += distances[i];
+			}
+			chosen = points.length-1;
+			if (total > 0) {
+				target = random.nextDouble() * total;
+				for (int i = 0; i < points.length; i++) {
+					target -= distances[i];
+					if (target < 0) {
+						chosen = i;
+						break;
 					}
 				}
 			}
-//			for (Document doc: testingData.getDocs()) {
-//				// Reset values
-//				closestDoc = null;
-//				closestDistance = null;
-//				// Expectation step
-//				for (Document centroid: centroids) {
-//					distance = new EuclideanDistance(doc, centroid);
-//					if (closestDistance == null || distance.getDistance() < closestDistance.getDistance()) {
-//						closestDoc = centroid;
-//						closestDistance = distance;
-//						completed = false;
-//					}
-//				}
-//				// Maximization step
-//
+			else {
+				// Every point is a centroid already
+				chosen = random.nextInt(points.length);
+			}
+			result[c] = points[chosen].clone();
+		}
+		return result;
+	}
+
+	/**
+	 * Return the index of the centroid closest to point,
+	 * the lowest of any ties.
+	 */
+	private static int closest(final float[] point, final float[][] centroids) {
+		int result = 0;
+		double best = Double.POSITIVE_INFINITY;
+		double distance;
+		for (int c = 0; c < centroids.length; c++) {
+			distance = MLMath.squaredDistance(point, centroids[c]);
+			if (distance < best) {
+				best = distance;
+				result = c;
 			}
 		}
+		return result;
 	}
 
 	@Override
@@ -1,7 +1,15 @@
 package machineLearningClusterers.kMeans;
 
-import static org.junit.Assert.fail;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
+import java.io.File;
+import java.io.FileWriter;
+
+import machineLearningTools.Data;
+import machineLearningTools.RealValuedData;
+
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -13,13 +21,50 @@ import org.junit.Test;
  */
 public class KMeansClustererTest {
 
+	private File corpusFile;
+	private Data data;
+
 	@Before
 	public void setUp() throws Exception {
+		this.corpusFile = File.createTempFile("kmeans", ".vectors.txt");
+		FileWriter writer = new FileWriter(this.corpusFile);
+		writer.write("a x:10 w:1\na x:9\na x:11 w:2\nb y:10\nb y:11 z:1\nb y:9 z:2\n");
+		writer.close();
+		this.data = new RealValuedData(this.corpusFile.getPath());
+	}
+
+	@After
+	public void cleanup() {
+		this.corpusFile.delete();
 	}
 
 	@Test
-	public void test() {
-		fail("Not yet implemented");
+	public void testKMeansClustererSeparatesClusters() {
+		new KMeansClusterer(false, 2, 64, 5L).cluster(this.data);
+		String first = this.data.getDoc(0).getSysOutput();
+		String second = this.data.getDoc(3).getSysOutput();
+		assertFalse(first.equals(second));
+		for (int id = 0; id < 3; id++) {
+			assertEquals(first, this.data.getDoc(id).getSysOutput());
+			assertEquals(second, this.data.getDoc(id+3).getSysOutput());
+		}
 	}
 
+	@Test
+	public void testKMeansClustererDeterministic() {
+		new KMeansClusterer(false, 3, 16, 9L).cluster(this.data);
+		String[] outputs = new String[this.data.size()];
+		for (int id = 0; id < outputs.length; id++) {
+			outputs[id] = this.data.getDoc(id).getSysOutput();
+		}
+		new KMeansClusterer(false, 3, 16, 9L).cluster(this.data);
+		for (int id = 0; id < outputs.length; id++) {
+			assertEquals(outputs[id], this.data.getDoc(id).getSysOutput());
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testKMeansClustererTooFewDocumentsThrows() {
+		new KMeansClusterer(false, 7, 16, 9L).cluster(this.data);
+	}
 }
@@ -0,0 +1,329 @@
+package machineLearningTools;
+
+import java.util.HashSet;
+
+/**
+ * BatchCosineSimilarity
+ *
+ * Calculates the Cosine similarity between every row of a query
+ * SparseMatrix Q and every row of a training SparseMatrix T at once,
+ * as the sparse matrix product Q*T' normalized by the row magnitudes: <br><br>
+ *
+ * CosineSimilarity(Q.i, T.j) = (Q*T')(i, j)/(|Q.i|*|T.j|) <br><br>
+ *
+ * The product is blocked: training rows are split into tiles of tileSize
+ * rows, and queries are processed in blocks of QUERY_BLOCK_SIZE rows.
+ * Within a tile, each query accumulates its dot products into a dense
+ * tileSize array walking an inverted index (the transpose of T), so the
+ * accumulator and the postings of the tile stay in cache across the
+ * queries of a block. Only the K most similar training rows are kept
+ * for each query. <br><br>
+ *
+ * Q and T must be built with the same features Interner.
+ */
+public class BatchCosineSimilarity {
+
+	public static final int DEFAULT_TILE_SIZE = 2048;
+	static final int QUERY_BLOCK_SIZE = 64;
+
+	private final SparseMatrix training;
+	private final int tileSize;
+
+	// Inverted index (CSR of T'): postings of each feature sorted by training row
+	private final int[] featurePointers;
+	private final int[] postingRows;
+	private final double[] postingValues;
+
+	/**
+	 * Construct a BatchCosineSimilarity object over the given training matrix
+	 * with the default tile size.
+	 *
+	 * @param training
+	 */
+	public BatchCosineSimilarity(final SparseMatrix training) {
+		this(training, BatchCosineSimilarity.DEFAULT_TILE_SIZE);
+	}
+
+	/**
+	 * Construct a BatchCosineSimilarity object over the given training matrix.
+	 *
+	 * @param training
+	 * @param tileSize number of training rows per tile; must be at least 1
+	 */
+	public BatchCosineSimilarity(final SparseMatrix training, final int tileSize) {
+		if (training == null) {
+			throw new NullPointerException("BatchCosineSimilarity constructor received a null parameter: training!");
+		}
+		if (tileSize < 1) {
+			throw new IllegalArgumentException("BatchCosineSimilarity tileSize must be at least 1.");
+		}
+		this.training = training;
+		this.tileSize = tileSize;
+		// Transpose T by counting postings per feature, then filling in row order
+		int[] rowPointers = training.getRowPointers();
+		int[] columns = training.getColumns();
+		double[] values = training.getValues();
+		this.featurePointers = new int[training.columns()+1];
+		this.postingRows = new int[columns.length];
+		this.postingValues = new double[columns.length];
+		for (int column: columns) {
+			this.featurePointers[column+1]++;
+		}
+		for (int i = 0; i < training.columns(); i++) {
+			this.featurePointers[i+1] += this.featurePointers[i];
+		}
+		int[] next = new int[training.columns()];
+		System.arraycopy(this.featurePointers, 0, next, 0, next.length);
+		int position;
+		for (int row = 0; row < training.rows(); row++) {
+			for (int i = rowPointers[row]; i < rowPointers[row+1]; i++) {
+				position = next[columns[i]]++;
+				this.postingRows[position] = row;
+				this.postingValues[position] = values[i];
+			}
+		}
+	}
+
+	/**
+	 * Return the K training rows most similar to each query row, most
+	 * similar first. Training rows with the same Document ID as the query
+	 * are skipped, so a document is never its own neighbor. Ties are
+	 * broken by lower training row. If fewer than K training rows share a
+	 * feature with a query, the remainder are filled with zero similarity
+	 * rows.
+	 *
+	 * @param queries matrix built with the training Interner
+	 * @param K number of neighbors
+	 * @return for each query row, up to K training rows
+	 */
+	public int[][] nearest(final SparseMatrix queries, final int K) {
+		if (queries == null) {
+			throw new NullPointerException("BatchCosineSimilarity#nearest received a null parameter: queries!");
+		}
+		if (K < 1) {
+			throw new IllegalArgumentException("BatchCosineSimilarity#nearest K must be at least 1.");
+		}
+		int[] queryPointers = queries.getRowPointers();
+		int[] queryColumns = queries.getColumns();
+		double[] queryValues = queries.getValues();
+		int trainingRows = this.training.rows();
+		int[][] result = new int[queries.rows()][];
+		// Normalized matrices need no division by magnitudes
+		boolean normalized = queries.isNormalized() && this.training.isNormalized();
+
+		double[] accumulator = new double[this.tileSize];
+		int[] marks = new int[this.tileSize];
+		int[] touched = new int[this.tileSize];
+		int stamp = 0;
+		TopK[] heaps = new TopK[BatchCosineSimilarity.QUERY_BLOCK_SIZE];
+		int[] cursors = new int[0];
+
+		int blockEnd;
+		int tileEnd;
+		int touchedCount;
+		int column;
+		int cursor;
+		int postingEnd;
+		int local;
+		int row;
+		int queryID;
+		double queryValue;
+		double queryNorm;
+		double norms;
+		for (int blockStart = 0; blockStart < queries.rows(); blockStart += BatchCosineSimilarity.QUERY_BLOCK_SIZE) {
+			blockEnd = Math.min(blockStart+BatchCosineSimilarity.QUERY_BLOCK_SIZE, queries.rows());
+			// Point a cursor at the start of the postings of each query feature
+			int offset = queryPointers[blockStart];
+			if (queryPointers[blockEnd]-offset > cursors.length) {
+				cursors = new int[queryPointers[blockEnd]-offset];
+			}
+			for (int i = offset; i < queryPointers[blockEnd]; i++) {
+				column = queryColumns[i];
+				cursors[i-offset] = (column < this.training.columns()) ? this.featurePointers[column] : -1;
+			}
+			for (int query = blockStart; query < blockEnd; query++) {
+				heaps[query-blockStart] = new TopK(K);
+			}
+			// Multiply the query block by each training tile
+			for (int tileStart = 0; tileStart < trainingRows; tileStart += this.tileSize) {
+				tileEnd = Math.min(tileStart+this.tileSize, trainingRows);
+				for (int query = blockStart; query < blockEnd; query++) {
+					if (stamp == Integer.MAX_VALUE) {
+						marks = new int[this.tileSize];
+						stamp = 0;
+					}
+					stamp++;
+					touchedCount = 0;
+					for (int i = queryPointers[query]; i < queryPointers[query+1]; i++) {
+						cursor = cursors[i-offset];
+						if (cursor < 0) {
+							continue; // Feature unknown to the training matrix
+						}
+						postingEnd = this.featurePointers[queryColumns[i]+1];
+						queryValue = queryValues[i];
+						while (cursor < postingEnd && this.postingRows[cursor] < tileEnd) {
+							local = this.postingRows[cursor]-tileStart;
+							if (marks[local] != stamp) {
+								marks[local] = stamp;
+								accumulator[local] = 0.0d;
+								touched[touchedCount++] = local;
+							}
+							accumulator[local] += queryValue*this.postingValues[cursor];
+							cursor++;
+						}
+						cursors[i-offset] = cursor;
+					}
+					// Normalize and keep the best K
+					queryID = queries.getRowID(query);
+					queryNorm = queries.getNorm(query);
+					for (int i = 0; i < touchedCount; i++) {
+						row = tileStart+touched[i];
+						if (this.training.getRowID(row) == queryID) {
+							continue; // Don't compare document to itself
+						}
+						if (normalized) {
+							heaps[query-blockStart].offer(row, accumulator[touched[i]]);
+							continue;
+						}
+						norms = queryNorm*this.training.getNorm(row);
+						heaps[query-blockStart].offer(row, (norms == 0) ? 0.0d : accumulator[touched[i]]/norms);
+					}
+				}
+			}
+			for (int query = blockStart; query < blockEnd; query++) {
+				if (!heaps[query-blockStart].isFull() || heaps[query-blockStart].worstScore() < 0) {
+					this.fillWithUnrelated(queries, query, heaps[query-blockStart]);
+				}
+				result[query] = heaps[query-blockStart].toSortedRows();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Offer training rows sharing no features with the query, whose
+	 * similarity is 0, until no more can be kept.
+	 *
+	 * @param queries
+	 * @param query
+	 * @param heap
+	 */
+	private void fillWithUnrelated(final SparseMatrix queries, final int query, final TopK heap) {
+		int[] queryPointers = queries.getRowPointers();
+		int[] queryColumns = queries.getColumns();
+		HashSet<Integer> related = new HashSet<Integer>();
+		int column;
+		for (int i = queryPointers[query]; i < queryPointers[query+1]; i++) {
+			column = queryColumns[i];
+			if (column < this.training.columns()) {
+				for (int j = this.featurePointers[column]; j < this.featurePointers[column+1]; j++) {
+					related.add(this.postingRows[j]);
+				}
+			}
+		}
+		for (int row = 0; row < this.training.rows(); row++) {
+			if (heap.isFull() && heap.worstScore() >= 0) {
+				break;
+			}
+			if (related.contains(row) || this.training.getRowID(row) == queries.getRowID(query)) {
+				continue;
+			}
+			heap.offer(row, 0.0d);
+		}
+	}
+
+	/**
+	 * Return the training matrix
+	 *
+	 * @return the training matrix
+	 */
+	public SparseMatrix getTraining() {
+		return this.training;
+	}
+
+	/**
+	 * Bounded min-heap keeping the K highest scoring rows, with ties
+	 * broken by lower row.
+	 */
+	private static class TopK {
+		private final int[] rows;
+		private final double[] scores;
+		private int size;
+
+		TopK(final int K) {
+			this.rows = new int[K];
+			this.scores = new double[K];
+		}
+
+		boolean isFull() {
+			return this.size == this.rows.length;
+		}
+
+		double worstScore() {
+			return this.scores[0];
+		}
+
+		void offer(final int row, final double score) {
+			if (this.size < this.rows.length) {
+				this.rows[this.size] = row;
+				this.scores[this.size] = score;
+				this.siftUp(this.size++);
+			}
+			else if (this.isWorse(this.rows[0], this.scores[0], row, score)) {
+				this.rows[0] = row;
+				this.scores[0] = score;
+				this.siftDown(0);
+			}
+		}
+
+		int[] toSortedRows() {
+			int[] result = new int[this.size];
+			while (this.size > 0) {
+				result[--this.size] = this.rows[0];
+				this.rows[0] = this.rows[this.size];
+				this.scores[0] = this.scores[this.size];
+				this.siftDown(0);
+			}
+			return result;
+		}
+
+		private boolean isWorse(final int row1, final double score1, final int row2, final double score2) {
+			return score1 < score2 || (score1 == score2 && row1 > row2);
+		}
+
+		private void siftUp(int i) {
+			int parent;
+			while (i > 0) {
+				parent = (i-1)/2;
+				if (!this.isWorse(this.rows[i], this.scores[i], this.rows[parent], this.scores[parent])) {
+					break;
+				}
+				this.swap(i, parent);
+				i = parent;
+			}
+		}
+
+		private void siftDown(int i) {
+			int child;
+			while ((child = (2*i)+1) < this.size) {
+				if (child+1 < this.size && this.isWorse(this.rows[child+1], this.scores[child+1], this.rows[child], this.scores[child])) {
+					child++;
+				}
+				if (!this.isWorse(this.rows[child], this.scores[child], this.rows[i], this.scores[i])) {
+					break;
+				}
+				this.swap(i, child);
+				i = child;
+			}
+		}
+
+		private void swap(final int i, final int j) {
+			int row = this.rows[i];
+			double score = this.scores[i];
+			this.rows[i] = this.rows[j];
+			this.scores[i] = this.scores[j];
+			this.rows[j] = row;
+			this.scores[j] = score;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package machineLearningTools;
+
+import static machineLearningTools.MLMath.pseudoEqual;
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchCosineSimilarityTest {
+
+	// Constants
+	private final String trainingFile = testFile("example.real.vectors.txt");
+	private final int K = 5;
+
+	// Variables
+	private List<Document> training;
+	private Interner features;
+	private SparseMatrix trainingMatrix;
+
+	@Before
+	public void setupBatchCosineSimilarity() {
+		this.training = new RealValuedData(this.trainingFile).getDocs();
+		Collections.sort(this.training);
+		this.features = new Interner();
+		this.trainingMatrix = new SparseMatrix(this.training, this.features, true);
+	}
+
+	/**
+	 * Return the similarities of the K most similar training documents
+	 * to the query by pairwise CosineSimilarity, most similar first.
+	 */
+	private List<Double> exactTopK(Document query) {
+		List<Double> similarities = new ArrayList<Double>();
+		for (Document document: this.training) {
+			if (document.getDocID() != query.getDocID()) {
+				similarities.add(new CosineSimilarity(query, document).getDistance());
+			}
+		}
+		Collections.sort(similarities, Collections.reverseOrder());
+		return similarities.subList(0, Math.min(this.K, similarities.size()));
+	}
+
+	private void checkAgainstPairwise(int tileSize, SparseMatrix matrix) {
+		BatchCosineSimilarity batch = new BatchCosineSimilarity(matrix, tileSize);
+		int[][] neighbors = batch.nearest(matrix, this.K);
+		assertEquals(this.training.size(), neighbors.length);
+		for (int i = 0; i < this.training.size(); i++) {
+			Document query = this.training.get(i);
+			List<Double> gold = this.exactTopK(query);
+			assertEquals(gold.size(), neighbors[i].length);
+			for (int k = 0; k < neighbors[i].length; k++) {
+				Document neighbor = this.training.get(neighbors[i][k]);
+				assertTrue(neighbor.getDocID() != query.getDocID());
+				assertTrue(pseudoEqual(new CosineSimilarity(query, neighbor).getDistance(), gold.get(k)));
+			}
+		}
+	}
+
+	@Test
+	public void testBatchCosineSimilarityMatchesPairwise() {
+		this.checkAgainstPairwise(BatchCosineSimilarity.DEFAULT_TILE_SIZE, this.trainingMatrix);
+	}
+
+	@Test
+	public void testBatchCosineSimilarityMatchesPairwiseAcrossTiles() {
+		this.checkAgainstPairwise(3, this.trainingMatrix);
+	}
+
+	@Test
+	public void testBatchCosineSimilarityNormalizedMatchesPairwise() {
+		this.checkAgainstPairwise(BatchCosineSimilarity.DEFAULT_TILE_SIZE, this.trainingMatrix.normalize());
+	}
+
+	@Test
+	public void testBatchCosineSimilarityFillsUnrelated() {
+		List<Document> queries = Arrays.asList(new Document[]{new RealValuedDocument("label unseen:1")});
+		int[][] neighbors = new BatchCosineSimilarity(this.trainingMatrix, 4).nearest(new SparseMatrix(queries, this.features, false), this.K);
+		assertEquals(this.K, neighbors[0].length);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testBatchCosineSimilarityZeroTileSizeThrows() {
+		new BatchCosineSimilarity(this.trainingMatrix, 0);
+	}
+
+	@Test(expected=NullPointerException.class)
+	public void testBatchCosineSimilarityNullQueriesThrows() {
+		new BatchCosineSimilarity(this.trainingMatrix).nearest(null, this.K);
+	}
+}
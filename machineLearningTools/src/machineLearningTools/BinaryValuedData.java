@@ -3,8 +3,10 @@ package machineLearningTools;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -33,10 +35,54 @@ public class BinaryValuedData extends Data {
 		super(trainingDataJSON);
 	}
 
+	public BinaryValuedData(JSONDocumentReader reader) {
+		super(reader);
+	}
+
+	public BinaryValuedData(final String trainingDataFileName, final FeatureHasher hasher) {
+		super(trainingDataFileName, hasher);
+	}
+
+	public BinaryValuedData(final JSONDocumentReader reader, final FeatureHasher hasher) {
+		super(reader, hasher);
+	}
+
+	public BinaryValuedData(final String trainingDataFileName, final FeatureHasher hasher, final DocumentFilter filter) {
+		super(trainingDataFileName, hasher, filter);
+	}
+
+	public BinaryValuedData(final JSONDocumentReader reader, final FeatureHasher hasher, final DocumentFilter filter) {
+		super(reader, hasher, filter);
+	}
+
 	BinaryValuedData() {
 		super();
 	}
 
+	BinaryValuedData(final Data data, final Collection<Integer> docIDs) {
+		super(data, docIDs);
+	}
+
+	BinaryValuedData(final Data data, final Interner dictionary) {
+		super(data, dictionary);
+	}
+
+	/**
+	 * @see machineLearningTools.Data#subset(java.util.Collection)
+	 */
+	@Override
+	public BinaryValuedData subset(final Collection<Integer> docIDs) {
+		return new BinaryValuedData(this, docIDs);
+	}
+
+	/**
+	 * @see machineLearningTools.Data#prune(machineLearningTools.Interner)
+	 */
+	@Override
+	public BinaryValuedData prune(final Interner dictionary) {
+		return new BinaryValuedData(this, dictionary);
+	}
+
 	/**
 	 * Read in a file of documents,
 	 * each specified with a label and a set of features
@@ -51,8 +97,10 @@ public class BinaryValuedData extends Data {
 		try {
 			BufferedReader reader = new BufferedReader(new FileReader(dataFileName));
 			while ((lineString = reader.readLine()) != null) {
-				BinaryValuedDocument doc = new BinaryValuedDocument(lineString);
-				result.put(doc.getDocID(), doc);
+				BinaryValuedDocument doc = new BinaryValuedDocument(lineString, this.getFeatureHasher());
+				if (this.accept(doc)) {
+					result.put(doc.getDocID(), doc);
+				}
 			}
 			reader.close();
 		} catch (IOException e) {
@@ -74,9 +122,13 @@ public class BinaryValuedData extends Data {
 		Document.initialize();
 		HashMap<Integer, Document> result = new HashMap<Integer, Document>();
 		String key;
-		for (int i=0; i<Json.names().length(); i++) {
+		JSONArray names = Json.names();
+		if (names == null) {
+			return result;
+		}
+		for (int i=0; i<names.length(); i++) {
 			try {
-				key = Json.names().getString(i);
+				key = names.getString(i);
 				BinaryValuedDocument doc = new BinaryValuedDocument((JSONObject)Json.get(key), key);
 				result.put(doc.getDocID(), doc);
 			} catch (JSONException e) {
@@ -85,4 +137,34 @@ public class BinaryValuedData extends Data {
 		}
 		return result;
 	}
+
+	/**
+	 * Read in a stream of JSON documents one document at a time,
+	 * each specified with a label and a set of features
+	 *
+	 * @param reader
+	 */
+	@Override
+	protected HashMap<Integer, Document> readDataFromJSON(final JSONDocumentReader reader) {
+		Document.initialize();
+		HashMap<Integer, Document> result = new HashMap<Integer, Document>();
+		BinaryValuedDocument doc;
+		try {
+			try {
+				while (reader.next()) {
+					doc = new BinaryValuedDocument(reader, this.getFeatureHasher());
+					if (this.accept(doc)) {
+						result.put(doc.getDocID(), doc);
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.err.println("Error reading data from JSON.");
+			System.exit(1);
+		}
+		return result;
+	}
 }
\ No newline at end of file
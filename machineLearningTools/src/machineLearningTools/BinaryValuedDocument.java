@@ -8,6 +8,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -34,6 +35,18 @@ public class BinaryValuedDocument extends Document implements Comparable<Documen
 	 * @author T.J. Trimble
 	 */
 	BinaryValuedDocument(final String data, final boolean unstructuredFlag) {
+		this(data, (FeatureHasher) null, unstructuredFlag);
+	}
+
+	/**
+	 * Constructor for processing unstructured data. String is split
+	 * on whitespace and the hashed features of tokens are put into a set.
+	 *
+	 * @param data Unstructured string to count on whitespace.
+	 * @param hasher FeatureHasher to hash tokens with, or null to keep tokens
+	 * @param unstructuredFlag Pass as true to process data. Pass as false throws error.
+	 */
+	BinaryValuedDocument(final String data, final FeatureHasher hasher, final boolean unstructuredFlag) {
 		if (data == null) {
 			throw new NullPointerException();
 		}
@@ -43,7 +56,36 @@ public class BinaryValuedDocument extends Document implements Comparable<Documen
 		this.docID = Document.docCount++;
 		this.label = "<unknown>";
 		this.features = new HashSet<String>();
-		this.features.addAll(Arrays.asList(data.split("\\s+")));
+		if (hasher == null) {
+			this.features.addAll(Arrays.asList(data.split("\\s+")));
+		}
+		else {
+			for (String token: data.split("\\s+")) {
+				this.features.add(hasher.hash(token));
+			}
+		}
+	}
+
+	/**
+	 * Constructor for processing unstructured data. The n-grams of
+	 * the string found by the given NGramExtractor are put into a set.
+	 *
+	 * @param data Unstructured string to find the n-grams of.
+	 * @param extractor NGramExtractor to find n-grams with
+	 * @param unstructuredFlag Pass as true to process data. Pass as false throws error.
+	 *
+	 * @see NGramExtractor
+	 */
+	BinaryValuedDocument(final String data, final NGramExtractor extractor, final boolean unstructuredFlag) {
+		if (data == null || extractor == null) {
+			throw new NullPointerException();
+		}
+		if (unstructuredFlag == false) {
+			throw new IllegalArgumentException("To process structured data in the Document constructor, do not pass in a boolean parameter. To process unstructured data, the boolean parameter must be true.");
+		}
+		this.docID = Document.docCount++;
+		this.label = "<unknown>";
+		this.features = new HashSet<String>(new TokenCounter(data, extractor).keySet());
 	}
 
 	/**
@@ -53,6 +95,18 @@ public class BinaryValuedDocument extends Document implements Comparable<Documen
 	 *
 	 */
 	BinaryValuedDocument(final String data) {
+		this(data, (FeatureHasher) null);
+	}
+
+	/**
+	 * Read in a String with a label and a set of words and
+	 * create a Document object of their hashed features. <br>
+	 * Words are not checked for uniqueness, as they are not kept.
+	 *
+	 * @param data
+	 * @param hasher FeatureHasher to hash words with, or null to keep words
+	 */
+	BinaryValuedDocument(final String data, final FeatureHasher hasher) {
 		if (data == null) {
 			throw new NullPointerException();
 		}
@@ -72,6 +126,10 @@ public class BinaryValuedDocument extends Document implements Comparable<Documen
 					throw new IllegalArgumentException(String.format("Value %s in Document constructor is not properly formatted. Missing \":\" denoting count. %s (%s -> %s)", value, BinaryValuedDocument.unstructuredError, join(parts, ","), join(valuePart, ",")));
 				}
 				word = valuePart[0];
+				if (hasher != null) {
+					this.features.add(hasher.hash(word));
+					continue;
+				}
 				if (this.features.contains(word)) {
 					throw new IllegalArgumentException(String.format("Vector %s contains a non-unique word->count pairing. %s", data, BinaryValuedDocument.unstructuredError));
 				}
@@ -102,6 +160,7 @@ public class BinaryValuedDocument extends Document implements Comparable<Documen
 			throw new NullPointerException();
 		}
 		JSONObject json;
+		JSONArray names;
 		String feature;
 		this.features = new HashSet<String>();
 		// Get docID
@@ -122,9 +181,10 @@ public class BinaryValuedDocument extends Document implements Comparable<Documen
 		if (jsonObject.has("features")) {
 			try {
 				json = jsonObject.getJSONObject("features");
-				if (json.names() != null) {
-					for (int i=0; i<json.names().length(); i++) {
-						feature = json.names().getString(i);
+				names = json.names();
+				if (names != null) {
+					for (int i=0; i<names.length(); i++) {
+						feature = names.getString(i);
 						if (feature != null) {
 							this.features.add(feature);
 						}
@@ -139,6 +199,60 @@ public class BinaryValuedDocument extends Document implements Comparable<Documen
 		}
 	}
 
+	/**
+	 * Read in the current document of a JSONDocumentReader. <br>
+	 * The reader's feature and label Strings are used directly.
+	 *
+	 * @param reader positioned on a document by JSONDocumentReader#next()
+	 */
+	BinaryValuedDocument(final JSONDocumentReader reader) {
+		this(reader, null);
+	}
+
+	/**
+	 * Read in the current document of a JSONDocumentReader as
+	 * hashed features. <br>
+	 * Features are not checked for uniqueness, as they are not kept.
+	 *
+	 * @param reader positioned on a document by JSONDocumentReader#next()
+	 * @param hasher FeatureHasher to hash features with, or null to keep features
+	 */
+	BinaryValuedDocument(final JSONDocumentReader reader, final FeatureHasher hasher) {
+		if (reader == null) {
+			throw new NullPointerException("BinaryValuedDocument constructor received a null parameter: reader!");
+		}
+		this.docID = reader.getDocID();
+		this.label = reader.getLabel();
+		int size = reader.size();
+		this.features = new HashSet<String>((int)(size/0.75f) + 1);
+		for (int i = 0; i < size; i++) {
+			if (hasher != null) {
+				this.features.add(hasher.hash(reader.getFeature(i)));
+			}
+			else if (!this.features.add(reader.getFeature(i))) {
+				throw new IllegalArgumentException(String.format("Document %d contains a non-unique feature.", this.docID));
+			}
+		}
+	}
+
+	/**
+	 * Copy the given document, keeping only the features in dictionary.
+	 *
+	 * @param document
+	 * @param dictionary features to keep
+	 */
+	BinaryValuedDocument(final BinaryValuedDocument document, final Interner dictionary) {
+		this.docID = document.docID;
+		this.label = document.label;
+		this.features = new HashSet<String>();
+		for (String feature: document.features) {
+			if (dictionary.contains(feature)) {
+				this.features.add(feature);
+			}
+		}
+		this.values = Document.copyValues(document, this.features);
+	}
+
 	/**
 	 * For creating copies of documents.
 	 *
@@ -159,9 +273,9 @@ public class BinaryValuedDocument extends Document implements Comparable<Documen
 	 * @return the magnitude of this document object
 	 */
 	@Override
-	public Double getMagnitude() {
-		if (this.magnitude == null) {
-			this.magnitude = Math.sqrt(this.features.size());
+	public double getMagnitude() {
+		if (this.magnitude < 0) {
+			this.magnitude = (this.values != null) ? this.getValueMagnitude() : Math.sqrt(this.features.size());
 		}
 		return this.magnitude;
 	}
@@ -240,6 +354,17 @@ public class BinaryValuedDocument extends Document implements Comparable<Documen
 		return this.features.size();
 	}
 
+	/**
+	 * @see machineLearningTools.Document#prune(machineLearningTools.Interner)
+	 */
+	@Override
+	public BinaryValuedDocument prune(final Interner dictionary) {
+		if (dictionary == null) {
+			throw new NullPointerException("BinaryValuedDocument#prune received a null parameter: dictionary!");
+		}
+		return new BinaryValuedDocument(this, dictionary);
+	}
+
 	/**
 	 * @return JSON compatible string representation
 	 * {"DocID":{"label":"XYZ", "features":{"XYZ":"1","ABC":"1"}}}
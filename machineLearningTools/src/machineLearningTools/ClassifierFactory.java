@@ -0,0 +1,25 @@
+package machineLearningTools;
+
+/**
+ * ClassifierFactory
+ *
+ * Creates new, untrained classifiers of one configuration, so that
+ * each fold of a CrossValidation, which may run on its own thread,
+ * trains its own classifier. e.g.: <br><br>
+ *
+ * new ClassifierFactory() { <br>
+ * 	public MachineLearningClassifier create() { <br>
+ * 		return new NaiveBayesClassifier(0.1d, 0.1d, sysOutputFile, modelFile); <br>
+ * 	} <br>
+ * }
+ */
+public abstract class ClassifierFactory {
+
+	/**
+	 * Return a new classifier. Each call must return a different
+	 * object, as classifiers are trained and used on separate threads.
+	 *
+	 * @return new classifier
+	 */
+	public abstract MachineLearningClassifier create();
+}
@@ -0,0 +1,139 @@
+package machineLearningTools;
+
+import java.util.List;
+
+/**
+ * ClassifierTuner
+ *
+ * Evaluates many configurations of one classifier on the same training
+ * data, sharing the expensive part of training between them, for a
+ * HyperparameterSearch. <br><br>
+ *
+ * prepare() does the work shared by every configuration once per fold,
+ * such as counting features or finding the nearest neighbors of each
+ * testing document, and returns an Evaluator. The Evaluator then labels
+ * the testing documents under each configuration, and may be called
+ * from several threads at once. <br><br>
+ *
+ * A configuration is an array of parameter values, in the order
+ * of the tuner's parameter names.
+ */
+public abstract class ClassifierTuner {
+
+	private final String[] parameters;
+	private final List<double[]> configurations;
+
+	/**
+	 * Construct a ClassifierTuner over the given configurations,
+	 * e.g. from HyperparameterSearch#grid() or HyperparameterSearch#random().
+	 *
+	 * @param parameters names of the parameters of each configuration
+	 * @param configurations values of the parameters of each configuration
+	 */
+	protected ClassifierTuner(final String[] parameters, final List<double[]> configurations) {
+		if (parameters == null || configurations == null) {
+			throw new NullPointerException("ClassifierTuner constructor received a null parameter!");
+		}
+		if (configurations.isEmpty()) {
+			throw new IllegalArgumentException("ClassifierTuner requires at least one configuration;");
+		}
+		for (double[] configuration: configurations) {
+			if (configuration.length != parameters.length) {
+				throw new IllegalArgumentException(String.format("ClassifierTuner configurations must have %d parameters;", parameters.length));
+			}
+		}
+		this.parameters = parameters;
+		this.configurations = configurations;
+	}
+
+	/**
+	 * Do the work shared by every configuration on trainingData, to
+	 * label the documents of testingData.
+	 *
+	 * @param trainingData
+	 * @param testingData
+	 * @return Evaluator labeling testingData under each configuration
+	 */
+	public abstract Evaluator prepare(Data trainingData, Data testingData);
+
+	/**
+	 * Labels the testing documents given to ClassifierTuner#prepare()
+	 * under any configuration. Evaluators are only read after being
+	 * prepared, so several threads may call classify() at once.
+	 */
+	public static abstract class Evaluator {
+
+		/**
+		 * Return the label of each testing document under the given
+		 * configuration, in document ID order. A null label leaves the
+		 * document unclassified, as the classifier would.
+		 *
+		 * @param configuration
+		 * @return label of each testing document
+		 */
+		public abstract String[] classify(double[] configuration);
+	}
+
+	/**
+	 * Return the number of configurations.
+	 *
+	 * @return number of configurations
+	 */
+	public int size() {
+		return this.configurations.size();
+	}
+
+	/**
+	 * Return the configurations.
+	 *
+	 * @return the configurations
+	 */
+	public List<double[]> getConfigurations() {
+		return this.configurations;
+	}
+
+	/**
+	 * Return the configuration with the given index.
+	 *
+	 * @param configuration
+	 * @return parameter values of configuration
+	 */
+	public double[] getConfiguration(final int configuration) {
+		return this.configurations.get(configuration);
+	}
+
+	/**
+	 * Return the given parameter of every configuration.
+	 *
+	 * @param parameter
+	 * @return values of the parameter by configuration
+	 */
+	protected double[] getValues(final int parameter) {
+		double[] result = new double[this.configurations.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = this.configurations.get(i)[parameter];
+		}
+		return result;
+	}
+
+	/**
+	 * Return the configuration with the given index as
+	 * "parameter=value" pairs.
+	 *
+	 * @param configuration
+	 * @return description of configuration
+	 */
+	public String describe(final int configuration) {
+		double[] values = this.configurations.get(configuration);
+		StringBuilder stringBuilder = new StringBuilder();
+		for (int i = 0; i < this.parameters.length; i++) {
+			if (i > 0) {
+				stringBuilder.append(" ");
+			}
+			stringBuilder.append(this.parameters[i]);
+			stringBuilder.append("=");
+			stringBuilder.append(values[i]);
+		}
+		return stringBuilder.toString();
+	}
+}
@@ -0,0 +1,223 @@
+package machineLearningTools;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ConcurrentCounter
+ *
+ * Counter that many threads may increment at once without locking
+ * it as a whole, e.g. to count over the documents of a Data object
+ * split among threads. <br><br>
+ *
+ * Counts are held in AtomicIntegers in a ConcurrentHashMap, which is
+ * split into independently locked segments, so threads adding keys
+ * rarely contend, and increments of existing keys never lock. Threads
+ * counting mostly the same few keys may instead count into their own
+ * Counter and add it with addAll(Map) when done. <br><br>
+ *
+ * Unlike Counter, get() of a missing key returns 0 without adding the
+ * key, and keys may not be null. Use toCounter() for a Counter of the
+ * counts once counting is done.
+ *
+ * @param <T> key type
+ * @see Counter
+ */
+public class ConcurrentCounter<T> extends AbstractCounter<T> {
+	private final ConcurrentHashMap<T, AtomicInteger> values;
+
+	/**
+	 * Construct an empty ConcurrentCounter for one thread
+	 * per available processor.
+	 */
+	public ConcurrentCounter() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct an empty ConcurrentCounter.
+	 *
+	 * @param concurrencyLevel expected number of threads adding keys at once, at least 1
+	 */
+	public ConcurrentCounter(final int concurrencyLevel) {
+		if (concurrencyLevel < 1) {
+			throw new IllegalArgumentException("ConcurrentCounter requires a concurrencyLevel of at least 1;");
+		}
+		this.values = new ConcurrentHashMap<T, AtomicInteger>(16, 0.75f, concurrencyLevel);
+	}
+
+	// Core methods
+
+	/**
+	 * Increment the value associated with the key
+	 *
+	 * @param key
+	 */
+	public void increment(final T key) {
+		this.cell(key).incrementAndGet();
+	}
+
+	/**
+	 * Add the given amount to the value associated with the key
+	 *
+	 * @param key
+	 * @param amount
+	 */
+	public void increment(final T key, final int amount) {
+		this.cell(key).addAndGet(amount);
+	}
+
+	/**
+	 * Add the counts of the given Map, such as a Counter
+	 * one thread has counted into.
+	 *
+	 * @param counts
+	 */
+	public void addAll(final Map<T, Integer> counts) {
+		if (counts == null) {
+			throw new NullPointerException("ConcurrentCounter#addAll received a null parameter: counts!");
+		}
+		for (Map.Entry<T, Integer> entry: counts.entrySet()) {
+			this.increment(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Initialize key to 0
+	 * If key already has a value, set back to 0
+	 * @param key
+	 */
+	public void initialize(final T key) {
+		this.cell(key).set(0);
+	}
+
+	/**
+	 * Get value associated with key, or 0 if key has no value
+	 * @param key
+	 * @return value associated with key
+	 */
+	@Override
+	public Integer get(Object key) {
+		AtomicInteger value = this.values.get(key);
+		return (value == null) ? 0 : value.get();
+	}
+
+	/**
+	 * Return a Counter of the current counts.
+	 *
+	 * @return Counter of counts
+	 */
+	public Counter<T> toCounter() {
+		Counter<T> result = new Counter<T>();
+		for (Map.Entry<T, AtomicInteger> entry: this.values.entrySet()) {
+			result.increment(entry.getKey(), entry.getValue().get());
+		}
+		return result;
+	}
+
+	/**
+	 * Return an immutable, compact copy of the current counts, whose
+	 * lookups have no side effects, for sharing among threads that
+	 * only read counts.
+	 *
+	 * @return FrozenCounter of counts
+	 */
+	public FrozenCounter<T> freeze() {
+		return new FrozenCounter<T>(this.toCounter());
+	}
+
+	/**
+	 * Return the cell of the given key, adding a cell of 0 if
+	 * the key has none. Racing threads get the same cell.
+	 */
+	private AtomicInteger cell(final T key) {
+		AtomicInteger result = this.values.get(key);
+		if (result == null) {
+			AtomicInteger created = new AtomicInteger();
+			result = this.values.putIfAbsent(key, created);
+			if (result == null) {
+				result = created;
+			}
+		}
+		return result;
+	}
+
+	// Other methods
+
+	@Override
+	public String toString() {
+		return this.toCounter().toString();
+	}
+
+	/**
+	 * ConcurrentCounter implements equals using the equals
+	 * method of a Counter of the current counts
+	 * @return
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return this.toCounter().equals(obj);
+	}
+
+	/**
+	 * ConcurrentCounter hashes as a Counter of the current counts
+	 * does, without building one
+	 * @return
+	 */
+	@Override
+	public int hashCode() {
+		int result = 0;
+		for (Map.Entry<T, AtomicInteger> entry: this.values.entrySet()) {
+			result += entry.getKey().hashCode() ^ entry.getValue().get();
+		}
+		return result;
+	}
+
+	// General Map methods
+
+	/**
+	 * Return boolean if counter contains key
+	 * @param key
+	 * @return if counter contains key
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return this.values.containsKey(key);
+	}
+
+	/**
+	 * Return keys of counter, which reflects keys added while
+	 * iterating over it, or not
+	 * @return keys of counter
+	 */
+	@Override
+	public Set<T> keySet() {
+		return this.values.keySet();
+	}
+
+	/**
+	 * Return the entries of a Counter of the current counts
+	 */
+	@Override
+	public Set<java.util.Map.Entry<T, Integer>> entrySet() {
+		return this.toCounter().entrySet();
+	}
+
+	@Override
+	public Integer remove(Object key) {
+		AtomicInteger value = this.values.remove(key);
+		return (value == null) ? null : value.get();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.values.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return this.values.size();
+	}
+}
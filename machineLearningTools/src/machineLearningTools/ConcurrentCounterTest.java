@@ -0,0 +1,86 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ConcurrentCounterTest {
+
+	// Parameters
+	private final int threads = 4;
+	private final int increments = 20000;
+
+	@Test
+	public void testConcurrentCounterThreads() throws Exception {
+		final ConcurrentCounter<String> counter = new ConcurrentCounter<String>(this.threads);
+		ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+		ArrayList<Future<Counter<String>>> futures = new ArrayList<Future<Counter<String>>>();
+		try {
+			for (int thread = 0; thread < this.threads; thread++) {
+				final int seed = thread;
+				futures.add(executor.submit(new Callable<Counter<String>>() {
+					@Override
+					public Counter<String> call() {
+						Counter<String> local = new Counter<String>();
+						for (int i = 0; i < ConcurrentCounterTest.this.increments; i++) {
+							// Every thread increments the same keys
+							counter.increment("key" + (i % 100));
+							local.increment("local" + ((i+seed) % 10));
+						}
+						return local;
+					}
+				}));
+			}
+			for (Future<Counter<String>> future: futures) {
+				counter.addAll(future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(110, counter.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Integer.valueOf(this.threads*this.increments/100), counter.get("key" + i));
+		}
+		for (int i = 0; i < 10; i++) {
+			assertEquals(Integer.valueOf(this.threads*this.increments/10), counter.get("local" + i));
+		}
+	}
+
+	@Test
+	public void testConcurrentCounterGetDoesNotAdd() {
+		ConcurrentCounter<String> counter = new ConcurrentCounter<String>();
+		assertEquals(Integer.valueOf(0), counter.get("missing"));
+		assertFalse(counter.containsKey("missing"));
+		assertTrue(counter.isEmpty());
+	}
+
+	@Test
+	public void testConcurrentCounterToCounter() {
+		ConcurrentCounter<String> counter = new ConcurrentCounter<String>(1);
+		Counter<String> gold = new Counter<String>();
+		counter.increment("a");
+		counter.increment("b", 5);
+		counter.initialize("c");
+		gold.increment("a");
+		gold.increment("b", 5);
+		gold.initialize("c");
+		assertEquals(gold, counter.toCounter());
+		assertTrue(counter.equals(gold));
+		assertEquals(gold.hashCode(), counter.hashCode());
+		assertEquals(Integer.valueOf(5), counter.remove("b"));
+		assertEquals(2, counter.size());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testConcurrentCounterThrows() {
+		new ConcurrentCounter<String>(0);
+	}
+}
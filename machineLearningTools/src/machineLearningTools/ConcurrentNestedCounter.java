@@ -0,0 +1,219 @@
+package machineLearningTools;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A 2 dimensional matrix for integer counting that many threads may
+ * increment at once without locking it as a whole, e.g. to build a
+ * ConfusionMatrix or the feature counts per class of Naive Bayes over
+ * documents split among threads. <br><br>
+ *
+ * Each outer key has a ConcurrentCounter of its inner keys, so threads
+ * only contend when they add the same keys at once. Unlike NestedCounter,
+ * get() of a missing mapping returns 0 without adding the keys, and keys
+ * may not be null. Use toNestedCounter() for a NestedCounter of the counts
+ * once counting is done.
+ *
+ * @param <T> key type
+ * @see NestedCounter
+ * @see ConcurrentCounter
+ */
+public class ConcurrentNestedCounter<T> extends AbstractCounter<T> {
+	private final ConcurrentHashMap<T, ConcurrentCounter<T>> values;
+	// Keys used as either key1 or key2
+	private final ConcurrentHashMap<T, Boolean> allKeys;
+	private final int concurrencyLevel;
+
+	/**
+	 * Construct an empty ConcurrentNestedCounter for one thread
+	 * per available processor.
+	 */
+	public ConcurrentNestedCounter() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct an empty ConcurrentNestedCounter.
+	 *
+	 * @param concurrencyLevel expected number of threads adding keys at once, at least 1
+	 */
+	public ConcurrentNestedCounter(final int concurrencyLevel) {
+		if (concurrencyLevel < 1) {
+			throw new IllegalArgumentException("ConcurrentNestedCounter requires a concurrencyLevel of at least 1;");
+		}
+		this.concurrencyLevel = concurrencyLevel;
+		this.values = new ConcurrentHashMap<T, ConcurrentCounter<T>>(16, 0.75f, concurrencyLevel);
+		this.allKeys = new ConcurrentHashMap<T, Boolean>(16, 0.75f, concurrencyLevel);
+	}
+
+	// Core methods
+
+	/**
+	 * Increment the value at key1, key2 by 1.<br>
+	 * If value does not exist at key1, key2, initialize a value to 1.
+	 *
+	 * @param key1
+	 * @param key2
+	 */
+	public void increment(final T key1, final T key2) {
+		this.row(key1, key2).increment(key2);
+	}
+
+	/**
+	 * Add the given amount to the value at key1, key2.<br>
+	 * If value does not exist at key1, key2, initialize a value to amount.
+	 *
+	 * @param key1
+	 * @param key2
+	 * @param amount
+	 */
+	public void increment(final T key1, final T key2, final int amount) {
+		this.row(key1, key2).increment(key2, amount);
+	}
+
+	/**
+	 * Initialize the value at key1, key2 to 0.<br>
+	 * If value exists at key1, key2, reset to 0.
+	 *
+	 * @param key1
+	 * @param key2
+	 */
+	public void initialize(final T key1, final T key2) {
+		this.row(key1, key2).initialize(key2);
+	}
+
+	/**
+	 * Get the value at the specified key1->key2 mapping,
+	 * or 0 if no value exists
+	 *
+	 * @param key1
+	 * @param key2
+	 * @return
+	 */
+	public Integer get(final T key1, final T key2) {
+		ConcurrentCounter<T> row = this.values.get(key1);
+		return (row == null) ? 0 : row.get(key2);
+	}
+
+	/**
+	 * Return a NestedCounter of the current counts.
+	 *
+	 * @return NestedCounter of counts
+	 */
+	public NestedCounter<T> toNestedCounter() {
+		NestedCounter<T> result = new NestedCounter<T>();
+		for (Map.Entry<T, ConcurrentCounter<T>> row: this.values.entrySet()) {
+			for (T key2: row.getValue().keySet()) {
+				result.increment(row.getKey(), key2, row.getValue().get(key2));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return an immutable, compact copy of the current counts, whose
+	 * lookups have no side effects, for sharing among threads that
+	 * only read counts.
+	 *
+	 * @return FrozenNestedCounter of counts
+	 */
+	public FrozenNestedCounter<T> freeze() {
+		return new FrozenNestedCounter<T>(this.values, this.allKeys.keySet());
+	}
+
+	/**
+	 * Return the row of key1, adding an empty row if key1 has none,
+	 * and record both keys. Racing threads get the same row.
+	 */
+	private ConcurrentCounter<T> row(final T key1, final T key2) {
+		ConcurrentCounter<T> result = this.values.get(key1);
+		if (result == null) {
+			ConcurrentCounter<T> created = new ConcurrentCounter<T>(this.concurrencyLevel);
+			result = this.values.putIfAbsent(key1, created);
+			if (result == null) {
+				result = created;
+			}
+		}
+		this.allKeys.putIfAbsent(key1, Boolean.TRUE);
+		this.allKeys.putIfAbsent(key2, Boolean.TRUE);
+		return result;
+	}
+
+	// Other core methods
+	/**
+	 * Returns true iff key1->key2 mapping exists
+	 *
+	 * @param key1
+	 * @param key2
+	 * @return
+	 */
+	public boolean containsValueAt(final T key1, final T key2) {
+		ConcurrentCounter<T> row = this.values.get(key1);
+		return row != null && row.containsKey(key2);
+	}
+
+	/**
+	 * Returns true iff key is either a key1 or key2
+	 *
+	 * @param key1
+	 * @param key2
+	 * @return
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return this.allKeys.containsKey(key);
+	}
+
+	// General map methods
+	/**
+	 *
+	 * Returns a set of the outer keys
+	 *
+	 * @see java.util.Map#keySet()
+	 */
+	@Override
+	public Set<T> keySet() {
+		return this.values.keySet();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.values.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return this.values.size();
+	}
+
+	// General methods
+
+	/* (non-Javadoc)
+	 *
+	 * Constructs nested hashmap representation of the current counts
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return this.toNestedCounter().toString();
+	}
+
+	// Unsupported Map methods
+	@Override
+	public Integer get(Object key) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Integer remove(Object key) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Set<java.util.Map.Entry<T, Integer>> entrySet() {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,84 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ConcurrentNestedCounterTest {
+
+	// Parameters
+	private final String trainingFile = Testing.testFile("example.real.vectors.txt");
+
+	/**
+	 * Counting the features per label of documents split among
+	 * threads gives the counts of counting them on one thread.
+	 */
+	@Test
+	public void testConcurrentNestedCounterThreads() throws Exception {
+		Data data = new RealValuedData(this.trainingFile);
+		final ArrayList<Document> documents = data.getDocs();
+		NestedCounter<String> gold = new NestedCounter<String>();
+		for (Document document: documents) {
+			for (String feature: document.getWords()) {
+				gold.increment(document.getLabel(), feature);
+			}
+		}
+		final ConcurrentNestedCounter<String> counter = new ConcurrentNestedCounter<String>(3);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+		try {
+			int chunkSize = (documents.size()+2)/3;
+			for (int start = 0; start < documents.size(); start += chunkSize) {
+				final List<Document> chunk = documents.subList(start, Math.min(start+chunkSize, documents.size()));
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						for (Document document: chunk) {
+							for (String feature: document.getWords()) {
+								counter.increment(document.getLabel(), feature);
+							}
+						}
+						return null;
+					}
+				}));
+			}
+			for (Future<?> future: futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(gold.keySet(), counter.keySet());
+		for (String label: data.getAllLabels()) {
+			for (String feature: data.getAllFeatures()) {
+				assertEquals(gold.get(label, feature), counter.get(label, feature));
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentNestedCounterGetDoesNotAdd() {
+		ConcurrentNestedCounter<String> counter = new ConcurrentNestedCounter<String>();
+		assertEquals(Integer.valueOf(0), counter.get("key1", "key2"));
+		assertFalse(counter.containsKey("key1"));
+		assertTrue(counter.isEmpty());
+		counter.increment("key1", "key2", 3);
+		counter.initialize("key3", "key4");
+		assertTrue(counter.containsKey("key2"));
+		assertTrue(counter.containsValueAt("key3", "key4"));
+		assertFalse(counter.containsValueAt("key1", "key4"));
+		NestedCounter<String> nested = counter.toNestedCounter();
+		assertEquals(Integer.valueOf(3), nested.get("key1", "key2"));
+		assertEquals(Integer.valueOf(0), nested.get("key3", "key4"));
+		assertEquals(2, counter.size());
+	}
+}
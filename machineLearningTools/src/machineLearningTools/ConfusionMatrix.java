@@ -11,11 +11,13 @@ import java.util.Collections;
  *
  * Class for creating, loading, and formatting confusion matrices
  *
- * TODO: Add Precision, Recall, F-score, and accuracy options
+ * TODO: Add Precision, Recall, and F-score options
  ** *********************************************************/
 public class ConfusionMatrix extends NestedCounter<String> {
 	// Core values
 	private String label;
+	private int total;
+	private int correct;
 
 	/**
 	 * Construct a ConfusionMatrix object using the Data parameter
@@ -36,6 +38,44 @@ public class ConfusionMatrix extends NestedCounter<String> {
 		}
 	}
 
+	/**
+	 * Count a document with the given true label and system label.
+	 *
+	 * @see machineLearningTools.NestedCounter#increment(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public void increment(final String trueLabel, final String systemLabel) {
+		super.increment(trueLabel, systemLabel);
+		this.total++;
+		if (trueLabel != null && trueLabel.equals(systemLabel)) {
+			this.correct++;
+		}
+	}
+
+	/**
+	 * Count amount documents with the given true label and system label.
+	 *
+	 * @see machineLearningTools.NestedCounter#increment(java.lang.Object, java.lang.Object, int)
+	 */
+	@Override
+	public void increment(final String trueLabel, final String systemLabel, final int amount) {
+		super.increment(trueLabel, systemLabel, amount);
+		this.total += amount;
+		if (trueLabel != null && trueLabel.equals(systemLabel)) {
+			this.correct += amount;
+		}
+	}
+
+	/**
+	 * Return the fraction of documents whose system label is their
+	 * true label, or 0 if no documents have been counted.
+	 *
+	 * @return accuracy
+	 */
+	public double getAccuracy() {
+		return (this.total == 0) ? 0.0d : (double)this.correct/this.total;
+	}
+
 	/**
 	 * Return label of confusion matrix
 	 * @return label member
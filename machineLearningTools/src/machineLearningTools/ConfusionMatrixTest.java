@@ -138,6 +138,17 @@ public class ConfusionMatrixTest {
 		assertThat(this.confusionMatrix.get(this.test.key1, this.test.key2), is(2));
 	}
 
+	@Test
+	public void testConfusionMatrixIncrementAmount() {
+		ConfusionMatrix matrix = new ConfusionMatrix(new BinaryValuedData(), "amount");
+		matrix.increment("a", "a", 3);
+		matrix.increment("a", "b");
+		assertThat(matrix.get("a", "a"), is(3));
+		assertEquals(0.75d, matrix.getAccuracy(), 0.0d);
+		matrix.increment("b", "a", 4);
+		assertEquals(0.375d, matrix.getAccuracy(), 0.0d);
+	}
+
 	// Basic methods
 
 	@Test
@@ -0,0 +1,260 @@
+package machineLearningTools;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * CorpusGenerator
+ *
+ * Writes synthetic labeled documents for benchmarks, load tests and
+ * scaling tests, in either the "label feat:count" text format or the
+ * JSON format read by RealValuedData and BinaryValuedData. <br><br>
+ *
+ * Labels are named label0 through label(labels-1) and features f0 through
+ * f(vocabulary-1), where f0 is the most frequent. Each document is a
+ * sequence of tokens, counted into features: <br><br>
+ *
+ * 	Token ranks follow a Zipf distribution, P(rank r) ~ 1/(r+1)^zipfExponent. <br>
+ * 	Half of the tokens of a document are topical: their rank is shifted
+ * 		by an offset belonging to the document label, so each label has its
+ * 		own frequent features and classifiers have something to learn. <br>
+ * 	Labels follow a Zipf distribution with exponent labelSkew, so 0 gives
+ * 		equally likely labels and larger values give rarer minority labels. <br>
+ * 	Document lengths are uniform between half and one and a half times
+ * 		tokensPerDocument. <br><br>
+ *
+ * Documents are written as they are generated, so corpora of hundreds of
+ * millions of tokens need memory only for the vocabulary. The same
+ * parameters and seed always produce the same corpus.
+ */
+public class CorpusGenerator {
+
+	public static final double DEFAULT_ZIPF_EXPONENT = 1.0d;
+	public static final double DEFAULT_LABEL_SKEW = 0.0d;
+
+	// Parameters
+	private final int documents;
+	private final int vocabulary;
+	private final int labels;
+	private final int tokensPerDocument;
+	private final double zipfExponent;
+	private final double labelSkew;
+	private final long seed;
+
+	// Cumulative distributions of feature ranks and labels
+	private double[] rankDistribution;
+	private double[] labelDistribution;
+
+	/**
+	 * Construct a CorpusGenerator with the given parameters.
+	 *
+	 * @param documents number of documents, at least 1
+	 * @param vocabulary number of distinct features, at least 1
+	 * @param labels number of labels, at least 1
+	 * @param tokensPerDocument mean number of tokens in each document, at least 1
+	 * @param zipfExponent exponent of the feature distribution, at least 0
+	 * @param labelSkew exponent of the label distribution, at least 0
+	 * @param seed
+	 */
+	public CorpusGenerator(final int documents, final int vocabulary, final int labels, final int tokensPerDocument, final double zipfExponent, final double labelSkew, final long seed) {
+		if (documents < 1 || vocabulary < 1 || labels < 1 || tokensPerDocument < 1) {
+			throw new IllegalArgumentException("CorpusGenerator requires documents, vocabulary, labels and tokensPerDocument to be at least 1;");
+		}
+		if (zipfExponent < 0 || labelSkew < 0) {
+			throw new IllegalArgumentException("CorpusGenerator requires zipfExponent >= 0 and labelSkew >= 0;");
+		}
+		this.documents = documents;
+		this.vocabulary = vocabulary;
+		this.labels = labels;
+		this.tokensPerDocument = tokensPerDocument;
+		this.zipfExponent = zipfExponent;
+		this.labelSkew = labelSkew;
+		this.seed = seed;
+	}
+
+	/**
+	 * Construct a CorpusGenerator with the default Zipf exponent and
+	 * equally likely labels.
+	 *
+	 * @param documents number of documents, at least 1
+	 * @param vocabulary number of distinct features, at least 1
+	 * @param labels number of labels, at least 1
+	 * @param tokensPerDocument mean number of tokens in each document, at least 1
+	 * @param seed
+	 */
+	public CorpusGenerator(final int documents, final int vocabulary, final int labels, final int tokensPerDocument, final long seed) {
+		this(documents, vocabulary, labels, tokensPerDocument, CorpusGenerator.DEFAULT_ZIPF_EXPONENT, CorpusGenerator.DEFAULT_LABEL_SKEW, seed);
+	}
+
+	/**
+	 * Write the corpus to the given file in the text format,
+	 * one document per line.
+	 *
+	 * @param fileName
+	 * @return number of tokens written
+	 * @throws IOException
+	 */
+	public long write(final String fileName) throws IOException {
+		return this.write(fileName, false);
+	}
+
+	/**
+	 * Write the corpus to the given file as a JSON object mapping each
+	 * document ID to its label and feature counts.
+	 *
+	 * @param fileName
+	 * @return number of tokens written
+	 * @throws IOException
+	 */
+	public long writeJSON(final String fileName) throws IOException {
+		return this.write(fileName, true);
+	}
+
+	/**
+	 * Generate the corpus and write it in either format.
+	 *
+	 * @param fileName
+	 * @param json
+	 * @return number of tokens written
+	 * @throws IOException
+	 */
+	private long write(final String fileName, final boolean json) throws IOException {
+		if (fileName == null) {
+			throw new NullPointerException("CorpusGenerator#write received a null parameter: fileName!");
+		}
+		if (this.rankDistribution == null) {
+			this.rankDistribution = CorpusGenerator.zipfDistribution(this.vocabulary, this.zipfExponent);
+			this.labelDistribution = CorpusGenerator.zipfDistribution(this.labels, this.labelSkew);
+		}
+		Random random = new Random(this.seed);
+		BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), "utf-8"), 1 << 16);
+		long tokens = 0L;
+		try {
+			// Feature counts of the current document, and its features in order of first use
+			int[] counts = new int[this.vocabulary];
+			int[] features = new int[Math.min(this.vocabulary, (3*this.tokensPerDocument)/2 + 1)];
+			int featureCount;
+			int length;
+			int label;
+			int labelOffset;
+			int rank;
+			int feature;
+			if (json) {
+				writer.write('{');
+			}
+			for (int document = 0; document < this.documents; document++) {
+				label = CorpusGenerator.sample(this.labelDistribution, random);
+				labelOffset = (int)(((long)label*this.vocabulary)/this.labels);
+				length = Math.max(1, (this.tokensPerDocument/2) + random.nextInt(this.tokensPerDocument+1));
+				featureCount = 0;
+				for (int token = 0; token < length; token++) {
+					rank = CorpusGenerator.sample(this.rankDistribution, random);
+					feature = random.nextBoolean() ? (rank + labelOffset) % this.vocabulary : rank;
+					if (counts[feature] == 0) {
+						if (featureCount == features.length) {
+							features = Arrays.copyOf(features, Math.min(this.vocabulary, features.length*2));
+						}
+						features[featureCount++] = feature;
+					}
+					counts[feature]++;
+				}
+				tokens += length;
+				if (json) {
+					this.writeJSONDocument(writer, document, label, features, featureCount, counts);
+				}
+				else {
+					this.writeTextDocument(writer, label, features, featureCount, counts);
+				}
+				for (int i = 0; i < featureCount; i++) {
+					counts[features[i]] = 0;
+				}
+			}
+			if (json) {
+				writer.write('}');
+			}
+		} finally {
+			writer.close();
+		}
+		return tokens;
+	}
+
+	/**
+	 * Write a document as a line of "label feat:count" text.
+	 */
+	private void writeTextDocument(final BufferedWriter writer, final int label, final int[] features, final int featureCount, final int[] counts) throws IOException {
+		writer.write("label");
+		writer.write(Integer.toString(label));
+		for (int i = 0; i < featureCount; i++) {
+			writer.write(" f");
+			writer.write(Integer.toString(features[i]));
+			writer.write(':');
+			writer.write(Integer.toString(counts[features[i]]));
+		}
+		writer.write('\n');
+	}
+
+	/**
+	 * Write a document as a "docID":{"label":...,"features":{...}} member
+	 * of the corpus JSON object.
+	 */
+	private void writeJSONDocument(final BufferedWriter writer, final int document, final int label, final int[] features, final int featureCount, final int[] counts) throws IOException {
+		if (document > 0) {
+			writer.write(',');
+		}
+		writer.write('"');
+		writer.write(Integer.toString(document));
+		writer.write("\":{\"label\":\"label");
+		writer.write(Integer.toString(label));
+		writer.write("\",\"features\":{");
+		for (int i = 0; i < featureCount; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write("\"f");
+			writer.write(Integer.toString(features[i]));
+			writer.write("\":\"");
+			writer.write(Integer.toString(counts[features[i]]));
+			writer.write('"');
+		}
+		writer.write("}}");
+	}
+
+	/**
+	 * Return the cumulative distribution of a Zipf distribution over
+	 * size ranks, P(rank r) ~ 1/(r+1)^exponent.
+	 *
+	 * @param size
+	 * @param exponent
+	 * @return cumulative probability of each rank
+	 */
+	static double[] zipfDistribution(final int size, final double exponent) {
+		double[] result = new double[size];
+		double total = 0.0d;
+		for (int rank = 0; rank < size; rank++) {
+			total += (exponent == 0) ? 1.0d : Math.pow(rank+1, -exponent);
+			result[rank] = total;
+		}
+		for (int rank = 0; rank < size; rank++) {
+			result[rank] /= total;
+		}
+		result[size-1] = 1.0d;
+		return result;
+	}
+
+	/**
+	 * Draw a rank from a cumulative distribution.
+	 *
+	 * @param distribution
+	 * @param random
+	 * @return rank drawn
+	 */
+	static int sample(final double[] distribution, final Random random) {
+		int index = Arrays.binarySearch(distribution, random.nextDouble());
+		// A miss returns -(insertion point)-1; the insertion point is the rank
+		return (index >= 0) ? index : -index-1;
+	}
+}
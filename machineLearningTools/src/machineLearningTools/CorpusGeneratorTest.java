@@ -0,0 +1,130 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CorpusGeneratorTest {
+
+	// Parameters
+	private final int documents = 200;
+	private final int vocabulary = 50;
+	private final int labels = 4;
+	private final int tokensPerDocument = 10;
+
+	// Variables
+	private File corpusFile;
+	private File otherCorpusFile;
+
+	@Before
+	public void setupCorpusGenerator() throws IOException {
+		this.corpusFile = File.createTempFile("corpus", ".vectors.txt");
+		this.otherCorpusFile = File.createTempFile("corpus", ".vectors.txt");
+	}
+
+	@After
+	public void cleanup() {
+		this.corpusFile.delete();
+		this.otherCorpusFile.delete();
+	}
+
+	private byte[] read(File file) throws IOException {
+		RandomAccessFile input = new RandomAccessFile(file, "r");
+		byte[] result = new byte[(int)input.length()];
+		input.readFully(result);
+		input.close();
+		return result;
+	}
+
+	private int totalCount(Document document) {
+		int result = 0;
+		for (String feature: document.getFeatures()) {
+			result += document.getFeatCount(feature);
+		}
+		return result;
+	}
+
+	@Test
+	public void testCorpusGeneratorReadable() throws IOException {
+		long tokens = new CorpusGenerator(this.documents, this.vocabulary, this.labels, this.tokensPerDocument, 1L).write(this.corpusFile.getPath());
+		Data data = new RealValuedData(this.corpusFile.getPath());
+		assertEquals(this.documents, data.size());
+		assertTrue(data.getAllLabels().size() <= this.labels);
+		assertTrue(data.getAllFeatures().size() <= this.vocabulary);
+		long total = 0L;
+		int size;
+		for (Document document: data.getDocs()) {
+			size = this.totalCount(document);
+			assertTrue(size >= this.tokensPerDocument/2 && size <= (3*this.tokensPerDocument)/2);
+			total += size;
+		}
+		assertEquals(tokens, total);
+	}
+
+	@Test
+	public void testCorpusGeneratorJSONReadable() throws IOException {
+		CorpusGenerator generator = new CorpusGenerator(this.documents, this.vocabulary, this.labels, this.tokensPerDocument, 1L);
+		generator.write(this.corpusFile.getPath());
+		generator.writeJSON(this.otherCorpusFile.getPath());
+		InputStreamReader reader = new InputStreamReader(new FileInputStream(this.otherCorpusFile), "utf-8");
+		Data json = new RealValuedData(new JSONObject(new JSONTokener(reader)));
+		reader.close();
+		Data text = new RealValuedData(this.corpusFile.getPath());
+		assertEquals(this.documents, json.size());
+		assertEquals(text.getAllLabels(), json.getAllLabels());
+		assertEquals(text.getAllFeatures(), json.getAllFeatures());
+	}
+
+	@Test
+	public void testCorpusGeneratorDeterministic() throws IOException {
+		new CorpusGenerator(this.documents, this.vocabulary, this.labels, this.tokensPerDocument, 1L).write(this.corpusFile.getPath());
+		new CorpusGenerator(this.documents, this.vocabulary, this.labels, this.tokensPerDocument, 1L).write(this.otherCorpusFile.getPath());
+		assertTrue(Arrays.equals(this.read(this.corpusFile), this.read(this.otherCorpusFile)));
+	}
+
+	@Test
+	public void testCorpusGeneratorLabelSkew() throws IOException {
+		new CorpusGenerator(1000, this.vocabulary, this.labels, this.tokensPerDocument, 1.0d, 2.0d, 1L).write(this.corpusFile.getPath());
+		Data data = new RealValuedData(this.corpusFile.getPath());
+		int[] counts = new int[this.labels];
+		for (Document document: data.getDocs()) {
+			counts[Integer.parseInt(document.getLabel().substring("label".length()))]++;
+		}
+		// With exponent 2, label0 is drawn 16 times as often as label3
+		assertTrue(counts[0] > 4*counts[3]);
+	}
+
+	@Test
+	public void testCorpusGeneratorZipfDistribution() {
+		double[] distribution = CorpusGenerator.zipfDistribution(4, 1.0d);
+		// Weights 1, 1/2, 1/3, 1/4 sum to 25/12
+		assertEquals(12.0d/25.0d, distribution[0], 1e-9);
+		assertEquals(18.0d/25.0d, distribution[1], 1e-9);
+		assertEquals(1.0d, distribution[3], 0.0d);
+		distribution = CorpusGenerator.zipfDistribution(4, 0.0d);
+		assertEquals(0.25d, distribution[0], 1e-9);
+		assertEquals(0.5d, distribution[1], 1e-9);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCorpusGeneratorInvalidParametersThrows() {
+		new CorpusGenerator(this.documents, 0, this.labels, this.tokensPerDocument, 1L);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCorpusGeneratorNegativeSkewThrows() {
+		new CorpusGenerator(this.documents, this.vocabulary, this.labels, this.tokensPerDocument, 1.0d, -1.0d, 1L);
+	}
+}
@@ -19,13 +19,22 @@ public class CosineSimilarity extends SimilarityMetric {
 			throw new NullPointerException("CosineSimilarity constructor received null parameter.");
 		}
 		this.distance = 0.0d;
-		if (documentToCompare.getMagnitude() == 0 || documentToClassify.getMagnitude() == 0) {
+		double magnitudes = documentToCompare.getMagnitude()*documentToClassify.getMagnitude();
+		if (magnitudes == 0) {
 			// If either document is empty, then their similarity is 0
 			return;
 		}
-		for (String feature: documentToClassify.getFeatures()) {
-			this.distance += (documentToClassify.getFeatCount(feature)*documentToCompare.getFeatCount(feature));
+		// Only features of the smaller document can contribute
+		Document smaller = documentToClassify;
+		Document larger = documentToCompare;
+		if (smaller.size() > larger.size()) {
+			smaller = documentToCompare;
+			larger = documentToClassify;
 		}
-		this.distance /= (documentToCompare.getMagnitude()*documentToClassify.getMagnitude());
+		double dotProduct = 0.0d;
+		for (String feature: smaller.getFeatures()) {
+			dotProduct += smaller.getFeatValue(feature)*larger.getFeatValue(feature);
+		}
+		this.distance = dotProduct/magnitudes;
 	}
 }
@@ -0,0 +1,174 @@
+package machineLearningTools;
+
+/**
+ * CountMinSketch
+ *
+ * Approximate counts of Strings, such as feature frequencies, in a fixed
+ * depth x width table of counts rather than a Counter of every String.
+ * <br><br>
+ *
+ * Each String is hashed to one cell of each row, and its estimate is the
+ * least of its cells. Estimates are never below the true count, and are
+ * above it by at most e/width of the total count with probability at
+ * least 1 - e^-depth. Adds are conservative: only the cells that are
+ * below the new estimate are raised, which keeps estimates far tighter
+ * for skewed counts, such as word frequencies. <br><br>
+ *
+ * Sketches of the same width and depth merge by adding their cells, so
+ * each thread, or shard, can count into its own sketch. Merged estimates
+ * are still never below the true count. A CountMinSketch is not thread
+ * safe.
+ */
+public class CountMinSketch {
+
+	// Seed of the second hash of each String
+	private static final int SEED = 0x9747b28c;
+
+	private final int width;
+	private final int depth;
+	// depth rows of width cells
+	private final long[] cells;
+	private long total;
+
+	/**
+	 * Construct an empty CountMinSketch.
+	 *
+	 * @param width number of cells of each row, at least 1
+	 * @param depth number of rows, at least 1
+	 */
+	public CountMinSketch(final int width, final int depth) {
+		if (width < 1 || depth < 1) {
+			throw new IllegalArgumentException("CountMinSketch requires a width and depth of at least 1;");
+		}
+		if ((long) width*depth > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("CountMinSketch requires at most Integer.MAX_VALUE cells;");
+		}
+		this.width = width;
+		this.depth = depth;
+		this.cells = new long[width*depth];
+	}
+
+	/**
+	 * Construct an empty CountMinSketch whose estimates are within
+	 * error times the total count with probability 1 - failure.
+	 *
+	 * @param error greater than 0.0
+	 * @param failure greater than 0.0 and less than 1.0
+	 * @return CountMinSketch of width e/error and depth ln(1/failure)
+	 */
+	public static CountMinSketch withError(final double error, final double failure) {
+		if (!(error > 0.0d) || !(failure > 0.0d && failure < 1.0d)) {
+			throw new IllegalArgumentException("CountMinSketch#withError requires an error greater than 0.0 and a failure between 0.0 and 1.0;");
+		}
+		return new CountMinSketch((int) Math.ceil(Math.E/error), (int) Math.ceil(Math.log(1.0d/failure)));
+	}
+
+	/**
+	 * Add one to the count of the given String.
+	 *
+	 * @param value
+	 */
+	public void add(final String value) {
+		this.add(value, 1L);
+	}
+
+	/**
+	 * Add count to the count of the given String.
+	 *
+	 * @param value
+	 * @param count at least 0
+	 */
+	public void add(final String value, final long count) {
+		if (value == null) {
+			throw new NullPointerException("CountMinSketch#add received a null parameter: value!");
+		}
+		if (count < 0) {
+			throw new IllegalArgumentException("CountMinSketch#add requires a count of at least 0;");
+		}
+		int first = FeatureHasher.murmur3(value);
+		int second = FeatureHasher.murmur3(value, CountMinSketch.SEED);
+		long estimate = this.estimate(first, second) + count;
+		int cell;
+		for (int row = 0; row < this.depth; row++) {
+			cell = this.cell(first, second, row);
+			if (this.cells[cell] < estimate) {
+				this.cells[cell] = estimate;
+			}
+		}
+		this.total += count;
+	}
+
+	/**
+	 * Return the estimated count of the given String, which is
+	 * never below its true count.
+	 *
+	 * @param value
+	 * @return estimated count
+	 */
+	public long estimate(final String value) {
+		if (value == null) {
+			throw new NullPointerException("CountMinSketch#estimate received a null parameter: value!");
+		}
+		return this.estimate(FeatureHasher.murmur3(value), FeatureHasher.murmur3(value, CountMinSketch.SEED));
+	}
+
+	/**
+	 * Add the counts of another CountMinSketch of the same width
+	 * and depth to this one.
+	 *
+	 * @param other
+	 */
+	public void merge(final CountMinSketch other) {
+		if (other == null) {
+			throw new NullPointerException("CountMinSketch#merge received a null parameter: other!");
+		}
+		if (other.width != this.width || other.depth != this.depth) {
+			throw new IllegalArgumentException("CountMinSketch#merge requires a CountMinSketch of the same width and depth;");
+		}
+		for (int i = 0; i < this.cells.length; i++) {
+			this.cells[i] += other.cells[i];
+		}
+		this.total += other.total;
+	}
+
+	/**
+	 * @return sum of every count added
+	 */
+	public long getTotal() {
+		return this.total;
+	}
+
+	/**
+	 * @return number of cells of each row
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * @return number of rows
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+
+	/**
+	 * Return the least cell of a String with the given hashes.
+	 */
+	private long estimate(final int first, final int second) {
+		long result = Long.MAX_VALUE;
+		for (int row = 0; row < this.depth; row++) {
+			result = Math.min(result, this.cells[this.cell(first, second, row)]);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the cell in the given row of a String with the given
+	 * hashes, combining the two hashes for each row.
+	 */
+	private int cell(final int first, final int second, final int row) {
+		int hash = first + row*second;
+		return row*this.width + (int) ((hash & 0xffffffffL) % this.width);
+	}
+}
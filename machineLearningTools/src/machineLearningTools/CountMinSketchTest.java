@@ -0,0 +1,61 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CountMinSketchTest {
+
+	@Test
+	public void testCountMinSketchNeverUnderestimates() {
+		CountMinSketch sketch = new CountMinSketch(64, 4);
+		Counter<String> counts = new Counter<String>();
+		Random random = new Random(5L);
+		String value;
+		for (int i = 0; i < 5000; i++) {
+			// Skewed, so a few values are frequent
+			value = "f" + (int) Math.floor(Math.exp(random.nextDouble()*Math.log(2000)));
+			sketch.add(value);
+			counts.increment(value);
+		}
+		assertEquals(5000L, sketch.getTotal());
+		long excess = 0L;
+		for (String key: counts.keySet()) {
+			assertTrue(sketch.estimate(key) >= counts.get(key));
+			excess += sketch.estimate(key) - counts.get(key);
+		}
+		// Within e/width of the total on average
+		assertTrue(excess/(double) counts.size() <= Math.E/64*5000);
+		assertEquals(0L, new CountMinSketch(64, 4).estimate("f1"));
+	}
+
+	@Test
+	public void testCountMinSketchMerge() {
+		CountMinSketch first = new CountMinSketch(1024, 5);
+		CountMinSketch second = new CountMinSketch(1024, 5);
+		first.add("a", 3L);
+		first.add("b");
+		second.add("a", 4L);
+		second.add("c", 2L);
+		first.merge(second);
+		assertEquals(7L, first.estimate("a"));
+		assertEquals(1L, first.estimate("b"));
+		assertEquals(2L, first.estimate("c"));
+		assertEquals(10L, first.getTotal());
+	}
+
+	@Test
+	public void testCountMinSketchWithError() {
+		CountMinSketch sketch = CountMinSketch.withError(0.01d, 0.01d);
+		assertEquals(272, sketch.getWidth());
+		assertEquals(5, sketch.getDepth());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCountMinSketchMergeThrows() {
+		new CountMinSketch(8, 2).merge(new CountMinSketch(8, 3));
+	}
+}
@@ -66,12 +66,19 @@ public class Counter<T> extends AbstractCounter<T> {
 	 * @param key
 	 */
 	public void increment(final T key) {
-		try {
-			this.values.put(key, this.values.get(key)+1);
-		}
-		catch (NullPointerException e) {
-			this.values.put(key, 1);
-		}
+		Integer value = this.values.get(key);
+		this.values.put(key, (value == null) ? 1 : value+1);
+	}
+
+	/**
+	 * Add the given amount to the value associated with the key
+	 *
+	 * @param key
+	 * @param amount
+	 */
+	public void increment(final T key, final int amount) {
+		Integer value = this.values.get(key);
+		this.values.put(key, (value == null) ? amount : value+amount);
 	}
 
 	/**
@@ -103,6 +110,17 @@ public class Counter<T> extends AbstractCounter<T> {
 		}
 	}
 
+	/**
+	 * Return an immutable, compact copy of the counts of this Counter,
+	 * whose lookups have no side effects, for sharing among threads
+	 * that only read counts.
+	 *
+	 * @return FrozenCounter of counts
+	 */
+	public FrozenCounter<T> freeze() {
+		return new FrozenCounter<T>(this.values);
+	}
+
 	// Other methods
 
 	@Override
@@ -120,6 +138,16 @@ public class Counter<T> extends AbstractCounter<T> {
 		return this.values.equals(obj);
 	}
 
+	/**
+	 * Counter implements hashCode using the hashCode method of the
+	 * inner map
+	 * @return
+	 */
+	@Override
+	public int hashCode() {
+		return this.values.hashCode();
+	}
+
 	// General Map methods
 
 	/**
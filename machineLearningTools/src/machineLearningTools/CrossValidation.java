@@ -0,0 +1,264 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+
+/**
+ * CrossValidation
+ *
+ * k-fold cross-validation over a loaded Data object. Documents are
+ * dealt into folds once, stratified by label, and each fold's training
+ * and testing Data share the loaded documents rather than copying or
+ * re-reading them. <br><br>
+ *
+ * run() trains a new classifier from a ClassifierFactory on all but one
+ * fold and classifies the remaining fold, for each fold, running folds
+ * in parallel. Its Result holds the confusion matrix over all documents
+ * and the accuracy of each fold. <br><br>
+ *
+ * Classifying sets the system output of the shared documents, so runs
+ * over the same Data must not overlap.
+ */
+public class CrossValidation {
+
+	private static final String TEST_LABEL = "test";
+
+	private final Data data;
+	private final Data[] trainingData;
+	private final Data[] testingData;
+
+	/**
+	 * Deal the documents of data into the given number of folds,
+	 * shuffled with the given seed and stratified by label.
+	 *
+	 * @param data
+	 * @param folds at least 2 and at most the number of documents
+	 * @param seed
+	 */
+	public CrossValidation(final Data data, final int folds, final long seed) {
+		if (data == null) {
+			throw new NullPointerException("CrossValidation constructor received a null parameter: data!");
+		}
+		if (folds < 2 || folds > data.size()) {
+			throw new IllegalArgumentException(String.format("CrossValidation requires between 2 and %d folds;", data.size()));
+		}
+		this.data = data;
+		// Shuffle, then group by label, so each fold gets its share of each label
+		ArrayList<Integer> ids = new ArrayList<Integer>(data.getIDs());
+		Collections.sort(ids);
+		Collections.shuffle(ids, new Random(seed));
+		List<List<Integer>> byLabel = new ArrayList<List<Integer>>();
+		for (int i = 0; i < data.getLabels().size(); i++) {
+			byLabel.add(new ArrayList<Integer>());
+		}
+		for (Integer id: ids) {
+			byLabel.get(data.getLabelID(id)).add(id);
+		}
+		List<List<Integer>> foldIDs = new ArrayList<List<Integer>>(folds);
+		for (int i = 0; i < folds; i++) {
+			foldIDs.add(new ArrayList<Integer>());
+		}
+		int next = 0;
+		for (List<Integer> labelIDs: byLabel) {
+			for (Integer id: labelIDs) {
+				foldIDs.get(next).add(id);
+				next = (next + 1) % folds;
+			}
+		}
+		// Build the Data objects of each fold
+		this.trainingData = new Data[folds];
+		this.testingData = new Data[folds];
+		ArrayList<Integer> trainingIDs;
+		for (int fold = 0; fold < folds; fold++) {
+			trainingIDs = new ArrayList<Integer>(data.size() - foldIDs.get(fold).size());
+			for (int other = 0; other < folds; other++) {
+				if (other != fold) {
+					trainingIDs.addAll(foldIDs.get(other));
+				}
+			}
+			this.trainingData[fold] = data.subset(trainingIDs);
+			this.testingData[fold] = data.subset(foldIDs.get(fold));
+		}
+	}
+
+	/**
+	 * Return the number of folds.
+	 *
+	 * @return number of folds
+	 */
+	public int getFolds() {
+		return this.testingData.length;
+	}
+
+	/**
+	 * Return the data being cross-validated.
+	 *
+	 * @return data of all folds
+	 */
+	public Data getData() {
+		return this.data;
+	}
+
+	/**
+	 * Return the documents of every fold but the given one.
+	 *
+	 * @param fold
+	 * @return training data of fold
+	 */
+	public Data getTrainingData(final int fold) {
+		return this.trainingData[fold];
+	}
+
+	/**
+	 * Return the documents of the given fold.
+	 *
+	 * @param fold
+	 * @return testing data of fold
+	 */
+	public Data getTestingData(final int fold) {
+		return this.testingData[fold];
+	}
+
+	/**
+	 * Cross-validate classifiers from the given factory, running
+	 * folds on up to the given number of threads.
+	 *
+	 * @param factory
+	 * @param threads at least 1
+	 * @return confusion matrix and accuracy of each fold
+	 */
+	public Result run(final ClassifierFactory factory, final int threads) {
+		if (factory == null) {
+			throw new NullPointerException("CrossValidation#run received a null parameter: factory!");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("CrossValidation#run requires at least 1 thread;");
+		}
+		int folds = this.getFolds();
+		if (threads > 1) {
+			// Cache magnitudes up front, so folds do not race to cache them
+			this.data.precomputeMagnitudes(threads);
+		}
+		ArrayList<Callable<ConfusionMatrix>> tasks = new ArrayList<Callable<ConfusionMatrix>>(folds);
+		for (int fold = 0; fold < folds; fold++) {
+			final int foldIndex = fold;
+			tasks.add(new Callable<ConfusionMatrix>() {
+				@Override
+				public ConfusionMatrix call() {
+					return CrossValidation.this.runFold(factory, foldIndex);
+				}
+			});
+		}
+		ConfusionMatrix[] foldMatrices = Util.run(tasks, threads, "CrossValidation#run").toArray(new ConfusionMatrix[folds]);
+		// Every document was classified in exactly one fold
+		return new Result(new ConfusionMatrix(this.data, CrossValidation.TEST_LABEL), foldMatrices);
+	}
+
+	/**
+	 * Cross-validate classifiers from the given factory, using one
+	 * thread per available processor.
+	 *
+	 * @param factory
+	 * @return confusion matrix and accuracy of each fold
+	 */
+	public Result run(final ClassifierFactory factory) {
+		return this.run(factory, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Train a new classifier on the training data of a fold
+	 * and classify its testing data.
+	 *
+	 * @param factory
+	 * @param fold
+	 * @return confusion matrix of the fold
+	 */
+	private ConfusionMatrix runFold(final ClassifierFactory factory, final int fold) {
+		MachineLearningClassifier classifier = factory.create();
+		classifier.train(this.trainingData[fold]);
+		classifier.classify(this.testingData[fold]);
+		return new ConfusionMatrix(this.testingData[fold], CrossValidation.TEST_LABEL);
+	}
+
+	/**
+	 * The results of a cross-validation run: the confusion matrix
+	 * over all documents, and the confusion matrix of each fold.
+	 */
+	public static class Result {
+
+		private final ConfusionMatrix confusionMatrix;
+		private final ConfusionMatrix[] foldMatrices;
+
+		Result(final ConfusionMatrix confusionMatrix, final ConfusionMatrix[] foldMatrices) {
+			this.confusionMatrix = confusionMatrix;
+			this.foldMatrices = foldMatrices;
+		}
+
+		/**
+		 * @return confusion matrix over the documents of all folds
+		 */
+		public ConfusionMatrix getConfusionMatrix() {
+			return this.confusionMatrix;
+		}
+
+		/**
+		 * @param fold
+		 * @return confusion matrix over the documents of fold
+		 */
+		public ConfusionMatrix getConfusionMatrix(final int fold) {
+			return this.foldMatrices[fold];
+		}
+
+		/**
+		 * @return accuracy over the documents of all folds
+		 */
+		public double getAccuracy() {
+			return this.confusionMatrix.getAccuracy();
+		}
+
+		/**
+		 * @param fold
+		 * @return accuracy over the documents of fold
+		 */
+		public double getAccuracy(final int fold) {
+			return this.foldMatrices[fold].getAccuracy();
+		}
+
+		/**
+		 * @return mean of the accuracies of the folds
+		 */
+		public double getMeanAccuracy() {
+			double sum = 0.0d;
+			for (ConfusionMatrix matrix: this.foldMatrices) {
+				sum += matrix.getAccuracy();
+			}
+			return sum/this.foldMatrices.length;
+		}
+
+		/**
+		 * @return sample standard deviation of the accuracies of the folds
+		 */
+		public double getStandardDeviation() {
+			double mean = this.getMeanAccuracy();
+			double sum = 0.0d;
+			for (ConfusionMatrix matrix: this.foldMatrices) {
+				sum += (matrix.getAccuracy() - mean)*(matrix.getAccuracy() - mean);
+			}
+			return Math.sqrt(sum/(this.foldMatrices.length - 1));
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder stringBuilder = new StringBuilder(this.confusionMatrix.toString());
+			stringBuilder.append("fold accuracies =");
+			for (ConfusionMatrix matrix: this.foldMatrices) {
+				stringBuilder.append(String.format(" %f", matrix.getAccuracy()));
+			}
+			stringBuilder.append(String.format("%nmean fold accuracy = %f (standard deviation %f)%n", this.getMeanAccuracy(), this.getStandardDeviation()));
+			return stringBuilder.toString();
+		}
+	}
+}
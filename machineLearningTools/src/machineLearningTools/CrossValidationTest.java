@@ -0,0 +1,177 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CrossValidationTest {
+
+	// Parameters
+	private final String trainingFile = testFile("example.real.vectors.txt");
+	private final String majorityLabel = "talk.politics.guns";
+
+	// Variables
+	private Data data;
+
+	/**
+	 * Labels every document with the majority label.
+	 */
+	private class FixedLabelClassifier extends MachineLearningClassifier {
+
+		private Data trainingData;
+
+		public FixedLabelClassifier() {
+			super(false);
+		}
+
+		@Override
+		public void train(final String trainingDataFileName) {
+			this.train(new RealValuedData(trainingDataFileName));
+		}
+
+		@Override
+		public void train(final Data trainingData) {
+			this.trainingData = trainingData;
+		}
+
+		@Override
+		public void classify(final Data testingData) {
+			HashMap<String, Double> probabilities = new HashMap<String, Double>();
+			for (String label: this.trainingData.getAllLabels()) {
+				probabilities.put(label, 0.0d);
+			}
+			probabilities.put(CrossValidationTest.this.majorityLabel, 1.0d);
+			for (Integer id: testingData.getIDs()) {
+				// Test documents must not be trained on
+				assertFalse(this.trainingData.getIDs().contains(id));
+				testingData.setSysOutput(id, probabilities);
+			}
+		}
+
+		@Override
+		protected void outputResults(final Data testResult, final String trainOrTest) {
+		}
+	}
+
+	private final ClassifierFactory factory = new ClassifierFactory() {
+		@Override
+		public MachineLearningClassifier create() {
+			return new FixedLabelClassifier();
+		}
+	};
+
+	@Before
+	public void setupData() {
+		this.data = new RealValuedData(this.trainingFile);
+	}
+
+	@Test
+	public void testCrossValidationFoldsPartitionDocuments() {
+		CrossValidation crossValidation = new CrossValidation(this.data, 4, 7L);
+		assertEquals(4, crossValidation.getFolds());
+		Set<Integer> tested = new HashSet<Integer>();
+		for (int fold = 0; fold < 4; fold++) {
+			Data training = crossValidation.getTrainingData(fold);
+			Data testing = crossValidation.getTestingData(fold);
+			assertEquals(this.data.size(), training.size() + testing.size());
+			for (Integer id: testing.getIDs()) {
+				assertTrue(tested.add(id));
+				assertFalse(training.getIDs().contains(id));
+				// Documents are shared, not copied
+				assertTrue(testing.getDoc(id) == this.data.getDoc(id));
+			}
+		}
+		assertEquals(this.data.getIDs(), tested);
+	}
+
+	@Test
+	public void testCrossValidationFoldsAreStratified() {
+		CrossValidation crossValidation = new CrossValidation(this.data, 5, 7L);
+		int labels = this.data.getLabels().size();
+		for (int label = 0; label < labels; label++) {
+			int min = Integer.MAX_VALUE;
+			int max = Integer.MIN_VALUE;
+			for (int fold = 0; fold < 5; fold++) {
+				Data testing = crossValidation.getTestingData(fold);
+				int count = 0;
+				for (Integer id: testing.getIDs()) {
+					if (this.data.getLabelID(id) == label) {
+						count++;
+					}
+				}
+				min = Math.min(min, count);
+				max = Math.max(max, count);
+			}
+			// Each label is spread evenly over the folds
+			assertTrue(max - min <= 1);
+		}
+	}
+
+	@Test
+	public void testCrossValidationSeedIsDeterministic() {
+		CrossValidation first = new CrossValidation(this.data, 3, 11L);
+		CrossValidation second = new CrossValidation(this.data, 3, 11L);
+		for (int fold = 0; fold < 3; fold++) {
+			assertEquals(first.getTestingData(fold).getIDs(), second.getTestingData(fold).getIDs());
+		}
+	}
+
+	@Test
+	public void testCrossValidationRun() {
+		int majority = 0;
+		for (Integer id: this.data.getIDs()) {
+			if (this.data.getLabel(id).equals(this.majorityLabel)) {
+				majority++;
+			}
+		}
+		CrossValidation crossValidation = new CrossValidation(this.data, 5, 7L);
+		CrossValidation.Result result = crossValidation.run(this.factory, 3);
+		assertEquals((double) majority/this.data.size(), result.getAccuracy(), 1e-9);
+		double correct = 0.0d;
+		double sum = 0.0d;
+		for (int fold = 0; fold < 5; fold++) {
+			correct += result.getAccuracy(fold)*crossValidation.getTestingData(fold).size();
+			sum += result.getAccuracy(fold);
+		}
+		assertEquals(majority, correct, 1e-9);
+		assertEquals(sum/5, result.getMeanAccuracy(), 1e-9);
+		assertTrue(result.getStandardDeviation() >= 0.0d);
+		// Thread count does not change the results
+		assertEquals(result.toString(), crossValidation.run(this.factory, 1).toString());
+	}
+
+	@Test
+	public void testConfusionMatrixAccuracy() {
+		for (Integer id: this.data.getIDs()) {
+			HashMap<String, Double> probabilities = new HashMap<String, Double>();
+			probabilities.put(this.data.getLabel(id), 1.0d);
+			this.data.setSysOutput(id, probabilities);
+		}
+		assertEquals(1.0d, new ConfusionMatrix(this.data, "test").getAccuracy(), 0.0d);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCrossValidationTooFewFoldsThrows() {
+		new CrossValidation(this.data, 1, 7L);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCrossValidationTooManyFoldsThrows() {
+		new CrossValidation(this.data, this.data.size() + 1, 7L);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testDataSubsetUnknownIDThrows() {
+		HashSet<Integer> ids = new HashSet<Integer>();
+		ids.add(-1);
+		this.data.subset(ids);
+	}
+}
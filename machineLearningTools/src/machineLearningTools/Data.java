@@ -5,8 +5,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.json.JSONObject;
 
@@ -29,8 +31,18 @@ public abstract class Data {
 	private Set<String> allLabels;
 	private Set<String> allFeatures;
 
+	// Label table: dense label IDs, and the label ID of each document by document ID
+	private Interner labels;
+	private HashMap<Integer, Integer> labelIDs;
+
 	private final HashMap<Integer, Document> data;
 
+	// Hashes the features of documents as they are read, or null to keep features
+	private final FeatureHasher hasher;
+
+	// Decides which documents are kept as they are read, or null to keep every document
+	private final DocumentFilter filter;
+
 	// Abstract methods
 
 	/**
@@ -49,6 +61,14 @@ public abstract class Data {
 	 */
 	protected abstract HashMap<Integer, Document> readDataFromJSON(final JSONObject Json);
 
+	/**
+	 * Read in a stream of JSON documents one document at a time,
+	 * each specified with a label and a set of features
+	 *
+	 * @param reader
+	 */
+	protected abstract HashMap<Integer, Document> readDataFromJSON(final JSONDocumentReader reader);
+
 	// Concrete methods
 
 	/**
@@ -57,10 +77,37 @@ public abstract class Data {
 	 * @param trainingDataFileName
 	 */
 	public Data(final String trainingDataFileName) {
+		this(trainingDataFileName, (FeatureHasher) null);
+	}
+
+	/**
+	 * Load data from a file and construct a Data object, hashing
+	 * features with the given FeatureHasher as documents are read.
+	 *
+	 * @param trainingDataFileName
+	 * @param hasher FeatureHasher, or null to keep features
+	 */
+	public Data(final String trainingDataFileName, final FeatureHasher hasher) {
+		this(trainingDataFileName, hasher, null);
+	}
+
+	/**
+	 * Load data from a file and construct a Data object, hashing
+	 * features with the given FeatureHasher and keeping only the
+	 * documents the given DocumentFilter accepts as documents are read.
+	 *
+	 * @param trainingDataFileName
+	 * @param hasher FeatureHasher, or null to keep features
+	 * @param filter DocumentFilter, or null to keep every document
+	 */
+	public Data(final String trainingDataFileName, final FeatureHasher hasher, final DocumentFilter filter) {
 		if (trainingDataFileName == null) {
 			throw new NullPointerException();
 		}
+		this.hasher = hasher;
+		this.filter = filter;
 		this.data = this.readDataFromFile(trainingDataFileName);
+		this.indexLabels();
 	}
 
 	/**
@@ -72,7 +119,99 @@ public abstract class Data {
 		if (trainingDataJSON == null) {
 			throw new NullPointerException();
 		}
+		this.hasher = null;
+		this.filter = null;
 		this.data = this.readDataFromJSON(trainingDataJSON);
+		this.indexLabels();
+	}
+
+	/**
+	 * Load data from a JSONDocumentReader and construct a Data object. <br>
+	 * Documents are built as they are read, so the corpus is never held
+	 * in memory as JSON. The reader is read to the end and closed.
+	 *
+	 * @param reader
+	 */
+	public Data(final JSONDocumentReader reader) {
+		this(reader, null);
+	}
+
+	/**
+	 * Load data from a JSONDocumentReader and construct a Data object,
+	 * hashing features with the given FeatureHasher as documents are read.
+	 *
+	 * @param reader
+	 * @param hasher FeatureHasher, or null to keep features
+	 */
+	public Data(final JSONDocumentReader reader, final FeatureHasher hasher) {
+		this(reader, hasher, null);
+	}
+
+	/**
+	 * Load data from a JSONDocumentReader and construct a Data object,
+	 * hashing features with the given FeatureHasher and keeping only
+	 * the documents the given DocumentFilter accepts as documents are read.
+	 *
+	 * @param reader
+	 * @param hasher FeatureHasher, or null to keep features
+	 * @param filter DocumentFilter, or null to keep every document
+	 */
+	public Data(final JSONDocumentReader reader, final FeatureHasher hasher, final DocumentFilter filter) {
+		if (reader == null) {
+			throw new NullPointerException();
+		}
+		this.hasher = hasher;
+		this.filter = filter;
+		this.data = this.readDataFromJSON(reader);
+		this.indexLabels();
+	}
+
+	/**
+	 * Construct a Data object of the given documents of another Data
+	 * object. Documents are shared, not copied, so features and cached
+	 * magnitudes are reused; system output set on a document is visible
+	 * through both Data objects.
+	 *
+	 * @param data
+	 * @param docIDs IDs of documents in data
+	 */
+	protected Data(final Data data, final Collection<Integer> docIDs) {
+		if (data == null || docIDs == null) {
+			throw new NullPointerException("Data constructor received a null parameter!");
+		}
+		this.hasher = data.hasher;
+		this.filter = null;
+		this.data = new HashMap<Integer, Document>((int)(docIDs.size()/0.75f) + 1);
+		Document document;
+		for (Integer id: docIDs) {
+			document = data.data.get(id);
+			if (document == null) {
+				throw new IllegalArgumentException(String.format("Data constructor received document ID %s, which is not in data;", id));
+			}
+			this.data.put(id, document);
+		}
+		this.indexLabels();
+	}
+
+	/**
+	 * Construct a Data object of copies of the documents of another
+	 * Data object, keeping only the features in the given dictionary.
+	 *
+	 * @param data
+	 * @param dictionary features to keep
+	 * @see Document#prune(Interner)
+	 */
+	protected Data(final Data data, final Interner dictionary) {
+		if (data == null || dictionary == null) {
+			throw new NullPointerException("Data constructor received a null parameter!");
+		}
+		this.hasher = data.hasher;
+		this.filter = null;
+		this.data = new HashMap<Integer, Document>((int)(data.data.size()/0.75f) + 1);
+		for (Document document: data.data.values()) {
+			this.data.put(document.getDocID(), document.prune(dictionary));
+		}
+		this.indexLabels();
 	}
 
 	/**
@@ -83,7 +222,23 @@ public abstract class Data {
 	 * @author T.J. Trimble
 	 */
 	Data() {
+		this.hasher = null;
+		this.filter = null;
 		this.data = new HashMap<Integer, Document>(0);
+		this.indexLabels();
+	}
+
+	/**
+	 * Build the label table, assigning label IDs in sorted label order
+	 * and recording the label ID of each document.
+	 */
+	private void indexLabels() {
+		this.labels = new Interner(new TreeSet<String>(this.getAllLabels()));
+		// Keyed by document ID, as IDs of a subset may be sparse and large
+		this.labelIDs = new HashMap<Integer, Integer>((int)(this.data.size()/0.75f) + 1);
+		for (Document document: this.data.values()) {
+			this.labelIDs.put(document.getDocID(), this.labels.getID(document.getLabel()));
+		}
 	}
 
 	/**
@@ -96,24 +251,61 @@ public abstract class Data {
 	 * @author T.J. Trimble
 	 */
 	public Double getEntropy(final Collection<Integer> docIDs) {
-		Double entropy = 0.0d;
-		if (docIDs.size() > 1) {
-			double probability;
-			Counter<String> labelCounts = new Counter<String>();
-			// Get counts of each label
-			for (int id: docIDs) {
-				labelCounts.increment(this.getLabel(id));
-			}
-			//// Calculate entropy
-			// Get sum of P(label)*log(P(label))
-			for (String label: labelCounts.keySet()) {
-				probability = labelCounts.get(label)/((double)docIDs.size());
+		if (docIDs.size() <= 1) {
+			return 0.0d;
+		}
+		// Summed as P(label)*log(P(label)) over the label counts, which keeps
+		// results identical to earlier versions; MLMath#entropy is the
+		// table based kernel for inner loops
+		int[] counts = this.getLabelCounts(docIDs);
+		double entropy = 0.0d;
+		double probability;
+		for (int count: counts) {
+			if (count > 0) {
+				probability = count/((double)docIDs.size());
 				entropy += probability * (Math.log(probability)/MLMath.log2);
 			}
-			// Entropy is negative sum
-			entropy = -entropy;
 		}
-		return entropy;
+		return -entropy;
+	}
+
+	/**
+	 * Return the number of the specified Documents with each label,
+	 * indexed by label ID.
+	 *
+	 * @param docIDs
+	 * @return count of each label ID
+	 * @see #getLabelID(int)
+	 */
+	public int[] getLabelCounts(final Collection<Integer> docIDs) {
+		int[] counts = new int[this.labels.size()];
+		for (int id: docIDs) {
+			counts[this.getLabelID(id)]++;
+		}
+		return counts;
+	}
+
+	/**
+	 * Return the label table, which maps each label in this Data
+	 * object to a dense ID in sorted label order.
+	 *
+	 * @return label table
+	 */
+	public Interner getLabels() {
+		return this.labels;
+	}
+
+	/**
+	 * Return the label ID of the document with the specified ID,
+	 * or -1 if this Data object has no document with the ID.
+	 *
+	 * @param id
+	 * @return label ID of document with id
+	 * @see #getLabels()
+	 */
+	public int getLabelID(final int id) {
+		Integer result = this.labelIDs.get(id);
+		return (result == null) ? -1 : result;
 	}
 
 	/**
@@ -186,11 +378,31 @@ public abstract class Data {
 	}
 
 	/**
-	 * Return the data stored in this object
-	 * @return data stored in this object
+	 * Return the FeatureHasher the features of documents were hashed with
+	 * @return FeatureHasher, or null if features were kept
+	 */
+	public FeatureHasher getFeatureHasher() {
+		return this.hasher;
+	}
+
+	/**
+	 * Return whether a document just read is kept, according to
+	 * the DocumentFilter of this Data object, if any.
+	 *
+	 * @param document
+	 * @return true to keep document
+	 */
+	protected boolean accept(final Document document) {
+		return this.filter == null || this.filter.accept(document);
+	}
+
+	/**
+	 * Return an unmodifiable view of the data stored in this object,
+	 * so the label index of its documents stays in step with it
+	 * @return documents stored in this object by document ID
 	 */
-	public HashMap<Integer, Document> getData() {
-		return this.data;
+	public Map<Integer, Document> getData() {
+		return Collections.unmodifiableMap(this.data);
 	}
 
 	/**
@@ -210,11 +422,11 @@ public abstract class Data {
 	}
 
 	/**
-	 * Return a set of the IDs of all the documents stored in this object
+	 * Return an unmodifiable set of the IDs of all the documents stored in this object
 	 * @return Set of IDs
 	 */
 	public Set<Integer> getIDs() {
-		return this.data.keySet();
+		return Collections.unmodifiableSet(this.data.keySet());
 	}
 
 	/**
@@ -286,6 +498,56 @@ public abstract class Data {
 		return this.getFormattedSystemOutput(false);
 	}
 
+	/**
+	 * Compute and cache the magnitude of every Document in this Data
+	 * object, splitting the Documents among the given number of threads.
+	 *
+	 * @param threads number of threads, at least 1
+	 * @throws RuntimeException if interrupted while waiting for the threads
+	 */
+	public void precomputeMagnitudes(final int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Data#precomputeMagnitudes requires at least 1 thread;");
+		}
+		Util.runChunks(this.getDocs(), threads, new Util.ChunkTask<Document, Void>() {
+			@Override
+			Void call(final List<Document> chunk, final int start) {
+				for (Document document: chunk) {
+					document.getMagnitude();
+				}
+				return null;
+			}
+		}, "Data#precomputeMagnitudes");
+	}
+
+	/**
+	 * Compute and cache the magnitude of every Document in this Data
+	 * object using one thread per available processor.
+	 */
+	public void precomputeMagnitudes() {
+		this.precomputeMagnitudes(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Return a Data object of the given documents of this Data object,
+	 * sharing the documents rather than copying them, e.g. for the
+	 * folds of a CrossValidation.
+	 *
+	 * @param docIDs IDs of documents in this Data object
+	 * @return Data object of the given documents
+	 */
+	public abstract Data subset(final Collection<Integer> docIDs);
+
+	/**
+	 * Return a Data object of copies of the documents of this one,
+	 * keeping only the features in the given dictionary, such as one
+	 * from FeatureSelector#select(Data, int).
+	 *
+	 * @param dictionary features to keep
+	 * @return pruned Data object
+	 */
+	public abstract Data prune(final Interner dictionary);
+
 	/**
 	 * Returns number of documents in object
 	 * @return number of documents in object
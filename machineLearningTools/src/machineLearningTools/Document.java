@@ -1,10 +1,12 @@
 package machineLearningTools;
 
+import static machineLearningTools.Util.argmax;
 import static machineLearningTools.Util.maxKeyByValue;
 import static machineLearningTools.Util.sortedKeysByValue;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -23,11 +25,16 @@ public abstract class Document implements Comparable<Document> {
 	protected String label;
 	protected String sysOutput;
 	protected Map<String, Double> labelProbs;
+	// Probabilities by label ID in labelTable, when set by label ID; labelProbs is then null
+	protected Interner labelTable;
+	protected double[] probabilities;
 
 	// Method Members
 	protected StringBuilder stringBuilder;
 	protected String tempLabel;
-	protected Double magnitude; // For Cosine Similarity, etc.
+	protected double magnitude = -1.0d; // For Cosine Similarity, etc.; negative until computed
+	// Weighted value of each feature, such as by TF-IDF; null until weighted
+	protected Map<String, Float> values;
 
 	// Static Members
 	static int docCount;
@@ -82,9 +89,11 @@ public abstract class Document implements Comparable<Document> {
 	 *
 	 * sqrt(sum.k(f.ik^2))
 	 *
+	 * The magnitude is computed on first use and cached.
+	 *
 	 * @return the magnitude of this document object
 	 */
-	public abstract Double getMagnitude();
+	public abstract double getMagnitude();
 
 	/**
 	 * Returns the count of a given feature iff it is present in
@@ -102,9 +111,97 @@ public abstract class Document implements Comparable<Document> {
 	 */
 	public abstract int size();
 
+	/**
+	 * Return a copy of this Document object with the same ID and
+	 * label, keeping only the features in the given dictionary.
+	 * System output is not copied.
+	 *
+	 * @param dictionary features to keep
+	 * @return pruned copy of this Document object
+	 * @see FeatureSelector
+	 */
+	public abstract Document prune(final Interner dictionary);
+
 
 	// Concrete methods
 
+	/**
+	 * Returns the value of a given feature iff it is present in this
+	 * document, else returns 0. The value is the weighted value set by a
+	 * TermWeighter if this document is weighted, else the count. <br><br>
+	 *
+	 * Distance and similarity measures use values rather than counts.
+	 *
+	 * @param feature
+	 * @return value of feature
+	 * @see #getFeatCount(String)
+	 */
+	public double getFeatValue(final String feature) {
+		if (this.values == null) {
+			return this.getFeatCount(feature);
+		}
+		Float result = this.values.get(feature);
+		return (result == null) ? 0.0d : result;
+	}
+
+	/**
+	 * Return true iff the values of this document have been weighted.
+	 *
+	 * @return true iff weighted
+	 */
+	public boolean isWeighted() {
+		return this.values != null;
+	}
+
+	/**
+	 * Replace the value of each feature of this document, such as with
+	 * its TF-IDF weight, and reset the cached magnitude. Counts are kept.
+	 *
+	 * @param values weighted value of each feature
+	 */
+	void setFeatValues(final Map<String, Float> values) {
+		this.values = values;
+		this.magnitude = -1.0d;
+	}
+
+	/**
+	 * Return the magnitude of the weighted values of this document: <br><br>
+	 *
+	 * sqrt(sum.k(v.ik^2))
+	 *
+	 * @return the magnitude of the weighted values
+	 */
+	protected double getValueMagnitude() {
+		double sumOfSquares = 0.0d;
+		for (Float value: this.values.values()) {
+			sumOfSquares += ((double)value)*value;
+		}
+		return Math.sqrt(sumOfSquares);
+	}
+
+	/**
+	 * Return the weighted values of the given features of a document,
+	 * for copying the document, or null if it is not weighted.
+	 *
+	 * @param document
+	 * @param features features to copy the values of
+	 * @return values of features, or null
+	 */
+	protected static Map<String, Float> copyValues(final Document document, final Set<String> features) {
+		if (document.values == null) {
+			return null;
+		}
+		HashMap<String, Float> result = new HashMap<String, Float>((int)(features.size()/0.75f) + 1);
+		Float value;
+		for (String feature: features) {
+			value = document.values.get(feature);
+			if (value != null) {
+				result.put(feature, value);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Set the System Output label for the document object. <br>
 	 * This document's label is calculated as the maximum probability
@@ -123,6 +220,34 @@ public abstract class Document implements Comparable<Document> {
 		}
 		this.sysOutput = maxKeyByValue(probabilities);
 		this.labelProbs = probabilities;
+		this.labelTable = null;
+		this.probabilities = null;
+	}
+
+	/**
+	 * Set the System Output label for the document object from
+	 * probabilities indexed by label ID, such as the label IDs of
+	 * Data#getLabels(). <br>
+	 * This document's label is the label with the maximum probability,
+	 * the lowest label ID among equal probabilities. The probabilities
+	 * array is kept by the document, not copied.
+	 *
+	 * @param labels label table giving the label of each ID
+	 * @param probabilities probability of each label by label ID
+	 *
+	 * @throws IllegalArgumentException if probabilities is empty or does not match labels
+	 */
+	public void setSysOutput(final Interner labels, final double[] probabilities) {
+		if (labels == null || probabilities == null) {
+			throw new NullPointerException("Document#setSysOutput received a null parameter!");
+		}
+		if (probabilities.length <= 0 || probabilities.length != labels.size()) {
+			throw new IllegalArgumentException(String.format("Document#setSysOutput received %d probabilities for %d labels!", probabilities.length, labels.size()));
+		}
+		this.sysOutput = labels.get(argmax(probabilities));
+		this.labelProbs = null;
+		this.labelTable = labels;
+		this.probabilities = probabilities;
 	}
 
 
@@ -139,6 +264,8 @@ public abstract class Document implements Comparable<Document> {
 		}
 		this.sysOutput = rule.getLabel();
 		this.labelProbs = rule.getProbabilities();
+		this.labelTable = null;
+		this.probabilities = null;
 	}
 
 	/**
@@ -182,6 +309,8 @@ public abstract class Document implements Comparable<Document> {
 		}
 		this.sysOutput = label;
 		this.labelProbs = probabilities;
+		this.labelTable = null;
+		this.probabilities = null;
 	}
 
 	/**
@@ -215,6 +344,45 @@ public abstract class Document implements Comparable<Document> {
 		return Document.docCount;
 	}
 
+	/**
+	 * Return the probability of each label for this Document's system
+	 * output, or null if the system output has not been set. When the
+	 * probabilities were set by label ID, a new map is built on each
+	 * call, in label ID order, and not kept by this Document.
+	 *
+	 * @return map of labels to probabilities
+	 */
+	public Map<String, Double> getLabelProbs() {
+		if (this.probabilities == null) {
+			return this.labelProbs;
+		}
+		Map<String, Double> result = new LinkedHashMap<String, Double>((int)(this.probabilities.length/0.75f) + 1);
+		for (int id = 0; id < this.probabilities.length; id++) {
+			result.put(this.labelTable.get(id), this.probabilities[id]);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the label table of this Document's label probabilities,
+	 * or null unless they were set by label ID.
+	 *
+	 * @return label table
+	 */
+	public Interner getLabelTable() {
+		return this.labelTable;
+	}
+
+	/**
+	 * Return this Document's label probabilities by label ID of
+	 * getLabelTable(), or null unless they were set by label ID.
+	 *
+	 * @return probabilities by label ID
+	 */
+	public double[] getLabelProbabilities() {
+		return this.probabilities;
+	}
+
 	/**
 	 * Return the probability of a given label for this
 	 * Document's specified system output.
@@ -226,6 +394,10 @@ public abstract class Document implements Comparable<Document> {
 		if (systemLabel == null) {
 			throw new NullPointerException("systemLabel parameter is null at Document#getLabelProb(systemLabel)");
 		}
+		if (this.probabilities != null) {
+			int id = this.labelTable.getID(systemLabel);
+			return (id < 0) ? 0.0d : this.probabilities[id];
+		}
 		if (this.labelProbs == null) {
 			System.err.println("Trying to access label probabilities with getLabelProb() before setting system output");
 			System.err.println(String.format("docID: %s; trueLabel: %s; systemOutput: %s", this.docID, this.label, systemLabel));
@@ -249,9 +421,9 @@ public abstract class Document implements Comparable<Document> {
 	public String getFormattedSystemOutput(boolean convertLogProbabilities) {
 		// Sort classes by probabilities
 		// Return sorted classes
-		StringBuilder stringBuilder = new StringBuilder(this.labelProbs.size()+1);
+		StringBuilder stringBuilder = new StringBuilder(this.getLabelProbs().size()+1);
 		stringBuilder.append(String.format("Document:%s %s", this.docID, this.label));
-		Map<String, Double> probabilities = new HashMap<String, Double>(this.labelProbs);
+		Map<String, Double> probabilities = new HashMap<String, Double>(this.getLabelProbs());
 		// Convert log probs
 		if (convertLogProbabilities) {
 			for (String label: probabilities.keySet()) {
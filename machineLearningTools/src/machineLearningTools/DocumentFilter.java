@@ -0,0 +1,24 @@
+package machineLearningTools;
+
+/**
+ * DocumentFilter
+ *
+ * Decides, as a Data object reads each document, whether the document
+ * is kept, so documents can be dropped at ingest, before any algorithm
+ * runs over them. Documents are offered in the order they are read,
+ * one at a time. e.g.: <br><br>
+ *
+ * new RealValuedData(trainingDataFileName, null, new NearDuplicateDetector(0.9d, 0L))
+ *
+ * @see NearDuplicateDetector
+ */
+public abstract class DocumentFilter {
+
+	/**
+	 * Return whether the given document, just read, is kept.
+	 *
+	 * @param document
+	 * @return true to keep document
+	 */
+	public abstract boolean accept(Document document);
+}
@@ -22,13 +22,13 @@ public class EuclideanDistance extends DistanceMetric {
 		if (documentToClassify == null || documentToCompare == null) {
 			throw new NullPointerException("EuclideanDistance constructor received null parameter.");
 		}
-		int distance = 0;
+		double distance = 0.0d;
 		HashSet<String> features = new HashSet<String>(documentToClassify.size()+documentToCompare.size());
 		features.addAll(documentToClassify.getFeatures());
 		features.addAll(documentToCompare.getFeatures());
 		for (String feature: features) {
-			distance += Math.abs(documentToClassify.getFeatCount(feature) - documentToCompare.getFeatCount(feature));
+			distance += Math.abs(documentToClassify.getFeatValue(feature) - documentToCompare.getFeatValue(feature));
 		}
-		this.distance = (double) distance;
+		this.distance = distance;
 	}
 }
@@ -0,0 +1,245 @@
+package machineLearningTools;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * FeatureHasher
+ *
+ * The hashing trick: maps feature Strings to a fixed space of 2^bits
+ * features with the 32 bit MurmurHash3 of the String, so no dictionary
+ * of the vocabulary is kept and memory does not grow with it. <br><br>
+ *
+ * Each hashed feature is named by its index, e.g. "1234", and these
+ * names are pooled, so every document shares one String per index. Only
+ * the names of indices in use are kept, so memory grows with the hashed
+ * features seen, at most 2^bits, and bits is at most MAX_BITS. <br><br>
+ *
+ * If signed, a second bit of the hash gives each feature a sign of +1 or
+ * -1, and a document's count of a hashed feature is the signed sum of the
+ * counts of the features that collide on it. Collisions then cancel out
+ * in expectation in dot products, such as for Cosine similarity, but
+ * counts may be negative, which Naive Bayes does not allow. If not
+ * signed, colliding counts are added.
+ */
+public class FeatureHasher {
+
+	private static final int C1 = 0xcc9e2d51;
+	private static final int C2 = 0x1b873593;
+
+	/**
+	 * Largest number of bits, for 16,777,216 hashed features
+	 */
+	public static final int MAX_BITS = 24;
+
+	private final int bits;
+	private final int mask;
+	private final boolean signed;
+
+	// Pooled names of the indices in use, added on first use
+	private final ConcurrentMap<Integer, String> names;
+
+	/**
+	 * Construct a FeatureHasher to 2^bits features.
+	 *
+	 * @param bits between 1 and MAX_BITS
+	 * @param signed true to give each feature a sign
+	 */
+	public FeatureHasher(final int bits, final boolean signed) {
+		if (bits < 1 || bits > FeatureHasher.MAX_BITS) {
+			throw new IllegalArgumentException("FeatureHasher requires between 1 and " + FeatureHasher.MAX_BITS + " bits;");
+		}
+		this.bits = bits;
+		this.mask = (1 << bits) - 1;
+		this.signed = signed;
+		this.names = new ConcurrentHashMap<Integer, String>();
+	}
+
+	/**
+	 * Return the 32 bit MurmurHash3 of the UTF-16 code units of the
+	 * given String, two to a block, with a seed of 0.
+	 *
+	 * @param value
+	 * @return hash of value
+	 */
+	public static int murmur3(final String value) {
+		return FeatureHasher.murmur3(value, 0);
+	}
+
+	/**
+	 * Return the 32 bit MurmurHash3 of the UTF-16 code units of the
+	 * given String, two to a block, with the given seed. Different
+	 * seeds give independent hashes of the same String.
+	 *
+	 * @param value
+	 * @param seed
+	 * @return hash of value
+	 */
+	public static int murmur3(final String value, final int seed) {
+		int length = value.length();
+		int hash = seed;
+		int block;
+		int i = 0;
+		for (; i+1 < length; i += 2) {
+			block = value.charAt(i) | (value.charAt(i+1) << 16);
+			block *= FeatureHasher.C1;
+			block = Integer.rotateLeft(block, 15);
+			block *= FeatureHasher.C2;
+			hash ^= block;
+			hash = Integer.rotateLeft(hash, 13);
+			hash = hash*5 + 0xe6546b64;
+		}
+		if (i < length) {
+			block = value.charAt(i);
+			block *= FeatureHasher.C1;
+			block = Integer.rotateLeft(block, 15);
+			block *= FeatureHasher.C2;
+			hash ^= block;
+		}
+		return FeatureHasher.mix(hash ^ (length*2));
+	}
+
+	/**
+	 * Return the MurmurHash3 finalization of the given hash, which
+	 * spreads every bit of it to every bit of the result.
+	 *
+	 * @param hash
+	 * @return mixed hash
+	 */
+	public static int mix(int hash) {
+		hash ^= hash >>> 16;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> 13;
+		hash *= 0xc2b2ae35;
+		hash ^= hash >>> 16;
+		return hash;
+	}
+
+	/**
+	 * Return the index of the given feature.
+	 *
+	 * @param feature
+	 * @return index between 0 and size()-1
+	 */
+	public int index(final String feature) {
+		return FeatureHasher.murmur3(feature) & this.mask;
+	}
+
+	/**
+	 * Return the index of a feature with the given hash, such as
+	 * the mixed rolling hash of an n-gram.
+	 *
+	 * @param hash
+	 * @return index between 0 and size()-1
+	 */
+	public int indexOf(final int hash) {
+		return hash & this.mask;
+	}
+
+	/**
+	 * Return the sign of a feature with the given hash: -1 or +1
+	 * if signed, and always +1 if not.
+	 *
+	 * @param hash
+	 * @return sign of the feature
+	 */
+	public int signOf(final int hash) {
+		return (this.signed && hash < 0) ? -1 : 1;
+	}
+
+	/**
+	 * Return the sign of the given feature: -1 or +1 if signed,
+	 * and always +1 if not.
+	 *
+	 * @param feature
+	 * @return sign of feature
+	 */
+	public int sign(final String feature) {
+		if (!this.signed) {
+			return 1;
+		}
+		// The top bit is never part of the index
+		return (FeatureHasher.murmur3(feature) < 0) ? -1 : 1;
+	}
+
+	/**
+	 * Return the pooled name of the hashed feature of the given feature.
+	 *
+	 * @param feature
+	 * @return name of the hashed feature
+	 */
+	public String hash(final String feature) {
+		if (feature == null) {
+			throw new NullPointerException("FeatureHasher#hash received a null parameter: feature!");
+		}
+		return this.getName(this.index(feature));
+	}
+
+	/**
+	 * Return the pooled name of the given index. Racing threads
+	 * get the same name.
+	 *
+	 * @param index
+	 * @return name of the hashed feature with index
+	 */
+	public String getName(final int index) {
+		String result = this.names.get(index);
+		if (result == null) {
+			String created = Integer.toString(index);
+			result = this.names.putIfAbsent(index, created);
+			if (result == null) {
+				result = created;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Add the signed count of the given feature to the count of its
+	 * hashed feature in counts, removing the hashed feature if its
+	 * count sums to 0.
+	 *
+	 * @param counts counts by hashed feature name
+	 * @param feature
+	 * @param count
+	 */
+	public void add(final Map<String, Integer> counts, final String feature, final int count) {
+		int hash = FeatureHasher.murmur3(feature);
+		String name = this.getName(hash & this.mask);
+		int value = (this.signed && hash < 0) ? -count : count;
+		Integer current = counts.get(name);
+		if (current != null) {
+			value += current;
+		}
+		if (value == 0) {
+			counts.remove(name);
+		}
+		else {
+			counts.put(name, value);
+		}
+	}
+
+	/**
+	 * Return the number of hashed features, 2^bits.
+	 *
+	 * @return number of hashed features
+	 */
+	public int size() {
+		return this.mask + 1;
+	}
+
+	/**
+	 * @return number of bits of the hashed feature space
+	 */
+	public int getBits() {
+		return this.bits;
+	}
+
+	/**
+	 * @return true if features are signed
+	 */
+	public boolean isSigned() {
+		return this.signed;
+	}
+}
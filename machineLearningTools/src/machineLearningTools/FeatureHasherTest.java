@@ -0,0 +1,114 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+
+import org.junit.Test;
+
+public class FeatureHasherTest {
+
+	// Parameters
+	private final String trainingFile = testFile("example.real.vectors.txt");
+	private final String testString = "I like to go to the store. I like to go to the store. I like to go to the store.";
+
+	/**
+	 * Tests MurmurHash3 against reference values of the
+	 * UTF-16LE bytes of each String, with a seed of 0
+	 */
+	@Test
+	public void testFeatureHasherMurmur3() {
+		assertEquals(0, FeatureHasher.murmur3(""));
+		assertEquals(1867108634, FeatureHasher.murmur3("a"));
+		assertEquals(-675079799, FeatureHasher.murmur3("hello"));
+		assertEquals(603613330, FeatureHasher.murmur3("the dog"));
+		assertEquals(-1807121063, FeatureHasher.murmur3("café"));
+	}
+
+	@Test
+	public void testFeatureHasherIndex() {
+		FeatureHasher hasher = new FeatureHasher(4, true);
+		assertEquals(16, hasher.size());
+		assertEquals(4, hasher.getBits());
+		assertEquals(FeatureHasher.murmur3("hello") & 15, hasher.index("hello"));
+		assertEquals(-1, hasher.sign("hello"));
+		assertEquals(1, hasher.sign("a"));
+		assertEquals(1, new FeatureHasher(4, false).sign("hello"));
+		// Names are pooled
+		assertEquals(Integer.toString(hasher.index("hello")), hasher.hash("hello"));
+		assertSame(hasher.hash("hello"), hasher.hash("hello"));
+	}
+
+	@Test
+	public void testFeatureHasherAdd() {
+		FeatureHasher hasher = new FeatureHasher(1, true);
+		// Find two features on one index with opposite signs
+		String positive = null;
+		String negative = null;
+		String feature;
+		for (int i = 0; positive == null || negative == null; i++) {
+			feature = "f" + i;
+			if (hasher.index(feature) != 0) {
+				continue;
+			}
+			if (hasher.sign(feature) > 0) {
+				positive = feature;
+			}
+			else {
+				negative = feature;
+			}
+		}
+		HashMap<String, Integer> counts = new HashMap<String, Integer>();
+		hasher.add(counts, positive, 3);
+		hasher.add(counts, negative, 2);
+		assertEquals(Integer.valueOf(1), counts.get("0"));
+		hasher.add(counts, negative, 1);
+		assertNull(counts.get("0"));
+		// Unsigned counts are added
+		FeatureHasher unsigned = new FeatureHasher(1, false);
+		counts.clear();
+		unsigned.add(counts, positive, 3);
+		unsigned.add(counts, negative, 2);
+		assertEquals(Integer.valueOf(5), counts.get("0"));
+	}
+
+	@Test
+	public void testFeatureHasherTokenCounter() {
+		FeatureHasher hasher = new FeatureHasher(20, false);
+		TokenCounter counter = new TokenCounter(this.testString, hasher);
+		TokenCounter gold = new TokenCounter(this.testString);
+		assertEquals(gold.size(), counter.size());
+		for (String token: gold.keySet()) {
+			assertEquals(gold.get(token), counter.get(hasher.hash(token)));
+		}
+	}
+
+	@Test
+	public void testFeatureHasherData() {
+		FeatureHasher hasher = new FeatureHasher(3, false);
+		Data data = new RealValuedData(this.trainingFile, hasher);
+		Data gold = new RealValuedData(this.trainingFile);
+		assertSame(hasher, data.getFeatureHasher());
+		assertTrue(data.getAllFeatures().size() <= hasher.size());
+		assertEquals(gold.size(), data.getDocs().size());
+		assertSame(hasher, data.subset(data.getIDs()).getFeatureHasher());
+		Data binary = new BinaryValuedData(this.trainingFile, hasher);
+		assertTrue(binary.getAllFeatures().size() <= hasher.size());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testFeatureHasherBitsThrows() {
+		new FeatureHasher(FeatureHasher.MAX_BITS + 1, false);
+	}
+
+	@Test
+	public void testFeatureHasherMaxBits() {
+		FeatureHasher hasher = new FeatureHasher(FeatureHasher.MAX_BITS, false);
+		assertEquals(1 << FeatureHasher.MAX_BITS, hasher.size());
+		assertSame(hasher.getName(hasher.size() - 1), hasher.getName(hasher.size() - 1));
+	}
+}
@@ -0,0 +1,226 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * FeatureSelector
+ *
+ * Selects the features of a Data object worth training on, before
+ * training, producing a pruned feature dictionary. A feature is kept if
+ * it passes every configured criterion: <br>
+ * 	document frequency of at least minDocumentFrequency documents <br>
+ * 	document frequency of at most maxDocumentFrequency of the documents <br>
+ * 	among the chiSquareTopN features of largest chi-square statistic <br>
+ * 	among the informationGainTopN features of largest information gain <br><br>
+ *
+ * All criteria are computed from the count of documents with each
+ * feature per label, which is collected in one pass over the documents,
+ * split among threads. Ties in the top N are broken by feature. <br><br>
+ *
+ * The dictionary is honored by Data#prune(Interner), and by a
+ * MachineLearningClassifier given it with setFeatureDictionary, which
+ * prunes all data it loads, so models only hold selected features.
+ */
+public class FeatureSelector {
+
+	private final int minDocumentFrequency;
+	private final double maxDocumentFrequency;
+	private final int chiSquareTopN;
+	private final int informationGainTopN;
+
+	/**
+	 * Construct a FeatureSelector with the given criteria. <br>
+	 * e.g. (2, 0.5, 0, 1000) drops features seen in one document or in
+	 * over half of the documents, then keeps the 1000 of largest
+	 * information gain.
+	 *
+	 * @param minDocumentFrequency number of documents a feature must be in, at least 1
+	 * @param maxDocumentFrequency fraction of documents a feature may be in, greater than 0.0 and at most 1.0
+	 * @param chiSquareTopN number of features of largest chi-square statistic to keep, or 0 for no limit
+	 * @param informationGainTopN number of features of largest information gain to keep, or 0 for no limit
+	 * @see MLMath#chiSquare(int[], int, int[], int)
+	 * @see MLMath#informationGain(int[], int, int[], int, double)
+	 */
+	public FeatureSelector(final int minDocumentFrequency, final double maxDocumentFrequency, final int chiSquareTopN, final int informationGainTopN) {
+		if (minDocumentFrequency < 1) {
+			throw new IllegalArgumentException("FeatureSelector requires a minDocumentFrequency of at least 1;");
+		}
+		if (!(maxDocumentFrequency > 0.0d && maxDocumentFrequency <= 1.0d)) {
+			throw new IllegalArgumentException("FeatureSelector requires a maxDocumentFrequency greater than 0.0 and at most 1.0;");
+		}
+		if (chiSquareTopN < 0 || informationGainTopN < 0) {
+			throw new IllegalArgumentException("FeatureSelector requires a chiSquareTopN and informationGainTopN of at least 0;");
+		}
+		this.minDocumentFrequency = minDocumentFrequency;
+		this.maxDocumentFrequency = maxDocumentFrequency;
+		this.chiSquareTopN = chiSquareTopN;
+		this.informationGainTopN = informationGainTopN;
+	}
+
+	/**
+	 * Select the features of data, counting documents with the given
+	 * number of threads, and return them as a dictionary in sorted order.
+	 *
+	 * @param data
+	 * @param threads number of threads, at least 1
+	 * @return dictionary of selected features
+	 */
+	public Interner select(final Data data, final int threads) {
+		if (data == null) {
+			throw new NullPointerException("FeatureSelector#select received a null parameter: data!");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("FeatureSelector#select requires at least 1 thread;");
+		}
+		Map<String, int[]> featureCounts = FeatureSelector.countDocuments(data, threads);
+		int size = data.size();
+		int[] topCounts = data.getLabelCounts(data.getIDs());
+		double topEnt = MLMath.entropy(topCounts, size);
+		// Document frequency cutoffs
+		int maxCount = (int) Math.floor(this.maxDocumentFrequency * size);
+		HashMap<String, Double> chiSquares = new HashMap<String, Double>();
+		HashMap<String, Double> informationGains = new HashMap<String, Double>();
+		HashMap<String, Integer> documentFrequencies = new HashMap<String, Integer>();
+		int documentFrequency;
+		for (Map.Entry<String, int[]> entry: featureCounts.entrySet()) {
+			documentFrequency = 0;
+			for (int count: entry.getValue()) {
+				documentFrequency += count;
+			}
+			if (documentFrequency < this.minDocumentFrequency || documentFrequency > maxCount) {
+				continue;
+			}
+			documentFrequencies.put(entry.getKey(), documentFrequency);
+			if (this.chiSquareTopN > 0) {
+				chiSquares.put(entry.getKey(), MLMath.chiSquare(entry.getValue(), documentFrequency, topCounts, size));
+			}
+			if (this.informationGainTopN > 0) {
+				informationGains.put(entry.getKey(), MLMath.informationGain(entry.getValue(), documentFrequency, topCounts, size, topEnt));
+			}
+		}
+		Set<String> result = new TreeSet<String>(documentFrequencies.keySet());
+		if (this.chiSquareTopN > 0) {
+			result.retainAll(FeatureSelector.topN(chiSquares, this.chiSquareTopN));
+		}
+		if (this.informationGainTopN > 0) {
+			result.retainAll(FeatureSelector.topN(informationGains, this.informationGainTopN));
+		}
+		return new Interner(result);
+	}
+
+	/**
+	 * Select the features of data using one thread per available processor.
+	 *
+	 * @param data
+	 * @return dictionary of selected features
+	 */
+	public Interner select(final Data data) {
+		return this.select(data, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Count the documents of data with each feature per label ID,
+	 * splitting the documents among the given number of threads.
+	 *
+	 * @param data
+	 * @param threads
+	 * @return count of documents with each feature, indexed by label ID
+	 */
+	static Map<String, int[]> countDocuments(final Data data, final int threads) {
+		final ArrayList<Document> documents = data.getDocs();
+		if (threads == 1 || documents.size() < 2) {
+			return FeatureSelector.countDocuments(data, documents);
+		}
+		List<Map<String, int[]>> chunks = Util.runChunks(documents, threads, new Util.ChunkTask<Document, Map<String, int[]>>() {
+			@Override
+			Map<String, int[]> call(final List<Document> chunk, final int start) {
+				return FeatureSelector.countDocuments(data, chunk);
+			}
+		}, "FeatureSelector#select");
+		// Merge the counts of each chunk into the first
+		Map<String, int[]> result = chunks.get(0);
+		int[] counts;
+		for (Map<String, int[]> chunkCounts: chunks.subList(1, chunks.size())) {
+			for (Map.Entry<String, int[]> entry: chunkCounts.entrySet()) {
+				counts = result.get(entry.getKey());
+				if (counts == null) {
+					result.put(entry.getKey(), entry.getValue());
+				}
+				else {
+					for (int id = 0; id < counts.length; id++) {
+						counts[id] += entry.getValue()[id];
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Count the given documents of data with each feature per label ID.
+	 *
+	 * @param data
+	 * @param documents
+	 * @return count of documents with each feature, indexed by label ID
+	 */
+	private static Map<String, int[]> countDocuments(final Data data, final List<Document> documents) {
+		int labelCount = data.getLabels().size();
+		HashMap<String, int[]> result = new HashMap<String, int[]>();
+		int[] counts;
+		int labelID;
+		for (Document document: documents) {
+			labelID = data.getLabelID(document.getDocID());
+			for (String feature: document.getFeatures()) {
+				counts = result.get(feature);
+				if (counts == null) {
+					counts = new int[labelCount];
+					result.put(feature, counts);
+				}
+				counts[labelID]++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the n features of largest score, breaking ties by feature,
+	 * keeping only n features in a bounded heap instead of sorting all.
+	 *
+	 * @param scores
+	 * @param n
+	 * @return the n features of largest score
+	 */
+	private static Set<String> topN(final Map<String, Double> scores, final int n) {
+		HashMap<String, Score> ranked = new HashMap<String, Score>((int)(scores.size()/0.75f) + 1);
+		for (Map.Entry<String, Double> entry: scores.entrySet()) {
+			ranked.put(entry.getKey(), new Score(entry.getKey(), entry.getValue()));
+		}
+		return new HashSet<String>(Util.topKeysByValue(ranked, n, true));
+	}
+
+	/**
+	 * Score of a feature, ordered by score and then by feature, with
+	 * the first feature in sorted order the larger of two equal scores.
+	 */
+	private static class Score implements Comparable<Score> {
+		private final String feature;
+		private final double score;
+
+		Score(final String feature, final double score) {
+			this.feature = feature;
+			this.score = score;
+		}
+
+		@Override
+		public int compareTo(final Score other) {
+			int result = Double.compare(this.score, other.score);
+			return (result != 0) ? result : other.feature.compareTo(this.feature);
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FeatureSelectorTest {
+
+	// Parameters
+	private final String trainingFile = testFile("example.real.vectors.txt");
+
+	// Variables
+	private Data data;
+
+	@Before
+	public void setupData() {
+		this.data = new RealValuedData(this.trainingFile);
+	}
+
+	/**
+	 * Return the number of documents of data with feature.
+	 */
+	private int documentFrequency(final String feature) {
+		int result = 0;
+		for (Document document: this.data.getDocs()) {
+			if (document.contains(feature)) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void testFeatureSelectorCountDocuments() {
+		Map<String, int[]> counts = FeatureSelector.countDocuments(this.data, 1);
+		Map<String, int[]> parallelCounts = FeatureSelector.countDocuments(this.data, 3);
+		assertEquals(this.data.getAllFeatures(), counts.keySet());
+		assertEquals(counts.keySet(), parallelCounts.keySet());
+		int sum;
+		for (String feature: counts.keySet()) {
+			sum = 0;
+			for (int id = 0; id < counts.get(feature).length; id++) {
+				assertEquals(counts.get(feature)[id], parallelCounts.get(feature)[id]);
+				sum += counts.get(feature)[id];
+			}
+			assertEquals(this.documentFrequency(feature), sum);
+		}
+	}
+
+	@Test
+	public void testFeatureSelectorDocumentFrequency() {
+		Interner dictionary = new FeatureSelector(2, 0.5d, 0, 0).select(this.data, 2);
+		int documentFrequency;
+		for (String feature: this.data.getAllFeatures()) {
+			documentFrequency = this.documentFrequency(feature);
+			assertEquals(documentFrequency >= 2 && documentFrequency <= this.data.size()/2, dictionary.contains(feature));
+		}
+		// No cutoffs keep every feature
+		assertEquals(this.data.getAllFeatures().size(), new FeatureSelector(1, 1.0d, 0, 0).select(this.data).size());
+	}
+
+	@Test
+	public void testFeatureSelectorTopN() {
+		Interner chiSquare = new FeatureSelector(1, 1.0d, 5, 0).select(this.data, 2);
+		Interner informationGain = new FeatureSelector(1, 1.0d, 0, 5).select(this.data, 2);
+		Interner both = new FeatureSelector(1, 1.0d, 5, 5).select(this.data, 2);
+		assertEquals(5, chiSquare.size());
+		assertEquals(5, informationGain.size());
+		for (int i = 0; i < both.size(); i++) {
+			assertTrue(chiSquare.contains(both.get(i)));
+			assertTrue(informationGain.contains(both.get(i)));
+		}
+		// Deterministic across threads
+		assertEquals(chiSquare.toString(), new FeatureSelector(1, 1.0d, 5, 0).select(this.data, 1).toString());
+	}
+
+	@Test
+	public void testFeatureSelectorTopNBreaksTiesByFeature() throws IOException {
+		File file = File.createTempFile("featureSelector", ".vectors.txt");
+		try {
+			FileWriter writer = new FileWriter(file);
+			writer.write("a f3:1 f2:1 f1:1\n");
+			writer.write("b f4:1\n");
+			writer.close();
+			Data tied = new RealValuedData(file.getPath());
+			Interner dictionary = new FeatureSelector(1, 1.0d, 2, 0).select(tied, 1);
+			assertEquals(2, dictionary.size());
+			assertTrue(dictionary.contains("f1"));
+			assertTrue(dictionary.contains("f2"));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testDataPrune() {
+		Interner dictionary = new FeatureSelector(2, 1.0d, 0, 0).select(this.data, 2);
+		Data pruned = this.data.prune(dictionary);
+		assertEquals(this.data.size(), pruned.size());
+		assertEquals(dictionary.size(), pruned.getAllFeatures().size());
+		Document document;
+		for (Document original: this.data.getDocs()) {
+			document = pruned.getDoc(original.getDocID());
+			assertEquals(original.getLabel(), document.getLabel());
+			for (String feature: original.getFeatures()) {
+				assertEquals(dictionary.contains(feature), document.contains(feature));
+				if (dictionary.contains(feature)) {
+					assertEquals(original.getFeatCount(feature), document.getFeatCount(feature));
+				}
+			}
+		}
+		Data binary = new BinaryValuedData(this.trainingFile).prune(dictionary);
+		assertFalse(binary.getAllFeatures().size() > dictionary.size());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testFeatureSelectorMaxDocumentFrequencyThrows() {
+		new FeatureSelector(1, 0.0d, 0, 0);
+	}
+}
@@ -0,0 +1,300 @@
+package machineLearningTools;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * FrozenCounter
+ *
+ * Immutable, compact copy of the counts of a Counter, for phases that
+ * only read counts, such as classifying with a trained model. Made by
+ * Counter#freeze() or ConcurrentCounter#freeze(). <br><br>
+ *
+ * Keys and their counts are held in two parallel arrays, an open
+ * addressing hash table of at most half full Object slots and an int[]
+ * of counts, rather than a HashMap entry and an Integer for each key.
+ * <br><br>
+ *
+ * Lookups have no side effects: get() of a missing key returns 0
+ * without adding the key, as Counter#get(Object) would. So a
+ * FrozenCounter is safe to share among any number of reading threads.
+ * Every method that would change it throws UnsupportedOperationException.
+ *
+ * @param <T> key type
+ * @see Counter#freeze()
+ */
+public class FrozenCounter<T> extends AbstractCounter<T> {
+
+	// Slot of the null key
+	private static final Object NULL = new Object();
+
+	// Hash table of keys, null for an empty slot
+	private final Object[] keys;
+	// Count of the key in each slot
+	private final int[] counts;
+	private final int mask;
+	private final int size;
+
+	/**
+	 * Construct a FrozenCounter of the given counts.
+	 *
+	 * @param values counts by key
+	 */
+	FrozenCounter(final Map<T, Integer> values) {
+		if (values == null) {
+			throw new NullPointerException("FrozenCounter constructor received a null parameter: values!");
+		}
+		int capacity = 2;
+		while (capacity < 2*values.size()) {
+			capacity <<= 1;
+		}
+		this.keys = new Object[capacity];
+		this.counts = new int[capacity];
+		this.mask = capacity - 1;
+		int size = 0;
+		Object key;
+		int slot;
+		for (Map.Entry<T, Integer> entry: values.entrySet()) {
+			key = (entry.getKey() == null) ? FrozenCounter.NULL : entry.getKey();
+			slot = this.slot(key);
+			if (this.keys[slot] == null) {
+				size++;
+			}
+			this.keys[slot] = key;
+			this.counts[slot] = entry.getValue();
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Return the slot of the given key, or the empty slot it
+	 * would take, by linear probing.
+	 */
+	private int slot(final Object key) {
+		int slot = FeatureHasher.mix(key.hashCode()) & this.mask;
+		while (this.keys[slot] != null && !this.keys[slot].equals(key)) {
+			slot = (slot + 1) & this.mask;
+		}
+		return slot;
+	}
+
+	// Core methods
+
+	/**
+	 * Get the count of key, or 0 if key has no count,
+	 * without boxing it.
+	 *
+	 * @param key
+	 * @return count of key
+	 */
+	public int getCount(final Object key) {
+		return this.counts[this.slot((key == null) ? FrozenCounter.NULL : key)];
+	}
+
+	/**
+	 * Get value associated with key, or 0 if key has no value
+	 * @param key
+	 * @return value associated with key
+	 */
+	@Override
+	public Integer get(Object key) {
+		return this.getCount(key);
+	}
+
+	/**
+	 * Return this FrozenCounter, which is already frozen.
+	 *
+	 * @return this
+	 */
+	public FrozenCounter<T> freeze() {
+		return this;
+	}
+
+	// Other methods
+
+	@Override
+	public String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append("{");
+		for (Map.Entry<T, Integer> entry: this.entrySet()) {
+			if (stringBuilder.length() > 1) {
+				stringBuilder.append(", ");
+			}
+			stringBuilder.append(entry.getKey()).append("=").append(entry.getValue());
+		}
+		stringBuilder.append("}");
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * FrozenCounter is equal to any Map of the same counts,
+	 * such as the Counter it was frozen from
+	 * @return
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (!(obj instanceof Map)) {
+			return false;
+		}
+		Map<?, ?> other = (Map<?, ?>) obj;
+		if (other.size() != this.size) {
+			return false;
+		}
+		Object key;
+		for (int slot = 0; slot < this.keys.length; slot++) {
+			if (this.keys[slot] == null) {
+				continue;
+			}
+			key = (this.keys[slot] == FrozenCounter.NULL) ? null : this.keys[slot];
+			if (!other.containsKey(key) || !Integer.valueOf(this.counts[slot]).equals(other.get(key))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * FrozenCounter hashes as any Map of the same counts does,
+	 * summing the key hash xor the count of each entry
+	 * @return
+	 */
+	@Override
+	public int hashCode() {
+		int result = 0;
+		for (int slot = 0; slot < this.keys.length; slot++) {
+			if (this.keys[slot] == null) {
+				continue;
+			}
+			result += ((this.keys[slot] == FrozenCounter.NULL) ? 0 : this.keys[slot].hashCode()) ^ this.counts[slot];
+		}
+		return result;
+	}
+
+	// General Map methods
+
+	/**
+	 * Return boolean if counter contains key
+	 * @param key
+	 * @return if counter contains key
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return this.keys[this.slot((key == null) ? FrozenCounter.NULL : key)] != null;
+	}
+
+	/**
+	 * Return an unmodifiable view of the keys of counter
+	 * @return keys of counter
+	 */
+	@Override
+	public Set<T> keySet() {
+		return new AbstractSet<T>() {
+			@Override
+			public Iterator<T> iterator() {
+				final Iterator<Map.Entry<T, Integer>> entries = FrozenCounter.this.entrySet().iterator();
+				return new Iterator<T>() {
+					@Override
+					public boolean hasNext() {
+						return entries.hasNext();
+					}
+
+					@Override
+					public T next() {
+						return entries.next().getKey();
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public boolean contains(Object key) {
+				return FrozenCounter.this.containsKey(key);
+			}
+
+			@Override
+			public int size() {
+				return FrozenCounter.this.size;
+			}
+		};
+	}
+
+	/**
+	 * Return an unmodifiable view of the entries of counter
+	 * @return entries of counter
+	 */
+	@Override
+	public Set<java.util.Map.Entry<T, Integer>> entrySet() {
+		return new AbstractSet<Map.Entry<T, Integer>>() {
+			@Override
+			public Iterator<Map.Entry<T, Integer>> iterator() {
+				return new Iterator<Map.Entry<T, Integer>>() {
+					private int slot = this.advance(0);
+
+					/**
+					 * Return the first used slot from the given slot.
+					 */
+					private int advance(int from) {
+						while (from < FrozenCounter.this.keys.length && FrozenCounter.this.keys[from] == null) {
+							from++;
+						}
+						return from;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return this.slot < FrozenCounter.this.keys.length;
+					}
+
+					@Override
+					public Map.Entry<T, Integer> next() {
+						if (!this.hasNext()) {
+							throw new NoSuchElementException();
+						}
+						Object key = FrozenCounter.this.keys[this.slot];
+						@SuppressWarnings("unchecked")
+						T thisKey = (key == FrozenCounter.NULL) ? null : (T) key;
+						Map.Entry<T, Integer> result = new AbstractMap.SimpleImmutableEntry<T, Integer>(thisKey, FrozenCounter.this.counts[this.slot]);
+						this.slot = this.advance(this.slot + 1);
+						return result;
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return FrozenCounter.this.size;
+			}
+		};
+	}
+
+	@Override
+	public Integer remove(Object key) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+}
@@ -0,0 +1,89 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FrozenCounterTest {
+
+	// Variables
+	private Counter<String> counter;
+
+	@Before
+	public void setUpFrozenCounterTest() {
+		this.counter = new Counter<String>(new String[]{"a", "b", "b", "c", "c", "c"});
+		this.counter.increment(null, 4);
+		this.counter.initialize("zero");
+		for (int i = 0; i < 1000; i++) {
+			this.counter.increment("key" + i, i);
+		}
+	}
+
+	@Test
+	public void testFrozenCounterFreeze() {
+		FrozenCounter<String> frozen = this.counter.freeze();
+		assertEquals(this.counter.size(), frozen.size());
+		assertTrue(frozen.equals(this.counter));
+		assertTrue(this.counter.equals(frozen));
+		for (String key: this.counter.keySet()) {
+			assertEquals(this.counter.get(key), frozen.get(key));
+			assertEquals(this.counter.get(key).intValue(), frozen.getCount(key));
+			assertTrue(frozen.containsKey(key));
+		}
+		assertEquals(new HashSet<String>(this.counter.keySet()), new HashSet<String>(frozen.keySet()));
+		int entries = 0;
+		for (Map.Entry<String, Integer> entry: frozen.entrySet()) {
+			assertEquals(this.counter.get(entry.getKey()), entry.getValue());
+			entries++;
+		}
+		assertEquals(this.counter.size(), entries);
+		assertTrue(frozen.freeze() == frozen);
+	}
+
+	@Test
+	public void testFrozenCounterHashCode() {
+		FrozenCounter<String> frozen = this.counter.freeze();
+		assertEquals(this.counter.hashCode(), frozen.hashCode());
+		assertEquals(new HashMap<String, Integer>(this.counter).hashCode(), frozen.hashCode());
+		assertEquals(new HashMap<String, Integer>().hashCode(), new Counter<String>().freeze().hashCode());
+	}
+
+	/**
+	 * Unlike Counter, get() of a missing key does not add it
+	 */
+	@Test
+	public void testFrozenCounterGetDoesNotAdd() {
+		FrozenCounter<String> frozen = this.counter.freeze();
+		int size = frozen.size();
+		assertEquals(Integer.valueOf(0), frozen.get("missing"));
+		assertEquals(0, frozen.getCount("missing"));
+		assertFalse(frozen.containsKey("missing"));
+		assertEquals(size, frozen.size());
+		assertTrue(new Counter<String>().freeze().isEmpty());
+		assertEquals("{a=1}", new Counter<String>(new String[]{"a"}).freeze().toString());
+	}
+
+	@Test
+	public void testFrozenCounterConcurrentFreeze() {
+		ConcurrentCounter<String> concurrent = new ConcurrentCounter<String>(2);
+		concurrent.addAll(new Counter<String>(new String[]{"a", "b", "b"}));
+		assertEquals(concurrent.toCounter(), concurrent.freeze());
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testFrozenCounterRemoveThrows() {
+		this.counter.freeze().remove("a");
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testFrozenCounterKeySetRemoveThrows() {
+		this.counter.freeze().keySet().remove("a");
+	}
+}
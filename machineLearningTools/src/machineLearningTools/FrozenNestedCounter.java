@@ -0,0 +1,179 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, compact copy of the counts of a NestedCounter, for phases
+ * that only read counts, such as classifying with a trained model. Made
+ * by NestedCounter#freeze() or ConcurrentNestedCounter#freeze(). <br><br>
+ *
+ * Each key1 has a FrozenCounter of its key2 counts. Lookups have no side
+ * effects: get() of a missing mapping returns 0 without adding the keys,
+ * as NestedCounter#get(Object, Object) would. So a FrozenNestedCounter
+ * is safe to share among any number of reading threads.
+ *
+ * @param <T> key type
+ * @see NestedCounter#freeze()
+ * @see FrozenCounter
+ */
+public class FrozenNestedCounter<T> extends AbstractCounter<T> {
+	// Row of each key1
+	private final FrozenCounter<T> rowIDs;
+	private final ArrayList<FrozenCounter<T>> rows;
+	// Keys used as either key1 or key2
+	private final FrozenCounter<T> allKeys;
+	private final boolean empty;
+
+	/**
+	 * Construct a FrozenNestedCounter of the given counts.
+	 *
+	 * @param values counts by key2 by key1
+	 * @param allKeys keys used as either key1 or key2
+	 */
+	FrozenNestedCounter(final Map<T, ? extends Map<T, Integer>> values, final Collection<T> allKeys) {
+		if (values == null || allKeys == null) {
+			throw new NullPointerException("FrozenNestedCounter constructor received a null parameter!");
+		}
+		HashMap<T, Integer> rowIDs = new HashMap<T, Integer>((int)(values.size()/0.75f) + 1);
+		this.rows = new ArrayList<FrozenCounter<T>>(values.size());
+		boolean empty = true;
+		for (Map.Entry<T, ? extends Map<T, Integer>> row: values.entrySet()) {
+			rowIDs.put(row.getKey(), this.rows.size());
+			this.rows.add(new FrozenCounter<T>(row.getValue()));
+			empty &= row.getValue().isEmpty();
+		}
+		this.rowIDs = new FrozenCounter<T>(rowIDs);
+		HashMap<T, Integer> keys = new HashMap<T, Integer>((int)(allKeys.size()/0.75f) + 1);
+		for (T key: allKeys) {
+			keys.put(key, 1);
+		}
+		this.allKeys = new FrozenCounter<T>(keys);
+		this.empty = empty;
+	}
+
+	// Core methods
+
+	/**
+	 * Get the value at the specified key1->key2 mapping,
+	 * or 0 if no value exists, without boxing it.
+	 *
+	 * @param key1
+	 * @param key2
+	 * @return
+	 */
+	public int getCount(final T key1, final T key2) {
+		if (!this.rowIDs.containsKey(key1)) {
+			return 0;
+		}
+		return this.rows.get(this.rowIDs.getCount(key1)).getCount(key2);
+	}
+
+	/**
+	 * Get the value at the specified key1->key2 mapping,
+	 * or 0 if no value exists
+	 *
+	 * @param key1
+	 * @param key2
+	 * @return
+	 */
+	public Integer get(final T key1, final T key2) {
+		return this.getCount(key1, key2);
+	}
+
+	/**
+	 * Return this FrozenNestedCounter, which is already frozen.
+	 *
+	 * @return this
+	 */
+	public FrozenNestedCounter<T> freeze() {
+		return this;
+	}
+
+	// Other core methods
+	/**
+	 * Returns true iff key1->key2 mapping exists
+	 *
+	 * @param key1
+	 * @param key2
+	 * @return
+	 */
+	public boolean containsValueAt(final T key1, final T key2) {
+		return this.rowIDs.containsKey(key1) && this.rows.get(this.rowIDs.getCount(key1)).containsKey(key2);
+	}
+
+	/**
+	 * Returns true iff key is either a key1 or key2
+	 *
+	 * @param key1
+	 * @param key2
+	 * @return
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return this.allKeys.containsKey(key);
+	}
+
+	// General map methods
+	/**
+	 *
+	 * Returns an unmodifiable set of the outer keys
+	 *
+	 * @see java.util.Map#keySet()
+	 */
+	@Override
+	public Set<T> keySet() {
+		return this.rowIDs.keySet();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.empty;
+	}
+
+	@Override
+	public int size() {
+		return this.rowIDs.size();
+	}
+
+	// General methods
+
+	/* (non-Javadoc)
+	 *
+	 * Constructs nested hashmap representation of the counts
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append("{");
+		for (T key1: this.rowIDs.keySet()) {
+			if (stringBuilder.length() > 1) {
+				stringBuilder.append(", ");
+			}
+			stringBuilder.append(key1).append("=").append(this.rows.get(this.rowIDs.getCount(key1)));
+		}
+		stringBuilder.append("}");
+		return stringBuilder.toString();
+	}
+
+	// Unsupported Map methods
+	@Override
+	public Integer get(Object key) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Integer remove(Object key) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Set<java.util.Map.Entry<T, Integer>> entrySet() {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,70 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FrozenNestedCounterTest {
+
+	// Variables
+	private NestedCounter<String> counter;
+
+	@Before
+	public void setUpFrozenNestedCounterTest() {
+		this.counter = new NestedCounter<String>();
+		this.counter.increment("key1", "key2");
+		this.counter.increment("key1", "key2");
+		this.counter.increment("key1", "key3", 5);
+		this.counter.initialize("key3", "key4");
+	}
+
+	@Test
+	public void testFrozenNestedCounterFreeze() {
+		FrozenNestedCounter<String> frozen = this.counter.freeze();
+		assertEquals(this.counter.keySet(), frozen.keySet());
+		assertEquals(this.counter.size(), frozen.size());
+		assertEquals(Integer.valueOf(2), frozen.get("key1", "key2"));
+		assertEquals(5, frozen.getCount("key1", "key3"));
+		assertEquals(Integer.valueOf(0), frozen.get("key3", "key4"));
+		assertTrue(frozen.containsValueAt("key3", "key4"));
+		for (String key: new String[]{"key1", "key2", "key3", "key4"}) {
+			assertTrue(frozen.containsKey(key));
+		}
+		assertFalse(frozen.isEmpty());
+		assertTrue(new NestedCounter<String>().freeze().isEmpty());
+	}
+
+	/**
+	 * Unlike NestedCounter, get() of a missing mapping does not add it
+	 */
+	@Test
+	public void testFrozenNestedCounterGetDoesNotAdd() {
+		FrozenNestedCounter<String> frozen = this.counter.freeze();
+		assertEquals(Integer.valueOf(0), frozen.get("key2", "key5"));
+		assertFalse(frozen.containsValueAt("key2", "key5"));
+		assertFalse(frozen.containsKey("key5"));
+		assertEquals(2, frozen.size());
+	}
+
+	@Test
+	public void testFrozenNestedCounterConcurrentFreeze() {
+		ConcurrentNestedCounter<String> concurrent = new ConcurrentNestedCounter<String>(2);
+		concurrent.increment("key1", "key2", 2);
+		concurrent.increment("key1", "key3", 5);
+		concurrent.initialize("key3", "key4");
+		FrozenNestedCounter<String> frozen = concurrent.freeze();
+		assertEquals(this.counter.keySet(), frozen.keySet());
+		assertEquals(Integer.valueOf(2), frozen.get("key1", "key2"));
+		assertEquals(Integer.valueOf(5), frozen.get("key1", "key3"));
+		assertTrue(frozen.containsValueAt("key3", "key4"));
+		assertTrue(frozen.containsKey("key4"));
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testFrozenNestedCounterGetThrows() {
+		this.counter.freeze().get("key1");
+	}
+}
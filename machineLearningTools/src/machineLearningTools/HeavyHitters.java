@@ -0,0 +1,246 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * HeavyHitters
+ *
+ * Tracks the most frequent Strings, such as the most frequent features,
+ * and approximate counts of them, by the Space-Saving algorithm, in a
+ * fixed number of counters rather than a Counter of every String. <br><br>
+ *
+ * A String that is tracked has its count added to its counter. Any other
+ * String takes over the counter with the least count once every counter
+ * is used, starting from that least count, which is recorded as the
+ * error of its count. So counts are never below the true count, and are
+ * above it by at most total/capacity. Every String with a true count of
+ * more than total/capacity is tracked. <br><br>
+ *
+ * HeavyHitters merge by adding the counts of Strings tracked by either,
+ * where a String not tracked by a full HeavyHitters is counted as its
+ * least count, and keeping the capacity largest, so each thread, or shard,
+ * can count into its own HeavyHitters. Merged counts are still never
+ * below the true count. HeavyHitters is not thread safe.
+ */
+public class HeavyHitters {
+
+	/**
+	 * A tracked String and its count
+	 */
+	private static class Entry implements Comparable<Entry> {
+
+		private final String value;
+		private long count;
+		private long error;
+
+		private Entry(final String value, final long count, final long error) {
+			this.value = value;
+			this.count = count;
+			this.error = error;
+		}
+
+		/**
+		 * Order entries by count, then by value.
+		 */
+		@Override
+		public int compareTo(final Entry other) {
+			if (this.count != other.count) {
+				return (this.count < other.count) ? -1 : 1;
+			}
+			return this.value.compareTo(other.value);
+		}
+	}
+
+	private final int capacity;
+	private final HashMap<String, Entry> entries;
+	// Entries by count, least first
+	private final TreeSet<Entry> order;
+	private long total;
+
+	/**
+	 * Construct an empty HeavyHitters.
+	 *
+	 * @param capacity number of Strings tracked, at least 1
+	 */
+	public HeavyHitters(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("HeavyHitters requires a capacity of at least 1;");
+		}
+		this.capacity = capacity;
+		this.entries = new HashMap<String, Entry>((int)(capacity/0.75f) + 1);
+		this.order = new TreeSet<Entry>();
+	}
+
+	/**
+	 * Add one to the count of the given String.
+	 *
+	 * @param value
+	 */
+	public void add(final String value) {
+		this.add(value, 1L);
+	}
+
+	/**
+	 * Add count to the count of the given String.
+	 *
+	 * @param value
+	 * @param count at least 0
+	 */
+	public void add(final String value, final long count) {
+		if (value == null) {
+			throw new NullPointerException("HeavyHitters#add received a null parameter: value!");
+		}
+		if (count < 0) {
+			throw new IllegalArgumentException("HeavyHitters#add requires a count of at least 0;");
+		}
+		this.total += count;
+		Entry entry = this.entries.get(value);
+		if (entry != null) {
+			this.order.remove(entry);
+			entry.count += count;
+			this.order.add(entry);
+			return;
+		}
+		if (this.entries.size() < this.capacity) {
+			entry = new Entry(value, count, 0L);
+		}
+		else {
+			// Take over the least counter
+			Entry least = this.order.pollFirst();
+			this.entries.remove(least.value);
+			entry = new Entry(value, least.count + count, least.count);
+		}
+		this.entries.put(value, entry);
+		this.order.add(entry);
+	}
+
+	/**
+	 * Return the estimated count of the given String, which is never
+	 * below its true count: its count if tracked, else the least count
+	 * if every counter is used, else 0.
+	 *
+	 * @param value
+	 * @return estimated count
+	 */
+	public long estimate(final String value) {
+		Entry entry = this.entries.get(value);
+		if (entry != null) {
+			return entry.count;
+		}
+		return this.floor();
+	}
+
+	/**
+	 * Return the most the estimated count of the given String
+	 * may be above its true count.
+	 *
+	 * @param value
+	 * @return error of estimate(value)
+	 */
+	public long getError(final String value) {
+		Entry entry = this.entries.get(value);
+		if (entry != null) {
+			return entry.error;
+		}
+		return this.floor();
+	}
+
+	/**
+	 * Return the tracked Strings, most frequent first, with ties
+	 * in sorted order.
+	 *
+	 * @return tracked Strings
+	 */
+	public List<String> getHeavyHitters() {
+		ArrayList<String> result = new ArrayList<String>(this.order.size());
+		for (Entry entry: this.order.descendingSet()) {
+			result.add(entry.value);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the tracked Strings whose true count is certainly at
+	 * least the given count, most frequent first.
+	 *
+	 * @param count
+	 * @return Strings with a count of at least count
+	 */
+	public List<String> getHeavyHitters(final long count) {
+		ArrayList<String> result = new ArrayList<String>();
+		for (Entry entry: this.order.descendingSet()) {
+			if (entry.count - entry.error >= count) {
+				result.add(entry.value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Add the counts of another HeavyHitters of the same capacity
+	 * to this one.
+	 *
+	 * @param other
+	 */
+	public void merge(final HeavyHitters other) {
+		if (other == null) {
+			throw new NullPointerException("HeavyHitters#merge received a null parameter: other!");
+		}
+		if (other.capacity != this.capacity) {
+			throw new IllegalArgumentException("HeavyHitters#merge requires a HeavyHitters of the same capacity;");
+		}
+		long floor = this.floor();
+		long otherFloor = other.floor();
+		HashMap<String, Entry> merged = new HashMap<String, Entry>((int)((this.entries.size() + other.entries.size())/0.75f) + 1);
+		Entry otherEntry;
+		for (Entry entry: this.entries.values()) {
+			otherEntry = other.entries.get(entry.value);
+			if (otherEntry == null) {
+				merged.put(entry.value, new Entry(entry.value, entry.count + otherFloor, entry.error + otherFloor));
+			}
+			else {
+				merged.put(entry.value, new Entry(entry.value, entry.count + otherEntry.count, entry.error + otherEntry.error));
+			}
+		}
+		for (Entry entry: other.entries.values()) {
+			if (!merged.containsKey(entry.value)) {
+				merged.put(entry.value, new Entry(entry.value, entry.count + floor, entry.error + floor));
+			}
+		}
+		this.entries.clear();
+		this.order.clear();
+		this.order.addAll(merged.values());
+		while (this.order.size() > this.capacity) {
+			this.order.pollFirst();
+		}
+		for (Entry entry: this.order) {
+			this.entries.put(entry.value, entry);
+		}
+		this.total += other.total;
+	}
+
+	/**
+	 * @return sum of every count added
+	 */
+	public long getTotal() {
+		return this.total;
+	}
+
+	/**
+	 * @return number of Strings tracked
+	 */
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Return the most an untracked String may have been counted:
+	 * the least count if every counter is used, else 0.
+	 */
+	private long floor() {
+		return (this.entries.size() < this.capacity) ? 0L : this.order.first().count;
+	}
+}
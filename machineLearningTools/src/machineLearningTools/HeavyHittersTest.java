@@ -0,0 +1,53 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HeavyHittersTest {
+
+	@Test
+	public void testHeavyHittersSpaceSaving() {
+		HeavyHitters hitters = new HeavyHitters(10);
+		Counter<String> counts = new Counter<String>();
+		Random random = new Random(3L);
+		String value;
+		for (int i = 0; i < 10000; i++) {
+			// a, b and c take 30%, 20% and 10%; the rest is spread over 1000 values
+			double uniform = random.nextDouble();
+			value = (uniform < 0.3d) ? "a" : (uniform < 0.5d) ? "b" : (uniform < 0.6d) ? "c" : "r" + random.nextInt(1000);
+			hitters.add(value);
+			counts.increment(value);
+		}
+		assertEquals(Arrays.asList("a", "b", "c"), hitters.getHeavyHitters().subList(0, 3));
+		for (String key: counts.keySet()) {
+			assertTrue(hitters.estimate(key) >= counts.get(key));
+			assertTrue(hitters.estimate(key) - hitters.getError(key) <= counts.get(key));
+			assertTrue(hitters.estimate(key) - counts.get(key) <= hitters.getTotal()/10);
+		}
+		assertEquals(Arrays.asList("a", "b"), hitters.getHeavyHitters(1500L));
+	}
+
+	@Test
+	public void testHeavyHittersMerge() {
+		HeavyHitters first = new HeavyHitters(2);
+		HeavyHitters second = new HeavyHitters(2);
+		first.add("a", 5L);
+		first.add("b", 3L);
+		first.add("c", 1L);
+		second.add("b", 4L);
+		second.add("d", 2L);
+		first.merge(second);
+		assertEquals(Arrays.asList("b", "a"), first.getHeavyHitters());
+		assertEquals(8L, first.estimate("b"));
+		// a is counted with the least count of second, which is full
+		assertEquals(7L, first.estimate("a"));
+		assertEquals(2L, first.getError("a"));
+		assertEquals(15L, first.getTotal());
+		assertTrue(first.estimate("d") >= 2L);
+	}
+}
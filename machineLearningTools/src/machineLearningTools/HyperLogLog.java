@@ -0,0 +1,136 @@
+package machineLearningTools;
+
+/**
+ * HyperLogLog
+ *
+ * Approximate number of distinct Strings, such as the size of a
+ * vocabulary, in 2^precision one byte registers rather than a HashSet
+ * of every String. The relative standard error is 1.04/sqrt(2^precision),
+ * e.g. 0.8% for a precision of 14, in 16KB. <br><br>
+ *
+ * Each String has a 64 bit hash, whose first precision bits choose a
+ * register and whose remaining bits give a rank, the position of their
+ * first 1 bit. Each register keeps the largest rank it has seen, and
+ * the estimate is the bias corrected harmonic mean of 2^rank over the
+ * registers, or linear counting of empty registers for small counts.
+ * <br><br>
+ *
+ * HyperLogLogs of the same precision merge by keeping the larger of
+ * each register, so each thread, or shard, can count into its own
+ * HyperLogLog, and Strings seen by several are counted once. A
+ * HyperLogLog is not thread safe.
+ */
+public class HyperLogLog {
+
+	// Seed of the low 32 bits of the hash of each String
+	private static final int SEED = 0x5bd1e995;
+
+	private final int precision;
+	private final byte[] registers;
+
+	/**
+	 * Construct an empty HyperLogLog.
+	 *
+	 * @param precision number of bits choosing a register, between 4 and 18
+	 */
+	public HyperLogLog(final int precision) {
+		if (precision < 4 || precision > 18) {
+			throw new IllegalArgumentException("HyperLogLog requires a precision between 4 and 18;");
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Add the given String.
+	 *
+	 * @param value
+	 */
+	public void add(final String value) {
+		if (value == null) {
+			throw new NullPointerException("HyperLogLog#add received a null parameter: value!");
+		}
+		this.addHash(((long) FeatureHasher.murmur3(value) << 32) | (FeatureHasher.murmur3(value, HyperLogLog.SEED) & 0xffffffffL));
+	}
+
+	/**
+	 * Add a value with the given 64 bit hash. Equal values must
+	 * have equal hashes, and all bits of the hash must be mixed.
+	 *
+	 * @param hash
+	 */
+	public void addHash(final long hash) {
+		int register = (int) (hash >>> (64 - this.precision));
+		// The precision low bits are 0, so the rank is at most 65 - precision
+		int rank = Long.numberOfLeadingZeros(hash << this.precision) + 1;
+		if (rank > 65 - this.precision) {
+			rank = 65 - this.precision;
+		}
+		if (rank > this.registers[register]) {
+			this.registers[register] = (byte) rank;
+		}
+	}
+
+	/**
+	 * Return the estimated number of distinct values added.
+	 *
+	 * @return estimated number of distinct values
+	 */
+	public long cardinality() {
+		int m = this.registers.length;
+		double sum = 0.0d;
+		int empty = 0;
+		for (byte register: this.registers) {
+			sum += 1.0d/(1L << register);
+			if (register == 0) {
+				empty++;
+			}
+		}
+		double alpha;
+		if (m == 16) {
+			alpha = 0.673d;
+		}
+		else if (m == 32) {
+			alpha = 0.697d;
+		}
+		else if (m == 64) {
+			alpha = 0.709d;
+		}
+		else {
+			alpha = 0.7213d/(1.0d + 1.079d/m);
+		}
+		double estimate = alpha*m*m/sum;
+		if (estimate <= 2.5d*m && empty > 0) {
+			// Linear counting
+			estimate = m*Math.log(m/(double) empty);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * Add the values of another HyperLogLog of the same precision
+	 * to this one.
+	 *
+	 * @param other
+	 */
+	public void merge(final HyperLogLog other) {
+		if (other == null) {
+			throw new NullPointerException("HyperLogLog#merge received a null parameter: other!");
+		}
+		if (other.precision != this.precision) {
+			throw new IllegalArgumentException("HyperLogLog#merge requires a HyperLogLog of the same precision;");
+		}
+		for (int i = 0; i < this.registers.length; i++) {
+			if (other.registers[i] > this.registers[i]) {
+				this.registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * @return number of bits choosing a register
+	 */
+	public int getPrecision() {
+		return this.precision;
+	}
+}
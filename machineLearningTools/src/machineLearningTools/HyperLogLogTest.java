@@ -0,0 +1,46 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class HyperLogLogTest {
+
+	@Test
+	public void testHyperLogLogCardinality() {
+		HyperLogLog counter = new HyperLogLog(12);
+		assertEquals(0L, counter.cardinality());
+		for (int n: new int[]{10, 1000, 100000}) {
+			counter = new HyperLogLog(12);
+			for (int i = 0; i < n; i++) {
+				// Repeats are counted once
+				counter.add("feature" + i);
+				counter.add("feature" + (i/2));
+			}
+			// Standard error is 1.6%
+			assertEquals(n, counter.cardinality(), 0.06d*n);
+		}
+	}
+
+	@Test
+	public void testHyperLogLogMerge() {
+		HyperLogLog first = new HyperLogLog(14);
+		HyperLogLog second = new HyperLogLog(14);
+		HyperLogLog both = new HyperLogLog(14);
+		for (int i = 0; i < 20000; i++) {
+			first.add("f" + i);
+			second.add("f" + (i+10000));
+			both.add("f" + i);
+			both.add("f" + (i+10000));
+		}
+		first.merge(second);
+		// Merging is exact
+		assertEquals(both.cardinality(), first.cardinality());
+		assertEquals(30000L, first.cardinality(), 0.03d*30000);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testHyperLogLogPrecisionThrows() {
+		new HyperLogLog(3);
+	}
+}
@@ -0,0 +1,297 @@
+package machineLearningTools;
+
+import static machineLearningTools.Util.argmax;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HyperparameterSearch
+ *
+ * Cross-validates every configuration of a ClassifierTuner over the
+ * folds of a CrossValidation, and finds the most accurate. <br><br>
+ *
+ * The tuner prepares each fold once, in parallel, sharing the work of
+ * training between configurations; the configurations are then
+ * evaluated concurrently against the prepared folds. Configurations are
+ * given as a grid of every combination of parameter values, or as a
+ * random sample of that grid. <br><br>
+ *
+ * Unlike CrossValidation#run(), the search does not set the system
+ * output of any document.
+ */
+public class HyperparameterSearch {
+
+	private final CrossValidation crossValidation;
+
+	/**
+	 * Construct a HyperparameterSearch over the folds of the given
+	 * CrossValidation.
+	 *
+	 * @param crossValidation
+	 */
+	public HyperparameterSearch(final CrossValidation crossValidation) {
+		if (crossValidation == null) {
+			throw new NullPointerException("HyperparameterSearch constructor received a null parameter: crossValidation!");
+		}
+		this.crossValidation = crossValidation;
+	}
+
+	/**
+	 * Return every combination of the given parameter values, varying
+	 * the last parameter fastest.
+	 *
+	 * @param values candidate values of each parameter
+	 * @return configurations
+	 */
+	public static List<double[]> grid(final double[]... values) {
+		int size = HyperparameterSearch.gridSize(values);
+		List<double[]> result = new ArrayList<double[]>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(HyperparameterSearch.gridConfiguration(values, i));
+		}
+		return result;
+	}
+
+	/**
+	 * Return n different combinations of the given parameter values,
+	 * sampled uniformly with the given seed, in grid order. Returns the
+	 * whole grid if it has no more than n combinations.
+	 *
+	 * @param n number of configurations
+	 * @param seed
+	 * @param values candidate values of each parameter
+	 * @return configurations
+	 */
+	public static List<double[]> random(final int n, final long seed, final double[]... values) {
+		if (n < 1) {
+			throw new IllegalArgumentException("HyperparameterSearch#random requires at least 1 configuration;");
+		}
+		int size = HyperparameterSearch.gridSize(values);
+		if (size <= n) {
+			return HyperparameterSearch.grid(values);
+		}
+		Random random = new Random(seed);
+		HashSet<Integer> chosen = new HashSet<Integer>();
+		while (chosen.size() < n) {
+			chosen.add(random.nextInt(size));
+		}
+		ArrayList<Integer> indices = new ArrayList<Integer>(chosen);
+		Collections.sort(indices);
+		List<double[]> result = new ArrayList<double[]>(n);
+		for (Integer index: indices) {
+			result.add(HyperparameterSearch.gridConfiguration(values, index));
+		}
+		return result;
+	}
+
+	/**
+	 * Return the number of combinations of the given parameter values.
+	 *
+	 * @param values
+	 * @return size of the grid
+	 */
+	private static int gridSize(final double[]... values) {
+		if (values == null) {
+			throw new NullPointerException("HyperparameterSearch received a null parameter: values!");
+		}
+		long size = 1L;
+		for (double[] parameter: values) {
+			if (parameter == null || parameter.length == 0) {
+				throw new IllegalArgumentException("HyperparameterSearch requires at least one value for each parameter;");
+			}
+			size *= parameter.length;
+			if (size > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("HyperparameterSearch grid is too large;");
+			}
+		}
+		return (int) size;
+	}
+
+	/**
+	 * Return the combination of parameter values with the given
+	 * index in grid order.
+	 *
+	 * @param values
+	 * @param index
+	 * @return configuration
+	 */
+	private static double[] gridConfiguration(final double[][] values, final int index) {
+		double[] result = new double[values.length];
+		int remainder = index;
+		for (int parameter = values.length-1; parameter >= 0; parameter--) {
+			result[parameter] = values[parameter][remainder % values[parameter].length];
+			remainder /= values[parameter].length;
+		}
+		return result;
+	}
+
+	/**
+	 * Cross-validate every configuration of the tuner, using up to
+	 * the given number of threads.
+	 *
+	 * @param tuner
+	 * @param threads at least 1
+	 * @return accuracy of each configuration
+	 */
+	public Result run(final ClassifierTuner tuner, final int threads) {
+		if (tuner == null) {
+			throw new NullPointerException("HyperparameterSearch#run received a null parameter: tuner!");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("HyperparameterSearch#run requires at least 1 thread;");
+		}
+		final int folds = this.crossValidation.getFolds();
+		// Gold labels of each fold, in document ID order
+		final String[][] gold = new String[folds][];
+		int total = 0;
+		for (int fold = 0; fold < folds; fold++) {
+			ArrayList<Document> documents = this.crossValidation.getTestingData(fold).getDocs();
+			Collections.sort(documents);
+			gold[fold] = new String[documents.size()];
+			for (int i = 0; i < documents.size(); i++) {
+				gold[fold][i] = documents.get(i).getLabel();
+			}
+			total += documents.size();
+		}
+		final ClassifierTuner.Evaluator[] evaluators = new ClassifierTuner.Evaluator[folds];
+		double[] accuracies = new double[tuner.size()];
+		ExecutorService executor = null;
+		if (threads > 1) {
+			// Cache magnitudes up front, so folds do not race to cache them
+			this.crossValidation.getData().precomputeMagnitudes(threads);
+			executor = Executors.newFixedThreadPool(threads);
+		}
+		try {
+			// Prepare each fold
+			ArrayList<Callable<ClassifierTuner.Evaluator>> prepared = new ArrayList<Callable<ClassifierTuner.Evaluator>>(folds);
+			for (int fold = 0; fold < folds; fold++) {
+				final int foldIndex = fold;
+				prepared.add(new Callable<ClassifierTuner.Evaluator>() {
+					@Override
+					public ClassifierTuner.Evaluator call() {
+						return HyperparameterSearch.this.prepare(tuner, foldIndex);
+					}
+				});
+			}
+			Util.run(prepared, executor, "HyperparameterSearch#run").toArray(evaluators);
+			// Evaluate each configuration against the prepared folds
+			ArrayList<Callable<Integer>> evaluated = new ArrayList<Callable<Integer>>(tuner.size());
+			for (final double[] configuration: tuner.getConfigurations()) {
+				evaluated.add(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						return HyperparameterSearch.evaluate(evaluators, gold, configuration);
+					}
+				});
+			}
+			List<Integer> correct = Util.run(evaluated, executor, "HyperparameterSearch#run");
+			for (int configuration = 0; configuration < accuracies.length; configuration++) {
+				accuracies[configuration] = (double) correct.get(configuration)/total;
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+		return new Result(tuner, accuracies);
+	}
+
+	/**
+	 * Cross-validate every configuration of the tuner, using one
+	 * thread per available processor.
+	 *
+	 * @param tuner
+	 * @return accuracy of each configuration
+	 */
+	public Result run(final ClassifierTuner tuner) {
+		return this.run(tuner, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Prepare the tuner on the given fold.
+	 *
+	 * @param tuner
+	 * @param fold
+	 * @return Evaluator of the fold
+	 */
+	private ClassifierTuner.Evaluator prepare(final ClassifierTuner tuner, final int fold) {
+		return tuner.prepare(this.crossValidation.getTrainingData(fold), this.crossValidation.getTestingData(fold));
+	}
+
+	/**
+	 * Return the number of testing documents over all folds
+	 * labeled correctly under the given configuration.
+	 *
+	 * @param evaluators
+	 * @param gold
+	 * @param configuration
+	 * @return number of correct labels
+	 */
+	private static int evaluate(final ClassifierTuner.Evaluator[] evaluators, final String[][] gold, final double[] configuration) {
+		int result = 0;
+		String[] labels;
+		for (int fold = 0; fold < evaluators.length; fold++) {
+			labels = evaluators[fold].classify(configuration);
+			for (int i = 0; i < labels.length; i++) {
+				if (gold[fold][i].equals(labels[i])) {
+					result++;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The results of a HyperparameterSearch: the cross-validated
+	 * accuracy of each configuration.
+	 */
+	public static class Result {
+
+		private final ClassifierTuner tuner;
+		private final double[] accuracies;
+
+		Result(final ClassifierTuner tuner, final double[] accuracies) {
+			this.tuner = tuner;
+			this.accuracies = accuracies;
+		}
+
+		/**
+		 * @param configuration
+		 * @return accuracy of configuration over all folds
+		 */
+		public double getAccuracy(final int configuration) {
+			return this.accuracies[configuration];
+		}
+
+		/**
+		 * @return index of the most accurate configuration, the first among ties
+		 */
+		public int getBest() {
+			return argmax(this.accuracies);
+		}
+
+		/**
+		 * @return parameter values of the most accurate configuration
+		 */
+		public double[] getBestConfiguration() {
+			return this.tuner.getConfiguration(this.getBest());
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder stringBuilder = new StringBuilder();
+			int best = this.getBest();
+			for (int configuration = 0; configuration < this.accuracies.length; configuration++) {
+				stringBuilder.append(String.format("%s accuracy = %f%s%n", this.tuner.describe(configuration), this.accuracies[configuration], configuration == best ? " (best)" : ""));
+			}
+			return stringBuilder.toString();
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class HyperparameterSearchTest {
+
+	// Parameters
+	private final String trainingFile = testFile("example.real.vectors.txt");
+
+	// Variables
+	private Data data;
+	private CrossValidation crossValidation;
+
+	/**
+	 * Labels every document with the label whose ID is the
+	 * only parameter, preparing nothing.
+	 */
+	private static class FixedLabelTuner extends ClassifierTuner {
+
+		private final Interner labels;
+
+		FixedLabelTuner(final Interner labels, final List<double[]> configurations) {
+			super(new String[]{"label"}, configurations);
+			this.labels = labels;
+		}
+
+		@Override
+		public Evaluator prepare(final Data trainingData, final Data testingData) {
+			final int size = testingData.size();
+			final Interner labels = this.labels;
+			return new Evaluator() {
+				@Override
+				public String[] classify(final double[] configuration) {
+					String[] result = new String[size];
+					for (int i = 0; i < size; i++) {
+						result[i] = labels.get((int) configuration[0]);
+					}
+					return result;
+				}
+			};
+		}
+	}
+
+	@Before
+	public void setupData() {
+		this.data = new RealValuedData(this.trainingFile);
+		this.crossValidation = new CrossValidation(this.data, 4, 7L);
+	}
+
+	@Test
+	public void testHyperparameterSearchGrid() {
+		List<double[]> grid = HyperparameterSearch.grid(new double[]{1, 2}, new double[]{0.1, 0.2, 0.3});
+		assertEquals(6, grid.size());
+		assertArrayEquals(new double[]{1, 0.1}, grid.get(0), 0.0d);
+		assertArrayEquals(new double[]{1, 0.3}, grid.get(2), 0.0d);
+		assertArrayEquals(new double[]{2, 0.1}, grid.get(3), 0.0d);
+		assertArrayEquals(new double[]{2, 0.3}, grid.get(5), 0.0d);
+	}
+
+	@Test
+	public void testHyperparameterSearchRandom() {
+		double[] first = new double[]{1, 2, 3, 4, 5};
+		double[] second = new double[]{0.1, 0.2, 0.3, 0.4};
+		List<double[]> sample = HyperparameterSearch.random(7, 3L, first, second);
+		assertEquals(7, sample.size());
+		// Distinct configurations of the grid, in grid order
+		List<double[]> grid = HyperparameterSearch.grid(first, second);
+		ArrayList<Integer> indices = new ArrayList<Integer>();
+		for (double[] configuration: sample) {
+			for (int i = 0; i < grid.size(); i++) {
+				if (grid.get(i)[0] == configuration[0] && grid.get(i)[1] == configuration[1]) {
+					indices.add(i);
+				}
+			}
+		}
+		assertEquals(7, new HashSet<Integer>(indices).size());
+		ArrayList<Integer> sorted = new ArrayList<Integer>(indices);
+		Collections.sort(sorted);
+		assertEquals(sorted, indices);
+		// Deterministic with the seed
+		List<double[]> again = HyperparameterSearch.random(7, 3L, first, second);
+		for (int i = 0; i < sample.size(); i++) {
+			assertArrayEquals(sample.get(i), again.get(i), 0.0d);
+		}
+		// Small grids are returned whole
+		assertEquals(20, HyperparameterSearch.random(50, 3L, first, second).size());
+	}
+
+	@Test
+	public void testHyperparameterSearchRun() {
+		int labels = this.data.getLabels().size();
+		double[] labelIDs = new double[labels];
+		for (int i = 0; i < labels; i++) {
+			labelIDs[i] = i;
+		}
+		FixedLabelTuner tuner = new FixedLabelTuner(this.data.getLabels(), HyperparameterSearch.grid(labelIDs));
+		HyperparameterSearch.Result result = new HyperparameterSearch(this.crossValidation).run(tuner, 3);
+		int[] counts = this.data.getLabelCounts(this.data.getIDs());
+		for (int i = 0; i < labels; i++) {
+			assertEquals((double) counts[i]/this.data.size(), result.getAccuracy(i), 1e-9);
+			assertTrue(result.getAccuracy(result.getBest()) >= result.getAccuracy(i));
+		}
+		assertArrayEquals(tuner.getConfiguration(result.getBest()), result.getBestConfiguration(), 0.0d);
+		assertEquals(result.toString(), new HyperparameterSearch(this.crossValidation).run(tuner, 1).toString());
+		assertTrue(result.toString().contains("(best)"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testClassifierTunerConfigurationSizeThrows() {
+		new FixedLabelTuner(this.data.getLabels(), HyperparameterSearch.grid(new double[]{0}, new double[]{1}));
+	}
+}
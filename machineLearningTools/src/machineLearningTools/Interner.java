@@ -0,0 +1,117 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * Interner
+ *
+ * Maps Strings, such as features or labels, to dense integer IDs
+ * in order of first insertion, and maps IDs back to Strings. <br><br>
+ *
+ * Interned IDs run from 0 to size()-1, so they can be used to index
+ * primitive arrays in place of String keyed maps. <br><br>
+ *
+ * Interner is not synchronized. Interning from multiple threads must
+ * be synchronized externally; lookups on an Interner that is no longer
+ * being added to are safe from any thread.
+ */
+public class Interner {
+
+	private final HashMap<String, Integer> ids;
+	private final ArrayList<String> values;
+
+	/**
+	 * Construct an empty Interner.
+	 */
+	public Interner() {
+		this.ids = new HashMap<String, Integer>();
+		this.values = new ArrayList<String>();
+	}
+
+	/**
+	 * Construct an Interner with each of the given values interned in
+	 * iteration order.
+	 *
+	 * @param values
+	 */
+	public Interner(final Collection<String> values) {
+		if (values == null) {
+			throw new NullPointerException("Interner constructor received a null parameter: values!");
+		}
+		this.ids = new HashMap<String, Integer>(values.size());
+		this.values = new ArrayList<String>(values.size());
+		for (String value: values) {
+			this.intern(value);
+		}
+	}
+
+	/**
+	 * Return the ID of the given value, assigning it the next
+	 * ID if it has not been seen before.
+	 *
+	 * @param value
+	 * @return ID of value
+	 */
+	public int intern(final String value) {
+		if (value == null) {
+			throw new NullPointerException("Interner#intern received a null parameter: value!");
+		}
+		Integer id = this.ids.get(value);
+		if (id == null) {
+			id = this.values.size();
+			this.ids.put(value, id);
+			this.values.add(value);
+		}
+		return id;
+	}
+
+	/**
+	 * Return the ID of the given value, or -1 if the value
+	 * has not been interned.
+	 *
+	 * @param value
+	 * @return ID of value, else -1
+	 */
+	public int getID(final String value) {
+		Integer id = this.ids.get(value);
+		return (id == null) ? -1 : id;
+	}
+
+	/**
+	 * Return the value with the given ID.
+	 *
+	 * @param id
+	 * @return value with the given ID
+	 * @throws IndexOutOfBoundsException if the ID has not been assigned
+	 */
+	public String get(final int id) {
+		return this.values.get(id);
+	}
+
+	/**
+	 * Return true iff the given value has been interned.
+	 *
+	 * @param value
+	 * @return
+	 */
+	public boolean contains(final String value) {
+		return this.ids.containsKey(value);
+	}
+
+	/**
+	 * Return the number of interned values, which is also
+	 * the next ID to be assigned.
+	 *
+	 * @return number of interned values
+	 */
+	public int size() {
+		return this.values.size();
+	}
+
+	@Override
+	public String toString() {
+		return this.values.toString();
+	}
+}
@@ -0,0 +1,645 @@
+package machineLearningTools;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+import org.json.JSONException;
+
+/**
+ * JSONDocumentReader
+ *
+ * A pull parser for JSON corpora of documents, reading one document
+ * at a time from a stream instead of building the whole corpus as
+ * a JSONObject. A corpus is an object from document IDs to documents: <br><br>
+ *
+ * {"8":{"label":"label1","features":{"the":"2","dog":"1"}}, ...} <br><br>
+ *
+ * Counts may be strings or numbers; a null or true count, or a list
+ * of features in place of a map, counts each feature once. Document IDs
+ * may be unquoted, and members of a document other than "label" and
+ * "features" are skipped. <br><br>
+ *
+ * next() advances to the next document, whose ID, label, and features
+ * are then available until the following call. Memory used by the reader
+ * depends on the largest document, not the size of the corpus; feature
+ * and label Strings are shared between documents, so each distinct
+ * feature is only allocated once. <br><br>
+ *
+ * A JSONDocumentReader is not synchronized. Malformed JSON throws a
+ * JSONException giving the character offset of the error.
+ */
+public class JSONDocumentReader {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final Reader input;
+	private final char[] buffer = new char[JSONDocumentReader.BUFFER_SIZE];
+	private int position;
+	private int limit;
+	// Characters read before the start of the buffer
+	private long offset;
+	private boolean started;
+	private boolean finished;
+
+	// Characters of the last string or token read
+	private char[] chars = new char[64];
+	private int length;
+
+	// Shared Strings, by hash with linear probing
+	private String[] pool = new String[1024];
+	private int pooled;
+
+	// Current document
+	private int docID;
+	private String label;
+	private String[] features = new String[16];
+	private int[] counts = new int[16];
+	private int featureCount;
+
+	/**
+	 * Construct a JSONDocumentReader reading UTF-8 JSON from the
+	 * given stream, which is closed by close().
+	 *
+	 * @param input
+	 */
+	public JSONDocumentReader(final InputStream input) {
+		if (input == null) {
+			throw new NullPointerException("JSONDocumentReader constructor received a null parameter: input!");
+		}
+		this.input = new InputStreamReader(input, JSONDocumentReader.UTF8);
+	}
+
+	/**
+	 * Construct a JSONDocumentReader reading the given JSON file.
+	 *
+	 * @param fileName
+	 * @throws IOException if the file cannot be opened
+	 */
+	public JSONDocumentReader(final String fileName) throws IOException {
+		this(new FileInputStream(fileName));
+	}
+
+	/**
+	 * Read the next document.
+	 *
+	 * @return true if a document was read, false at the end of the corpus
+	 * @throws IOException
+	 */
+	public boolean next() throws IOException {
+		if (this.finished) {
+			return false;
+		}
+		int c = this.nextClean();
+		if (!this.started) {
+			this.started = true;
+			if (c != '{') {
+				throw this.syntaxError("A JSON corpus must begin with '{'");
+			}
+			c = this.nextClean();
+			if (c == '}') {
+				this.finished = true;
+				return false;
+			}
+		}
+		else if (c == '}') {
+			this.finished = true;
+			return false;
+		}
+		else if (c == ',') {
+			c = this.nextClean();
+		}
+		else {
+			throw this.syntaxError("Expected ',' or '}' after a document");
+		}
+		this.readName(c);
+		this.docID = this.parseInt();
+		this.expect(':');
+		this.readDocument();
+		return true;
+	}
+
+	/**
+	 * @return ID of the current document
+	 */
+	public int getDocID() {
+		return this.docID;
+	}
+
+	/**
+	 * @return label of the current document
+	 */
+	public String getLabel() {
+		return this.label;
+	}
+
+	/**
+	 * @return number of features of the current document
+	 */
+	public int size() {
+		return this.featureCount;
+	}
+
+	/**
+	 * @param index from 0 to size()-1
+	 * @return feature at index in the current document
+	 */
+	public String getFeature(final int index) {
+		if (index < 0 || index >= this.featureCount) {
+			throw new IndexOutOfBoundsException(String.format("JSONDocumentReader#getFeature index %d out of bounds for %d features;", index, this.featureCount));
+		}
+		return this.features[index];
+	}
+
+	/**
+	 * @param index from 0 to size()-1
+	 * @return count of the feature at index in the current document
+	 */
+	public int getCount(final int index) {
+		if (index < 0 || index >= this.featureCount) {
+			throw new IndexOutOfBoundsException(String.format("JSONDocumentReader#getCount index %d out of bounds for %d features;", index, this.featureCount));
+		}
+		return this.counts[index];
+	}
+
+	/**
+	 * Close the underlying stream.
+	 *
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		this.finished = true;
+		this.input.close();
+	}
+
+	/**
+	 * Read the label and features of a document.
+	 *
+	 * @throws IOException
+	 */
+	private void readDocument() throws IOException {
+		boolean hasFeatures = false;
+		this.label = null;
+		this.featureCount = 0;
+		if (this.nextClean() != '{') {
+			throw this.syntaxError("A document must be an object");
+		}
+		int c = this.nextClean();
+		if (c != '}') {
+			while (true) {
+				this.readName(c);
+				this.expect(':');
+				if (this.nameEquals("label")) {
+					if (this.nextClean() != '"') {
+						throw this.syntaxError("A document label must be a string");
+					}
+					this.readString();
+					this.label = this.pooled();
+				}
+				else if (this.nameEquals("features")) {
+					this.readFeatures();
+					hasFeatures = true;
+				}
+				else {
+					this.skipValue(this.nextClean());
+				}
+				c = this.nextClean();
+				if (c == '}') {
+					break;
+				}
+				if (c != ',') {
+					throw this.syntaxError("Expected ',' or '}' in a document");
+				}
+				c = this.nextClean();
+			}
+		}
+		if (this.label == null) {
+			throw new IllegalArgumentException("Constructing a Document object from JSON requires a \"label\" object");
+		}
+		if (!hasFeatures) {
+			throw new IllegalArgumentException("Constructing a Document object from JSON requires a \"features\" object");
+		}
+	}
+
+	/**
+	 * Read a map of features to counts, or a list of features.
+	 *
+	 * @throws IOException
+	 */
+	private void readFeatures() throws IOException {
+		int c = this.nextClean();
+		if (c == '{') {
+			c = this.nextClean();
+			if (c == '}') {
+				return;
+			}
+			String feature;
+			while (true) {
+				this.readName(c);
+				feature = this.pooled();
+				this.expect(':');
+				this.addFeature(feature, this.readCount());
+				c = this.nextClean();
+				if (c == '}') {
+					return;
+				}
+				if (c != ',') {
+					throw this.syntaxError("Expected ',' or '}' in features");
+				}
+				c = this.nextClean();
+			}
+		}
+		else if (c == '[') {
+			c = this.nextClean();
+			if (c == ']') {
+				return;
+			}
+			while (true) {
+				if (c != '"') {
+					throw this.syntaxError("A list of features must contain strings");
+				}
+				this.readString();
+				this.addFeature(this.pooled(), 1);
+				c = this.nextClean();
+				if (c == ']') {
+					return;
+				}
+				if (c != ',') {
+					throw this.syntaxError("Expected ',' or ']' in features");
+				}
+				c = this.nextClean();
+			}
+		}
+		throw this.syntaxError("Document features must be an object or a list");
+	}
+
+	/**
+	 * Read a count given as a string, a number, null, or true.
+	 *
+	 * @return count
+	 * @throws IOException
+	 */
+	private int readCount() throws IOException {
+		int c = this.nextClean();
+		if (c == '"') {
+			this.readString();
+		}
+		else {
+			this.readToken(c);
+			if (this.nameEquals("null") || this.nameEquals("true")) {
+				return 1;
+			}
+		}
+		return this.parseInt();
+	}
+
+	private void addFeature(final String feature, final int count) {
+		if (this.featureCount == this.features.length) {
+			String[] features = new String[this.featureCount*2];
+			System.arraycopy(this.features, 0, features, 0, this.featureCount);
+			this.features = features;
+			int[] counts = new int[this.featureCount*2];
+			System.arraycopy(this.counts, 0, counts, 0, this.featureCount);
+			this.counts = counts;
+		}
+		this.features[this.featureCount] = feature;
+		this.counts[this.featureCount] = count;
+		this.featureCount++;
+	}
+
+	/**
+	 * Skip over a value of any type, starting at its first character.
+	 *
+	 * @param first
+	 * @throws IOException
+	 */
+	private void skipValue(final int first) throws IOException {
+		int c;
+		switch (first) {
+		case '"':
+			this.readString();
+			return;
+		case '{':
+			c = this.nextClean();
+			while (c != '}') {
+				this.readName(c);
+				this.expect(':');
+				this.skipValue(this.nextClean());
+				c = this.nextClean();
+				if (c == ',') {
+					c = this.nextClean();
+				}
+				else if (c != '}') {
+					throw this.syntaxError("Expected ',' or '}' in an object");
+				}
+			}
+			return;
+		case '[':
+			c = this.nextClean();
+			while (c != ']') {
+				this.skipValue(c);
+				c = this.nextClean();
+				if (c == ',') {
+					c = this.nextClean();
+				}
+				else if (c != ']') {
+					throw this.syntaxError("Expected ',' or ']' in a list");
+				}
+			}
+			return;
+		default:
+			this.readToken(first);
+		}
+	}
+
+	/**
+	 * Read a member name, quoted or not, into the character scratch.
+	 *
+	 * @param first
+	 * @throws IOException
+	 */
+	private void readName(final int first) throws IOException {
+		if (first == '"') {
+			this.readString();
+		}
+		else {
+			this.readToken(first);
+		}
+	}
+
+	/**
+	 * Read the rest of a string, after its opening quote, into the
+	 * character scratch, decoding escapes.
+	 *
+	 * @throws IOException
+	 */
+	private void readString() throws IOException {
+		this.length = 0;
+		int c;
+		while (true) {
+			// Copy unescaped characters straight from the buffer
+			int start = this.position;
+			while (this.position < this.limit) {
+				c = this.buffer[this.position];
+				if (c == '"' || c == '\\') {
+					break;
+				}
+				this.position++;
+			}
+			this.append(this.buffer, start, this.position - start);
+			c = this.read();
+			if (c == '"') {
+				return;
+			}
+			if (c == '\\') {
+				c = this.read();
+				switch (c) {
+				case 'b':
+					c = '\b';
+					break;
+				case 'f':
+					c = '\f';
+					break;
+				case 'n':
+					c = '\n';
+					break;
+				case 'r':
+					c = '\r';
+					break;
+				case 't':
+					c = '\t';
+					break;
+				case 'u':
+					c = 0;
+					for (int i = 0; i < 4; i++) {
+						int digit = Character.digit(this.read(), 16);
+						if (digit < 0) {
+							throw this.syntaxError("Illegal escape");
+						}
+						c = (c << 4) | digit;
+					}
+					break;
+				case '"':
+				case '\\':
+				case '/':
+					break;
+				default:
+					throw this.syntaxError("Illegal escape");
+				}
+				this.append((char)c);
+			}
+			else if (c == -1) {
+				throw this.syntaxError("Unterminated string");
+			}
+			else {
+				// The buffer ran out within the string
+				this.append((char)c);
+			}
+		}
+	}
+
+	/**
+	 * Read an unquoted token, such as a number, literal, or unquoted
+	 * name, into the character scratch.
+	 *
+	 * @param first
+	 * @throws IOException
+	 */
+	private void readToken(final int first) throws IOException {
+		this.length = 0;
+		int c = first;
+		while (c != -1 && c > ' ' && c != ',' && c != ':' && c != '}' && c != ']' && c != '{' && c != '[' && c != '"') {
+			this.append((char)c);
+			if (this.position == this.limit && !this.fill()) {
+				break;
+			}
+			c = this.buffer[this.position];
+			if (c > ' ' && c != ',' && c != ':' && c != '}' && c != ']' && c != '{' && c != '[' && c != '"') {
+				this.position++;
+			}
+		}
+		if (this.length == 0) {
+			throw this.syntaxError(first == -1 ? "Unexpected end of input" : "Unexpected character '" + (char)first + "'");
+		}
+	}
+
+	/**
+	 * Parse the character scratch as an int, without allocating a String.
+	 *
+	 * @return value
+	 */
+	private int parseInt() {
+		int i = 0;
+		boolean negative = false;
+		if (this.length > 0 && (this.chars[0] == '-' || this.chars[0] == '+')) {
+			negative = this.chars[0] == '-';
+			i = 1;
+		}
+		if (i == this.length) {
+			throw this.numberFormatError();
+		}
+		long value = 0L;
+		int digit;
+		for (; i < this.length; i++) {
+			digit = this.chars[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw this.numberFormatError();
+			}
+			value = value*10 + digit;
+			if (value > 1L + Integer.MAX_VALUE) {
+				throw this.numberFormatError();
+			}
+		}
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE) {
+			throw this.numberFormatError();
+		}
+		return (int)value;
+	}
+
+	private NumberFormatException numberFormatError() {
+		return new NumberFormatException(String.format("Value %s at character %d of JSON failed to generate an integer representation.", new String(this.chars, 0, this.length), this.offset + this.position));
+	}
+
+	/**
+	 * @param name
+	 * @return true if the character scratch holds name
+	 */
+	private boolean nameEquals(final String name) {
+		if (name.length() != this.length) {
+			return false;
+		}
+		for (int i = 0; i < this.length; i++) {
+			if (name.charAt(i) != this.chars[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the shared String equal to the character scratch,
+	 * adding it to the pool if it has not been seen before.
+	 *
+	 * @return String of the character scratch
+	 */
+	private String pooled() {
+		int hash = 0;
+		for (int i = 0; i < this.length; i++) {
+			hash = 31*hash + this.chars[i];
+		}
+		int mask = this.pool.length - 1;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		String value;
+		while ((value = this.pool[slot]) != null) {
+			if (value.hashCode() == hash && this.nameEquals(value)) {
+				return value;
+			}
+			slot = (slot + 1) & mask;
+		}
+		value = new String(this.chars, 0, this.length);
+		this.pool[slot] = value;
+		this.pooled++;
+		if (this.pooled*2 > this.pool.length) {
+			this.growPool();
+		}
+		return value;
+	}
+
+	private void growPool() {
+		String[] pool = new String[this.pool.length*2];
+		int mask = pool.length - 1;
+		int hash;
+		int slot;
+		for (String value: this.pool) {
+			if (value != null) {
+				hash = value.hashCode();
+				slot = (hash ^ (hash >>> 16)) & mask;
+				while (pool[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				pool[slot] = value;
+			}
+		}
+		this.pool = pool;
+	}
+
+	private void append(final char c) {
+		if (this.length == this.chars.length) {
+			this.growChars(this.length + 1);
+		}
+		this.chars[this.length++] = c;
+	}
+
+	private void append(final char[] source, final int start, final int count) {
+		if (this.length + count > this.chars.length) {
+			this.growChars(this.length + count);
+		}
+		System.arraycopy(source, start, this.chars, this.length, count);
+		this.length += count;
+	}
+
+	private void growChars(final int minimum) {
+		char[] chars = new char[Math.max(minimum, this.chars.length*2)];
+		System.arraycopy(this.chars, 0, chars, 0, this.length);
+		this.chars = chars;
+	}
+
+	private void expect(final char expected) throws IOException {
+		if (this.nextClean() != expected) {
+			throw this.syntaxError("Expected '" + expected + "'");
+		}
+	}
+
+	/**
+	 * @return next character that is not whitespace, or -1 at the end of input
+	 * @throws IOException
+	 */
+	private int nextClean() throws IOException {
+		int c;
+		do {
+			c = this.read();
+		} while (c != -1 && c <= ' ');
+		return c;
+	}
+
+	/**
+	 * @return next character, or -1 at the end of input
+	 * @throws IOException
+	 */
+	private int read() throws IOException {
+		if (this.position == this.limit && !this.fill()) {
+			return -1;
+		}
+		return this.buffer[this.position++];
+	}
+
+	/**
+	 * Refill the buffer.
+	 *
+	 * @return false at the end of input
+	 * @throws IOException
+	 */
+	private boolean fill() throws IOException {
+		this.offset += this.limit;
+		this.position = 0;
+		this.limit = 0;
+		int read;
+		do {
+			read = this.input.read(this.buffer, 0, this.buffer.length);
+		} while (read == 0);
+		if (read < 0) {
+			return false;
+		}
+		this.limit = read;
+		return true;
+	}
+
+	private JSONException syntaxError(final String message) {
+		return new JSONException(String.format("%s at character %d of JSON", message, this.offset + this.position));
+	}
+}
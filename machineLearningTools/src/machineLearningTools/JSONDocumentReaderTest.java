@@ -0,0 +1,150 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Test;
+
+public class JSONDocumentReaderTest {
+
+	// Parameters
+	private final String realVectorJsonFile = testFile("example.real.vectors.json");
+	private final String binaryVectorJsonFile = testFile("example.binary.vectors.json");
+
+	private JSONDocumentReader reader(final String json) throws IOException {
+		return new JSONDocumentReader(new ByteArrayInputStream(json.getBytes("utf-8")));
+	}
+
+	private JSONObject readJSONObject(final String fileName) throws IOException {
+		InputStreamReader reader = new InputStreamReader(new FileInputStream(fileName), "utf-8");
+		JSONObject result = new JSONObject(new JSONTokener(reader));
+		reader.close();
+		return result;
+	}
+
+	@Test
+	public void testJSONDocumentReaderRealValuedDataMatchesJSONObject() throws IOException {
+		Data streamed = new RealValuedData(new JSONDocumentReader(this.realVectorJsonFile));
+		Data gold = new RealValuedData(this.readJSONObject(this.realVectorJsonFile));
+		assertTrue(streamed.size() > 0);
+		assertTrue(streamed.equals(gold));
+	}
+
+	@Test
+	public void testJSONDocumentReaderBinaryValuedDataMatchesJSONObject() throws IOException {
+		// Document IDs in this file are unquoted
+		Data streamed = new BinaryValuedData(new JSONDocumentReader(this.binaryVectorJsonFile));
+		Data gold = new BinaryValuedData(this.readJSONObject(this.binaryVectorJsonFile));
+		assertTrue(streamed.size() > 0);
+		assertTrue(streamed.equals(gold));
+	}
+
+	@Test
+	public void testJSONDocumentReaderGeneratedCorpus() throws IOException {
+		// Large enough to cross buffer boundaries
+		File corpusFile = File.createTempFile("corpus", ".vectors.json");
+		try {
+			new CorpusGenerator(2000, 5000, 5, 20, 7L).writeJSON(corpusFile.getPath());
+			Data streamed = new RealValuedData(new JSONDocumentReader(corpusFile.getPath()));
+			Data gold = new RealValuedData(this.readJSONObject(corpusFile.getPath()));
+			assertEquals(2000, streamed.size());
+			assertTrue(streamed.equals(gold));
+		} finally {
+			corpusFile.delete();
+		}
+	}
+
+	@Test
+	public void testJSONDocumentReaderCountsAndEscapes() throws IOException {
+		JSONDocumentReader reader = this.reader(" { \"3\" : {\"id\":[1,{\"a\":null}], \"features\":{\"the\":2,\"c\\u00e9\\\"\":\"-4\",\"x\":null}, \"label\":\"l\\/1\"},\n"
+				+ "\"4\":{\"label\":\"l/1\",\"features\":[\"the\",\"dog\"]} } ");
+		assertTrue(reader.next());
+		assertEquals(3, reader.getDocID());
+		assertEquals("l/1", reader.getLabel());
+		assertEquals(3, reader.size());
+		assertEquals("the", reader.getFeature(0));
+		assertEquals(2, reader.getCount(0));
+		assertEquals("cé\"", reader.getFeature(1));
+		assertEquals(-4, reader.getCount(1));
+		assertEquals(1, reader.getCount(2));
+		String label = reader.getLabel();
+		String feature = reader.getFeature(0);
+		assertTrue(reader.next());
+		assertEquals(4, reader.getDocID());
+		assertEquals(2, reader.size());
+		assertEquals(1, reader.getCount(1));
+		// Strings are shared between documents
+		assertSame(label, reader.getLabel());
+		assertSame(feature, reader.getFeature(0));
+		assertFalse(reader.next());
+		assertFalse(reader.next());
+		reader.close();
+	}
+
+	@Test
+	public void testJSONDocumentReaderEmptyCorpus() throws IOException {
+		assertEquals(0, new RealValuedData(this.reader("{}")).size());
+	}
+
+	@Test(expected=JSONException.class)
+	public void testJSONDocumentReaderMalformedThrows() throws IOException {
+		JSONDocumentReader reader = this.reader("{\"0\":{\"label\":\"a\",\"features\":{\"b\" \"1\"}}}");
+		reader.next();
+	}
+
+	/**
+	 * Data closes the reader even when the JSON is malformed
+	 */
+	@Test
+	public void testJSONDocumentReaderClosedOnMalformed() throws IOException {
+		final boolean[] closed = new boolean[1];
+		JSONDocumentReader reader = new JSONDocumentReader(new ByteArrayInputStream("{\"0\":{\"label\":\"a\",\"features\":{}},}".getBytes("utf-8")) {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		});
+		try {
+			new BinaryValuedData(reader);
+			fail("Malformed JSON should throw a JSONException");
+		} catch (JSONException e) {
+			assertTrue(closed[0]);
+		}
+	}
+
+	@Test(expected=JSONException.class)
+	public void testJSONDocumentReaderUnterminatedThrows() throws IOException {
+		JSONDocumentReader reader = this.reader("{\"0\":{\"label\":\"a");
+		reader.next();
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testJSONDocumentReaderMissingLabelThrows() throws IOException {
+		JSONDocumentReader reader = this.reader("{\"0\":{\"features\":{}}}");
+		reader.next();
+	}
+
+	@Test(expected=NumberFormatException.class)
+	public void testJSONDocumentReaderNonIntegerCountThrows() throws IOException {
+		JSONDocumentReader reader = this.reader("{\"0\":{\"label\":\"a\",\"features\":{\"b\":\"1.5\"}}}");
+		reader.next();
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testJSONDocumentReaderDuplicateFeatureThrows() throws IOException {
+		new RealValuedData(this.reader("{\"0\":{\"label\":\"a\",\"features\":{\"b\":1,\"b\":2}}}"));
+	}
+}
@@ -0,0 +1,187 @@
+package machineLearningTools;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram
+ *
+ * Histogram of latencies in nanoseconds with log-linear buckets, in the
+ * style of an HDR histogram, for reporting percentiles such as p50, p99
+ * and p99.9. <br><br>
+ *
+ * Values below 256 have their own buckets. Above that, each power of two
+ * is split into 128 buckets, so a reported percentile is within 1/128
+ * (under 0.8%) of the recorded value, from nanoseconds up to centuries,
+ * in a fixed 57KB of counts. <br><br>
+ *
+ * Recording is lock-free: it increments one AtomicLongArray slot and
+ * updates the count, sum and maximum atomically, so a histogram can be
+ * shared by many classifying threads. Percentiles read while values are
+ * being recorded reflect some of the concurrent recordings.
+ */
+public class LatencyHistogram {
+
+	// Number of bits of a value kept exactly, so each power of two has
+	// 2^SUB_BUCKET_BITS buckets
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKETS = 1 << LatencyHistogram.SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - LatencyHistogram.SUB_BUCKET_BITS)*LatencyHistogram.SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Record a latency. Negative values are recorded as 0.
+	 *
+	 * @param nanos
+	 */
+	public void record(final long nanos) {
+		long value = Math.max(nanos, 0L);
+		this.counts.incrementAndGet(LatencyHistogram.bucket(value));
+		this.count.incrementAndGet();
+		this.sum.addAndGet(value);
+		long current = this.max.get();
+		while (value > current && !this.max.compareAndSet(current, value)) {
+			current = this.max.get();
+		}
+	}
+
+	/**
+	 * Add every value recorded in the other histogram to this one.
+	 *
+	 * @param other
+	 */
+	public void add(final LatencyHistogram other) {
+		if (other == null) {
+			throw new NullPointerException("LatencyHistogram#add received a null parameter: other!");
+		}
+		long bucketCount;
+		for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+			bucketCount = other.counts.get(bucket);
+			if (bucketCount > 0) {
+				this.counts.addAndGet(bucket, bucketCount);
+			}
+		}
+		this.count.addAndGet(other.count.get());
+		this.sum.addAndGet(other.sum.get());
+		long otherMax = other.max.get();
+		long current = this.max.get();
+		while (otherMax > current && !this.max.compareAndSet(current, otherMax)) {
+			current = this.max.get();
+		}
+	}
+
+	/**
+	 * Return the number of values recorded.
+	 *
+	 * @return number of values
+	 */
+	public long getCount() {
+		return this.count.get();
+	}
+
+	/**
+	 * Return the largest value recorded.
+	 *
+	 * @return maximum in nanoseconds, or 0 if none were recorded
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Return the mean of the values recorded.
+	 *
+	 * @return mean in nanoseconds, or 0 if none were recorded
+	 */
+	public double getMean() {
+		long values = this.count.get();
+		return (values == 0) ? 0.0d : this.sum.get()/(double)values;
+	}
+
+	/**
+	 * Return the value at the given percentile: the smallest value
+	 * that the given percent of recorded values are at or below, to
+	 * within the bucket precision.
+	 *
+	 * @param percentile between 0 and 100
+	 * @return value in nanoseconds, or 0 if none were recorded
+	 */
+	public long getValueAtPercentile(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("LatencyHistogram#getValueAtPercentile requires 0 <= percentile <= 100;");
+		}
+		long total = 0L;
+		for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+			total += this.counts.get(bucket);
+		}
+		if (total == 0) {
+			return 0L;
+		}
+		long target = Math.max(1L, (long)Math.ceil((percentile/100.0d)*total));
+		long seen = 0L;
+		for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+			seen += this.counts.get(bucket);
+			if (seen >= target) {
+				return Math.min(LatencyHistogram.highestValue(bucket), this.max.get());
+			}
+		}
+		return this.max.get();
+	}
+
+	/**
+	 * Forget every recorded value.
+	 */
+	public void reset() {
+		for (int bucket = 0; bucket < LatencyHistogram.BUCKETS; bucket++) {
+			this.counts.set(bucket, 0L);
+		}
+		this.count.set(0L);
+		this.sum.set(0L);
+		this.max.set(0L);
+	}
+
+	/**
+	 * Return a summary of the recorded values in nanoseconds:
+	 * <b>count=N mean=N p50=N p99=N p999=N max=N</b>
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("count=%d mean=%.0f p50=%d p99=%d p999=%d max=%d", this.getCount(), this.getMean(), this.getValueAtPercentile(50.0d), this.getValueAtPercentile(99.0d), this.getValueAtPercentile(99.9d), this.getMax());
+	}
+
+	/**
+	 * Return the bucket of a non-negative value.
+	 *
+	 * @param value
+	 * @return bucket index
+	 */
+	static int bucket(final long value) {
+		if (value < 2*LatencyHistogram.SUB_BUCKETS) {
+			return (int)value;
+		}
+		// Keep the top SUB_BUCKET_BITS+1 bits: value >>> shift is in [SUB_BUCKETS, 2*SUB_BUCKETS)
+		int shift = 63 - Long.numberOfLeadingZeros(value) - LatencyHistogram.SUB_BUCKET_BITS;
+		return (shift << LatencyHistogram.SUB_BUCKET_BITS) + (int)(value >>> shift);
+	}
+
+	/**
+	 * Return the largest value in a bucket.
+	 *
+	 * @param bucket
+	 * @return largest value with the given bucket
+	 */
+	static long highestValue(final int bucket) {
+		if (bucket < 2*LatencyHistogram.SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket >>> LatencyHistogram.SUB_BUCKET_BITS) - 1;
+		long subBucket = bucket - ((long)shift << LatencyHistogram.SUB_BUCKET_BITS);
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
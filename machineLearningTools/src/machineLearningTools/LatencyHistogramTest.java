@@ -0,0 +1,101 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	// Variables
+	private LatencyHistogram histogram;
+
+	@Before
+	public void setupLatencyHistogram() {
+		this.histogram = new LatencyHistogram();
+	}
+
+	@Test
+	public void testLatencyHistogramBuckets() {
+		// Buckets are contiguous and each value is at most its bucket's highest value
+		int previous = -1;
+		int bucket;
+		for (long value = 0L; value < 100000L; value++) {
+			bucket = LatencyHistogram.bucket(value);
+			assertTrue(bucket == previous || bucket == previous+1);
+			assertTrue(value <= LatencyHistogram.highestValue(bucket));
+			previous = bucket;
+		}
+		assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.bucket(Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void testLatencyHistogramPercentiles() {
+		for (long value = 1L; value <= 10000L; value++) {
+			this.histogram.record(value*1000L);
+		}
+		assertEquals(10000L, this.histogram.getCount());
+		assertEquals(10000000L, this.histogram.getMax());
+		assertEquals(5000500.0d, this.histogram.getMean(), 1e-6);
+		assertEquals(5000000.0d, this.histogram.getValueAtPercentile(50.0d), 5000000.0d/128);
+		assertEquals(9900000.0d, this.histogram.getValueAtPercentile(99.0d), 9900000.0d/128);
+		assertEquals(9990000.0d, this.histogram.getValueAtPercentile(99.9d), 9990000.0d/128);
+		assertEquals(10000000L, this.histogram.getValueAtPercentile(100.0d));
+	}
+
+	@Test
+	public void testLatencyHistogramSmallValuesExact() {
+		this.histogram.record(3L);
+		this.histogram.record(-5L);
+		assertEquals(0L, this.histogram.getValueAtPercentile(50.0d));
+		assertEquals(3L, this.histogram.getValueAtPercentile(100.0d));
+	}
+
+	@Test
+	public void testLatencyHistogramEmpty() {
+		assertEquals(0L, this.histogram.getValueAtPercentile(99.0d));
+		assertEquals(0.0d, this.histogram.getMean(), 0.0d);
+	}
+
+	@Test
+	public void testLatencyHistogramAdd() {
+		LatencyHistogram other = new LatencyHistogram();
+		this.histogram.record(10L);
+		other.record(20L);
+		other.record(30L);
+		this.histogram.add(other);
+		assertEquals(3L, this.histogram.getCount());
+		assertEquals(30L, this.histogram.getMax());
+		assertEquals(20L, this.histogram.getValueAtPercentile(50.0d));
+		this.histogram.reset();
+		assertEquals(0L, this.histogram.getCount());
+	}
+
+	@Test
+	public void testLatencyHistogramConcurrentRecording() throws InterruptedException {
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (long value = 0L; value < 10000L; value++) {
+						LatencyHistogramTest.this.histogram.record(value);
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread: threads) {
+			thread.join();
+		}
+		assertEquals(40000L, this.histogram.getCount());
+		assertEquals(9999L, this.histogram.getMax());
+		assertEquals(10000L, this.histogram.getValueAtPercentile(100.0d) + 1);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testLatencyHistogramInvalidPercentileThrows() {
+		this.histogram.getValueAtPercentile(101.0d);
+	}
+}
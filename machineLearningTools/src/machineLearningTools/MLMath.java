@@ -1,10 +1,12 @@
 package machineLearningTools;
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Collection of basic mathematical functions for Machine Learning
+ * Collection of basic mathematical functions for Machine Learning <br><br>
+ *
+ * All methods are safe to call from multiple threads.
  *
  * @author T.J. Trimble
  */
@@ -12,7 +14,7 @@ public class MLMath {
 
 	// Logarithms
 
-	private static HashMap<Integer, Double> logs = new HashMap<Integer, Double>();
+	private static ConcurrentHashMap<Integer, Double> logs = new ConcurrentHashMap<Integer, Double>();
 	// Initiate log(2) automatically
 	static {
 		MLMath.logs.put(2, Math.log(2));
@@ -32,11 +34,12 @@ public class MLMath {
 		if (value <= 0 || base <= 0) {
 			throw new ArithmeticException();
 		}
-		if (!MLMath.logs.containsKey(base)) {
-			MLMath.logs.put(base, Math.log(base));
+		Double logBase = MLMath.logs.get(base);
+		if (logBase == null) {
+			logBase = Math.log(base);
+			MLMath.logs.putIfAbsent(base, logBase);
 		}
-		// Tests if integer
-		return (Math.log(value)/MLMath.logs.get(base));
+		return (Math.log(value)/logBase);
 	}
 
 	/**
@@ -67,8 +70,152 @@ public class MLMath {
 		return Math.abs(value1 - value2) < threshold;
 	}
 
+	// Entropy
+
+	// n*log2(n) for every count below NLOGN_TABLE_SIZE
+	private static final int NLOGN_TABLE_SIZE = 1 << 16;
+	private static final double[] nLogNs = new double[MLMath.NLOGN_TABLE_SIZE];
+	static {
+		for (int n = 2; n < MLMath.NLOGN_TABLE_SIZE; n++) {
+			MLMath.nLogNs[n] = n*(Math.log(n)/MLMath.log2);
+		}
+	}
+
+	/**
+	 * Calculate n*log2(n) for a count n, with 0*log2(0) taken as 0.
+	 * Counts below 2^16 are looked up in a precomputed table.
+	 *
+	 * @param n must be >= 0
+	 * @return n*log2(n)
+	 */
+	public static double nLogN(int n) {
+		if (n < MLMath.NLOGN_TABLE_SIZE) {
+			return MLMath.nLogNs[n];
+		}
+		return n*(Math.log(n)/MLMath.log2);
+	}
+
+	/**
+	 * Calculate the entropy, in bits, of a distribution given as counts
+	 * of each outcome (such as each label) out of total: <br><br>
+	 *
+	 * H = -sum.k((c.k/N)*log2(c.k/N)) = (N*log2(N) - sum.k(c.k*log2(c.k)))/N <br><br>
+	 *
+	 * The entropy of 0 or 1 items is 0.
+	 *
+	 * @param counts count of each outcome; the counts must sum to total
+	 * @param total
+	 * @return entropy of the counts
+	 */
+	public static double entropy(int[] counts, int total) {
+		if (total <= 1) {
+			return 0.0d;
+		}
+		double sum = 0.0d;
+		for (int count: counts) {
+			sum += MLMath.nLogN(count);
+		}
+		return Math.max((MLMath.nLogN(total) - sum)/total, 0.0d);
+	}
+
 	// Information Gain
 
+	/**
+	 * Calculate the information gain of splitting a set of items into the
+	 * items with a feature and the items without it, given the counts of
+	 * each outcome (such as each label) over all items and over the items
+	 * with the feature. The counts of the items without the feature are
+	 * the difference, so need not be collected. <br><br>
+	 *
+	 * As with the other informationGain methods, the gain is 0 if either
+	 * side of the split is empty.
+	 *
+	 * @param withCounts count of each outcome among items with the feature
+	 * @param withSize number of items with the feature
+	 * @param topCounts count of each outcome among all items
+	 * @param topSize number of items
+	 * @param topEnt entropy of topCounts
+	 * @return information gain of the split
+	 */
+	public static double informationGain(int[] withCounts, int withSize, int[] topCounts, int topSize, double topEnt) {
+		int withOutSize = topSize - withSize;
+		if (withSize <= 0 || withOutSize <= 0) {
+			return 0.0d;
+		}
+		// N*H of each side, as N*log2(N) - sum.k(c.k*log2(c.k))
+		double withSum = 0.0d;
+		double withOutSum = 0.0d;
+		for (int k = 0; k < topCounts.length; k++) {
+			withSum += MLMath.nLogN(withCounts[k]);
+			withOutSum += MLMath.nLogN(topCounts[k] - withCounts[k]);
+		}
+		double withWeighted = (withSize > 1) ? Math.max(MLMath.nLogN(withSize) - withSum, 0.0d) : 0.0d;
+		double withOutWeighted = (withOutSize > 1) ? Math.max(MLMath.nLogN(withOutSize) - withOutSum, 0.0d) : 0.0d;
+		return topEnt - ((withWeighted + withOutWeighted)/topSize);
+	}
+
+	// Dense vectors
+
+	/**
+	 * Calculate the squared Euclidean distance between two dense
+	 * vectors of the same length, such as from a RandomProjection: <br><br>
+	 *
+	 * sum.k((a.k - b.k)^2)
+	 *
+	 * @param first
+	 * @param second
+	 * @return squared Euclidean distance
+	 */
+	public static double squaredDistance(float[] first, float[] second) {
+		if (first.length != second.length) {
+			throw new IllegalArgumentException("MLMath#squaredDistance requires vectors of the same length;");
+		}
+		double result = 0.0d;
+		double difference;
+		for (int k = 0; k < first.length; k++) {
+			difference = first[k] - second[k];
+			result += difference*difference;
+		}
+		return result;
+	}
+
+	// Chi-square
+
+	/**
+	 * Calculate the chi-square statistic of the independence of a feature
+	 * and each outcome (such as each label), given the counts of each
+	 * outcome over all items and over the items with the feature, and
+	 * return the largest over all outcomes. For outcome k, with A items
+	 * with the feature and k, B with the feature and not k, C without the
+	 * feature and with k, and D with neither, of N items: <br><br>
+	 *
+	 * X2 = N(AD - CB)^2 / ((A+C)(B+D)(A+B)(C+D)) <br><br>
+	 *
+	 * An outcome with any empty margin contributes 0.
+	 *
+	 * @param withCounts count of each outcome among items with the feature
+	 * @param withSize number of items with the feature
+	 * @param topCounts count of each outcome among all items
+	 * @param topSize number of items
+	 * @return largest chi-square statistic of any outcome
+	 */
+	public static double chiSquare(int[] withCounts, int withSize, int[] topCounts, int topSize) {
+		double result = 0.0d;
+		double a, b, c, d;
+		double denominator;
+		for (int k = 0; k < topCounts.length; k++) {
+			a = withCounts[k];
+			b = withSize - a;
+			c = topCounts[k] - a;
+			d = topSize - withSize - c;
+			denominator = (a+c) * (b+d) * (a+b) * (c+d);
+			if (denominator > 0) {
+				result = Math.max(result, (topSize * ((a*d) - (c*b)) * ((a*d) - (c*b)))/denominator);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Calculate information gain with given parameters
 	 *
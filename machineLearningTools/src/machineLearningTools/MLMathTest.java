@@ -123,4 +123,61 @@ public class MLMathTest {
 		assertTrue(Math.abs(difference) < this.threshold);
 	}
 
+	@Test
+	public void testInformationGainFromLabelCounts() {
+		this.setupInformationGain();
+		Data data = this.test.infoGainGoldBinaryData;
+		int[] withCounts = data.getLabelCounts(this.test.goldWith);
+		int[] topCounts = data.getLabelCounts(data.getIDs());
+		Double difference = (informationGain(withCounts, this.withSize, topCounts, data.size(), this.topEnt) - this.test.goldGain);
+		assertTrue(Math.abs(difference) < this.threshold);
+	}
+
+	@Test
+	public void testInformationGainFromLabelCountsEmptySide() {
+		assertTrue(informationGain(new int[]{0, 0}, 0, new int[]{2, 3}, 5, 0.97d) == 0.0d);
+		assertTrue(informationGain(new int[]{2, 3}, 5, new int[]{2, 3}, 5, 0.97d) == 0.0d);
+	}
+
+	@Test
+	public void testSquaredDistance() {
+		assertTrue(pseudoEqual(MLMath.squaredDistance(new float[]{1, 2, 3}, new float[]{1, 0, 0}), 13.0d));
+		assertTrue(MLMath.squaredDistance(new float[0], new float[0]) == 0.0d);
+	}
+
+	// Chi-square Tests
+
+	@Test
+	public void testChiSquare() {
+		assertTrue(pseudoEqual(MLMath.chiSquare(new int[]{3, 1}, 4, new int[]{4, 4}, 8), 2.0d));
+		assertTrue(pseudoEqual(MLMath.chiSquare(new int[]{4, 0}, 4, new int[]{4, 4}, 8), 8.0d));
+		assertTrue(MLMath.chiSquare(new int[]{2, 2}, 4, new int[]{4, 4}, 8) == 0.0d);
+		assertTrue(MLMath.chiSquare(new int[]{4, 4}, 8, new int[]{4, 4}, 8) == 0.0d);
+	}
+
+	// Entropy Tests
+
+	@Test
+	public void testNLogN() {
+		assertTrue(MLMath.nLogN(0) == 0.0d);
+		assertTrue(MLMath.nLogN(1) == 0.0d);
+		assertTrue(pseudoEqual(MLMath.nLogN(8), 24.0d));
+		assertTrue(pseudoEqual(MLMath.nLogN(1 << 20), 20.0d*(1 << 20)));
+	}
+
+	@Test
+	public void testEntropy() {
+		assertTrue(pseudoEqual(MLMath.entropy(new int[]{1, 1}, 2), 1.0d));
+		assertTrue(pseudoEqual(MLMath.entropy(new int[]{1, 1, 1, 1}, 4), 2.0d));
+		assertTrue(pseudoEqual(MLMath.entropy(new int[]{4, 0}, 4), 0.0d));
+		assertTrue(pseudoEqual(MLMath.entropy(new int[]{1, 0}, 1), 0.0d));
+		assertTrue(pseudoEqual(MLMath.entropy(new int[]{1, 3}, 4), -((0.25d*MLMath.log(0.25d)) + (0.75d*MLMath.log(0.75d)))));
+	}
+
+	@Test
+	public void testEntropyMatchesDataEntropy() {
+		this.setupInformationGain();
+		Data data = this.test.infoGainGoldBinaryData;
+		assertTrue(pseudoEqual(MLMath.entropy(data.getLabelCounts(this.test.goldWith), this.withSize), this.withEnt));
+	}
 }
@@ -15,6 +15,20 @@ public abstract class MachineLearningClassifier {
 
 	protected final boolean binarized;
 
+	protected Metrics metrics = Metrics.NONE;
+
+	// Hashes the features of loaded data, or null to keep features
+	protected FeatureHasher hasher;
+
+	// Features to keep of loaded data, or null to keep all features
+	protected Interner dictionary;
+
+	// Drops near-duplicates from loaded training data, or null to keep every document
+	protected NearDuplicateDetector deduplicator;
+
+	// Writer of system output during test(), or null
+	private SystemOutputWriter systemOutput;
+
 	// Constructors
 
 	/**
@@ -39,6 +53,15 @@ public abstract class MachineLearningClassifier {
 	 */
 	public abstract void train(String trainingDataFileName);
 
+	/**
+	 * MachineLearningClassifier#train(Data) should train the
+	 * appropriate model on already loaded data, without writing
+	 * a model file, e.g. for each fold of a CrossValidation.
+	 *
+	 * @param trainingData
+	 */
+	public abstract void train(Data trainingData);
+
 	/**
 	 * train(BufferedReader) should take a BufferedReader object
 	 * and read in a modelFile in substitution for training.
@@ -54,7 +77,8 @@ public abstract class MachineLearningClassifier {
 	 * classify() should execute the classification algorithm
 	 * based on the model created in train(). classify() takes in
 	 * a testingData object and should use setSysOutput() to
-	 * set the system output for each Document object.
+	 * set the system output for each Document object, then
+	 * pass it to classified(), in document ID order.
 	 *
 	 * Classify is a function in order to enable classifiers to
 	 * take in multiple data sets (such as train, development,
@@ -68,7 +92,12 @@ public abstract class MachineLearningClassifier {
 
 	/**
 	 * test() should take in a data filename, load the data,
-	 * classify() each data instance, and execute outputResults()
+	 * classify() each data instance, and execute outputResults() <br><br>
+	 *
+	 * If openSystemOutput() returns a SystemOutputWriter, each document
+	 * is written as soon as it is classified, overlapping classifying and
+	 * writing, and the confusion matrix is printed to stdout instead of
+	 * calling outputResults().
 	 *
 	 * @param testingDataFileName
 	 * @param testingLabel
@@ -79,8 +108,126 @@ public abstract class MachineLearningClassifier {
 			throw new NullPointerException();
 		}
 		Data testData = this.getData(testingDataFileName);
-		this.classify(testData);
-		this.outputResults(testData, testingLabel);
+		SystemOutputWriter writer = null;
+		try {
+			writer = this.openSystemOutput();
+		} catch (IOException e) {
+			System.err.println("Failed to open system output at MachineLearningClassifier#test(testingDataFileName, testingLabel). Check your system output filename and system setup.");
+			e.printStackTrace();
+		}
+		if (writer == null) {
+			this.classify(testData);
+			this.outputResults(testData, testingLabel);
+			return;
+		}
+		this.systemOutput = writer;
+		try {
+			this.classify(testData);
+		} finally {
+			this.systemOutput = null;
+			// Wait for the rest of the output to be written
+			long start = this.metrics.start();
+			try {
+				writer.close();
+			} catch (IOException e) {
+				System.err.println("Failed to write results at MachineLearningClassifier#test(testingDataFileName, testingLabel). Check your system output filename and system setup.");
+				e.printStackTrace();
+			}
+			this.metrics.stop(Metrics.OUTPUT_WRITE, start);
+		}
+		// Output confusion matrix to stdout
+		System.out.println(new ConfusionMatrix(testData, testingLabel));
+	}
+
+	/**
+	 * Write the system output of a document that classify() has just
+	 * classified, if test() is streaming system output.
+	 *
+	 * @param document
+	 */
+	protected void classified(final Document document) {
+		if (this.systemOutput == null) {
+			return;
+		}
+		try {
+			this.systemOutput.write(document);
+		} catch (IOException e) {
+			System.err.println("Failed to write results at MachineLearningClassifier#classified(document). Check your system output filename and system setup.");
+			e.printStackTrace();
+			// Stop streaming; test() closes the writer
+			this.systemOutput = null;
+		}
+	}
+
+	/**
+	 * Return a SystemOutputWriter for this classifier's system output
+	 * file, or null if this classifier does not write system output.
+	 *
+	 * @return a new SystemOutputWriter, or null
+	 * @throws IOException if the file cannot be opened
+	 */
+	protected SystemOutputWriter openSystemOutput() throws IOException {
+		return null;
+	}
+
+	/**
+	 * Set the Metrics this classifier records phase timings and
+	 * counters to, such as a MetricsRegistry. Metrics.NONE by default.
+	 *
+	 * @param metrics
+	 */
+	public void setMetrics(final Metrics metrics) {
+		if (metrics == null) {
+			throw new NullPointerException("MachineLearningClassifier#setMetrics received a null parameter: metrics!");
+		}
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Set the FeatureHasher this classifier hashes the features of all data
+	 * it loads with, so training and testing data share one hashed
+	 * feature space. A model file written with a FeatureHasher must be
+	 * read back with an equal one. null, to keep features, by default.
+	 *
+	 * @param hasher
+	 */
+	public void setFeatureHasher(final FeatureHasher hasher) {
+		this.hasher = hasher;
+	}
+
+	/**
+	 * Set the feature dictionary this classifier prunes all data it
+	 * loads to, such as one from FeatureSelector#select(Data), so
+	 * the model is trained and tested on the selected features only.
+	 * null, to keep all features, by default.
+	 *
+	 * @param dictionary
+	 * @see FeatureSelector
+	 */
+	public void setFeatureDictionary(final Interner dictionary) {
+		this.dictionary = dictionary;
+	}
+
+	/**
+	 * Set the NearDuplicateDetector this classifier drops near-duplicate
+	 * documents from training data with, as loaded by train(String),
+	 * so models are trained on fewer documents. Testing data is never
+	 * deduplicated. null, to keep every document, by default.
+	 *
+	 * @param deduplicator
+	 * @see NearDuplicateDetector#deduplicate(Data)
+	 */
+	public void setNearDuplicateDetector(final NearDuplicateDetector deduplicator) {
+		this.deduplicator = deduplicator;
+	}
+
+	/**
+	 * Return the Metrics this classifier records to.
+	 *
+	 * @return metrics
+	 */
+	public Metrics getMetrics() {
+		return this.metrics;
 	}
 
 	// Protected methods
@@ -98,17 +245,52 @@ public abstract class MachineLearningClassifier {
 
 	/**
 	 * getData() returns a Data object according to the constructor
-	 * specifications.
+	 * specifications. Files ending in ".json" are read as JSON
+	 * one document at a time. Data is pruned to the feature
+	 * dictionary, if set.
 	 *
 	 * @param testingDataFileName
 	 * @return
 	 */
 	protected Data getData(final String testingDataFileName) {
-		if (this.binarized) {
-			return new BinaryValuedData(testingDataFileName);
+		long start = this.metrics.start();
+		Data result;
+		if (testingDataFileName.endsWith(".json")) {
+			JSONDocumentReader reader = null;
+			try {
+				reader = new JSONDocumentReader(testingDataFileName);
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.err.println("Error reading data from file.");
+				System.exit(1);
+			}
+			result = this.binarized ? new BinaryValuedData(reader, this.hasher) : new RealValuedData(reader, this.hasher);
+		}
+		else if (this.binarized) {
+			result = new BinaryValuedData(testingDataFileName, this.hasher);
 		}
 		else {
-			return new RealValuedData(testingDataFileName);
+			result = new RealValuedData(testingDataFileName, this.hasher);
+		}
+		if (this.dictionary != null) {
+			result = result.prune(this.dictionary);
+		}
+		this.metrics.stop(Metrics.LOAD, start);
+		return result;
+	}
+
+	/**
+	 * getTrainingData() returns a Data object as getData() does,
+	 * without near-duplicates, if a NearDuplicateDetector is set.
+	 *
+	 * @param trainingDataFileName
+	 * @return
+	 */
+	protected Data getTrainingData(final String trainingDataFileName) {
+		Data result = this.getData(trainingDataFileName);
+		if (this.deduplicator != null) {
+			result = this.deduplicator.deduplicate(result);
 		}
+		return result;
 	}
 }
@@ -14,6 +14,11 @@ public abstract class MachineLearningClusterer {
 
 	protected final boolean binarized;
 
+	protected Metrics metrics = Metrics.NONE;
+
+	// Hashes the features of loaded data, or null to keep features
+	protected FeatureHasher hasher;
+
 	// Constructors
 
 	/**
@@ -59,10 +64,45 @@ public abstract class MachineLearningClusterer {
 			throw new NullPointerException();
 		}
 		Data testData = this.getData(testingDataFileName);
+		long start = this.metrics.start();
 		this.cluster(testData);
+		this.metrics.stop(Metrics.CLASSIFY, start, testData.size());
 		this.outputResults(testData, testingLabel);
 	}
 
+	/**
+	 * Set the Metrics this clusterer records phase timings and
+	 * counters to, such as a MetricsRegistry. Metrics.NONE by default.
+	 *
+	 * @param metrics
+	 */
+	public void setMetrics(final Metrics metrics) {
+		if (metrics == null) {
+			throw new NullPointerException("MachineLearningClusterer#setMetrics received a null parameter: metrics!");
+		}
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Set the FeatureHasher this clusterer hashes the features of all data
+	 * it loads with, so all data share one hashed feature space. null,
+	 * to keep features, by default.
+	 *
+	 * @param hasher
+	 */
+	public void setFeatureHasher(final FeatureHasher hasher) {
+		this.hasher = hasher;
+	}
+
+	/**
+	 * Return the Metrics this clusterer records to.
+	 *
+	 * @return metrics
+	 */
+	public Metrics getMetrics() {
+		return this.metrics;
+	}
+
 	// Protected methods
 	/**
 	 * outputResults() saves the of the designated Data object to
@@ -78,18 +118,34 @@ public abstract class MachineLearningClusterer {
 
 	/**
 	 * getData() returns a Data object according to the constructor
-	 * specifications.
+	 * specifications. Files ending in ".json" are read as JSON
+	 * one document at a time.
 	 *
 	 * @param testingDataFileName
 	 * @return
 	 */
 	protected Data getData(final String testingDataFileName) {
-		if (this.binarized) {
-			return new BinaryValuedData(testingDataFileName);
+		long start = this.metrics.start();
+		Data result;
+		if (testingDataFileName.endsWith(".json")) {
+			JSONDocumentReader reader = null;
+			try {
+				reader = new JSONDocumentReader(testingDataFileName);
+			} catch (IOException e) {
+				e.printStackTrace();
+				System.err.println("Error reading data from file.");
+				System.exit(1);
+			}
+			result = this.binarized ? new BinaryValuedData(reader, this.hasher) : new RealValuedData(reader, this.hasher);
+		}
+		else if (this.binarized) {
+			result = new BinaryValuedData(testingDataFileName, this.hasher);
 		}
 		else {
-			return new RealValuedData(testingDataFileName);
+			result = new RealValuedData(testingDataFileName, this.hasher);
 		}
+		this.metrics.stop(Metrics.LOAD, start);
+		return result;
 	}
 
 
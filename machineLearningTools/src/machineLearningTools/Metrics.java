@@ -0,0 +1,137 @@
+package machineLearningTools;
+
+/**
+ * Metrics
+ *
+ * Instrumentation surface for classifiers and clusterers, which record
+ * the time spent in each phase and count the work done in their inner
+ * loops. <br><br>
+ *
+ * Phases are timed by calling start() before the phase and stop() after
+ * it with the value start() returned. Metrics.NONE, the default of every
+ * MachineLearningClassifier and MachineLearningClusterer, records nothing
+ * and does not read the clock, so instrumentation costs a few calls per
+ * document when disabled. Use a MetricsRegistry to record metrics. <br><br>
+ *
+ * <b>Phases:</b> <br><br>
+ * 	<b>load:</b> reading a data file <br>
+ * 	<b>train:</b> training a model from loaded Data, excluding the load phase <br>
+ * 	<b>classify:</b> classifying or clustering, once per document <br>
+ * 	<b>modelWrite:</b> writing a model file <br>
+ * 	<b>outputWrite:</b> writing a system output file <br><br>
+ *
+ * <b>Counters:</b> <br><br>
+ * 	<b>distances:</b> distances computed by KNNClassifier <br>
+ * 	<b>nodes:</b> tree nodes evaluated by DecisionTreeClassifier training <br>
+ * 	<b>featureLookups:</b> feature probabilities looked up by NaiveBayesClassifier
+ */
+public abstract class Metrics {
+
+	// Phases
+	public static final String LOAD = "load";
+	public static final String TRAIN = "train";
+	public static final String CLASSIFY = "classify";
+	public static final String MODEL_WRITE = "modelWrite";
+	public static final String OUTPUT_WRITE = "outputWrite";
+
+	// Counters
+	public static final String DISTANCES = "distances";
+	public static final String NODES = "nodes";
+	public static final String FEATURE_LOOKUPS = "featureLookups";
+
+	/**
+	 * Metrics that records nothing.
+	 */
+	public static final Metrics NONE = new Metrics() {
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+
+		@Override
+		public long start() {
+			return 0L;
+		}
+
+		@Override
+		public void stop(final String phase, final long start, final long events) {
+		}
+
+		@Override
+		public void stop(final String phase, final long start, final String label) {
+		}
+
+		@Override
+		public void increment(final String counter, final long amount) {
+		}
+	};
+
+	/**
+	 * Return whether these Metrics record anything, so callers can skip
+	 * work done only to report metrics.
+	 *
+	 * @return true if metrics are recorded
+	 */
+	public abstract boolean isEnabled();
+
+	/**
+	 * Return the start time of a phase, to pass to stop().
+	 *
+	 * @return start time in nanoseconds
+	 */
+	public abstract long start();
+
+	/**
+	 * Record the time since start as a number of events of the given
+	 * phase, such as a batch of classified documents.
+	 *
+	 * @param phase
+	 * @param start value returned by start()
+	 * @param events number of events timed, at least 1
+	 */
+	public abstract void stop(String phase, long start, long events);
+
+	/**
+	 * Record the time since start as one event of the given phase.
+	 *
+	 * @param phase
+	 * @param start value returned by start()
+	 */
+	public void stop(final String phase, final long start) {
+		this.stop(phase, start, 1L);
+	}
+
+	/**
+	 * Record the time since start as one event of the given phase that
+	 * produced the given label, such as the classification of one
+	 * document, so latency can be reported per label.
+	 *
+	 * @param phase
+	 * @param start value returned by start()
+	 * @param label label produced, or null if none was
+	 */
+	public void stop(final String phase, final long start, final String label) {
+		this.stop(phase, start);
+	}
+
+	/**
+	 * Record the time since start as one event of the given phase per
+	 * label, each taking an equal share of the time, such as documents
+	 * classified together in one batch.
+	 *
+	 * @param phase
+	 * @param start value returned by start()
+	 * @param labels label produced by each event, or null where none was
+	 */
+	public void stop(final String phase, final long start, final String[] labels) {
+		this.stop(phase, start, (long)labels.length);
+	}
+
+	/**
+	 * Add the given amount to a counter.
+	 *
+	 * @param counter
+	 * @param amount
+	 */
+	public abstract void increment(String counter, long amount);
+}
@@ -0,0 +1,504 @@
+package machineLearningTools;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.json.JSONObject;
+
+/**
+ * MetricsRegistry
+ *
+ * Metrics that records the count, total time and maximum time of each
+ * phase, and the value of each counter. Phases recorded one event at a
+ * time, such as the classification of each document, or as a batch
+ * with the label of each event, also get a LatencyHistogram, and one
+ * per label when the label is given. Recording
+ * is lock-free, so one registry can be shared by classifiers running on
+ * many threads. <br><br>
+ *
+ * Recorded metrics can be read with getCount(), getTotalNanos(),
+ * getMaxNanos(), getHistogram() and getCounter(), dumped with toString()
+ * or toJSON(), or exported over JMX with registerMBean(). The MBean has
+ * one attribute per counter, and phase.count, phase.totalNanos,
+ * phase.meanNanos, phase.maxNanos, phase.p50Nanos, phase.p99Nanos and
+ * phase.p999Nanos attributes per phase.
+ */
+public class MetricsRegistry extends Metrics {
+
+	private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<String, Timer>();
+	private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+	private final ConcurrentHashMap<String, ConcurrentHashMap<String, LatencyHistogram>> labelHistograms = new ConcurrentHashMap<String, ConcurrentHashMap<String, LatencyHistogram>>();
+
+	/**
+	 * @see machineLearningTools.Metrics#isEnabled()
+	 */
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	/**
+	 * @see machineLearningTools.Metrics#start()
+	 */
+	@Override
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * @see machineLearningTools.Metrics#stop(java.lang.String, long, long)
+	 */
+	@Override
+	public void stop(final String phase, final long start, final long events) {
+		if (phase == null) {
+			throw new NullPointerException("MetricsRegistry#stop received a null parameter: phase!");
+		}
+		this.getTimer(phase).record(System.nanoTime() - start, events);
+	}
+
+	/**
+	 * @see machineLearningTools.Metrics#stop(java.lang.String, long, java.lang.String)
+	 */
+	@Override
+	public void stop(final String phase, final long start, final String label) {
+		if (phase == null) {
+			throw new NullPointerException("MetricsRegistry#stop received a null parameter: phase!");
+		}
+		long elapsed = System.nanoTime() - start;
+		this.getTimer(phase).record(elapsed, 1L);
+		if (label != null) {
+			this.getLabelHistogram(phase, label).record(elapsed);
+		}
+	}
+
+	/**
+	 * @see machineLearningTools.Metrics#stop(java.lang.String, long, java.lang.String[])
+	 */
+	@Override
+	public void stop(final String phase, final long start, final String[] labels) {
+		if (phase == null || labels == null) {
+			throw new NullPointerException("MetricsRegistry#stop received a null parameter!");
+		}
+		if (labels.length == 0) {
+			return;
+		}
+		long share = (System.nanoTime() - start)/labels.length;
+		Timer timer = this.getTimer(phase);
+		for (String label: labels) {
+			timer.record(share, 1L);
+			if (label != null) {
+				this.getLabelHistogram(phase, label).record(share);
+			}
+		}
+	}
+
+	/**
+	 * Return the LatencyHistogram of the given phase and label, adding
+	 * it if needed.
+	 *
+	 * @param phase
+	 * @param label
+	 * @return latency histogram of the label
+	 */
+	private LatencyHistogram getLabelHistogram(final String phase, final String label) {
+		ConcurrentHashMap<String, LatencyHistogram> histograms = this.labelHistograms.get(phase);
+		if (histograms == null) {
+			ConcurrentHashMap<String, LatencyHistogram> newHistograms = new ConcurrentHashMap<String, LatencyHistogram>();
+			histograms = this.labelHistograms.putIfAbsent(phase, newHistograms);
+			if (histograms == null) {
+				histograms = newHistograms;
+			}
+		}
+		LatencyHistogram histogram = histograms.get(label);
+		if (histogram == null) {
+			LatencyHistogram newHistogram = new LatencyHistogram();
+			histogram = histograms.putIfAbsent(label, newHistogram);
+			if (histogram == null) {
+				histogram = newHistogram;
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Return the Timer of the given phase, adding it if needed.
+	 *
+	 * @param phase
+	 * @return timer of the phase
+	 */
+	private Timer getTimer(final String phase) {
+		Timer timer = this.timers.get(phase);
+		if (timer == null) {
+			Timer newTimer = new Timer();
+			timer = this.timers.putIfAbsent(phase, newTimer);
+			if (timer == null) {
+				timer = newTimer;
+			}
+		}
+		return timer;
+	}
+
+	/**
+	 * @see machineLearningTools.Metrics#increment(java.lang.String, long)
+	 */
+	@Override
+	public void increment(final String counter, final long amount) {
+		if (counter == null) {
+			throw new NullPointerException("MetricsRegistry#increment received a null parameter: counter!");
+		}
+		AtomicLong value = this.counters.get(counter);
+		if (value == null) {
+			AtomicLong newValue = new AtomicLong();
+			value = this.counters.putIfAbsent(counter, newValue);
+			if (value == null) {
+				value = newValue;
+			}
+		}
+		value.addAndGet(amount);
+	}
+
+	/**
+	 * Return the number of events recorded for the given phase.
+	 *
+	 * @param phase
+	 * @return number of events, or 0 if none were recorded
+	 */
+	public long getCount(final String phase) {
+		Timer timer = this.timers.get(phase);
+		return (timer == null) ? 0L : timer.count.get();
+	}
+
+	/**
+	 * Return the total time recorded for the given phase.
+	 *
+	 * @param phase
+	 * @return total time in nanoseconds
+	 */
+	public long getTotalNanos(final String phase) {
+		Timer timer = this.timers.get(phase);
+		return (timer == null) ? 0L : timer.totalNanos.get();
+	}
+
+	/**
+	 * Return the longest single recording of the given phase.
+	 *
+	 * @param phase
+	 * @return maximum time in nanoseconds
+	 */
+	public long getMaxNanos(final String phase) {
+		Timer timer = this.timers.get(phase);
+		return (timer == null) ? 0L : timer.maxNanos.get();
+	}
+
+	/**
+	 * Return the latency histogram of the single events of the given phase.
+	 *
+	 * @param phase
+	 * @return latency histogram, empty if none were recorded
+	 */
+	public LatencyHistogram getHistogram(final String phase) {
+		Timer timer = this.timers.get(phase);
+		return (timer == null) ? new LatencyHistogram() : timer.histogram;
+	}
+
+	/**
+	 * Return the latency histogram of the events of the given phase
+	 * that produced the given label.
+	 *
+	 * @param phase
+	 * @param label
+	 * @return latency histogram, empty if none were recorded
+	 */
+	public LatencyHistogram getHistogram(final String phase, final String label) {
+		ConcurrentHashMap<String, LatencyHistogram> histograms = this.labelHistograms.get(phase);
+		LatencyHistogram histogram = (histograms == null) ? null : histograms.get(label);
+		return (histogram == null) ? new LatencyHistogram() : histogram;
+	}
+
+	/**
+	 * Return the labels with a latency histogram for the given phase.
+	 *
+	 * @param phase
+	 * @return sorted labels
+	 */
+	public Set<String> getHistogramLabels(final String phase) {
+		ConcurrentHashMap<String, LatencyHistogram> histograms = this.labelHistograms.get(phase);
+		return (histograms == null) ? new TreeSet<String>() : new TreeSet<String>(histograms.keySet());
+	}
+
+	/**
+	 * Return the value of the given counter.
+	 *
+	 * @param counter
+	 * @return value, or 0 if the counter was never incremented
+	 */
+	public long getCounter(final String counter) {
+		AtomicLong value = this.counters.get(counter);
+		return (value == null) ? 0L : value.get();
+	}
+
+	/**
+	 * Forget every recorded phase and counter.
+	 */
+	public void reset() {
+		this.timers.clear();
+		this.counters.clear();
+		this.labelHistograms.clear();
+	}
+
+	/**
+	 * Register this registry with the platform MBeanServer under
+	 * machineLearningTools:type=Metrics,name=[name].
+	 *
+	 * @param name
+	 * @return the registered ObjectName
+	 * @throws JMException if the name is invalid or already registered
+	 */
+	public ObjectName registerMBean(final String name) throws JMException {
+		if (name == null) {
+			throw new NullPointerException("MetricsRegistry#registerMBean received a null parameter: name!");
+		}
+		ObjectName objectName = new ObjectName("machineLearningTools:type=Metrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(), objectName);
+		return objectName;
+	}
+
+	/**
+	 * Unregister an MBean registered with registerMBean().
+	 *
+	 * @param objectName
+	 * @throws JMException if it is not registered
+	 */
+	public static void unregisterMBean(final ObjectName objectName) throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		server.unregisterMBean(objectName);
+	}
+
+	/**
+	 * Return the recorded metrics, one per line, sorted by name, where
+	 * percentiles are of single events and labels are listed under
+	 * their phase: <br><br>
+	 *
+	 * <b>phase count totalMillis meanMicros maxMicros p50Micros p99Micros p999Micros</b> <br>
+	 * <b>phase[label] count p50Micros p99Micros p999Micros maxMicros</b> <br>
+	 * <b>counter value</b>
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		Timer timer;
+		LatencyHistogram histogram;
+		for (Map.Entry<String, Timer> entry: new TreeMap<String, Timer>(this.timers).entrySet()) {
+			timer = entry.getValue();
+			histogram = timer.histogram;
+			result.append(String.format(Locale.ROOT, "%s %d %.3f %.3f %.3f %.3f %.3f %.3f%n", entry.getKey(), timer.count.get(), timer.totalNanos.get()/1e6, timer.meanNanos()/1e3, timer.maxNanos.get()/1e3,
+					histogram.getValueAtPercentile(50.0d)/1e3, histogram.getValueAtPercentile(99.0d)/1e3, histogram.getValueAtPercentile(99.9d)/1e3));
+			for (String label: this.getHistogramLabels(entry.getKey())) {
+				histogram = this.getHistogram(entry.getKey(), label);
+				result.append(String.format(Locale.ROOT, "%s[%s] %d %.3f %.3f %.3f %.3f%n", entry.getKey(), label, histogram.getCount(),
+						histogram.getValueAtPercentile(50.0d)/1e3, histogram.getValueAtPercentile(99.0d)/1e3, histogram.getValueAtPercentile(99.9d)/1e3, histogram.getMax()/1e3));
+			}
+		}
+		for (Map.Entry<String, AtomicLong> entry: new TreeMap<String, AtomicLong>(this.counters).entrySet()) {
+			result.append(String.format(Locale.ROOT, "%s %d%n", entry.getKey(), entry.getValue().get()));
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Return the JSON representation of the recorded metrics, sorted by name,
+	 * with names and labels quoted as JSON strings:
+	 * {"timers":{"XYZ":{"count":1,"totalNanos":1,"maxNanos":1,"p50Nanos":1,"p99Nanos":1,"p999Nanos":1,
+	 * "labels":{"XYZ":{"count":1,"maxNanos":1,"p50Nanos":1,"p99Nanos":1,"p999Nanos":1}}}}, "counters":{"XYZ":1}}
+	 *
+	 * @return the JSON representation of the recorded metrics
+	 */
+	public String toJSON() {
+		StringBuilder result = new StringBuilder();
+		result.append("{\"timers\":{");
+		Timer timer;
+		LatencyHistogram histogram;
+		boolean first = true;
+		boolean firstLabel;
+		for (Map.Entry<String, Timer> entry: new TreeMap<String, Timer>(this.timers).entrySet()) {
+			timer = entry.getValue();
+			if (!first) {
+				result.append(",");
+			}
+			first = false;
+			result.append(String.format(Locale.ROOT, "%s:{\"count\":%d,\"totalNanos\":%d,\"maxNanos\":%d,", JSONObject.quote(entry.getKey()), timer.count.get(), timer.totalNanos.get(), timer.maxNanos.get()));
+			this.appendPercentiles(result, timer.histogram);
+			result.append(",\"labels\":{");
+			firstLabel = true;
+			for (String label: this.getHistogramLabels(entry.getKey())) {
+				histogram = this.getHistogram(entry.getKey(), label);
+				if (!firstLabel) {
+					result.append(",");
+				}
+				firstLabel = false;
+				result.append(String.format(Locale.ROOT, "%s:{\"count\":%d,\"maxNanos\":%d,", JSONObject.quote(label), histogram.getCount(), histogram.getMax()));
+				this.appendPercentiles(result, histogram);
+				result.append("}");
+			}
+			result.append("}}");
+		}
+		result.append("},\"counters\":{");
+		first = true;
+		for (Map.Entry<String, AtomicLong> entry: new TreeMap<String, AtomicLong>(this.counters).entrySet()) {
+			if (!first) {
+				result.append(",");
+			}
+			first = false;
+			result.append(String.format(Locale.ROOT, "%s:%d", JSONObject.quote(entry.getKey()), entry.getValue().get()));
+		}
+		result.append("}}");
+		return result.toString();
+	}
+
+	/**
+	 * Append the p50, p99 and p99.9 of a histogram as JSON members.
+	 *
+	 * @param result
+	 * @param histogram
+	 */
+	private void appendPercentiles(final StringBuilder result, final LatencyHistogram histogram) {
+		result.append("\"p50Nanos\":").append(histogram.getValueAtPercentile(50.0d));
+		result.append(",\"p99Nanos\":").append(histogram.getValueAtPercentile(99.0d));
+		result.append(",\"p999Nanos\":").append(histogram.getValueAtPercentile(99.9d));
+	}
+
+	/**
+	 * Count, total time and maximum time of one phase, and the latency
+	 * histogram of its single events.
+	 */
+	private static class Timer {
+		final AtomicLong count = new AtomicLong();
+		final AtomicLong totalNanos = new AtomicLong();
+		final AtomicLong maxNanos = new AtomicLong();
+		final LatencyHistogram histogram = new LatencyHistogram();
+
+		void record(final long elapsed, final long events) {
+			if (events == 1) {
+				this.histogram.record(elapsed);
+			}
+			this.count.addAndGet(events);
+			this.totalNanos.addAndGet(elapsed);
+			long max = this.maxNanos.get();
+			while (elapsed > max && !this.maxNanos.compareAndSet(max, elapsed)) {
+				max = this.maxNanos.get();
+			}
+		}
+
+		double meanNanos() {
+			long events = this.count.get();
+			return (events == 0) ? 0.0d : this.totalNanos.get()/(double)events;
+		}
+	}
+
+	/**
+	 * Read-only MBean exposing the current metrics as attributes.
+	 */
+	private class MetricsMBean implements DynamicMBean {
+
+		@Override
+		public Object getAttribute(final String attribute) throws AttributeNotFoundException {
+			AtomicLong counter = MetricsRegistry.this.counters.get(attribute);
+			if (counter != null) {
+				return counter.get();
+			}
+			int dot = attribute.lastIndexOf('.');
+			Timer timer = (dot < 0) ? null : MetricsRegistry.this.timers.get(attribute.substring(0, dot));
+			if (timer != null) {
+				String field = attribute.substring(dot+1);
+				if (field.equals("count")) {
+					return timer.count.get();
+				}
+				else if (field.equals("totalNanos")) {
+					return timer.totalNanos.get();
+				}
+				else if (field.equals("meanNanos")) {
+					return timer.meanNanos();
+				}
+				else if (field.equals("maxNanos")) {
+					return timer.maxNanos.get();
+				}
+				else if (field.equals("p50Nanos")) {
+					return timer.histogram.getValueAtPercentile(50.0d);
+				}
+				else if (field.equals("p99Nanos")) {
+					return timer.histogram.getValueAtPercentile(99.0d);
+				}
+				else if (field.equals("p999Nanos")) {
+					return timer.histogram.getValueAtPercentile(99.9d);
+				}
+			}
+			throw new AttributeNotFoundException("MetricsRegistry has no attribute " + attribute + ";");
+		}
+
+		@Override
+		public AttributeList getAttributes(final String[] attributes) {
+			AttributeList result = new AttributeList();
+			for (String attribute: attributes) {
+				try {
+					result.add(new Attribute(attribute, this.getAttribute(attribute)));
+				} catch (AttributeNotFoundException e) {
+					// Missing attributes are left out of the list
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public MBeanInfo getMBeanInfo() {
+			List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+			for (String phase: new TreeMap<String, Timer>(MetricsRegistry.this.timers).keySet()) {
+				attributes.add(new MBeanAttributeInfo(phase + ".count", "long", "Events of " + phase, true, false, false));
+				attributes.add(new MBeanAttributeInfo(phase + ".totalNanos", "long", "Total time of " + phase, true, false, false));
+				attributes.add(new MBeanAttributeInfo(phase + ".meanNanos", "double", "Mean time of " + phase, true, false, false));
+				attributes.add(new MBeanAttributeInfo(phase + ".maxNanos", "long", "Maximum time of " + phase, true, false, false));
+				attributes.add(new MBeanAttributeInfo(phase + ".p50Nanos", "long", "Median time of " + phase, true, false, false));
+				attributes.add(new MBeanAttributeInfo(phase + ".p99Nanos", "long", "99th percentile time of " + phase, true, false, false));
+				attributes.add(new MBeanAttributeInfo(phase + ".p999Nanos", "long", "99.9th percentile time of " + phase, true, false, false));
+			}
+			for (String counter: new TreeMap<String, AtomicLong>(MetricsRegistry.this.counters).keySet()) {
+				attributes.add(new MBeanAttributeInfo(counter, "long", "Counter " + counter, true, false, false));
+			}
+			return new MBeanInfo(MetricsRegistry.class.getName(), "machineLearningTools metrics", attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null, null, null);
+		}
+
+		@Override
+		public Object invoke(final String actionName, final Object[] params, final String[] signature) {
+			throw new UnsupportedOperationException("MetricsRegistry MBean has no operations;");
+		}
+
+		@Override
+		public void setAttribute(final Attribute attribute) throws AttributeNotFoundException {
+			throw new AttributeNotFoundException("MetricsRegistry MBean attributes are read-only;");
+		}
+
+		@Override
+		public AttributeList setAttributes(final AttributeList attributes) {
+			return new AttributeList();
+		}
+	}
+}
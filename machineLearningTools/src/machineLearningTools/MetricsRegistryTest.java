@@ -0,0 +1,148 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+	// Variables
+	private MetricsRegistry metrics;
+
+	@Before
+	public void setupMetricsRegistry() {
+		this.metrics = new MetricsRegistry();
+	}
+
+	@Test
+	public void testMetricsRegistryTimers() {
+		long start = this.metrics.start();
+		this.metrics.stop(Metrics.CLASSIFY, start);
+		this.metrics.stop(Metrics.CLASSIFY, start, 3L);
+		assertEquals(4L, this.metrics.getCount(Metrics.CLASSIFY));
+		assertTrue(this.metrics.getTotalNanos(Metrics.CLASSIFY) >= this.metrics.getMaxNanos(Metrics.CLASSIFY));
+		assertEquals(0L, this.metrics.getCount(Metrics.TRAIN));
+	}
+
+	@Test
+	public void testMetricsRegistryCounters() {
+		this.metrics.increment(Metrics.DISTANCES, 5L);
+		this.metrics.increment(Metrics.DISTANCES, 7L);
+		assertEquals(12L, this.metrics.getCounter(Metrics.DISTANCES));
+		assertEquals(0L, this.metrics.getCounter(Metrics.NODES));
+		this.metrics.reset();
+		assertEquals(0L, this.metrics.getCounter(Metrics.DISTANCES));
+	}
+
+	@Test
+	public void testMetricsRegistryConcurrentCounters() throws InterruptedException {
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						MetricsRegistryTest.this.metrics.increment(Metrics.NODES, 1L);
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread: threads) {
+			thread.join();
+		}
+		assertEquals(40000L, this.metrics.getCounter(Metrics.NODES));
+	}
+
+	@Test
+	public void testMetricsRegistryLabelHistograms() {
+		this.metrics.stop(Metrics.CLASSIFY, this.metrics.start(), "a");
+		this.metrics.stop(Metrics.CLASSIFY, this.metrics.start(), "a");
+		this.metrics.stop(Metrics.CLASSIFY, this.metrics.start(), "b");
+		this.metrics.stop(Metrics.CLASSIFY, this.metrics.start(), (String)null);
+		// Batches are counted but not added to histograms
+		this.metrics.stop(Metrics.CLASSIFY, this.metrics.start(), 10L);
+		// unless each event of the batch is given
+		this.metrics.stop(Metrics.CLASSIFY, this.metrics.start(), new String[]{"a", "b", null});
+		assertEquals(17L, this.metrics.getCount(Metrics.CLASSIFY));
+		assertEquals(7L, this.metrics.getHistogram(Metrics.CLASSIFY).getCount());
+		assertEquals(3L, this.metrics.getHistogram(Metrics.CLASSIFY, "a").getCount());
+		assertEquals(2L, this.metrics.getHistogram(Metrics.CLASSIFY, "b").getCount());
+		assertEquals(0L, this.metrics.getHistogram(Metrics.TRAIN, "a").getCount());
+		assertEquals(2, this.metrics.getHistogramLabels(Metrics.CLASSIFY).size());
+		JSONObject json = new JSONObject(this.metrics.toJSON());
+		assertEquals(3L, json.getJSONObject("timers").getJSONObject(Metrics.CLASSIFY).getJSONObject("labels").getJSONObject("a").getLong("count"));
+	}
+
+	@Test
+	public void testMetricsRegistryToJSON() {
+		this.metrics.stop(Metrics.TRAIN, this.metrics.start());
+		this.metrics.increment(Metrics.NODES, 3L);
+		JSONObject json = new JSONObject(this.metrics.toJSON());
+		assertEquals(1L, json.getJSONObject("timers").getJSONObject(Metrics.TRAIN).getLong("count"));
+		assertEquals(3L, json.getJSONObject("counters").getLong(Metrics.NODES));
+	}
+
+	@Test
+	public void testMetricsRegistryToJSONEscapesNames() {
+		String phase = "say \"hi\"\\";
+		String label = "a\nb";
+		this.metrics.stop(phase, this.metrics.start(), label);
+		this.metrics.increment("\"", 2L);
+		JSONObject json = new JSONObject(this.metrics.toJSON());
+		assertEquals(1L, json.getJSONObject("timers").getJSONObject(phase).getJSONObject("labels").getJSONObject(label).getLong("count"));
+		assertEquals(2L, json.getJSONObject("counters").getLong("\""));
+	}
+
+	@Test
+	public void testMetricsRegistryToStringIgnoresDefaultLocale() {
+		Locale locale = Locale.getDefault();
+		try {
+			Locale.setDefault(Locale.GERMANY);
+			this.metrics.stop(Metrics.TRAIN, this.metrics.start());
+			assertFalse(this.metrics.toString().contains(","));
+		} finally {
+			Locale.setDefault(locale);
+		}
+	}
+
+	@Test
+	public void testMetricsRegistryToString() {
+		this.metrics.increment(Metrics.NODES, 3L);
+		assertEquals(String.format("nodes 3%n"), this.metrics.toString());
+	}
+
+	@Test
+	public void testMetricsRegistryMBean() throws JMException {
+		this.metrics.increment(Metrics.DISTANCES, 9L);
+		this.metrics.stop(Metrics.LOAD, this.metrics.start());
+		ObjectName name = this.metrics.registerMBean("MetricsRegistryTest");
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(9L, server.getAttribute(name, Metrics.DISTANCES));
+			assertEquals(1L, server.getAttribute(name, "load.count"));
+			assertEquals(8, server.getMBeanInfo(name).getAttributes().length);
+		} finally {
+			MetricsRegistry.unregisterMBean(name);
+		}
+	}
+
+	@Test
+	public void testMetricsNoneRecordsNothing() {
+		assertFalse(Metrics.NONE.isEnabled());
+		assertEquals(0L, Metrics.NONE.start());
+		Metrics.NONE.stop(Metrics.CLASSIFY, 0L);
+		Metrics.NONE.increment(Metrics.DISTANCES, 1L);
+	}
+}
@@ -0,0 +1,199 @@
+package machineLearningTools;
+
+/**
+ * NGramExtractor
+ *
+ * Counts the word or character n-grams of unstructured text, for every
+ * n from minN to maxN. Words are split on whitespace; character n-grams
+ * are taken within each word, padded with a space on either side, so
+ * they mark the start and end of words. <br><br>
+ *
+ * With a FeatureHasher, n-grams are counted as hashed features without
+ * building their Strings: each word is hashed once, and the hash of each
+ * n-gram is rolled from the hash of the previous one, as a polynomial
+ * over the hashes of its words or its characters: <br><br>
+ *
+ * H(t.i..t.i+n-1) = sum.j(h(t.i+j) * P^(n-1-j)) <br>
+ * H(t.i+1..t.i+n) = (H(t.i..t.i+n-1) - h(t.i)*P^(n-1))*P + h(t.i+n) <br><br>
+ *
+ * so allocation does not grow with n. Without a FeatureHasher, the
+ * n-grams are named by their words joined with a space, or by their
+ * characters, as features must be kept by name.
+ *
+ * @see FeatureHasher
+ */
+public class NGramExtractor {
+
+	// Odd multiplier of the rolling hash
+	private static final int P = 0x01000193;
+	// Separates the hashes of n-grams of different n
+	private static final int N_SEED = 0x9e3779b9;
+
+	private final int minN;
+	private final int maxN;
+	private final boolean characters;
+	private final FeatureHasher hasher;
+
+	/**
+	 * Construct an NGramExtractor of the n-grams of each n from minN to maxN.
+	 *
+	 * @param minN at least 1
+	 * @param maxN at least minN
+	 * @param characters true for character n-grams, false for word n-grams
+	 * @param hasher FeatureHasher to hash n-grams with, or null to name n-grams
+	 */
+	public NGramExtractor(final int minN, final int maxN, final boolean characters, final FeatureHasher hasher) {
+		if (minN < 1 || maxN < minN) {
+			throw new IllegalArgumentException("NGramExtractor requires minN of at least 1 and maxN of at least minN;");
+		}
+		this.minN = minN;
+		this.maxN = maxN;
+		this.characters = characters;
+		this.hasher = hasher;
+	}
+
+	/**
+	 * Add the count of each n-gram of data to counts.
+	 *
+	 * @param data unstructured text
+	 * @param counts
+	 */
+	public void count(final String data, final Counter<String> counts) {
+		if (data == null || counts == null) {
+			throw new NullPointerException("NGramExtractor#count received a null parameter!");
+		}
+		String trimmed = data.trim();
+		if (trimmed.length() == 0) {
+			return;
+		}
+		String[] tokens = trimmed.split("\\s+");
+		if (this.characters) {
+			for (String token: tokens) {
+				this.countCharacters(token, counts);
+			}
+		}
+		else {
+			this.countWords(tokens, counts);
+		}
+	}
+
+	/**
+	 * Count the word n-grams of tokens.
+	 */
+	private void countWords(final String[] tokens, final Counter<String> counts) {
+		int[] hashes = null;
+		if (this.hasher != null) {
+			hashes = new int[tokens.length];
+			for (int i = 0; i < tokens.length; i++) {
+				hashes[i] = FeatureHasher.murmur3(tokens[i]);
+			}
+		}
+		StringBuilder builder = new StringBuilder();
+		int power;
+		int hash;
+		for (int n = this.minN; n <= Math.min(this.maxN, tokens.length); n++) {
+			if (hashes == null) {
+				for (int i = n-1; i < tokens.length; i++) {
+					builder.setLength(0);
+					builder.append(tokens[i-n+1]);
+					for (int j = i-n+2; j <= i; j++) {
+						builder.append(' ');
+						builder.append(tokens[j]);
+					}
+					counts.increment(builder.toString());
+				}
+				continue;
+			}
+			power = NGramExtractor.power(n-1);
+			hash = 0;
+			for (int i = 0; i < tokens.length; i++) {
+				if (i >= n) {
+					hash -= hashes[i-n]*power;
+				}
+				hash = hash*NGramExtractor.P + hashes[i];
+				if (i >= n-1) {
+					this.add(counts, hash, n);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Count the character n-grams of token, padded with a space on either side.
+	 */
+	private void countCharacters(final String token, final Counter<String> counts) {
+		int length = token.length() + 2;
+		StringBuilder builder = (this.hasher == null) ? new StringBuilder() : null;
+		int power;
+		int hash;
+		for (int n = this.minN; n <= Math.min(this.maxN, length); n++) {
+			if (builder != null) {
+				for (int i = n-1; i < length; i++) {
+					builder.setLength(0);
+					for (int j = i-n+1; j <= i; j++) {
+						builder.append(NGramExtractor.charAt(token, j));
+					}
+					counts.increment(builder.toString());
+				}
+				continue;
+			}
+			power = NGramExtractor.power(n-1);
+			hash = 0;
+			for (int i = 0; i < length; i++) {
+				if (i >= n) {
+					hash -= NGramExtractor.charAt(token, i-n)*power;
+				}
+				hash = hash*NGramExtractor.P + NGramExtractor.charAt(token, i);
+				if (i >= n-1) {
+					this.add(counts, hash, n);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add the signed count of the hashed feature of the n-gram
+	 * with the given rolling hash, removing it if its count is 0.
+	 */
+	private void add(final Counter<String> counts, final int rollingHash, final int n) {
+		int hash = FeatureHasher.mix(rollingHash ^ (n*NGramExtractor.N_SEED));
+		String name = this.hasher.getName(this.hasher.indexOf(hash));
+		counts.increment(name, this.hasher.signOf(hash));
+		if (counts.get(name) == 0) {
+			counts.remove(name);
+		}
+	}
+
+	/**
+	 * Return the character at position i of token padded
+	 * with a space on either side.
+	 */
+	private static char charAt(final String token, final int i) {
+		return (i == 0 || i == token.length()+1) ? ' ' : token.charAt(i-1);
+	}
+
+	/**
+	 * Return P^exponent, modulo 2^32.
+	 */
+	private static int power(final int exponent) {
+		int result = 1;
+		for (int i = 0; i < exponent; i++) {
+			result *= NGramExtractor.P;
+		}
+		return result;
+	}
+
+	/**
+	 * @return true if n-grams are hashed
+	 */
+	public boolean isHashed() {
+		return this.hasher != null;
+	}
+
+	/**
+	 * @return FeatureHasher n-grams are hashed with, or null
+	 */
+	public FeatureHasher getFeatureHasher() {
+		return this.hasher;
+	}
+}
@@ -0,0 +1,100 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+public class NGramExtractorTest {
+
+	// Parameters
+	private final String testString = "I like to go to the store. I like to go to the store. I like to go to the store.";
+
+	/**
+	 * Return the counts of counter, sorted.
+	 */
+	private ArrayList<Integer> sortedCounts(final Counter<String> counter) {
+		ArrayList<Integer> result = new ArrayList<Integer>(counter.size());
+		for (String key: counter.keySet()) {
+			result.add(counter.get(key));
+		}
+		Collections.sort(result);
+		return result;
+	}
+
+	@Test
+	public void testNGramExtractorWords() {
+		TokenCounter unigrams = new TokenCounter(this.testString, new NGramExtractor(1, 1, false, null));
+		assertEquals(new TokenCounter(this.testString), unigrams);
+		TokenCounter counter = new TokenCounter(" a b a  b ", new NGramExtractor(1, 3, false, null));
+		HashMap<String, Integer> gold = new HashMap<String, Integer>();
+		gold.put("a", 2);
+		gold.put("b", 2);
+		gold.put("a b", 2);
+		gold.put("b a", 1);
+		gold.put("a b a", 1);
+		gold.put("b a b", 1);
+		assertEquals(gold.size(), counter.size());
+		for (String key: gold.keySet()) {
+			assertEquals(gold.get(key), counter.get(key));
+		}
+	}
+
+	@Test
+	public void testNGramExtractorCharacters() {
+		TokenCounter counter = new TokenCounter("dog", new NGramExtractor(3, 3, true, null));
+		assertEquals(3, counter.size());
+		assertEquals(Integer.valueOf(1), counter.get(" do"));
+		assertEquals(Integer.valueOf(1), counter.get("dog"));
+		assertEquals(Integer.valueOf(1), counter.get("og "));
+		// Padded words shorter than n have no n-grams
+		assertTrue(new TokenCounter("a", new NGramExtractor(4, 4, true, null)).isEmpty());
+	}
+
+	/**
+	 * Rolled hashes of equal n-grams must be equal, so hashed counts
+	 * match named counts where no hashed features collide.
+	 */
+	@Test
+	public void testNGramExtractorHashed() {
+		FeatureHasher hasher = new FeatureHasher(24, false);
+		for (boolean characters: new boolean[]{false, true}) {
+			TokenCounter named = new TokenCounter(this.testString, new NGramExtractor(1, 4, characters, null));
+			TokenCounter hashed = new TokenCounter(this.testString, new NGramExtractor(1, 4, characters, hasher));
+			assertEquals(this.sortedCounts(named), this.sortedCounts(hashed));
+			for (String key: hashed.keySet()) {
+				assertTrue(hasher.getName(Integer.parseInt(key)) == key);
+			}
+		}
+	}
+
+	@Test
+	public void testNGramExtractorSigned() {
+		FeatureHasher hasher = new FeatureHasher(1, true);
+		TokenCounter hashed = new TokenCounter(this.testString, new NGramExtractor(1, 3, false, hasher));
+		assertTrue(hashed.size() <= 2);
+		for (String key: hashed.keySet()) {
+			assertTrue(hashed.get(key) != 0);
+		}
+	}
+
+	@Test
+	public void testNGramExtractorDocuments() {
+		NGramExtractor extractor = new NGramExtractor(2, 2, false, null);
+		RealValuedDocument real = new RealValuedDocument("a b a b", extractor, true);
+		assertEquals(2, real.getFeatCount("a b"));
+		assertEquals(1, real.getFeatCount("b a"));
+		BinaryValuedDocument binary = new BinaryValuedDocument("a b a b", extractor, true);
+		assertEquals(2, binary.size());
+		assertTrue(binary.contains("b a"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNGramExtractorThrows() {
+		new NGramExtractor(2, 1, false, null);
+	}
+}
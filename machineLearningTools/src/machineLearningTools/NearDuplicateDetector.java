@@ -0,0 +1,372 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * NearDuplicateDetector
+ *
+ * Finds documents whose feature sets are near-duplicates of an earlier
+ * document, with a Jaccard similarity of at least a threshold, by MinHash
+ * and locality sensitive hashing, so that near-duplicates can be dropped
+ * from training data before any expensive algorithm runs over it. <br><br>
+ *
+ * Each document has a signature of bands*rows MinHashes of its features:
+ * the least hash of its features under each of bands*rows hash functions.
+ * Two documents agree on a MinHash with probability equal to the Jaccard
+ * similarity of their feature sets. Signatures are split into bands of
+ * rows MinHashes, and documents that agree on every MinHash of any band
+ * are candidates, which happens with probability 1 - (1 - J^rows)^bands.
+ * Only candidates are compared, by the exact Jaccard similarity of their
+ * feature sets, so no pair of documents is reported below the threshold.
+ * <br><br>
+ *
+ * Documents are compared to the documents kept before them: the first
+ * document of a group of near-duplicates is kept, and each later one is
+ * a duplicate of a kept document. Feature counts, values and labels are
+ * not compared. Empty documents are never duplicates. <br><br>
+ *
+ * As a DocumentFilter, a NearDuplicateDetector checks documents one at a
+ * time as a Data object reads them, and either drops near-duplicates or
+ * only reports them by getDuplicates(). findDuplicates(Data, int) and
+ * deduplicate(Data, int) check loaded data, computing signatures on
+ * several threads, and do not change the documents seen by accept().
+ *
+ * @see DocumentFilter
+ */
+public class NearDuplicateDetector extends DocumentFilter {
+
+	private final int bands;
+	private final int rows;
+	private final double threshold;
+	private final boolean collapse;
+	// Seed of each MinHash function
+	private final int[] seeds;
+
+	// Documents kept by accept(), by band key of each band
+	private final ArrayList<HashMap<Long, ArrayList<Document>>> index;
+	// ID of the kept document of each near-duplicate seen by accept(), by document ID
+	private final HashMap<Integer, Integer> duplicates;
+
+	/**
+	 * Construct a NearDuplicateDetector that drops near-duplicates, with
+	 * 32 bands of 4 rows, which finds near-duplicates of Jaccard similarity
+	 * 0.5 with probability 0.87, and of 0.7 and over almost always.
+	 *
+	 * @param threshold least Jaccard similarity of near-duplicates, greater than 0.0 and at most 1.0
+	 * @param seed
+	 */
+	public NearDuplicateDetector(final double threshold, final long seed) {
+		this(32, 4, threshold, true, seed);
+	}
+
+	/**
+	 * Construct a NearDuplicateDetector.
+	 *
+	 * @param bands number of bands, at least 1
+	 * @param rows number of MinHashes in each band, at least 1
+	 * @param threshold least Jaccard similarity of near-duplicates, greater than 0.0 and at most 1.0
+	 * @param collapse true to drop near-duplicates from accept(), false to only report them
+	 * @param seed
+	 */
+	public NearDuplicateDetector(final int bands, final int rows, final double threshold, final boolean collapse, final long seed) {
+		if (bands < 1 || rows < 1) {
+			throw new IllegalArgumentException("NearDuplicateDetector requires at least 1 band and 1 row;");
+		}
+		if (!(threshold > 0.0d && threshold <= 1.0d)) {
+			throw new IllegalArgumentException("NearDuplicateDetector requires a threshold greater than 0.0 and at most 1.0;");
+		}
+		this.bands = bands;
+		this.rows = rows;
+		this.threshold = threshold;
+		this.collapse = collapse;
+		Random random = new Random(seed);
+		this.seeds = new int[bands*rows];
+		for (int i = 0; i < this.seeds.length; i++) {
+			this.seeds[i] = random.nextInt();
+		}
+		this.index = this.newIndex();
+		this.duplicates = new HashMap<Integer, Integer>();
+	}
+
+	/**
+	 * Return the MinHash signature of the given document.
+	 *
+	 * @param document
+	 * @return bands*rows MinHashes
+	 */
+	public int[] signature(final Document document) {
+		if (document == null) {
+			throw new NullPointerException("NearDuplicateDetector#signature received a null parameter: document!");
+		}
+		int[] result = new int[this.seeds.length];
+		Arrays.fill(result, Integer.MAX_VALUE);
+		int hash;
+		int value;
+		for (String feature: document.getFeatures()) {
+			hash = FeatureHasher.murmur3(feature);
+			for (int i = 0; i < result.length; i++) {
+				value = FeatureHasher.mix(hash ^ this.seeds[i]);
+				if (value < result[i]) {
+					result[i] = value;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Check the given document against the documents this
+	 * NearDuplicateDetector has kept. A near-duplicate is recorded
+	 * in getDuplicates(), and is dropped if collapsing; any other
+	 * document is kept.
+	 *
+	 * @see machineLearningTools.DocumentFilter#accept(machineLearningTools.Document)
+	 */
+	@Override
+	public synchronized boolean accept(final Document document) {
+		if (document == null) {
+			throw new NullPointerException("NearDuplicateDetector#accept received a null parameter: document!");
+		}
+		if (document.size() == 0) {
+			return true;
+		}
+		int[] signature = this.signature(document);
+		Document original = this.find(this.index, document, signature);
+		if (original == null) {
+			this.insert(this.index, document, signature);
+			return true;
+		}
+		this.duplicates.put(document.getDocID(), original.getDocID());
+		return !this.collapse;
+	}
+
+	/**
+	 * Return the near-duplicates accept() has seen.
+	 *
+	 * @return ID of the kept document of each near-duplicate, by document ID
+	 */
+	public synchronized HashMap<Integer, Integer> getDuplicates() {
+		return new HashMap<Integer, Integer>(this.duplicates);
+	}
+
+	/**
+	 * Forget the documents accept() has seen, e.g. before reading
+	 * another Data object.
+	 */
+	public synchronized void clear() {
+		for (HashMap<Long, ArrayList<Document>> buckets: this.index) {
+			buckets.clear();
+		}
+		this.duplicates.clear();
+	}
+
+	/**
+	 * Find the near-duplicates in data, comparing documents in document
+	 * ID order and computing signatures on the given number of threads.
+	 *
+	 * @param data
+	 * @param threads number of threads, at least 1
+	 * @return ID of the kept document of each near-duplicate, by document ID
+	 */
+	public HashMap<Integer, Integer> findDuplicates(final Data data, final int threads) {
+		if (data == null) {
+			throw new NullPointerException("NearDuplicateDetector#findDuplicates received a null parameter: data!");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("NearDuplicateDetector#findDuplicates requires at least 1 thread;");
+		}
+		List<Document> documents = data.getDocs();
+		Collections.sort(documents);
+		int[][] signatures = this.signatures(documents, threads);
+		ArrayList<HashMap<Long, ArrayList<Document>>> kept = this.newIndex();
+		HashMap<Integer, Integer> result = new HashMap<Integer, Integer>();
+		Document document;
+		Document original;
+		for (int i = 0; i < documents.size(); i++) {
+			document = documents.get(i);
+			if (document.size() == 0) {
+				continue;
+			}
+			original = this.find(kept, document, signatures[i]);
+			if (original == null) {
+				this.insert(kept, document, signatures[i]);
+			}
+			else {
+				result.put(document.getDocID(), original.getDocID());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find the near-duplicates in data using one thread per available processor.
+	 *
+	 * @param data
+	 * @return ID of the kept document of each near-duplicate, by document ID
+	 */
+	public HashMap<Integer, Integer> findDuplicates(final Data data) {
+		return this.findDuplicates(data, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Return the documents of data that are not near-duplicates. Documents
+	 * are shared with data, not copied.
+	 *
+	 * @param data
+	 * @param threads number of threads, at least 1
+	 * @return subset of data without near-duplicates
+	 * @see #findDuplicates(Data, int)
+	 */
+	public Data deduplicate(final Data data, final int threads) {
+		Set<Integer> duplicateIDs = this.findDuplicates(data, threads).keySet();
+		HashSet<Integer> ids = new HashSet<Integer>(data.getIDs());
+		ids.removeAll(duplicateIDs);
+		return data.subset(ids);
+	}
+
+	/**
+	 * Return the documents of data that are not near-duplicates,
+	 * using one thread per available processor.
+	 *
+	 * @param data
+	 * @return subset of data without near-duplicates
+	 */
+	public Data deduplicate(final Data data) {
+		return this.deduplicate(data, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Return the Jaccard similarity of the feature sets of two documents,
+	 * the number of features in both over the number of features in either.
+	 *
+	 * @param first
+	 * @param second
+	 * @return Jaccard similarity, 1.0 if both documents are empty
+	 */
+	public static double jaccard(final Document first, final Document second) {
+		Set<String> smaller = first.getFeatures();
+		Set<String> larger = second.getFeatures();
+		if (smaller.size() > larger.size()) {
+			Set<String> swap = smaller;
+			smaller = larger;
+			larger = swap;
+		}
+		if (larger.isEmpty()) {
+			return 1.0d;
+		}
+		int both = 0;
+		for (String feature: smaller) {
+			if (larger.contains(feature)) {
+				both++;
+			}
+		}
+		return both/(double)(smaller.size() + larger.size() - both);
+	}
+
+	/**
+	 * @return number of bands
+	 */
+	public int getBands() {
+		return this.bands;
+	}
+
+	/**
+	 * @return number of MinHashes in each band
+	 */
+	public int getRows() {
+		return this.rows;
+	}
+
+	/**
+	 * @return least Jaccard similarity of near-duplicates
+	 */
+	public double getThreshold() {
+		return this.threshold;
+	}
+
+	/**
+	 * Return a kept document in index that is a near-duplicate
+	 * of document, or null if there is none.
+	 */
+	private Document find(final ArrayList<HashMap<Long, ArrayList<Document>>> index, final Document document, final int[] signature) {
+		ArrayList<Document> candidates;
+		for (int band = 0; band < this.bands; band++) {
+			candidates = index.get(band).get(this.bandKey(signature, band));
+			if (candidates == null) {
+				continue;
+			}
+			for (Document candidate: candidates) {
+				if (NearDuplicateDetector.jaccard(document, candidate) >= this.threshold) {
+					return candidate;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Add document to the bucket of each of its bands in index.
+	 */
+	private void insert(final ArrayList<HashMap<Long, ArrayList<Document>>> index, final Document document, final int[] signature) {
+		Long key;
+		ArrayList<Document> bucket;
+		for (int band = 0; band < this.bands; band++) {
+			key = this.bandKey(signature, band);
+			bucket = index.get(band).get(key);
+			if (bucket == null) {
+				bucket = new ArrayList<Document>(1);
+				index.get(band).put(key, bucket);
+			}
+			bucket.add(document);
+		}
+	}
+
+	/**
+	 * Return the key of the given band of signature. Unequal bands
+	 * may share a key, which only makes the documents candidates.
+	 */
+	private long bandKey(final int[] signature, final int band) {
+		long result = 0L;
+		for (int row = band*this.rows; row < (band+1)*this.rows; row++) {
+			result = result*0x100000001b3L + signature[row];
+		}
+		return result;
+	}
+
+	/**
+	 * Return a new index with an empty map for each band.
+	 */
+	private ArrayList<HashMap<Long, ArrayList<Document>>> newIndex() {
+		ArrayList<HashMap<Long, ArrayList<Document>>> result = new ArrayList<HashMap<Long, ArrayList<Document>>>(this.bands);
+		for (int band = 0; band < this.bands; band++) {
+			result.add(new HashMap<Long, ArrayList<Document>>());
+		}
+		return result;
+	}
+
+	/**
+	 * Return the signature of each document, in order, splitting
+	 * the documents among the given number of threads.
+	 */
+	private int[][] signatures(final List<Document> documents, final int threads) {
+		final int[][] result = new int[documents.size()][];
+		Util.runChunks(documents, threads, new Util.ChunkTask<Document, Void>() {
+			@Override
+			Void call(final List<Document> chunk, final int start) {
+				// Chunks write disjoint signatures
+				for (int i = 0; i < chunk.size(); i++) {
+					result[start+i] = NearDuplicateDetector.this.signature(chunk.get(i));
+				}
+				return null;
+			}
+		}, "NearDuplicateDetector#findDuplicates");
+		return result;
+	}
+}
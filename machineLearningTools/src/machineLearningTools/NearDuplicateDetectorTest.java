@@ -0,0 +1,93 @@
+package machineLearningTools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.HashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NearDuplicateDetectorTest {
+
+	// Variables
+	private File corpusFile;
+	private HashMap<Integer, Integer> gold;
+
+	@Before
+	public void setUp() throws Exception {
+		this.corpusFile = File.createTempFile("dedup", ".vectors.txt");
+		FileWriter writer = new FileWriter(this.corpusFile);
+		// 1 and 3 are near-duplicates of 0, with Jaccard similarities 9/11 and 1
+		writer.write("a w1:1 w2:1 w3:1 w4:1 w5:1 w6:1 w7:1 w8:1 w9:1 w10:1\n");
+		writer.write("a w1:1 w2:1 w3:1 w4:1 w5:1 w6:1 w7:1 w8:1 w9:1 w11:1\n");
+		writer.write("b x1:1 x2:1 x3:1 x4:1 x5:1 x6:1 x7:1 x8:1 x9:1 x10:1\n");
+		writer.write("b w1:2 w2:2 w3:2 w4:2 w5:2 w6:2 w7:2 w8:2 w9:2 w10:2\n");
+		writer.write("b x1:1 x2:1 x3:1 y4:1 y5:1 y6:1 y7:1 y8:1 y9:1 y10:1\n");
+		writer.close();
+		this.gold = new HashMap<Integer, Integer>();
+		this.gold.put(1, 0);
+		this.gold.put(3, 0);
+	}
+
+	@After
+	public void cleanup() {
+		this.corpusFile.delete();
+	}
+
+	@Test
+	public void testNearDuplicateDetectorFindDuplicates() {
+		Data data = new RealValuedData(this.corpusFile.getPath());
+		NearDuplicateDetector detector = new NearDuplicateDetector(0.8d, 1L);
+		assertEquals(this.gold, detector.findDuplicates(data, 1));
+		assertEquals(this.gold, detector.findDuplicates(data, 3));
+		// 1 is below a higher threshold
+		HashMap<Integer, Integer> exact = new HashMap<Integer, Integer>();
+		exact.put(3, 0);
+		assertEquals(exact, new NearDuplicateDetector(0.9d, 1L).findDuplicates(data, 2));
+		Data deduplicated = detector.deduplicate(data, 2);
+		assertEquals(3, deduplicated.size());
+		assertFalse(deduplicated.getIDs().contains(1));
+		assertTrue(deduplicated.getDoc(0) == data.getDoc(0));
+	}
+
+	@Test
+	public void testNearDuplicateDetectorIngest() {
+		NearDuplicateDetector detector = new NearDuplicateDetector(0.8d, 1L);
+		Data data = new RealValuedData(this.corpusFile.getPath(), null, detector);
+		assertEquals(3, data.size());
+		assertEquals(this.gold, detector.getDuplicates());
+		// Reporting keeps every document
+		NearDuplicateDetector reporter = new NearDuplicateDetector(32, 4, 0.8d, false, 1L);
+		data = new BinaryValuedData(this.corpusFile.getPath(), null, reporter);
+		assertEquals(5, data.size());
+		assertEquals(this.gold, reporter.getDuplicates());
+		reporter.clear();
+		assertTrue(reporter.getDuplicates().isEmpty());
+		assertTrue(reporter.accept(data.getDoc(0)));
+	}
+
+	@Test
+	public void testNearDuplicateDetectorSignature() {
+		Data data = new RealValuedData(this.corpusFile.getPath());
+		NearDuplicateDetector detector = new NearDuplicateDetector(4, 2, 0.5d, true, 3L);
+		int[] first = detector.signature(data.getDoc(0));
+		assertEquals(8, first.length);
+		// Signatures depend on features only
+		int[] same = detector.signature(data.getDoc(3));
+		for (int i = 0; i < first.length; i++) {
+			assertEquals(first[i], same[i]);
+		}
+		assertEquals(9/11.0d, NearDuplicateDetector.jaccard(data.getDoc(0), data.getDoc(1)), 1e-12);
+		assertEquals(3/17.0d, NearDuplicateDetector.jaccard(data.getDoc(2), data.getDoc(4)), 1e-12);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNearDuplicateDetectorThrows() {
+		new NearDuplicateDetector(0.0d, 1L);
+	}
+}
@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -40,13 +41,12 @@ public class NestedCounter<T> extends AbstractCounter<T> {
 	 * @param key2
 	 */
 	private void addKeys(T key1, T key2) {
-		try {
-			this.keyMap.get(key1).add(key2);
-		} catch (NullPointerException e) {
-			HashSet<T> inner = new HashSet<T>();
-			inner.add(key2);
+		HashSet<T> inner = this.keyMap.get(key1);
+		if (inner == null) {
+			inner = new HashSet<T>();
 			this.keyMap.put(key1, inner);
 		}
+		inner.add(key2);
 		this.allKeys.add(key1);
 		this.allKeys.add(key2);
 	}
@@ -63,6 +63,19 @@ public class NestedCounter<T> extends AbstractCounter<T> {
 		this.addKeys(key1, key2);
 	}
 
+	/**
+	 * Add the given amount to the value at key1, key2.<br>
+	 * If value does not exist at key1, key2, initialize a value to amount.
+	 *
+	 * @param key1
+	 * @param key2
+	 * @param amount
+	 */
+	public void increment(final T key1, final T key2, final int amount) {
+		this.values.increment(this.getHash(key1, key2), amount);
+		this.addKeys(key1, key2);
+	}
+
 	/**
 	 * Initialize the value at key1, key2 to 0.<br>
 	 * If value exists at key1, key2, reset to 0.
@@ -88,6 +101,30 @@ public class NestedCounter<T> extends AbstractCounter<T> {
 		return this.values.get(this.getHash(key1, key2));
 	}
 
+	/**
+	 * Return an immutable, compact copy of the counts of this
+	 * NestedCounter, whose lookups have no side effects, for
+	 * sharing among threads that only read counts.
+	 *
+	 * @return FrozenNestedCounter of counts
+	 */
+	public FrozenNestedCounter<T> freeze() {
+		HashMap<T, HashMap<T, Integer>> rows = new HashMap<T, HashMap<T, Integer>>((int)(this.keyMap.size()/0.75f) + 1);
+		HashMap<T, Integer> row;
+		List<T> hash;
+		for (Map.Entry<T, HashSet<T>> entry: this.keyMap.entrySet()) {
+			row = new HashMap<T, Integer>((int)(entry.getValue().size()/0.75f) + 1);
+			for (T key2: entry.getValue()) {
+				hash = this.getHash(entry.getKey(), key2);
+				if (this.values.containsKey(hash)) {
+					row.put(key2, this.values.get(hash));
+				}
+			}
+			rows.put(entry.getKey(), row);
+		}
+		return new FrozenNestedCounter<T>(rows, this.allKeys);
+	}
+
 	// Other core methods
 	/**
 	 * Returns true iff key1->key2 mapping exists
@@ -73,6 +73,18 @@ public class NestedCounterTest {
 		assertThat(this.counter.get(this.key1, this.key2), is(1));
 	}
 
+	/**
+	 * Test NestedCounter increment by an amount
+	 */
+	@Test
+	public void testNestedCounterIncrementAmount() {
+		this.counter.increment(this.key1, this.key2, this.incrementTo);
+		assertThat(this.counter.get(this.key1, this.key2), is(this.incrementTo));
+		this.counter.increment(this.key1, this.key2, 1);
+		assertThat(this.counter.get(this.key1, this.key2), is(this.incrementTo+1));
+		assertTrue(this.counter.containsKey(this.key2));
+	}
+
 	/**
 	 * Basic test for NestedCounter increment
 	 */
@@ -0,0 +1,214 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * RandomProjection
+ *
+ * Projects sparse documents to dense float[] vectors of a few dimensions
+ * with a sparse random matrix (Achlioptas), so distance heavy algorithms,
+ * such as k-means, compute distances over a fixed number of dimensions
+ * rather than over the union of the features of two documents. Euclidean
+ * distances, and dot products, are preserved in expectation, with a
+ * distortion that shrinks with the number of dimensions. <br><br>
+ *
+ * Each entry of the matrix is, for a density s: <br>
+ * 	+sqrt(1/(s*k)) with probability s/2 <br>
+ * 	0 with probability 1 - s <br>
+ * 	-sqrt(1/(s*k)) with probability s/2 <br>
+ * where k is the number of dimensions. s = 1/3 is the density of
+ * Achlioptas; s = 1/sqrt(features) gives very sparse random projections.
+ * <br><br>
+ *
+ * The matrix is never stored: the column of a feature is generated from
+ * the hash of the feature and the seed whenever the feature is seen. So
+ * memory does not grow with the vocabulary, documents can be projected
+ * one at a time as they stream in, from any thread, and the same seed
+ * always gives the same projection. Documents are projected by their
+ * values, so weighted documents are projected by their weights.
+ *
+ * @see Document#getFeatValue(String)
+ */
+public class RandomProjection {
+
+	private final int dimensions;
+	private final double density;
+	private final long seed;
+	// Magnitude of each nonzero entry
+	private final float scale;
+	// log(1 - density), to skip between the nonzero entries of a column
+	private final double logSkip;
+
+	/**
+	 * Construct a RandomProjection to the given number of dimensions
+	 * with the density of Achlioptas, 1/3.
+	 *
+	 * @param dimensions at least 1
+	 * @param seed
+	 */
+	public RandomProjection(final int dimensions, final long seed) {
+		this(dimensions, 1.0d/3, seed);
+	}
+
+	/**
+	 * Construct a RandomProjection to the given number of dimensions
+	 * with the given density of nonzero entries.
+	 *
+	 * @param dimensions at least 1
+	 * @param density greater than 0.0 and at most 1.0
+	 * @param seed
+	 * @see #veryLowDensity(int)
+	 */
+	public RandomProjection(final int dimensions, final double density, final long seed) {
+		if (dimensions < 1) {
+			throw new IllegalArgumentException("RandomProjection requires at least 1 dimension;");
+		}
+		if (!(density > 0.0d && density <= 1.0d)) {
+			throw new IllegalArgumentException("RandomProjection requires a density greater than 0.0 and at most 1.0;");
+		}
+		this.dimensions = dimensions;
+		this.density = density;
+		this.seed = seed;
+		this.scale = (float) Math.sqrt(1.0d/(density*dimensions));
+		this.logSkip = (density < 1.0d) ? Math.log(1.0d - density) : 0.0d;
+	}
+
+	/**
+	 * Return the density of very sparse random projections
+	 * of the given number of features, 1/sqrt(features).
+	 *
+	 * @param features at least 1
+	 * @return density
+	 */
+	public static double veryLowDensity(final int features) {
+		if (features < 1) {
+			throw new IllegalArgumentException("RandomProjection#veryLowDensity requires at least 1 feature;");
+		}
+		return 1.0d/Math.sqrt(features);
+	}
+
+	/**
+	 * Project the given document.
+	 *
+	 * @param document
+	 * @return projected vector of getDimensions() values
+	 */
+	public float[] project(final Document document) {
+		if (document == null) {
+			throw new NullPointerException("RandomProjection#project received a null parameter: document!");
+		}
+		float[] result = new float[this.dimensions];
+		for (String feature: document.getFeatures()) {
+			this.addColumn(result, feature, (float) document.getFeatValue(feature));
+		}
+		return result;
+	}
+
+	/**
+	 * Project every document of data, splitting the documents
+	 * among the given number of threads.
+	 *
+	 * @param data
+	 * @param threads number of threads, at least 1
+	 * @return projected vector of each document by document ID
+	 */
+	public HashMap<Integer, float[]> project(final Data data, final int threads) {
+		if (data == null) {
+			throw new NullPointerException("RandomProjection#project received a null parameter: data!");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("RandomProjection#project requires at least 1 thread;");
+		}
+		final ArrayList<Document> documents = data.getDocs();
+		if (threads == 1 || documents.size() < 2) {
+			return this.project(documents);
+		}
+		List<HashMap<Integer, float[]>> chunks = Util.runChunks(documents, threads, new Util.ChunkTask<Document, HashMap<Integer, float[]>>() {
+			@Override
+			HashMap<Integer, float[]> call(final List<Document> chunk, final int start) {
+				return RandomProjection.this.project(chunk);
+			}
+		}, "RandomProjection#project");
+		HashMap<Integer, float[]> result = new HashMap<Integer, float[]>((int)(documents.size()/0.75f) + 1);
+		for (HashMap<Integer, float[]> vectors: chunks) {
+			result.putAll(vectors);
+		}
+		return result;
+	}
+
+	/**
+	 * Project every document of data using one thread per available processor.
+	 *
+	 * @param data
+	 * @return projected vector of each document by document ID
+	 */
+	public HashMap<Integer, float[]> project(final Data data) {
+		return this.project(data, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Project the given documents.
+	 */
+	private HashMap<Integer, float[]> project(final List<Document> documents) {
+		HashMap<Integer, float[]> result = new HashMap<Integer, float[]>((int)(documents.size()/0.75f) + 1);
+		for (Document document: documents) {
+			result.put(document.getDocID(), this.project(document));
+		}
+		return result;
+	}
+
+	/**
+	 * Add value times the column of feature to vector. The nonzero
+	 * entries of the column are found by skipping a geometrically
+	 * distributed number of entries from one to the next.
+	 */
+	private void addColumn(final float[] vector, final String feature, final float value) {
+		long state = this.seed ^ (FeatureHasher.murmur3(feature) * 0x9e3779b97f4a7c15L);
+		long random;
+		double uniform;
+		float entry = value * this.scale;
+		int i = -1;
+		while (true) {
+			state += 0x9e3779b97f4a7c15L;
+			random = RandomProjection.splitMix(state);
+			if (this.logSkip == 0.0d) {
+				i++;
+			}
+			else {
+				// In (0, 1], so the log is finite
+				uniform = 1.0d - ((random >>> 11) * 0x1.0p-53);
+				i += 1 + (int) Math.min(Math.floor(Math.log(uniform)/this.logSkip), this.dimensions);
+			}
+			if (i >= this.dimensions) {
+				return;
+			}
+			// The lowest bit is unused by the uniform
+			vector[i] += ((random & 1L) == 0) ? entry : -entry;
+		}
+	}
+
+	/**
+	 * Return the SplitMix64 output of the given state.
+	 */
+	private static long splitMix(long state) {
+		state = (state ^ (state >>> 30)) * 0xbf58476d1ce4e5b9L;
+		state = (state ^ (state >>> 27)) * 0x94d049bb133111ebL;
+		return state ^ (state >>> 31);
+	}
+
+	/**
+	 * @return number of dimensions of projected vectors
+	 */
+	public int getDimensions() {
+		return this.dimensions;
+	}
+
+	/**
+	 * @return density of nonzero entries
+	 */
+	public double getDensity() {
+		return this.density;
+	}
+}
@@ -0,0 +1,101 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RandomProjectionTest {
+
+	// Parameters
+	private final String trainingFile = testFile("example.real.vectors.txt");
+
+	// Variables
+	private Data data;
+
+	@Before
+	public void setupData() {
+		this.data = new RealValuedData(this.trainingFile);
+	}
+
+	/**
+	 * Return the squared Euclidean distance between two documents.
+	 */
+	private double squaredDistance(final Document first, final Document second) {
+		HashSet<String> features = new HashSet<String>(first.getFeatures());
+		features.addAll(second.getFeatures());
+		double result = 0.0d;
+		double difference;
+		for (String feature: features) {
+			difference = first.getFeatValue(feature) - second.getFeatValue(feature);
+			result += difference*difference;
+		}
+		return result;
+	}
+
+	@Test
+	public void testRandomProjectionDeterministic() {
+		RandomProjection projection = new RandomProjection(32, 7L);
+		Map<Integer, float[]> vectors = projection.project(this.data, 1);
+		Map<Integer, float[]> parallelVectors = new RandomProjection(32, 7L).project(this.data, 3);
+		assertEquals(this.data.size(), vectors.size());
+		for (Integer id: vectors.keySet()) {
+			assertEquals(32, vectors.get(id).length);
+			assertArrayEquals(vectors.get(id), parallelVectors.get(id), 0.0f);
+			assertArrayEquals(vectors.get(id), projection.project(this.data.getDoc(id)), 0.0f);
+		}
+	}
+
+	@Test
+	public void testRandomProjectionLinear() {
+		RandomProjection projection = new RandomProjection(16, 0.5d, 3L);
+		Interner dictionary = new Interner();
+		Document document = this.data.getDoc(0);
+		String feature = document.getFeatures().iterator().next();
+		dictionary.intern(feature);
+		float[] vector = projection.project(document.prune(dictionary));
+		// A single feature projects to its column times its value
+		float scale = (float) Math.sqrt(1.0d/(0.5d*16));
+		for (float value: vector) {
+			assertTrue(value == 0.0f || Math.abs(Math.abs(value) - document.getFeatCount(feature)*scale) < 1e-5);
+		}
+	}
+
+	/**
+	 * Squared distances are preserved in expectation, so the mean
+	 * ratio of projected to original distances is close to 1.
+	 */
+	@Test
+	public void testRandomProjectionDistances() {
+		ArrayList<Document> documents = this.data.getDocs();
+		for (RandomProjection projection: new RandomProjection[]{new RandomProjection(512, 11L), new RandomProjection(512, RandomProjection.veryLowDensity(1000), 11L)}) {
+			HashMap<Integer, float[]> vectors = projection.project(this.data, 2);
+			double ratios = 0.0d;
+			int pairs = 0;
+			double distance;
+			for (int i = 0; i < documents.size(); i++) {
+				for (int j = i+1; j < documents.size(); j++) {
+					distance = this.squaredDistance(documents.get(i), documents.get(j));
+					if (distance > 0) {
+						ratios += MLMath.squaredDistance(vectors.get(documents.get(i).getDocID()), vectors.get(documents.get(j).getDocID()))/distance;
+						pairs++;
+					}
+				}
+			}
+			assertEquals(1.0d, ratios/pairs, 0.1d);
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRandomProjectionDensityThrows() {
+		new RandomProjection(8, 1.5d, 0L);
+	}
+}
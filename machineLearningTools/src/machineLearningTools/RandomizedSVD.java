@@ -0,0 +1,437 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * RandomizedSVD
+ *
+ * Truncated singular value decomposition of the document-feature matrix
+ * A of a Data object, for latent semantic analysis: each document is
+ * embedded as a dense vector of its coordinates along the top rank right
+ * singular vectors V of A, so A*V gives k-dimensional document vectors
+ * whose dot products and Euclidean distances approximate those of the
+ * documents. <br><br>
+ *
+ * The decomposition is randomized (Halko, Martinsson and Tropp): <br>
+ * 	range finder: Q = orth(A*G), for a Gaussian matrix G of rank + oversampling columns <br>
+ * 	power iterations: Q = orth(A*orth(A^T*Q)), sharpening the spectrum <br>
+ * 	small dense SVD: B = Q^T*A, and the eigenvectors U and eigenvalues S^2 of B*B^T give V = B^T*U*S^-1 <br><br>
+ *
+ * A is held as a SparseMatrix, and each product with it is one pass over
+ * its rows, split into blocks of rows among threads. A*X writes the rows
+ * of each block; A^T*X sums the outer products of each block into a
+ * partial result per block. Only dense matrices of rank + oversampling
+ * columns are kept, so memory is linear in documents and features. <br><br>
+ *
+ * Documents are projected by their values, so weighted documents are
+ * projected by their weights. Features unseen when decomposing are left
+ * out of projections.
+ *
+ * @see SparseMatrix
+ */
+public class RandomizedSVD {
+
+	// Singular values below this fraction of the largest have no component
+	private static final double TOLERANCE = 1e-12;
+	private static final int MAX_SWEEPS = 100;
+
+	private final Interner dictionary;
+	private final int rank;
+	private final double[] singularValues;
+	// Right singular vector of each rank, stored row-major with one row per feature ID
+	private final double[] components;
+
+	/**
+	 * Decompose the document-feature matrix of data with 10 oversampling
+	 * columns and 2 power iterations, using one thread per available
+	 * processor.
+	 *
+	 * @param data
+	 * @param rank number of dimensions of document vectors, at least 1
+	 * @param seed
+	 */
+	public RandomizedSVD(final Data data, final int rank, final long seed) {
+		this(data, rank, 10, 2, seed, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Decompose the document-feature matrix of data. rank is reduced to
+	 * the number of documents or features, if either is smaller.
+	 *
+	 * @param data
+	 * @param rank number of dimensions of document vectors, at least 1
+	 * @param oversampling extra columns of the range finder, at least 0
+	 * @param powerIterations at least 0
+	 * @param seed
+	 * @param threads number of threads, at least 1
+	 */
+	public RandomizedSVD(final Data data, final int rank, final int oversampling, final int powerIterations, final long seed, final int threads) {
+		if (data == null) {
+			throw new NullPointerException("RandomizedSVD constructor received a null parameter: data!");
+		}
+		if (rank < 1 || oversampling < 0 || powerIterations < 0 || threads < 1) {
+			throw new IllegalArgumentException("RandomizedSVD requires rank and threads of at least 1, and oversampling and powerIterations of at least 0;");
+		}
+		List<Document> documents = data.getDocs();
+		Collections.sort(documents);
+		this.dictionary = new Interner();
+		SparseMatrix matrix = new SparseMatrix(documents, this.dictionary, true);
+		int columns = matrix.columns();
+		int width = Math.min(rank+oversampling, Math.min(matrix.rows(), columns));
+		this.rank = Math.min(rank, width);
+		this.singularValues = new double[this.rank];
+		this.components = new double[columns*this.rank];
+		if (this.rank == 0) {
+			return;
+		}
+		ExecutorService executor = (threads > 1) ? Executors.newFixedThreadPool(threads) : null;
+		try {
+			// Range finder
+			Random random = new Random(seed);
+			double[] gaussian = new double[columns*width];
+			for (int i = 0; i < gaussian.length; i++) {
+				gaussian[i] = random.nextGaussian();
+			}
+			double[] range = RandomizedSVD.multiply(matrix, gaussian, width, executor, threads);
+			RandomizedSVD.orthonormalize(range, matrix.rows(), width);
+			// Power iterations
+			double[] transposed;
+			for (int iteration = 0; iteration < powerIterations; iteration++) {
+				transposed = RandomizedSVD.multiplyTranspose(matrix, range, width, executor, threads);
+				RandomizedSVD.orthonormalize(transposed, columns, width);
+				range = RandomizedSVD.multiply(matrix, transposed, width, executor, threads);
+				RandomizedSVD.orthonormalize(range, matrix.rows(), width);
+			}
+			// B^T = A^T*Q, and B*B^T
+			double[] small = RandomizedSVD.multiplyTranspose(matrix, range, width, executor, threads);
+			double[][] gram = new double[width][width];
+			int offset;
+			for (int feature = 0; feature < columns; feature++) {
+				offset = feature*width;
+				for (int i = 0; i < width; i++) {
+					for (int j = i; j < width; j++) {
+						gram[i][j] += small[offset+i]*small[offset+j];
+					}
+				}
+			}
+			for (int i = 0; i < width; i++) {
+				for (int j = 0; j < i; j++) {
+					gram[i][j] = gram[j][i];
+				}
+			}
+			double[][] vectors = new double[width][width];
+			double[] values = RandomizedSVD.eigen(gram, vectors);
+			// V = B^T*U*S^-1 for the largest eigenvalues
+			boolean[] used = new boolean[width];
+			int best;
+			double largest = 0.0d;
+			double sum;
+			for (int c = 0; c < this.rank; c++) {
+				best = -1;
+				for (int i = 0; i < width; i++) {
+					if (!used[i] && (best < 0 || values[i] > values[best])) {
+						best = i;
+					}
+				}
+				used[best] = true;
+				this.singularValues[c] = Math.sqrt(Math.max(values[best], 0.0d));
+				largest = Math.max(largest, this.singularValues[c]);
+				if (this.singularValues[c] <= RandomizedSVD.TOLERANCE*largest || this.singularValues[c] == 0) {
+					continue;
+				}
+				for (int feature = 0; feature < columns; feature++) {
+					sum = 0.0d;
+					for (int i = 0; i < width; i++) {
+						sum += small[feature*width+i]*vectors[i][best];
+					}
+					this.components[feature*this.rank+c] = sum/this.singularValues[c];
+				}
+			}
+		} finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Project the given document onto the right singular vectors.
+	 *
+	 * @param document
+	 * @return document vector of getRank() values
+	 */
+	public float[] project(final Document document) {
+		if (document == null) {
+			throw new NullPointerException("RandomizedSVD#project received a null parameter: document!");
+		}
+		double[] sums = new double[this.rank];
+		int id;
+		double value;
+		for (String feature: document.getFeatures()) {
+			id = this.dictionary.getID(feature);
+			if (id < 0) {
+				continue;
+			}
+			value = document.getFeatValue(feature);
+			for (int c = 0; c < this.rank; c++) {
+				sums[c] += value*this.components[id*this.rank+c];
+			}
+		}
+		float[] result = new float[this.rank];
+		for (int c = 0; c < this.rank; c++) {
+			result[c] = (float) sums[c];
+		}
+		return result;
+	}
+
+	/**
+	 * Project every document of data, splitting the documents
+	 * among the given number of threads.
+	 *
+	 * @param data
+	 * @param threads number of threads, at least 1
+	 * @return document vector of each document by document ID
+	 */
+	public HashMap<Integer, float[]> project(final Data data, final int threads) {
+		if (data == null) {
+			throw new NullPointerException("RandomizedSVD#project received a null parameter: data!");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("RandomizedSVD#project requires at least 1 thread;");
+		}
+		final ArrayList<Document> documents = data.getDocs();
+		HashMap<Integer, float[]> result = new HashMap<Integer, float[]>((int)(documents.size()/0.75f) + 1);
+		if (threads == 1 || documents.size() < 2) {
+			for (Document document: documents) {
+				result.put(document.getDocID(), this.project(document));
+			}
+			return result;
+		}
+		List<HashMap<Integer, float[]>> chunks = Util.runChunks(documents, threads, new Util.ChunkTask<Document, HashMap<Integer, float[]>>() {
+			@Override
+			HashMap<Integer, float[]> call(final List<Document> chunk, final int start) {
+				HashMap<Integer, float[]> vectors = new HashMap<Integer, float[]>((int)(chunk.size()/0.75f) + 1);
+				for (Document document: chunk) {
+					vectors.put(document.getDocID(), RandomizedSVD.this.project(document));
+				}
+				return vectors;
+			}
+		}, "RandomizedSVD#project");
+		for (HashMap<Integer, float[]> vectors: chunks) {
+			result.putAll(vectors);
+		}
+		return result;
+	}
+
+	/**
+	 * Project every document of data using one thread per available processor.
+	 *
+	 * @param data
+	 * @return document vector of each document by document ID
+	 */
+	public HashMap<Integer, float[]> project(final Data data) {
+		return this.project(data, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Return the singular values, largest first.
+	 *
+	 * @return singular values
+	 */
+	public double[] getSingularValues() {
+		return this.singularValues.clone();
+	}
+
+	/**
+	 * @return number of dimensions of document vectors
+	 */
+	public int getRank() {
+		return this.rank;
+	}
+
+	/**
+	 * @return features of the decomposed documents
+	 */
+	public Interner getDictionary() {
+		return this.dictionary;
+	}
+
+	/**
+	 * Return A*dense, for a dense matrix of width values per column
+	 * of A, as a dense matrix of width values per row of A.
+	 */
+	private static double[] multiply(final SparseMatrix matrix, final double[] dense, final int width, final ExecutorService executor, final int threads) {
+		final double[] result = new double[matrix.rows()*width];
+		ArrayList<Callable<double[]>> tasks = new ArrayList<Callable<double[]>>(threads);
+		int blockSize = Math.max((matrix.rows()+threads-1)/threads, 1);
+		for (int start = 0; start < matrix.rows(); start += blockSize) {
+			final int first = start;
+			final int last = Math.min(start+blockSize, matrix.rows());
+			tasks.add(new Callable<double[]>() {
+				@Override
+				public double[] call() {
+					// Blocks write disjoint rows
+					for (int row = first; row < last; row++) {
+						matrix.multiply(row, dense, width, result, row*width);
+					}
+					return result;
+				}
+			});
+		}
+		Util.run(tasks, executor, "RandomizedSVD");
+		return result;
+	}
+
+	/**
+	 * Return A^T*dense, for a dense matrix of width values per row
+	 * of A, as a dense matrix of width values per column of A.
+	 */
+	private static double[] multiplyTranspose(final SparseMatrix matrix, final double[] dense, final int width, final ExecutorService executor, final int threads) {
+		ArrayList<Callable<double[]>> tasks = new ArrayList<Callable<double[]>>(threads);
+		int blockSize = Math.max((matrix.rows()+threads-1)/threads, 1);
+		for (int start = 0; start < matrix.rows(); start += blockSize) {
+			final int first = start;
+			final int last = Math.min(start+blockSize, matrix.rows());
+			tasks.add(new Callable<double[]>() {
+				@Override
+				public double[] call() {
+					double[] partial = new double[matrix.columns()*width];
+					for (int row = first; row < last; row++) {
+						matrix.multiplyTranspose(row, dense, row*width, width, partial);
+					}
+					return partial;
+				}
+			});
+		}
+		double[] result = null;
+		for (double[] partial: Util.run(tasks, executor, "RandomizedSVD")) {
+			if (result == null) {
+				result = partial;
+				continue;
+			}
+			for (int i = 0; i < result.length; i++) {
+				result[i] += partial[i];
+			}
+		}
+		return (result == null) ? new double[matrix.columns()*width] : result;
+	}
+
+	/**
+	 * Orthonormalize the columns of a dense matrix of width values
+	 * per row, in place, by modified Gram-Schmidt with one pass of
+	 * reorthogonalization. Columns dependent on the columns before
+	 * them are set to 0.
+	 */
+	private static void orthonormalize(final double[] matrix, final int rows, final int width) {
+		double original;
+		double norm;
+		double dot;
+		for (int j = 0; j < width; j++) {
+			original = RandomizedSVD.columnNorm(matrix, rows, width, j);
+			for (int pass = 0; pass < 2; pass++) {
+				for (int p = 0; p < j; p++) {
+					dot = 0.0d;
+					for (int i = 0; i < rows; i++) {
+						dot += matrix[i*width+p]*matrix[i*width+j];
+					}
+					for (int i = 0; i < rows; i++) {
+						matrix[i*width+j] -= dot*matrix[i*width+p];
+					}
+				}
+			}
+			norm = RandomizedSVD.columnNorm(matrix, rows, width, j);
+			for (int i = 0; i < rows; i++) {
+				matrix[i*width+j] = (norm > RandomizedSVD.TOLERANCE*original) ? matrix[i*width+j]/norm : 0.0d;
+			}
+		}
+	}
+
+	/**
+	 * Return the Euclidean norm of column j of a dense matrix
+	 * of width values per row.
+	 */
+	private static double columnNorm(final double[] matrix, final int rows, final int width, final int j) {
+		double result = 0.0d;
+		for (int i = 0; i < rows; i++) {
+			result += matrix[i*width+j]*matrix[i*width+j];
+		}
+		return Math.sqrt(result);
+	}
+
+	/**
+	 * Return the eigenvalues of the symmetric matrix a by the cyclic
+	 * Jacobi method, writing the eigenvector of each to the matching
+	 * column of vectors. a is diagonalized in place.
+	 */
+	private static double[] eigen(final double[][] a, final double[][] vectors) {
+		int n = a.length;
+		for (int i = 0; i < n; i++) {
+			vectors[i][i] = 1.0d;
+		}
+		double off;
+		double total;
+		double theta;
+		double t;
+		double c;
+		double s;
+		double x;
+		double y;
+		for (int sweep = 0; sweep < RandomizedSVD.MAX_SWEEPS; sweep++) {
+			off = 0.0d;
+			total = 0.0d;
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					total += a[i][j]*a[i][j];
+					if (i != j) {
+						off += a[i][j]*a[i][j];
+					}
+				}
+			}
+			if (off <= 1e-30*total) {
+				break;
+			}
+			for (int p = 0; p < n; p++) {
+				for (int q = p+1; q < n; q++) {
+					if (a[p][q] == 0.0d) {
+						continue;
+					}
+					// Rotate to zero a[p][q]
+					theta = (a[q][q] - a[p][p])/(2*a[p][q]);
+					t = ((theta >= 0) ? 1.0d : -1.0d)/(Math.abs(theta) + Math.sqrt(theta*theta + 1));
+					c = 1.0d/Math.sqrt(t*t + 1);
+					s = t*c;
+					for (int k = 0; k < n; k++) {
+						x = a[k][p];
+						y = a[k][q];
+						a[k][p] = c*x - s*y;
+						a[k][q] = s*x + c*y;
+					}
+					for (int k = 0; k < n; k++) {
+						x = a[p][k];
+						y = a[q][k];
+						a[p][k] = c*x - s*y;
+						a[q][k] = s*x + c*y;
+					}
+					for (int k = 0; k < n; k++) {
+						x = vectors[k][p];
+						y = vectors[k][q];
+						vectors[k][p] = c*x - s*y;
+						vectors[k][q] = s*x + c*y;
+					}
+				}
+			}
+		}
+		double[] result = new double[n];
+		for (int i = 0; i < n; i++) {
+			result[i] = a[i][i];
+		}
+		return result;
+	}
+}
@@ -0,0 +1,120 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RandomizedSVDTest {
+
+	// Parameters
+	private final String trainingFile = testFile("example.real.vectors.txt");
+
+	// Variables
+	private Data data;
+
+	@Before
+	public void setupData() {
+		this.data = new RealValuedData(this.trainingFile);
+	}
+
+	/**
+	 * Return the dot product of two documents.
+	 */
+	private double dot(final Document first, final Document second) {
+		double result = 0.0d;
+		for (String feature: first.getFeatures()) {
+			result += first.getFeatValue(feature)*second.getFeatValue(feature);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the dot product of two document vectors.
+	 */
+	private double dot(final float[] first, final float[] second) {
+		double result = 0.0d;
+		for (int i = 0; i < first.length; i++) {
+			result += first[i]*second[i];
+		}
+		return result;
+	}
+
+	/**
+	 * At full rank, the singular vectors span every document, so
+	 * document vectors keep every dot product of the documents.
+	 */
+	@Test
+	public void testRandomizedSVDFullRank() {
+		RandomizedSVD svd = new RandomizedSVD(this.data, 20, 5, 2, 3L, 2);
+		// 7 features
+		assertEquals(7, svd.getRank());
+		HashMap<Integer, float[]> vectors = svd.project(this.data, 3);
+		ArrayList<Document> documents = this.data.getDocs();
+		double expected;
+		for (Document first: documents) {
+			for (Document second: documents) {
+				expected = this.dot(first, second);
+				assertEquals(expected, this.dot(vectors.get(first.getDocID()), vectors.get(second.getDocID())), 1e-4*Math.max(1.0d, Math.abs(expected)));
+			}
+		}
+		// The squared singular values sum to the squared Frobenius norm
+		double frobenius = 0.0d;
+		for (Document document: documents) {
+			frobenius += this.dot(document, document);
+		}
+		double sum = 0.0d;
+		double[] values = svd.getSingularValues();
+		for (int i = 0; i < values.length; i++) {
+			assertTrue(values[i] >= 0);
+			assertTrue(i == 0 || values[i] <= values[i-1]);
+			sum += values[i]*values[i];
+		}
+		assertEquals(frobenius, sum, 1e-6*frobenius);
+	}
+
+	@Test
+	public void testRandomizedSVDSingularValues() throws Exception {
+		File corpusFile = File.createTempFile("svd", ".vectors.txt");
+		FileWriter writer = new FileWriter(corpusFile);
+		writer.write("a x:3\nb y:4\nb y:4\n");
+		writer.close();
+		Data diagonal = new RealValuedData(corpusFile.getPath());
+		corpusFile.delete();
+		RandomizedSVD svd = new RandomizedSVD(diagonal, 1, 0, 0, 1L, 1);
+		// One column of the range finder still finds the largest value with power iterations
+		assertEquals(1, svd.getRank());
+		svd = new RandomizedSVD(diagonal, 2, 1L);
+		assertArrayEquals(new double[]{Math.sqrt(32), 3}, svd.getSingularValues(), 1e-9);
+		assertEquals(3.0d, Math.abs(svd.project(diagonal.getDoc(0))[1]), 1e-5);
+		assertEquals(0.0d, svd.project(diagonal.getDoc(0))[0], 1e-5);
+	}
+
+	@Test
+	public void testRandomizedSVDDeterministic() {
+		RandomizedSVD svd = new RandomizedSVD(this.data, 3, 4, 1, 9L, 1);
+		RandomizedSVD parallel = new RandomizedSVD(this.data, 3, 4, 1, 9L, 4);
+		assertArrayEquals(svd.getSingularValues(), parallel.getSingularValues(), 1e-9);
+		HashMap<Integer, float[]> vectors = svd.project(this.data, 1);
+		HashMap<Integer, float[]> parallelVectors = parallel.project(this.data, 2);
+		assertEquals(this.data.size(), vectors.size());
+		for (Integer id: vectors.keySet()) {
+			assertEquals(3, vectors.get(id).length);
+			assertArrayEquals(vectors.get(id), parallelVectors.get(id), 1e-4f);
+			assertArrayEquals(vectors.get(id), svd.project(this.data.getDoc(id)), 0.0f);
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRandomizedSVDThrows() {
+		new RandomizedSVD(this.data, 0, 1L);
+	}
+}
@@ -3,8 +3,10 @@ package machineLearningTools;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -32,10 +34,54 @@ public class RealValuedData extends Data {
 		super(trainingDataJSON);
 	}
 
+	public RealValuedData(JSONDocumentReader reader) {
+		super(reader);
+	}
+
+	public RealValuedData(final String trainingDataFileName, final FeatureHasher hasher) {
+		super(trainingDataFileName, hasher);
+	}
+
+	public RealValuedData(final JSONDocumentReader reader, final FeatureHasher hasher) {
+		super(reader, hasher);
+	}
+
+	public RealValuedData(final String trainingDataFileName, final FeatureHasher hasher, final DocumentFilter filter) {
+		super(trainingDataFileName, hasher, filter);
+	}
+
+	public RealValuedData(final JSONDocumentReader reader, final FeatureHasher hasher, final DocumentFilter filter) {
+		super(reader, hasher, filter);
+	}
+
 	RealValuedData() {
 		super();
 	}
 
+	RealValuedData(final Data data, final Collection<Integer> docIDs) {
+		super(data, docIDs);
+	}
+
+	RealValuedData(final Data data, final Interner dictionary) {
+		super(data, dictionary);
+	}
+
+	/**
+	 * @see machineLearningTools.Data#subset(java.util.Collection)
+	 */
+	@Override
+	public RealValuedData subset(final Collection<Integer> docIDs) {
+		return new RealValuedData(this, docIDs);
+	}
+
+	/**
+	 * @see machineLearningTools.Data#prune(machineLearningTools.Interner)
+	 */
+	@Override
+	public RealValuedData prune(final Interner dictionary) {
+		return new RealValuedData(this, dictionary);
+	}
+
 	/**
 	 * Read in a file of documents,
 	 * each specified with a label and a set of features
@@ -51,8 +97,10 @@ public class RealValuedData extends Data {
 			BufferedReader reader = new BufferedReader(new FileReader(dataFileName));
 			RealValuedDocument doc;
 			while ((lineString = reader.readLine()) != null) {
-				doc = new RealValuedDocument(lineString);
-				result.put(doc.getDocID(), doc);
+				doc = new RealValuedDocument(lineString, this.getFeatureHasher());
+				if (this.accept(doc)) {
+					result.put(doc.getDocID(), doc);
+				}
 			}
 			reader.close();
 		} catch (IOException e) {
@@ -75,9 +123,13 @@ public class RealValuedData extends Data {
 		HashMap<Integer, Document> result = new HashMap<Integer, Document>();
 		String key;
 		RealValuedDocument doc;
-		for (int i=0; i<json.names().length(); i++) {
+		JSONArray names = json.names();
+		if (names == null) {
+			return result;
+		}
+		for (int i=0; i<names.length(); i++) {
 			try {
-				key = json.names().getString(i);
+				key = names.getString(i);
 				doc = new RealValuedDocument(json.getJSONObject(key), key);
 				result.put(doc.getDocID(), doc);
 			} catch (JSONException e) {
@@ -86,4 +138,34 @@ public class RealValuedData extends Data {
 		}
 		return result;
 	}
+
+	/**
+	 * Read in a stream of JSON documents one document at a time,
+	 * each specified with a label and a set of features
+	 *
+	 * @param reader
+	 */
+	@Override
+	protected HashMap<Integer, Document> readDataFromJSON(final JSONDocumentReader reader) {
+		Document.initialize();
+		HashMap<Integer, Document> result = new HashMap<Integer, Document>();
+		RealValuedDocument doc;
+		try {
+			try {
+				while (reader.next()) {
+					doc = new RealValuedDocument(reader, this.getFeatureHasher());
+					if (this.accept(doc)) {
+						result.put(doc.getDocID(), doc);
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.err.println("Error reading data from JSON.");
+			System.exit(1);
+		}
+		return result;
+	}
 }
\ No newline at end of file
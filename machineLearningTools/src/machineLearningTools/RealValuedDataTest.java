@@ -9,6 +9,8 @@ import static org.junit.Assert.fail;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -275,4 +277,37 @@ public class RealValuedDataTest {
 		assertEquals(this.test.goldData.getAllFeatures(), this.test.goldFeatures);
 	}
 
+
+	// precomputeMagnitudes tests
+
+	@Test
+	public void testRealValuedDataPrecomputeMagnitudes() {
+		RealValuedData data = new RealValuedData(this.testVectorFile);
+		RealValuedData gold = new RealValuedData(this.testVectorFile);
+		data.precomputeMagnitudes(4);
+		for (int id: data.getIDs()) {
+			assertTrue(MLMath.pseudoEqual(data.getDoc(id).getMagnitude(), gold.getDoc(id).getMagnitude()));
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRealValuedDataPrecomputeMagnitudesZeroThreadsThrows() {
+		new RealValuedData(this.testVectorFile).precomputeMagnitudes(0);
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testRealValuedDataGetDataUnmodifiable() {
+		RealValuedData data = new RealValuedData(this.testVectorFile);
+		data.getData().remove(data.getIDs().iterator().next());
+	}
+
+	@Test
+	public void testRealValuedDataSubsetLabelIDs() {
+		RealValuedData data = new RealValuedData(this.testVectorFile);
+		int id = Collections.max(data.getIDs());
+		Data subset = data.subset(Arrays.asList(id));
+		assertEquals(subset.getLabels().getID(data.getDoc(id).getLabel()), subset.getLabelID(id));
+		assertEquals(-1, subset.getLabelID(id-1));
+		assertEquals(-1, subset.getLabelID(-1));
+	}
 }
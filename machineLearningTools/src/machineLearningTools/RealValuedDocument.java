@@ -10,6 +10,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -38,6 +39,20 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 	 * @author T.J. Trimble
 	 */
 	protected RealValuedDocument(final String data, final boolean unstructuredFlag) {
+		this(data, (FeatureHasher) null, unstructuredFlag);
+	}
+
+	/**
+	 * Constructor for processing unstructured data. String is split
+	 * on whitespace and tokens are counted as hashed features.
+	 *
+	 * @param data Unstructured string to count on whitespace.
+	 * @param hasher FeatureHasher to hash tokens with, or null to count tokens
+	 * @param unstructuredFlag Pass as true to process data. Pass as false throws error.
+	 *
+	 * @see TokenCounter
+	 */
+	protected RealValuedDocument(final String data, final FeatureHasher hasher, final boolean unstructuredFlag) {
 		if (data == null) {
 			throw new NullPointerException();
 		}
@@ -46,7 +61,29 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 		}
 		this.docID = Document.docCount++;
 		this.label = "<unknown>";
-		this.features = new TokenCounter(data);
+		this.features = (hasher == null) ? new TokenCounter(data) : new TokenCounter(data, hasher);
+	}
+
+	/**
+	 * Constructor for processing unstructured data. The n-grams of
+	 * the string are counted by the given NGramExtractor.
+	 *
+	 * @param data Unstructured string to count the n-grams of.
+	 * @param extractor NGramExtractor to count n-grams with
+	 * @param unstructuredFlag Pass as true to process data. Pass as false throws error.
+	 *
+	 * @see NGramExtractor
+	 */
+	protected RealValuedDocument(final String data, final NGramExtractor extractor, final boolean unstructuredFlag) {
+		if (data == null || extractor == null) {
+			throw new NullPointerException();
+		}
+		if (unstructuredFlag == false) {
+			throw new IllegalArgumentException("To process structured data in the Document constructor, do not pass in a boolean parameter. To process unstructured data, the boolean parameter must be true.");
+		}
+		this.docID = Document.docCount++;
+		this.label = "<unknown>";
+		this.features = new TokenCounter(data, extractor);
 	}
 
 	/**
@@ -56,6 +93,18 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 	 *
 	 */
 	protected RealValuedDocument(final String data) {
+		this(data, (FeatureHasher) null);
+	}
+
+	/**
+	 * Read in a String with a label and a set of words and
+	 * create a Document object of their hashed features. <br>
+	 * Words are not checked for uniqueness, as they are not kept.
+	 *
+	 * @param data
+	 * @param hasher FeatureHasher to hash words with, or null to keep words
+	 */
+	protected RealValuedDocument(final String data, final FeatureHasher hasher) {
 		if (data == null) {
 			throw new NullPointerException("Parameter data null at RealValuedDocument constructor.");
 		}
@@ -76,7 +125,7 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 			}
 			word = valuePart[0];
 			count = 0;
-			if (this.features.containsKey(word)) {
+			if (hasher == null && this.features.containsKey(word)) {
 				throw new IllegalArgumentException(String.format("Vector %s contains a non-unique word->count pairing. %s", data, RealValuedDocument.unstructuredError));
 			}
 			try {
@@ -84,7 +133,12 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 			} catch (NumberFormatException e) {
 				throw new NumberFormatException(String.format("Value %s in Document constructor failed to generate an integer representation.", value));
 			}
-			this.features.put(word, count);
+			if (hasher == null) {
+				this.features.put(word, count);
+			}
+			else {
+				hasher.add(this.features, word, count);
+			}
 		}
 	}
 
@@ -110,8 +164,9 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 			throw new NullPointerException();
 		}
 		JSONObject json;
+		JSONArray names;
 		String feature;
-		Integer value;
+		Object value;
 		this.features = new HashMap<String, Integer>();
 		// Get docID
 		this.docID = Integer.parseInt(key);
@@ -131,12 +186,19 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 		if (jsonObject.has("features")) {
 			try {
 				json = jsonObject.getJSONObject("features");
-				if (json.names() != null) {
-					for (int i=0; i<json.names().length(); i++) {
-						feature = json.names().getString(i);
+				names = json.names();
+				if (names != null) {
+					for (int i=0; i<names.length(); i++) {
+						feature = names.getString(i);
 						if (feature != null) {
-							value = (json.getString(feature) != null) ? Integer.parseInt(json.getString(feature)) : 1;
-							this.features.put(feature, value);
+							// Counts may be numbers or strings
+							value = json.opt(feature);
+							if (value instanceof Number) {
+								this.features.put(feature, ((Number)value).intValue());
+							}
+							else {
+								this.features.put(feature, (value instanceof String) ? Integer.parseInt((String)value) : 1);
+							}
 						}
 					}
 				}
@@ -149,6 +211,60 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 		}
 	}
 
+	/**
+	 * Read in the current document of a JSONDocumentReader. <br>
+	 * The reader's feature and label Strings are used directly.
+	 *
+	 * @param reader positioned on a document by JSONDocumentReader#next()
+	 */
+	protected RealValuedDocument(final JSONDocumentReader reader) {
+		this(reader, null);
+	}
+
+	/**
+	 * Read in the current document of a JSONDocumentReader as
+	 * hashed features. <br>
+	 * Features are not checked for uniqueness, as they are not kept.
+	 *
+	 * @param reader positioned on a document by JSONDocumentReader#next()
+	 * @param hasher FeatureHasher to hash features with, or null to keep features
+	 */
+	protected RealValuedDocument(final JSONDocumentReader reader, final FeatureHasher hasher) {
+		if (reader == null) {
+			throw new NullPointerException("RealValuedDocument constructor received a null parameter: reader!");
+		}
+		this.docID = reader.getDocID();
+		this.label = reader.getLabel();
+		int size = reader.size();
+		this.features = new HashMap<String, Integer>((int)(size/0.75f) + 1);
+		for (int i = 0; i < size; i++) {
+			if (hasher != null) {
+				hasher.add(this.features, reader.getFeature(i), reader.getCount(i));
+			}
+			else if (this.features.put(reader.getFeature(i), reader.getCount(i)) != null) {
+				throw new IllegalArgumentException(String.format("Document %d contains a non-unique word->count pairing.", this.docID));
+			}
+		}
+	}
+
+	/**
+	 * Copy the given document, keeping only the features in dictionary.
+	 *
+	 * @param document
+	 * @param dictionary features to keep
+	 */
+	protected RealValuedDocument(final RealValuedDocument document, final Interner dictionary) {
+		this.docID = document.docID;
+		this.label = document.label;
+		this.features = new HashMap<String, Integer>();
+		for (Map.Entry<String, Integer> entry: document.features.entrySet()) {
+			if (dictionary.contains(entry.getKey())) {
+				this.features.put(entry.getKey(), entry.getValue());
+			}
+		}
+		this.values = Document.copyValues(document, this.features.keySet());
+	}
+
 	/**
 	 * For creating copies of documents.
 	 *
@@ -159,6 +275,7 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 		Document.docCount++;
 		this.label = document.label;
 		this.features = new HashMap<String, Integer>(document.getFeatureCounts());
+		this.values = Document.copyValues(document, this.features.keySet());
 	}
 
 	/**
@@ -169,13 +286,18 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 	 * @return the magnitude of this document object
 	 */
 	@Override
-	public Double getMagnitude() {
-		if (this.magnitude == null) {
-			this.magnitude = 0.0d;
-			for (String feature: this.features.keySet()) {
-				this.magnitude += Math.pow(this.getFeatCount(feature), 2);
+	public double getMagnitude() {
+		if (this.magnitude < 0 && this.values != null) {
+			this.magnitude = this.getValueMagnitude();
+		}
+		if (this.magnitude < 0) {
+			double sumOfSquares = 0.0d;
+			double count;
+			for (Integer value: this.features.values()) {
+				count = value;
+				sumOfSquares += count*count;
 			}
-			this.magnitude = Math.sqrt(this.magnitude);
+			this.magnitude = Math.sqrt(sumOfSquares);
 		}
 		return this.magnitude;
 	}
@@ -255,6 +377,9 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 	 */
 	@Override
 	public Double getLabelProb(final String systemLabel) {
+		if (this.probabilities != null) {
+			return super.getLabelProb(systemLabel);
+		}
 		if (this.labelProbs == null) {
 			System.err.println("Trying to access label probabilities with getLabelProb() before setting system output");
 			System.err.println(String.format("docID: %s; trueLabel: %s; systemOutput: %s", this.docID, this.label, systemLabel));
@@ -281,14 +406,8 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 		if (feature == null) {
 			throw new NullPointerException("feature parameter is null at Document#getFeatCount(systemLabel)");
 		}
-		int result;
-		try {
-			result = this.features.get(feature);
-		}
-		catch (NullPointerException e) {
-			result = 0;
-		}
-		return result;
+		Integer result = this.features.get(feature);
+		return (result == null) ? 0 : result;
 	}
 
 	/**
@@ -393,6 +512,17 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 		return this.features.size();
 	}
 
+	/**
+	 * @see machineLearningTools.Document#prune(machineLearningTools.Interner)
+	 */
+	@Override
+	public RealValuedDocument prune(final Interner dictionary) {
+		if (dictionary == null) {
+			throw new NullPointerException("RealValuedDocument#prune received a null parameter: dictionary!");
+		}
+		return new RealValuedDocument(this, dictionary);
+	}
+
 	/**
 	 * Sort documents based on document IDs,
 	 * which is, sort documents based on their order
@@ -426,9 +556,9 @@ public class RealValuedDocument extends Document implements Comparable<Document>
 	public String getFormattedSystemOutput(boolean convertLogProbabilities) {
 		// Sort classes by probabilities
 		// Return sorted classes
-		StringBuilder stringBuilder = new StringBuilder(this.labelProbs.size()+1);
+		StringBuilder stringBuilder = new StringBuilder(this.getLabelProbs().size()+1);
 		stringBuilder.append(String.format("Document:%s %s", this.docID, this.label));
-		Map<String, Double> probabilities = new HashMap<String, Double>(this.labelProbs);
+		Map<String, Double> probabilities = new HashMap<String, Double>(this.getLabelProbs());
 		// Convert log probs
 		if (convertLogProbabilities) {
 			for (String label: probabilities.keySet()) {
@@ -499,4 +499,32 @@ public class RealValuedDocumentTest {
 		this.testDocument = new RealValuedDocument(this.testDocumentRealString);
 		assertTrue(pseudoEqual(this.testDocument.getMagnitude(), this.goldMagnitude));
 	}
+
+	@Test
+	public void testRealValuedDocumentSetSysOutputByLabelID() {
+		this.testDocument = new RealValuedDocument(this.testDocumentRealString);
+		Interner labels = new Interner(Arrays.asList(new String[]{"a", "b", "c"}));
+		this.testDocument.setSysOutput(labels, new double[]{-3.0d, -1.0d, -1.0d});
+		// The first of equal maxima wins
+		assertEquals("b", this.testDocument.getSysOutput());
+		assertEquals(-3.0d, this.testDocument.getLabelProb("a"), 0.0d);
+		assertEquals(0.0d, this.testDocument.getLabelProb("unseen"), 0.0d);
+		assertEquals(Arrays.asList(new String[]{"a", "b", "c"}), new ArrayList<String>(this.testDocument.getLabelProbs().keySet()));
+		// Changing the returned map does not change the document
+		this.testDocument.getLabelProbs().put("a", 0.0d);
+		assertEquals(-3.0d, this.testDocument.getLabelProbs().get("a"), 0.0d);
+		assertEquals(String.format("Document:%s %s b 0.1 c 0.1 a 0.001", this.testDocument.getDocID(), this.testDocument.getLabel()), this.testDocument.getFormattedSystemOutput(true));
+		// Setting probabilities by label replaces the label ID probabilities
+		HashMap<String, Double> probabilities = new HashMap<String, Double>();
+		probabilities.put("a", 0.25d);
+		this.testDocument.setSysOutput(probabilities);
+		assertTrue(this.testDocument.getLabelProbabilities() == null);
+		assertEquals(probabilities, this.testDocument.getLabelProbs());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRealValuedDocumentSetSysOutputMismatchedLabelsThrows() {
+		this.testDocument = new RealValuedDocument(this.testDocumentRealString);
+		this.testDocument.setSysOutput(new Interner(Arrays.asList(new String[]{"a", "b"})), new double[]{0.5d});
+	}
 }
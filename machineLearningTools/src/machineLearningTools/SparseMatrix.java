@@ -0,0 +1,437 @@
+package machineLearningTools;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SparseMatrix
+ *
+ * Compressed sparse row (CSR) representation of a list of Documents,
+ * where each row is a Document and each column is a feature ID assigned
+ * by an Interner. <br><br>
+ *
+ * Row r holds the features of the r-th Document in columns[rowPointers[r]]
+ * through columns[rowPointers[r+1]-1], sorted by column, with the feature
+ * values in the same positions of values. The Document ID and magnitude
+ * of each row are stored alongside. <br><br>
+ *
+ * Magnitudes are taken from Document#getMagnitude(), so features dropped
+ * because they are unknown to the Interner still count towards the norm
+ * of the row. <br><br>
+ *
+ * For Cosine similarity, a matrix can be L2-normalized once with
+ * normalize(), after which the Cosine similarity of two normalized rows
+ * is their dot product.
+ */
+public class SparseMatrix {
+
+	private final int[] rowPointers;
+	private final int[] columns;
+	private final double[] values;
+	private final double[] norms;
+	private final int[] rowIDs;
+	private final int columnCount;
+	private final boolean normalized;
+
+	/**
+	 * Build a SparseMatrix with one row per Document, in list order. <br><br>
+	 *
+	 * If addFeatures is true, features missing from the features Interner
+	 * are interned. Otherwise, they are left out of the matrix.
+	 *
+	 * @param documents
+	 * @param features
+	 * @param addFeatures
+	 */
+	public SparseMatrix(final List<Document> documents, final Interner features, final boolean addFeatures) {
+		if (documents == null || features == null) {
+			throw new NullPointerException("SparseMatrix constructor received a null parameter!");
+		}
+		int nonZeros = 0;
+		for (Document document: documents) {
+			nonZeros += document.size();
+		}
+		this.rowPointers = new int[documents.size()+1];
+		this.norms = new double[documents.size()];
+		this.rowIDs = new int[documents.size()];
+		int[] columns = new int[nonZeros];
+		double[] values = new double[nonZeros];
+		// Reused per row to sort columns, packed as (column << 32 | position)
+		long[] order = new long[0];
+		int[] rowColumns = new int[0];
+		double[] rowValues = new double[0];
+		int id;
+		int position = 0;
+		int row = 0;
+		int rowSize;
+		for (Document document: documents) {
+			if (document.size() > order.length) {
+				order = new long[document.size()];
+				rowColumns = new int[document.size()];
+				rowValues = new double[document.size()];
+			}
+			rowSize = 0;
+			for (String feature: document.getFeatures()) {
+				id = addFeatures ? features.intern(feature) : features.getID(feature);
+				if (id < 0) {
+					continue;
+				}
+				rowColumns[rowSize] = id;
+				rowValues[rowSize] = document.getFeatValue(feature);
+				order[rowSize] = (((long)id) << 32) | rowSize;
+				rowSize++;
+			}
+			Arrays.sort(order, 0, rowSize);
+			for (int i = 0; i < rowSize; i++) {
+				columns[position] = rowColumns[(int)order[i]];
+				values[position] = rowValues[(int)order[i]];
+				position++;
+			}
+			this.rowIDs[row] = document.getDocID();
+			this.norms[row] = document.getMagnitude();
+			row++;
+			this.rowPointers[row] = position;
+		}
+		this.columns = (position == nonZeros) ? columns : Arrays.copyOf(columns, position);
+		this.values = (position == nonZeros) ? values : Arrays.copyOf(values, position);
+		this.columnCount = features.size();
+		this.normalized = false;
+	}
+
+	/**
+	 * Construct a SparseMatrix from its arrays.
+	 */
+	private SparseMatrix(final int[] rowPointers, final int[] columns, final double[] values, final double[] norms, final int[] rowIDs, final int columnCount, final boolean normalized) {
+		this.rowPointers = rowPointers;
+		this.columns = columns;
+		this.values = values;
+		this.norms = norms;
+		this.rowIDs = rowIDs;
+		this.columnCount = columnCount;
+		this.normalized = normalized;
+	}
+
+	/**
+	 * Return a copy of this matrix with each row divided by its magnitude,
+	 * so every row has magnitude 1, or 0 if the row is empty. Rows with
+	 * features dropped by the Interner have magnitude below 1 within the
+	 * matrix, keeping their Cosine similarity to other rows unchanged. <br><br>
+	 *
+	 * The copy shares the structure of this matrix. Its rows are no longer
+	 * comparable by euclideanDistance.
+	 *
+	 * @return normalized copy of this matrix, or this matrix if it is already normalized
+	 */
+	public SparseMatrix normalize() {
+		if (this.normalized) {
+			return this;
+		}
+		double[] values = new double[this.values.length];
+		double[] norms = new double[this.norms.length];
+		double norm;
+		for (int row = 0; row < this.rows(); row++) {
+			norm = this.norms[row];
+			if (norm == 0) {
+				continue;
+			}
+			for (int i = this.rowPointers[row]; i < this.rowPointers[row+1]; i++) {
+				values[i] = this.values[i]/norm;
+			}
+			norms[row] = 1.0d;
+		}
+		return new SparseMatrix(this.rowPointers, this.columns, values, norms, this.rowIDs, this.columnCount, true);
+	}
+
+	/**
+	 * Return true iff this matrix was L2-normalized by normalize().
+	 *
+	 * @return true iff this matrix is normalized
+	 */
+	public boolean isNormalized() {
+		return this.normalized;
+	}
+
+	/**
+	 * Return the number of rows (Documents) in this matrix.
+	 *
+	 * @return number of rows
+	 */
+	public int rows() {
+		return this.rowIDs.length;
+	}
+
+	/**
+	 * Return the number of columns (features) in this matrix, which is
+	 * the size of the features Interner at construction.
+	 *
+	 * @return number of columns
+	 */
+	public int columns() {
+		return this.columnCount;
+	}
+
+	/**
+	 * Return the number of stored (non-zero) values in this matrix.
+	 *
+	 * @return number of stored values
+	 */
+	public int nonZeros() {
+		return this.columns.length;
+	}
+
+	/**
+	 * Return the Document ID of the given row.
+	 *
+	 * @param row
+	 * @return Document ID of row
+	 */
+	public int getRowID(final int row) {
+		return this.rowIDs[row];
+	}
+
+	/**
+	 * Return the magnitude of the Document in the given row.
+	 *
+	 * @param row
+	 * @return magnitude of row
+	 */
+	public double getNorm(final int row) {
+		return this.norms[row];
+	}
+
+	/**
+	 * Calculate the dot product of a row of this matrix and a row of
+	 * another matrix sharing the same features Interner.
+	 *
+	 * @param row
+	 * @param other
+	 * @param otherRow
+	 * @return dot product of the two rows
+	 */
+	public double dot(final int row, final SparseMatrix other, final int otherRow) {
+		int i = this.rowPointers[row];
+		int iEnd = this.rowPointers[row+1];
+		int j = other.rowPointers[otherRow];
+		int jEnd = other.rowPointers[otherRow+1];
+		double result = 0.0d;
+		while (i < iEnd && j < jEnd) {
+			if (this.columns[i] < other.columns[j]) {
+				i++;
+			}
+			else if (this.columns[i] > other.columns[j]) {
+				j++;
+			}
+			else {
+				result += this.values[i++] * other.values[j++];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Calculate the Cosine similarity of a row of this matrix and a row
+	 * of another matrix sharing the same features Interner. Returns 0
+	 * if either row has no magnitude. If both matrices are normalized,
+	 * this is their dot product.
+	 *
+	 * @param row
+	 * @param other
+	 * @param otherRow
+	 * @return Cosine similarity of the two rows
+	 * @see CosineSimilarity
+	 */
+	public double cosineSimilarity(final int row, final SparseMatrix other, final int otherRow) {
+		if (this.normalized && other.normalized) {
+			return this.dot(row, other, otherRow);
+		}
+		double norms = this.norms[row]*other.norms[otherRow];
+		if (norms == 0) {
+			return 0.0d;
+		}
+		return this.dot(row, other, otherRow)/norms;
+	}
+
+	/**
+	 * Calculate the distance between a row of this matrix and a row of
+	 * another matrix sharing the same features Interner, as the sum of
+	 * absolute differences used by EuclideanDistance. <br><br>
+	 *
+	 * Features dropped from either row add the same amount to its
+	 * distance from every other row, so rankings are unaffected.
+	 *
+	 * @param row
+	 * @param other
+	 * @param otherRow
+	 * @return distance between the two rows
+	 * @see EuclideanDistance
+	 */
+	public double euclideanDistance(final int row, final SparseMatrix other, final int otherRow) {
+		int i = this.rowPointers[row];
+		int iEnd = this.rowPointers[row+1];
+		int j = other.rowPointers[otherRow];
+		int jEnd = other.rowPointers[otherRow+1];
+		double result = 0.0d;
+		while (i < iEnd && j < jEnd) {
+			if (this.columns[i] < other.columns[j]) {
+				result += Math.abs(this.values[i++]);
+			}
+			else if (this.columns[i] > other.columns[j]) {
+				result += Math.abs(other.values[j++]);
+			}
+			else {
+				result += Math.abs(this.values[i++] - other.values[j++]);
+			}
+		}
+		while (i < iEnd) {
+			result += Math.abs(this.values[i++]);
+		}
+		while (j < jEnd) {
+			result += Math.abs(other.values[j++]);
+		}
+		return result;
+	}
+
+	/**
+	 * Multiply a row of this matrix by a dense matrix with one row of
+	 * width values per column, stored row-major in dense, writing the
+	 * width results to result. <br><br>
+	 *
+	 * result[j] = sum over the features i of row of value(i)*dense[column(i)*width + j]
+	 *
+	 * @param row
+	 * @param dense at least columns()*width values
+	 * @param width
+	 * @param result at least width values
+	 */
+	public void multiply(final int row, final float[] dense, final int width, final double[] result) {
+		Arrays.fill(result, 0, width, 0.0d);
+		int offset;
+		double value;
+		for (int i = this.rowPointers[row]; i < this.rowPointers[row+1]; i++) {
+			offset = this.columns[i]*width;
+			value = this.values[i];
+			for (int j = 0; j < width; j++) {
+				result[j] += value*dense[offset+j];
+			}
+		}
+	}
+
+	/**
+	 * Multiply a row of this matrix by a dense matrix with one row of
+	 * width values per column, stored row-major in dense, writing the
+	 * width results to result from resultOffset. <br><br>
+	 *
+	 * result[resultOffset + j] = sum over the features i of row of value(i)*dense[column(i)*width + j]
+	 *
+	 * @param row
+	 * @param dense at least columns()*width values
+	 * @param width
+	 * @param result
+	 * @param resultOffset
+	 */
+	public void multiply(final int row, final double[] dense, final int width, final double[] result, final int resultOffset) {
+		Arrays.fill(result, resultOffset, resultOffset+width, 0.0d);
+		int offset;
+		double value;
+		for (int i = this.rowPointers[row]; i < this.rowPointers[row+1]; i++) {
+			offset = this.columns[i]*width;
+			value = this.values[i];
+			for (int j = 0; j < width; j++) {
+				result[resultOffset+j] += value*dense[offset+j];
+			}
+		}
+	}
+
+	/**
+	 * Add the outer product of a row of this matrix and width values of
+	 * dense from denseOffset to a dense matrix with one row of width
+	 * values per column, stored row-major in result. Summed over every
+	 * row, this multiplies the transpose of this matrix by a dense matrix.
+	 * <br><br>
+	 *
+	 * result[column(i)*width + j] += value(i)*dense[denseOffset + j], for the features i of row
+	 *
+	 * @param row
+	 * @param dense
+	 * @param denseOffset
+	 * @param width
+	 * @param result at least columns()*width values
+	 */
+	public void multiplyTranspose(final int row, final double[] dense, final int denseOffset, final int width, final double[] result) {
+		int offset;
+		double value;
+		for (int i = this.rowPointers[row]; i < this.rowPointers[row+1]; i++) {
+			offset = this.columns[i]*width;
+			value = this.values[i];
+			for (int j = 0; j < width; j++) {
+				result[offset+j] += value*dense[denseOffset+j];
+			}
+		}
+	}
+
+	/**
+	 * Return true iff the first rows rows of this matrix hold the same
+	 * Document IDs, columns and values as the first rows rows of other.
+	 *
+	 * @param other
+	 * @param rows
+	 * @return true iff both matrices start with the same rows
+	 */
+	public boolean startsWith(final SparseMatrix other, final int rows) {
+		if (rows > this.rows() || rows > other.rows()) {
+			return false;
+		}
+		for (int row = 0; row < rows; row++) {
+			if (this.rowIDs[row] != other.rowIDs[row] || this.rowPointers[row+1] != other.rowPointers[row+1]) {
+				return false;
+			}
+		}
+		int end = this.rowPointers[rows];
+		for (int i = 0; i < end; i++) {
+			if (this.columns[i] != other.columns[i] || this.values[i] != other.values[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return a hash of the Document IDs, columns and values of every
+	 * row, e.g. to check that a saved index was built from this matrix.
+	 *
+	 * @return hash of the contents of this matrix
+	 */
+	public long fingerprint() {
+		long result = 1125899906842597L;
+		result = (31*result) + this.rows();
+		result = (31*result) + this.nonZeros();
+		for (int row = 0; row < this.rows(); row++) {
+			result = (31*result) + this.rowIDs[row];
+			result = (31*result) + this.rowPointers[row+1];
+		}
+		for (int i = 0; i < this.columns.length; i++) {
+			result = (31*result) + this.columns[i];
+			result = (31*result) + Double.doubleToLongBits(this.values[i]);
+		}
+		return result;
+	}
+
+	// Package-private accessors for similarity kernels
+
+	int[] getRowPointers() {
+		return this.rowPointers;
+	}
+
+	int[] getColumns() {
+		return this.columns;
+	}
+
+	double[] getValues() {
+		return this.values;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("<SparseMatrix %sx%s, %s non-zeros>", this.rows(), this.columns(), this.nonZeros());
+	}
+}
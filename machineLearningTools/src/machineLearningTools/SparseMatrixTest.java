@@ -0,0 +1,152 @@
+package machineLearningTools;
+
+import static machineLearningTools.MLMath.pseudoEqual;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SparseMatrixTest {
+
+	// Gold values
+	private final Document testDocument1 = new RealValuedDocument("label f2:3 f1:1");
+	private final Document testDocument2 = new RealValuedDocument("label f3:1 f4:5");
+	private final Document testDocument3 = new RealValuedDocument("label f1:3 f2:3 f3:3");
+	private final Document testDocument4 = new RealValuedDocument("label");
+	private final Document unknownDocument = new RealValuedDocument("label f1:2 f9:4");
+
+	// Variables
+	private Interner features;
+	private SparseMatrix matrix;
+
+	@Before
+	public void setupSparseMatrix() {
+		List<Document> documents = Arrays.asList(new Document[]{this.testDocument1, this.testDocument2, this.testDocument3, this.testDocument4});
+		this.features = new Interner();
+		this.matrix = new SparseMatrix(documents, this.features, true);
+	}
+
+	@Test
+	public void testSparseMatrixDimensions() {
+		assertEquals(4, this.matrix.rows());
+		assertEquals(4, this.matrix.columns());
+		assertEquals(7, this.matrix.nonZeros());
+	}
+
+	@Test
+	public void testSparseMatrixRowIDsAndNorms() {
+		assertEquals(this.testDocument2.getDocID(), this.matrix.getRowID(1));
+		assertTrue(pseudoEqual(this.matrix.getNorm(2), this.testDocument3.getMagnitude()));
+		assertTrue(pseudoEqual(this.matrix.getNorm(3), 0.0d));
+	}
+
+	@Test
+	public void testSparseMatrixColumnsSortedWithinRows() {
+		int[] rowPointers = this.matrix.getRowPointers();
+		int[] columns = this.matrix.getColumns();
+		for (int row = 0; row < this.matrix.rows(); row++) {
+			for (int i = rowPointers[row]+1; i < rowPointers[row+1]; i++) {
+				assertTrue(columns[i-1] < columns[i]);
+			}
+		}
+	}
+
+	@Test
+	public void testSparseMatrixDot() {
+		assertTrue(pseudoEqual(this.matrix.dot(0, this.matrix, 2), 12.0d));
+		assertTrue(pseudoEqual(this.matrix.dot(1, this.matrix, 2), 3.0d));
+		assertTrue(pseudoEqual(this.matrix.dot(0, this.matrix, 1), 0.0d));
+		assertTrue(pseudoEqual(this.matrix.dot(3, this.matrix, 3), 0.0d));
+	}
+
+	@Test
+	public void testSparseMatrixUnknownFeaturesDropped() {
+		SparseMatrix queries = new SparseMatrix(Arrays.asList(this.unknownDocument), this.features, false);
+		assertEquals(1, queries.nonZeros());
+		assertEquals(4, this.features.size());
+		// Dropped features still count towards the norm
+		assertTrue(pseudoEqual(queries.getNorm(0), this.unknownDocument.getMagnitude()));
+		assertTrue(pseudoEqual(queries.dot(0, this.matrix, 0), 2.0d));
+	}
+
+	@Test
+	public void testSparseMatrixMultiply() {
+		// Columns are f2, f1, f3, f4; two dense values per column
+		float[] dense = new float[]{1, 0, 0, 1, 1, 1, 2, -1};
+		double[] result = new double[2];
+		this.matrix.multiply(0, dense, 2, result);
+		assertTrue(pseudoEqual(result[0], 3.0d));
+		assertTrue(pseudoEqual(result[1], 1.0d));
+		this.matrix.multiply(1, dense, 2, result);
+		assertTrue(pseudoEqual(result[0], 11.0d));
+		assertTrue(pseudoEqual(result[1], -4.0d));
+	}
+
+	@Test
+	public void testSparseMatrixMultiplyTranspose() {
+		double[] dense = new double[]{1, 0, 0, 1, 1, 1, 2, -1};
+		double[] rows = new double[2*this.matrix.rows()];
+		for (int row = 0; row < this.matrix.rows(); row++) {
+			this.matrix.multiply(row, dense, 2, rows, 2*row);
+		}
+		assertTrue(pseudoEqual(rows[0], 3.0d));
+		assertTrue(pseudoEqual(rows[3], -4.0d));
+		// <A*D, Y> = <D, A^T*Y> for Y = A*D
+		double[] columns = new double[2*this.matrix.columns()];
+		for (int row = 0; row < this.matrix.rows(); row++) {
+			this.matrix.multiplyTranspose(row, rows, 2*row, 2, columns);
+		}
+		double first = 0.0d;
+		double second = 0.0d;
+		for (int i = 0; i < rows.length; i++) {
+			first += rows[i]*rows[i];
+		}
+		for (int i = 0; i < dense.length; i++) {
+			second += dense[i]*columns[i];
+		}
+		assertTrue(pseudoEqual(first, second));
+	}
+
+	@Test
+	public void testSparseMatrixStartsWith() {
+		List<Document> prefix = Arrays.asList(new Document[]{this.testDocument1, this.testDocument2});
+		List<Document> other = Arrays.asList(new Document[]{this.testDocument1, this.testDocument3});
+		assertTrue(this.matrix.startsWith(new SparseMatrix(prefix, new Interner(), true), 2));
+		assertTrue(this.matrix.startsWith(new SparseMatrix(other, new Interner(), true), 1));
+		assertFalse(this.matrix.startsWith(new SparseMatrix(other, new Interner(), true), 2));
+		assertFalse(this.matrix.startsWith(new SparseMatrix(prefix, new Interner(), true), 3));
+	}
+
+	@Test
+	public void testSparseMatrixFingerprint() {
+		assertEquals(this.matrix.fingerprint(), new SparseMatrix(Arrays.asList(new Document[]{this.testDocument1, this.testDocument2, this.testDocument3, this.testDocument4}), new Interner(), true).fingerprint());
+		// Rows of equal IDs and norms but different values
+		Document document = new RealValuedDocument("label f1:3 f2:4");
+		Document other = new RealValuedDocument("label f1:4 f2:3");
+		other.docID = document.docID;
+		SparseMatrix matrix = new SparseMatrix(Arrays.asList(document), new Interner(), true).normalize();
+		SparseMatrix otherMatrix = new SparseMatrix(Arrays.asList(other), new Interner(), true).normalize();
+		assertTrue(pseudoEqual(matrix.getNorm(0), otherMatrix.getNorm(0)));
+		assertFalse(matrix.fingerprint() == otherMatrix.fingerprint());
+	}
+
+	@Test
+	public void testSparseMatrixNormalize() {
+		SparseMatrix normalized = this.matrix.normalize();
+		assertTrue(normalized.isNormalized());
+		assertFalse(this.matrix.isNormalized());
+		assertTrue(normalized == normalized.normalize());
+		assertTrue(pseudoEqual(normalized.getNorm(0), 1.0d));
+		assertTrue(pseudoEqual(normalized.getNorm(3), 0.0d));
+		assertTrue(pseudoEqual(normalized.dot(0, normalized, 0), 1.0d));
+		assertTrue(pseudoEqual(normalized.cosineSimilarity(0, normalized, 2), this.matrix.cosineSimilarity(0, this.matrix, 2)));
+		// Dropped features keep the Cosine similarity of a normalized query unchanged
+		SparseMatrix queries = new SparseMatrix(Arrays.asList(this.unknownDocument), this.features, false);
+		assertTrue(pseudoEqual(queries.normalize().cosineSimilarity(0, normalized, 2), queries.cosineSimilarity(0, this.matrix, 2)));
+	}
+}
@@ -0,0 +1,388 @@
+package machineLearningTools;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * SystemOutputWriter
+ *
+ * Streams the system output of classified documents to a file in the
+ * format of Document#getFormattedSystemOutput(): <br><br>
+ *
+ * <b>Document:instanceID true_label class1 prob1 class2 prob2 ...</b> <br><br>
+ *
+ * Each document is formatted straight into a reusable byte buffer, and
+ * full buffers are written by a background thread, so classifying and
+ * writing overlap and memory does not grow with the number of documents.
+ * Labels are written in order of decreasing probability, and labels with
+ * equal probabilities in label ID order, or in the order of the document's
+ * label map if its probabilities were not set by label ID. <br><br>
+ *
+ * A SystemOutputWriter is written from one thread. close() must be called
+ * to write the last buffer and stop the background thread; an error from
+ * the background thread is thrown by the next write() or by close().
+ */
+public class SystemOutputWriter {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int BUFFERS = 4;
+	// Label counts up to which labels are sorted in place
+	private static final int INSERTION_SORT_LABELS = 32;
+
+	private final OutputStream output;
+	private final boolean convertLogProbabilities;
+	private final Thread writer;
+
+	// Buffers waiting to be filled and waiting to be written
+	private final BlockingQueue<Chunk> free = new ArrayBlockingQueue<Chunk>(SystemOutputWriter.BUFFERS);
+	private final BlockingQueue<Chunk> full = new ArrayBlockingQueue<Chunk>(SystemOutputWriter.BUFFERS+1);
+	private final Chunk end = new Chunk(0);
+	private Chunk current;
+	private volatile IOException failure;
+	private boolean closed;
+
+	// Label sorting scratch
+	private String[] labels = new String[8];
+	private double[] probabilities = new double[8];
+
+	/**
+	 * Construct a SystemOutputWriter writing to the given stream,
+	 * which is closed by close().
+	 *
+	 * @param output
+	 * @param convertLogProbabilities if probabilities are log10 probabilities, write them as probabilities
+	 */
+	public SystemOutputWriter(final OutputStream output, final boolean convertLogProbabilities) {
+		if (output == null) {
+			throw new NullPointerException("SystemOutputWriter constructor received a null parameter: output!");
+		}
+		this.output = output;
+		this.convertLogProbabilities = convertLogProbabilities;
+		for (int i = 0; i < SystemOutputWriter.BUFFERS-1; i++) {
+			this.free.add(new Chunk(SystemOutputWriter.BUFFER_SIZE));
+		}
+		this.current = new Chunk(SystemOutputWriter.BUFFER_SIZE);
+		this.writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				SystemOutputWriter.this.writeChunks();
+			}
+		}, "SystemOutputWriter");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Construct a SystemOutputWriter writing to the given file.
+	 *
+	 * @param fileName
+	 * @param convertLogProbabilities if probabilities are log10 probabilities, write them as probabilities
+	 * @throws IOException if the file cannot be opened
+	 */
+	public SystemOutputWriter(final String fileName, final boolean convertLogProbabilities) throws IOException {
+		this(new FileOutputStream(fileName), convertLogProbabilities);
+	}
+
+	/**
+	 * Write the system output of every document in the given Data,
+	 * in document ID order.
+	 *
+	 * @param data
+	 * @throws IOException
+	 */
+	public void write(final Data data) throws IOException {
+		if (data == null) {
+			throw new NullPointerException("SystemOutputWriter#write received a null parameter: data!");
+		}
+		ArrayList<Document> documents = data.getDocs();
+		Collections.sort(documents);
+		for (Document document: documents) {
+			this.write(document);
+		}
+	}
+
+	/**
+	 * Write the system output of one document as a line.
+	 *
+	 * @param document
+	 * @throws IOException
+	 */
+	public void write(final Document document) throws IOException {
+		if (document == null) {
+			throw new NullPointerException("SystemOutputWriter#write received a null parameter: document!");
+		}
+		if (this.closed) {
+			throw new IOException("SystemOutputWriter#write called after close();");
+		}
+		if (this.failure != null) {
+			throw this.failure;
+		}
+		this.append("Document:");
+		this.append(document.docID);
+		this.append(' ');
+		this.append(document.label);
+		int labelCount = this.sortLabels(document);
+		for (int i = 0; i < labelCount; i++) {
+			this.append(' ');
+			this.append(this.labels[i]);
+			this.append(' ');
+			this.append(Double.toString(this.probabilities[i]));
+		}
+		this.append('\n');
+	}
+
+	/**
+	 * Write the buffered output, wait for the background thread to
+	 * finish, and close the stream.
+	 *
+	 * @throws IOException if writing failed
+	 */
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		try {
+			if (this.current.length > 0) {
+				this.full.put(this.current);
+			}
+			this.full.put(this.end);
+			this.writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("SystemOutputWriter#close was interrupted;");
+		} finally {
+			this.output.close();
+		}
+		if (this.failure != null) {
+			throw this.failure;
+		}
+	}
+
+	/**
+	 * Copy the label probabilities into the scratch arrays, converted if
+	 * needed, and sort them by decreasing probability, keeping label ID
+	 * order or map order for equal probabilities.
+	 *
+	 * @param document
+	 * @return number of labels, 0 if the document was not classified
+	 */
+	private int sortLabels(final Document document) {
+		int labelCount;
+		int i = 0;
+		double probability;
+		if (document.probabilities != null) {
+			labelCount = document.probabilities.length;
+			this.ensureLabelCapacity(labelCount);
+			for (i = 0; i < labelCount; i++) {
+				this.labels[i] = document.labelTable.get(i);
+				this.probabilities[i] = this.convert(document.probabilities[i]);
+			}
+		}
+		else if (document.labelProbs != null) {
+			labelCount = document.labelProbs.size();
+			this.ensureLabelCapacity(labelCount);
+			for (Map.Entry<String, Double> entry: document.labelProbs.entrySet()) {
+				this.labels[i] = entry.getKey();
+				this.probabilities[i] = this.convert(entry.getValue());
+				i++;
+			}
+		}
+		else {
+			return 0; // Not classified
+		}
+		if (labelCount <= SystemOutputWriter.INSERTION_SORT_LABELS) {
+			String label;
+			int j;
+			for (i = 1; i < labelCount; i++) {
+				label = this.labels[i];
+				probability = this.probabilities[i];
+				for (j = i; j > 0 && Double.compare(this.probabilities[j-1], probability) < 0; j--) {
+					this.labels[j] = this.labels[j-1];
+					this.probabilities[j] = this.probabilities[j-1];
+				}
+				this.labels[j] = label;
+				this.probabilities[j] = probability;
+			}
+		}
+		else {
+			// Arrays.sort on objects is stable
+			Integer[] order = new Integer[labelCount];
+			for (i = 0; i < labelCount; i++) {
+				order[i] = i;
+			}
+			final double[] unsorted = Arrays.copyOf(this.probabilities, labelCount);
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer o1, Integer o2) {
+					return Double.compare(unsorted[o2], unsorted[o1]);
+				}
+			});
+			String[] unsortedLabels = Arrays.copyOf(this.labels, labelCount);
+			for (i = 0; i < labelCount; i++) {
+				this.labels[i] = unsortedLabels[order[i]];
+				this.probabilities[i] = unsorted[order[i]];
+			}
+		}
+		return labelCount;
+	}
+
+	private void ensureLabelCapacity(final int labelCount) {
+		if (labelCount > this.labels.length) {
+			this.labels = new String[Math.max(labelCount, this.labels.length*2)];
+			this.probabilities = new double[this.labels.length];
+		}
+	}
+
+	/**
+	 * @param probability
+	 * @return probability, converted from a log10 probability if needed
+	 */
+	private double convert(final double probability) {
+		if (!this.convertLogProbabilities) {
+			return probability;
+		}
+		// Make sure probability is a log prob, i.e. probability < 0
+		if (probability < 0) {
+			return Math.pow(10, probability);
+		}
+		throw new IllegalArgumentException("SystemOutputWriter#write passed true convertLogProbabilities flag for non-log probabilities.");
+	}
+
+	/**
+	 * Make room for the given number of bytes in the current buffer,
+	 * handing it to the background thread if it is full.
+	 *
+	 * @param bytes
+	 * @throws IOException
+	 */
+	private void reserve(final int bytes) throws IOException {
+		if (this.current.length + bytes <= this.current.bytes.length) {
+			return;
+		}
+		if (this.current.length > 0) {
+			try {
+				this.full.put(this.current);
+				this.current = this.free.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("SystemOutputWriter#write was interrupted;");
+			}
+			this.current.length = 0;
+		}
+		if (bytes > this.current.bytes.length) {
+			this.current.bytes = new byte[bytes];
+		}
+	}
+
+	private void append(final char c) throws IOException {
+		this.reserve(1);
+		this.current.bytes[this.current.length++] = (byte)c;
+	}
+
+	/**
+	 * Append a string as UTF-8, or "null" for null like String.format.
+	 */
+	private void append(final String string) throws IOException {
+		if (string == null) {
+			this.append("null");
+			return;
+		}
+		int length = string.length();
+		this.reserve(length);
+		byte[] bytes = this.current.bytes;
+		int position = this.current.length;
+		char c;
+		for (int i = 0; i < length; i++) {
+			c = string.charAt(i);
+			if (c >= 0x80) {
+				// Encode the rest of the string in one go
+				byte[] encoded = string.substring(i).getBytes("utf-8");
+				this.current.length = position;
+				this.reserve(encoded.length);
+				System.arraycopy(encoded, 0, this.current.bytes, this.current.length, encoded.length);
+				this.current.length += encoded.length;
+				return;
+			}
+			bytes[position++] = (byte)c;
+		}
+		this.current.length = position;
+	}
+
+	/**
+	 * Append the decimal digits of an int without allocating.
+	 */
+	private void append(final int value) throws IOException {
+		if (value == Integer.MIN_VALUE) {
+			this.append(Integer.toString(value));
+			return;
+		}
+		this.reserve(11);
+		byte[] bytes = this.current.bytes;
+		int remaining = value;
+		if (remaining < 0) {
+			bytes[this.current.length++] = '-';
+			remaining = -remaining;
+		}
+		int digits = 1;
+		for (int power = remaining/10; power > 0; power /= 10) {
+			digits++;
+		}
+		int position = this.current.length + digits;
+		this.current.length = position;
+		do {
+			bytes[--position] = (byte)('0' + (remaining % 10));
+			remaining /= 10;
+		} while (remaining > 0);
+	}
+
+	/**
+	 * Body of the background thread: write full buffers until the end
+	 * marker, returning each buffer to be filled again. After an error,
+	 * buffers are returned unwritten so the writing thread never blocks.
+	 */
+	private void writeChunks() {
+		Chunk chunk;
+		try {
+			while ((chunk = this.full.take()) != this.end) {
+				if (this.failure == null) {
+					try {
+						this.output.write(chunk.bytes, 0, chunk.length);
+					} catch (IOException e) {
+						this.failure = e;
+					}
+				}
+				chunk.length = 0;
+				this.free.put(chunk);
+			}
+			if (this.failure == null) {
+				this.output.flush();
+			}
+		} catch (InterruptedException e) {
+			this.failure = new InterruptedIOException("SystemOutputWriter background thread was interrupted;");
+		} catch (IOException e) {
+			this.failure = e;
+		}
+	}
+
+	/**
+	 * A buffer and the number of bytes used in it.
+	 */
+	private static class Chunk {
+		byte[] bytes;
+		int length;
+
+		Chunk(final int size) {
+			this.bytes = new byte[size];
+		}
+	}
+}
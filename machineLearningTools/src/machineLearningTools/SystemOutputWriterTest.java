@@ -0,0 +1,147 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SystemOutputWriterTest {
+
+	// Parameters
+	private final String trainingFile = testFile("example.real.vectors.txt");
+
+	// Variables
+	private Data data;
+	private ByteArrayOutputStream output;
+
+	@Before
+	public void setupSystemOutputWriter() {
+		this.data = new RealValuedData(this.trainingFile);
+		this.output = new ByteArrayOutputStream();
+	}
+
+	/**
+	 * Give each document distinct probabilities of the given labels,
+	 * so the expected order of labels is unambiguous.
+	 *
+	 * @param labels
+	 * @param logProbabilities
+	 */
+	private void classifyAll(final String[] labels, final boolean logProbabilities) {
+		HashMap<String, Double> probabilities;
+		for (Document document: this.data.getDocs()) {
+			probabilities = new HashMap<String, Double>();
+			for (int i = 0; i < labels.length; i++) {
+				double probability = 1.0d/(2 + ((i*7 + document.getDocID()) % labels.length));
+				probabilities.put(labels[i], logProbabilities ? Math.log10(probability) : probability);
+			}
+			document.setSysOutput(probabilities);
+		}
+	}
+
+	private String[] labels(final int count) {
+		String[] result = new String[count];
+		for (int i = 0; i < count; i++) {
+			result[i] = "label" + i;
+		}
+		return result;
+	}
+
+	@Test
+	public void testSystemOutputWriterMatchesFormattedSystemOutput() throws IOException {
+		this.classifyAll(new String[]{"talk.politics.guns", "talk.politics.misc", "talk.politics.mideast"}, false);
+		SystemOutputWriter writer = new SystemOutputWriter(this.output, false);
+		writer.write(this.data);
+		writer.close();
+		assertEquals(this.data.getFormattedSystemOutput(), this.output.toString("utf-8"));
+	}
+
+	@Test
+	public void testSystemOutputWriterConvertsLogProbabilities() throws IOException {
+		this.classifyAll(new String[]{"talk.politics.guns", "talk.politics.misc", "talk.politics.mideast"}, true);
+		SystemOutputWriter writer = new SystemOutputWriter(this.output, true);
+		writer.write(this.data);
+		writer.close();
+		assertEquals(this.data.getFormattedSystemOutput(true), this.output.toString("utf-8"));
+	}
+
+	@Test
+	public void testSystemOutputWriterManyLabels() throws IOException {
+		this.classifyAll(this.labels(100), false);
+		SystemOutputWriter writer = new SystemOutputWriter(this.output, false);
+		writer.write(this.data);
+		writer.close();
+		assertEquals(this.data.getFormattedSystemOutput(), this.output.toString("utf-8"));
+	}
+
+	@Test
+	public void testSystemOutputWriterNonASCIILabels() throws IOException {
+		this.classifyAll(new String[]{"café", "日本", "plain"}, false);
+		SystemOutputWriter writer = new SystemOutputWriter(this.output, false);
+		writer.write(this.data);
+		writer.close();
+		assertEquals(this.data.getFormattedSystemOutput(), this.output.toString("utf-8"));
+	}
+
+	@Test
+	public void testSystemOutputWriterSpansBuffers() throws IOException {
+		this.classifyAll(this.labels(40), false);
+		SystemOutputWriter writer = new SystemOutputWriter(this.output, false);
+		StringBuilder expected = new StringBuilder();
+		String formatted = this.data.getFormattedSystemOutput();
+		for (int i = 0; i < 200; i++) {
+			writer.write(this.data);
+			expected.append(formatted);
+		}
+		writer.close();
+		assertEquals(expected.toString(), this.output.toString("utf-8"));
+	}
+
+	@Test
+	public void testSystemOutputWriterLabelIDProbabilities() throws IOException {
+		Interner labels = new Interner(Arrays.asList(this.labels(40)));
+		double[] probabilities;
+		for (Document document: this.data.getDocs()) {
+			probabilities = new double[labels.size()];
+			for (int i = 0; i < probabilities.length; i++) {
+				probabilities[i] = -1.0d - ((i*7 + document.getDocID()) % labels.size());
+			}
+			document.setSysOutput(labels, probabilities);
+		}
+		SystemOutputWriter writer = new SystemOutputWriter(this.output, true);
+		writer.write(this.data);
+		writer.close();
+		assertEquals(this.data.getFormattedSystemOutput(true), this.output.toString("utf-8"));
+	}
+
+	@Test(expected=IOException.class)
+	public void testSystemOutputWriterReportsWriteFailure() throws IOException {
+		this.classifyAll(this.labels(3), false);
+		SystemOutputWriter writer = new SystemOutputWriter(new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("disk full");
+			}
+		}, false);
+		writer.write(this.data);
+		writer.close();
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSystemOutputWriterRejectsNonLogProbabilities() throws IOException {
+		this.classifyAll(this.labels(3), false);
+		SystemOutputWriter writer = new SystemOutputWriter(this.output, true);
+		try {
+			writer.write(this.data);
+		} finally {
+			writer.close();
+		}
+	}
+}
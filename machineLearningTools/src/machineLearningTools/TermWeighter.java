@@ -0,0 +1,243 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * TermWeighter
+ *
+ * Weights the features of documents by TF-IDF or BM25, rewriting the
+ * value of each feature of each document in place as a float. Distance
+ * and similarity measures, such as CosineSimilarity for a KNNClassifier,
+ * then use the weighted values; counts are kept for count based models
+ * such as NaiveBayesClassifier. <br><br>
+ *
+ * A TermWeighter is fit to training data: the document frequency of each
+ * feature is counted in one pass over the documents, split among threads,
+ * and the IDF of each feature is stored in a primitive array indexed by
+ * its ID in the dictionary of training features. The same TermWeighter
+ * then weights training and testing data alike. <br><br>
+ *
+ * TF-IDF: <br>
+ * w.ik = tf.ik * idf.k, with idf.k = ln((1+N)/(1+df.k)) + 1 <br><br>
+ *
+ * BM25: <br>
+ * w.ik = idf.k * tf.ik*(k1+1)/(tf.ik + k1*(1 - b + b*|D.i|/avg|D|)),
+ * with idf.k = ln(1 + (N - df.k + 0.5)/(df.k + 0.5)) <br><br>
+ *
+ * where tf.ik is the count of feature k in document i, N the number of
+ * training documents, df.k the number with feature k, and |D.i| the sum
+ * of the counts of document i. Features unseen in training have df of 0.
+ * <br><br>
+ *
+ * Documents are shared by the Data objects of a CrossValidation, so
+ * weighting one Data object weights the documents of the others.
+ */
+public class TermWeighter {
+
+	private final boolean bm25;
+	private final double k1;
+	private final double b;
+
+	// Training features, and the IDF of each by feature ID
+	private final Interner dictionary;
+	private final float[] idf;
+	private final float unseenIDF;
+	private final double averageLength;
+
+	/**
+	 * Fit a TermWeighter to data.
+	 */
+	private TermWeighter(final Data data, final boolean bm25, final double k1, final double b, final int threads) {
+		if (data == null) {
+			throw new NullPointerException("TermWeighter received a null parameter: data!");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("TermWeighter requires at least 1 thread;");
+		}
+		this.bm25 = bm25;
+		this.k1 = k1;
+		this.b = b;
+		final ArrayList<Document> documents = data.getDocs();
+		List<Map<String, Integer>> chunks = Util.runChunks(documents, threads, new Util.ChunkTask<Document, Map<String, Integer>>() {
+			@Override
+			Map<String, Integer> call(final List<Document> chunk, final int start) {
+				return TermWeighter.countDocuments(chunk);
+			}
+		}, "TermWeighter");
+		// Merge the document frequencies of each chunk
+		HashMap<String, Integer> frequencies = new HashMap<String, Integer>();
+		Integer frequency;
+		for (Map<String, Integer> chunkFrequencies: chunks) {
+			for (Map.Entry<String, Integer> entry: chunkFrequencies.entrySet()) {
+				frequency = frequencies.get(entry.getKey());
+				frequencies.put(entry.getKey(), (frequency == null) ? entry.getValue() : frequency+entry.getValue());
+			}
+		}
+		this.dictionary = new Interner(new TreeSet<String>(frequencies.keySet()));
+		this.idf = new float[this.dictionary.size()];
+		int size = documents.size();
+		for (int id = 0; id < this.idf.length; id++) {
+			this.idf[id] = this.idf(size, frequencies.get(this.dictionary.get(id)));
+		}
+		this.unseenIDF = this.idf(size, 0);
+		long length = 0;
+		for (Document document: documents) {
+			length += TermWeighter.length(document);
+		}
+		this.averageLength = (size > 0) ? ((double) length)/size : 0.0d;
+	}
+
+	/**
+	 * Fit a TF-IDF TermWeighter to data, counting documents
+	 * with the given number of threads.
+	 *
+	 * @param data training data
+	 * @param threads number of threads, at least 1
+	 * @return TF-IDF TermWeighter
+	 */
+	public static TermWeighter tfidf(final Data data, final int threads) {
+		return new TermWeighter(data, false, 0.0d, 0.0d, threads);
+	}
+
+	/**
+	 * Fit a BM25 TermWeighter to data, counting documents with the
+	 * given number of threads. k1 = 1.2 and b = 0.75 are common.
+	 *
+	 * @param data training data
+	 * @param k1 term frequency saturation, at least 0
+	 * @param b length normalization, between 0 and 1
+	 * @param threads number of threads, at least 1
+	 * @return BM25 TermWeighter
+	 */
+	public static TermWeighter bm25(final Data data, final double k1, final double b, final int threads) {
+		if (k1 < 0 || b < 0 || b > 1) {
+			throw new IllegalArgumentException("TermWeighter requires k1 of at least 0 and b between 0 and 1;");
+		}
+		return new TermWeighter(data, true, k1, b, threads);
+	}
+
+	/**
+	 * Weight the documents of data in place, splitting the documents
+	 * among the given number of threads.
+	 *
+	 * @param data
+	 * @param threads number of threads, at least 1
+	 */
+	public void weight(final Data data, final int threads) {
+		if (data == null) {
+			throw new NullPointerException("TermWeighter#weight received a null parameter: data!");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("TermWeighter#weight requires at least 1 thread;");
+		}
+		Util.runChunks(data.getDocs(), threads, new Util.ChunkTask<Document, Void>() {
+			@Override
+			Void call(final List<Document> chunk, final int start) {
+				for (Document document: chunk) {
+					document.setFeatValues(TermWeighter.this.getWeights(document));
+				}
+				return null;
+			}
+		}, "TermWeighter#weight");
+	}
+
+	/**
+	 * Weight the documents of data in place using one thread
+	 * per available processor.
+	 *
+	 * @param data
+	 */
+	public void weight(final Data data) {
+		this.weight(data, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Return the weight of each feature of document, from its counts.
+	 *
+	 * @param document
+	 * @return weight of each feature
+	 */
+	public Map<String, Float> getWeights(final Document document) {
+		if (document == null) {
+			throw new NullPointerException("TermWeighter#getWeights received a null parameter: document!");
+		}
+		HashMap<String, Float> result = new HashMap<String, Float>((int)(document.size()/0.75f) + 1);
+		// BM25 length normalization
+		double norm = 0.0d;
+		if (this.bm25) {
+			norm = this.k1 * (1 - this.b + ((this.averageLength > 0) ? this.b*TermWeighter.length(document)/this.averageLength : 0.0d));
+		}
+		double count;
+		for (String feature: document.getFeatures()) {
+			count = document.getFeatCount(feature);
+			if (this.bm25) {
+				result.put(feature, (float)(this.getIDF(feature) * count*(this.k1+1)/(count + norm)));
+			}
+			else {
+				result.put(feature, (float)(this.getIDF(feature) * count));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Return the IDF of feature.
+	 *
+	 * @param feature
+	 * @return IDF of feature
+	 */
+	public float getIDF(final String feature) {
+		int id = this.dictionary.getID(feature);
+		return (id < 0) ? this.unseenIDF : this.idf[id];
+	}
+
+	/**
+	 * Return the dictionary of training features, whose IDs index
+	 * the IDF array.
+	 *
+	 * @return dictionary of training features
+	 */
+	public Interner getDictionary() {
+		return this.dictionary;
+	}
+
+	/**
+	 * Return the IDF of a feature in df of size documents.
+	 */
+	private float idf(final int size, final int df) {
+		if (this.bm25) {
+			return (float) Math.log(1 + (size - df + 0.5d)/(df + 0.5d));
+		}
+		return (float) (Math.log((1.0d + size)/(1.0d + df)) + 1);
+	}
+
+	/**
+	 * Return the sum of the counts of the features of document.
+	 */
+	private static long length(final Document document) {
+		long result = 0;
+		for (String feature: document.getFeatures()) {
+			result += document.getFeatCount(feature);
+		}
+		return result;
+	}
+
+	/**
+	 * Count the documents with each feature.
+	 */
+	private static Map<String, Integer> countDocuments(final List<Document> documents) {
+		HashMap<String, Integer> result = new HashMap<String, Integer>();
+		Integer count;
+		for (Document document: documents) {
+			for (String feature: document.getFeatures()) {
+				count = result.get(feature);
+				result.put(feature, (count == null) ? 1 : count+1);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,105 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TermWeighterTest {
+
+	// Parameters
+	private final String trainingFile = testFile("example.real.vectors.txt");
+	private final double threshold = 1e-5;
+
+	// Variables
+	private File corpusFile;
+	private Data data;
+
+	@Before
+	public void setupData() throws IOException {
+		this.corpusFile = File.createTempFile("terms", ".vectors.txt");
+		FileWriter writer = new FileWriter(this.corpusFile);
+		writer.write("a x:2 y:1\na x:1\nb z:3 y:1\n");
+		writer.close();
+		this.data = new RealValuedData(this.corpusFile.getPath());
+	}
+
+	@After
+	public void cleanup() {
+		this.corpusFile.delete();
+	}
+
+	@Test
+	public void testTermWeighterTFIDF() {
+		TermWeighter weighter = TermWeighter.tfidf(this.data, 2);
+		assertEquals(Math.log(4.0d/3) + 1, weighter.getIDF("x"), this.threshold);
+		assertEquals(Math.log(4.0d/2) + 1, weighter.getIDF("z"), this.threshold);
+		assertEquals(Math.log(4.0d) + 1, weighter.getIDF("unseen"), this.threshold);
+		assertEquals(3, weighter.getDictionary().size());
+		weighter.weight(this.data, 2);
+		Document document = this.data.getDoc(0);
+		assertTrue(document.isWeighted());
+		assertEquals(2*(Math.log(4.0d/3) + 1), document.getFeatValue("x"), this.threshold);
+		assertEquals(0.0d, document.getFeatValue("z"), 0.0d);
+		// Counts are kept, and the magnitude is of the values
+		assertEquals(2, document.getFeatCount("x"));
+		double x = document.getFeatValue("x");
+		double y = document.getFeatValue("y");
+		assertEquals(Math.sqrt(x*x + y*y), document.getMagnitude(), this.threshold);
+	}
+
+	@Test
+	public void testTermWeighterBM25() {
+		TermWeighter weighter = TermWeighter.bm25(this.data, 1.2d, 0.75d, 1);
+		double idf = Math.log(1 + (3 - 2 + 0.5d)/(2 + 0.5d));
+		assertEquals(idf, weighter.getIDF("x"), this.threshold);
+		// Document 0 has length 3, of an average length of 8/3
+		double norm = 1.2d * (1 - 0.75d + 0.75d*3/(8.0d/3));
+		assertEquals(idf * 2*2.2d/(2 + norm), weighter.getWeights(this.data.getDoc(0)).get("x"), this.threshold);
+	}
+
+	@Test
+	public void testTermWeighterSimilarity() {
+		Document first = this.data.getDoc(0);
+		Document second = this.data.getDoc(2);
+		double unweighted = new CosineSimilarity(first, second).getDistance();
+		assertEquals(1.0d/(Math.sqrt(5)*Math.sqrt(10)), unweighted, this.threshold);
+		TermWeighter.tfidf(this.data, 1).weight(this.data, 1);
+		double y = first.getFeatValue("y");
+		assertEquals(y*second.getFeatValue("y")/(first.getMagnitude()*second.getMagnitude()), new CosineSimilarity(first, second).getDistance(), this.threshold);
+		double euclidean = Math.abs(first.getFeatValue("x")) + Math.abs(second.getFeatValue("z"));
+		assertEquals(euclidean, new EuclideanDistance(first, second).getDistance(), this.threshold);
+	}
+
+	@Test
+	public void testTermWeighterThreads() {
+		Data data = new RealValuedData(this.trainingFile);
+		Data other = new RealValuedData(this.trainingFile);
+		TermWeighter.tfidf(data, 1).weight(data, 1);
+		TermWeighter.tfidf(other, 4).weight(other, 3);
+		for (Document document: data.getDocs()) {
+			for (String feature: document.getFeatures()) {
+				assertEquals(document.getFeatValue(feature), other.getDoc(document.getDocID()).getFeatValue(feature), 0.0d);
+			}
+		}
+	}
+
+	@Test
+	public void testTermWeighterPrune() {
+		TermWeighter.tfidf(this.data, 1).weight(this.data, 1);
+		Interner dictionary = new Interner();
+		dictionary.intern("x");
+		Document pruned = this.data.prune(dictionary).getDoc(0);
+		assertTrue(pruned.isWeighted());
+		assertEquals(this.data.getDoc(0).getFeatValue("x"), pruned.getFeatValue("x"), 0.0d);
+		assertFalse(pruned.contains("y"));
+	}
+}
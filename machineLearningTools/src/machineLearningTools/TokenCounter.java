@@ -1,5 +1,7 @@
 package machineLearningTools;
 
+import java.util.Iterator;
+import java.util.Map;
 
 /**
  * TokenCounter <br><br>
@@ -32,4 +34,45 @@ public class TokenCounter extends Counter<String> {
 			}
 		}
 	}
+
+	/**
+	 * Count the tokens of data as hashed features, adding the sign
+	 * of each token. Hashed features whose count sums to 0 are removed.
+	 *
+	 * @param data
+	 * @param hasher
+	 */
+	public TokenCounter(String data, FeatureHasher hasher) {
+		if (data == null || hasher == null) {
+			throw new NullPointerException("TokenCounter constructor received a null parameter!");
+		}
+		if (data.length() == 0) {
+			return;
+		}
+		for (String part: data.split("\\s+")) {
+			this.increment(hasher.hash(part), hasher.sign(part));
+		}
+		if (hasher.isSigned()) {
+			Iterator<Map.Entry<String, Integer>> entries = this.entrySet().iterator();
+			while (entries.hasNext()) {
+				if (entries.next().getValue() == 0) {
+					entries.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Count the n-grams of data extracted by the given NGramExtractor,
+	 * as hashed features if it has a FeatureHasher.
+	 *
+	 * @param data
+	 * @param extractor
+	 */
+	public TokenCounter(String data, NGramExtractor extractor) {
+		if (data == null || extractor == null) {
+			throw new NullPointerException("TokenCounter constructor received a null parameter!");
+		}
+		extractor.count(data, this);
+	}
 }
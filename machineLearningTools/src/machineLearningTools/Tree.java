@@ -20,6 +20,7 @@ public class Tree {
 	private Tree parent;
 	private String feature;
 	private int depth; // TODO: Make final
+	private double gain;
 	private final ArrayList<Tree> children;
 	private final Collection<Integer> docIDs;
 	private final Data data;
@@ -172,16 +173,7 @@ public class Tree {
 		currentPath.add(this.feature);
 		if (this.children.size() == 0) {
 			currentPath.remove(0); // remove *TOP*
-			Counter<String> labelCounts = new Counter<String>();
-			HashMap<String, Double> labelProbabilities = new HashMap<String, Double>();
-			Double labelCount = (double) this.docIDs.size();
-			for (Integer docID: this.docIDs) {
-				labelCounts.increment(this.data.getLabel(docID));
-			}
-			for (String label: labelCounts.keySet()) {
-				labelProbabilities.put(label, labelCounts.get(label)/labelCount);
-			}
-			Rule result = new Rule(currentPath, labelProbabilities, this.docIDs.size());
+			Rule result = new Rule(currentPath, this.getLabelProbabilities(), this.docIDs.size());
 			paths.add(result);
 		}
 		else {
@@ -195,6 +187,25 @@ public class Tree {
 		return paths;
 	}
 
+	/**
+	 * Return the probability of each label among this Tree's
+	 * documents, as given to the Rule of a leaf.
+	 *
+	 * @return label probabilities of this Tree's documents
+	 */
+	public HashMap<String, Double> getLabelProbabilities() {
+		Counter<String> labelCounts = new Counter<String>();
+		HashMap<String, Double> labelProbabilities = new HashMap<String, Double>();
+		Double labelCount = (double) this.docIDs.size();
+		for (Integer docID: this.docIDs) {
+			labelCounts.increment(this.data.getLabel(docID));
+		}
+		for (String label: labelCounts.keySet()) {
+			labelProbabilities.put(label, labelCounts.get(label)/labelCount);
+		}
+		return labelProbabilities;
+	}
+
 	// Getters
 
 	/**
@@ -237,6 +248,16 @@ public class Tree {
 		return this.depth;
 	}
 
+	/**
+	 * Return the information gain of splitting the current Tree
+	 * on the feature of its children, or 0 for a leaf
+	 *
+	 * @return the current Tree's information gain
+	 */
+	public double getGain() {
+		return this.gain;
+	}
+
 	/**
 	 * Return the current Tree's Data object
 	 * @return the current Tree's Data object
@@ -247,6 +268,16 @@ public class Tree {
 
 	// Setters
 
+	/**
+	 * Set the information gain of splitting the current Tree
+	 * on the feature of its children.
+	 *
+	 * @param gain
+	 */
+	public void setGain(double gain) {
+		this.gain = gain;
+	}
+
 	/**
 	 * Set the parent of the current Tree object. Used
 	 * in addChild();
@@ -0,0 +1,62 @@
+package machineLearningTools;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+
+/**
+ * TunerTestCase
+ *
+ * Shared fixture of the ClassifierTuner tests: a generated corpus
+ * written to a temporary file before each test and deleted after it.
+ * Subclasses give the CorpusGenerator and read the corpus from
+ * corpusFile in their own @Before methods, which JUnit runs after
+ * this class's. <br><br>
+ *
+ * It is not named *Test so that test runners do not run it by itself.
+ */
+public abstract class TunerTestCase {
+
+	// Variables
+	protected File corpusFile;
+
+	/**
+	 * Return the generator of the test corpus
+	 *
+	 * @return
+	 */
+	protected abstract CorpusGenerator corpusGenerator();
+
+	@Before
+	public void setupCorpus() throws IOException {
+		this.corpusFile = File.createTempFile("tuner", ".vectors.txt");
+		this.corpusGenerator().write(this.corpusFile.getPath());
+	}
+
+	@After
+	public void cleanup() {
+		this.corpusFile.delete();
+	}
+
+	/**
+	 * Return the system output of each document of data in
+	 * document order, to compare with ClassifierTuner.Evaluator#classify
+	 *
+	 * @param data
+	 * @return
+	 */
+	protected static String[] sysOutput(Data data) {
+		List<Document> documents = new ArrayList<Document>(data.getDocs());
+		Collections.sort(documents);
+		String[] result = new String[documents.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = documents.get(i).getSysOutput();
+		}
+		return result;
+	}
+}
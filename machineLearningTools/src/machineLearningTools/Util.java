@@ -6,7 +6,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author T.J. Trimble
@@ -85,7 +91,8 @@ public class Util {
 	/**
 	 * maxKeyByValue <br>
 	 * Returns key with maximum value in map by natural ordering <br>
-	 * Returns first item in sorted array from sortedKeysByValue(map)
+	 * Returns first item in sorted array from sortedKeysByValue(map, true),
+	 * i.e. the first maximum in iteration order, in one pass over the map.
 	 *
 	 * Returns only key if map with one key is given. <br>
 	 * Returns null if map with no keys is given. <br>
@@ -99,13 +106,15 @@ public class Util {
 		if (map == null) {
 			throw new NullPointerException();
 		}
-		if (map.keySet().size() <= 1) {
-			if (map.keySet().size() == 1) {
-				return map.keySet().iterator().next();
+		K result = null;
+		V best = null;
+		for (Map.Entry<K, V> entry: map.entrySet()) {
+			if (result == null || entry.getValue().compareTo(best) > 0) {
+				result = entry.getKey();
+				best = entry.getValue();
 			}
-			return null;
 		}
-		return sortedKeysByValue(map, true).get(0);
+		return result;
 	}
 
 	/* ****************
@@ -115,7 +124,8 @@ public class Util {
 	/**
 	 * minKeyByValue <br>
 	 * Returns key with minimum value in map by natural ordering <br>
-	 * Returns last item in sorted array from sortedKeysByValue(map) <br>
+	 * Returns first item in sorted array from sortedKeysByValue(map),
+	 * i.e. the first minimum in iteration order, in one pass over the map. <br>
 	 *
 	 * Returns only key if map with one key is given. <br>
 	 * Returns null if map with no keys is given. <br>
@@ -128,13 +138,296 @@ public class Util {
 		if (map == null) {
 			throw new NullPointerException();
 		}
-		if (map.keySet().size() <= 1) {
-			if (map.keySet().size() == 1) {
-				return map.keySet().iterator().next();
+		K result = null;
+		V best = null;
+		for (Map.Entry<K, V> entry: map.entrySet()) {
+			if (result == null || entry.getValue().compareTo(best) < 0) {
+				result = entry.getKey();
+				best = entry.getValue();
+			}
+		}
+		return result;
+	}
+
+	/* ****************
+	 * topKeysByValue()
+	 * ****************/
+
+	/**
+	 * topKeysByValue <br>
+	 * Returns the first n keys of sortedKeysByValue(map, reverse), <br>
+	 * keeping only n entries in a bounded heap instead of sorting the <br>
+	 * whole map. Keys with equal values are kept in iteration order. <br><br>
+	 *
+	 * Returns all keys, sorted, if the map has n keys or fewer. <br>
+	 *
+	 * @param map
+	 * @param n number of keys to return, at least 0
+	 * @param reverse if true, keys with the highest values
+	 * @return up to n keys sorted by value
+	 **/
+	@SuppressWarnings("unchecked")
+	public static <K, V extends Comparable<? super V>> ArrayList<K> topKeysByValue(final Map<K, V> map, final int n, final boolean reverse) {
+		if (map == null) {
+			throw new NullPointerException("Util#topKeysByValue received a null parameter: map!");
+		}
+		if (n < 0) {
+			throw new IllegalArgumentException("Util#topKeysByValue n must be at least 0.");
+		}
+		int capacity = Math.min(n, map.size());
+		// Heap with the worst kept entry at the root, by value then iteration order
+		Object[] keys = new Object[capacity];
+		Object[] values = new Object[capacity];
+		int[] order = new int[capacity];
+		int size = 0;
+		int index = 0;
+		int comparison;
+		if (capacity > 0) {
+			for (Map.Entry<K, V> entry: map.entrySet()) {
+				if (size < capacity) {
+					keys[size] = entry.getKey();
+					values[size] = entry.getValue();
+					order[size] = index;
+					siftUp(keys, values, order, size, reverse);
+					size++;
+				}
+				else {
+					comparison = entry.getValue().compareTo((V)values[0]);
+					if (reverse ? comparison > 0 : comparison < 0) {
+						keys[0] = entry.getKey();
+						values[0] = entry.getValue();
+						order[0] = index;
+						siftDown(keys, values, order, size, reverse);
+					}
+				}
+				index++;
 			}
-			return null;
 		}
-		return sortedKeysByValue(map).get(0);
+		// Remove the worst entry until the heap is empty
+		Object[] sorted = new Object[size];
+		while (size > 0) {
+			size--;
+			sorted[size] = keys[0];
+			keys[0] = keys[size];
+			values[0] = values[size];
+			order[0] = order[size];
+			siftDown(keys, values, order, size, reverse);
+		}
+		ArrayList<K> result = new ArrayList<K>(sorted.length);
+		for (Object key: sorted) {
+			result.add((K)key);
+		}
+		return result;
+	}
+
+	/**
+	 * topKeysByValue <br>
+	 * Reverse parameter defaults to false
+	 *
+	 * @param map
+	 * @param n
+	 * @return up to n keys with the lowest values, sorted by value
+	 **/
+	public static <K, V extends Comparable<? super V>> ArrayList<K> topKeysByValue(final Map<K, V> map, final int n) {
+		return topKeysByValue(map, n, false);
+	}
+
+	/**
+	 * @return true iff heap entry a is ranked after heap entry b
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V extends Comparable<? super V>> boolean worse(final Object[] values, final int[] order, final int a, final int b, final boolean reverse) {
+		int comparison = ((V)values[a]).compareTo((V)values[b]);
+		if (comparison == 0) {
+			return order[a] > order[b];
+		}
+		return reverse ? comparison < 0 : comparison > 0;
+	}
+
+	private static void siftUp(final Object[] keys, final Object[] values, final int[] order, final int position, final boolean reverse) {
+		int child = position;
+		int parent;
+		while (child > 0) {
+			parent = (child - 1) >>> 1;
+			if (!worse(values, order, child, parent, reverse)) {
+				return;
+			}
+			swap(keys, values, order, child, parent);
+			child = parent;
+		}
+	}
+
+	private static void siftDown(final Object[] keys, final Object[] values, final int[] order, final int size, final boolean reverse) {
+		int parent = 0;
+		int child;
+		while ((child = 2*parent + 1) < size) {
+			if (child + 1 < size && worse(values, order, child + 1, child, reverse)) {
+				child++;
+			}
+			if (!worse(values, order, child, parent, reverse)) {
+				return;
+			}
+			swap(keys, values, order, child, parent);
+			parent = child;
+		}
+	}
+
+	private static void swap(final Object[] keys, final Object[] values, final int[] order, final int a, final int b) {
+		Object key = keys[a];
+		keys[a] = keys[b];
+		keys[b] = key;
+		Object value = values[a];
+		values[a] = values[b];
+		values[b] = value;
+		int index = order[a];
+		order[a] = order[b];
+		order[b] = index;
+	}
+
+	/* ******************************
+	 * argmax(), argmin(), topN()
+	 * ******************************/
+
+	/**
+	 * argmax <br>
+	 * Returns the index of the maximum value, the lowest index among <br>
+	 * equal values, ordered as by Double#compare. <br>
+	 *
+	 * Returns -1 if values is empty. <br>
+	 *
+	 * @param values
+	 * @return index of the maximum value
+	 **/
+	public static int argmax(final double[] values) {
+		if (values == null) {
+			throw new NullPointerException("Util#argmax received a null parameter: values!");
+		}
+		int result = values.length > 0 ? 0 : -1;
+		for (int i = 1; i < values.length; i++) {
+			if (Double.compare(values[i], values[result]) > 0) {
+				result = i;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * argmin <br>
+	 * Returns the index of the minimum value, the lowest index among <br>
+	 * equal values, ordered as by Double#compare. <br>
+	 *
+	 * Returns -1 if values is empty. <br>
+	 *
+	 * @param values
+	 * @return index of the minimum value
+	 **/
+	public static int argmin(final double[] values) {
+		if (values == null) {
+			throw new NullPointerException("Util#argmin received a null parameter: values!");
+		}
+		int result = values.length > 0 ? 0 : -1;
+		for (int i = 1; i < values.length; i++) {
+			if (Double.compare(values[i], values[result]) < 0) {
+				result = i;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * topN <br>
+	 * Returns the indices of the n highest values, highest first, <br>
+	 * lower indices first among equal values. Keeps only n indices in <br>
+	 * a bounded heap, so runs in O(length log n). <br>
+	 *
+	 * @param values
+	 * @param n number of indices to return, at least 0
+	 * @return indices of up to n highest values
+	 **/
+	public static int[] topN(final double[] values, final int n) {
+		return select(values, n, true);
+	}
+
+	/**
+	 * bottomN <br>
+	 * Returns the indices of the n lowest values, lowest first, <br>
+	 * lower indices first among equal values. <br>
+	 *
+	 * @see #topN(double[], int)
+	 * @param values
+	 * @param n number of indices to return, at least 0
+	 * @return indices of up to n lowest values
+	 **/
+	public static int[] bottomN(final double[] values, final int n) {
+		return select(values, n, false);
+	}
+
+	private static int[] select(final double[] values, final int n, final boolean highest) {
+		if (values == null) {
+			throw new NullPointerException("Util#topN received a null parameter: values!");
+		}
+		if (n < 0) {
+			throw new IllegalArgumentException("Util#topN n must be at least 0.");
+		}
+		int capacity = Math.min(n, values.length);
+		// Heap of indices with the worst kept index at the root
+		int[] heap = new int[capacity];
+		int size = 0;
+		for (int i = 0; i < values.length && capacity > 0; i++) {
+			if (size < capacity) {
+				heap[size] = i;
+				int child = size++;
+				int parent;
+				while (child > 0 && worse(values, heap[child], heap[parent = (child - 1) >>> 1], highest)) {
+					int index = heap[child];
+					heap[child] = heap[parent];
+					heap[parent] = index;
+					child = parent;
+				}
+			}
+			else if (worse(values, heap[0], i, highest)) {
+				heap[0] = i;
+				siftDown(values, heap, size, highest);
+			}
+		}
+		// Remove the worst index until the heap is empty
+		int[] result = new int[size];
+		while (size > 0) {
+			size--;
+			result[size] = heap[0];
+			heap[0] = heap[size];
+			siftDown(values, heap, size, highest);
+		}
+		return result;
+	}
+
+	/**
+	 * @return true iff index a is ranked after index b
+	 */
+	private static boolean worse(final double[] values, final int a, final int b, final boolean highest) {
+		int comparison = Double.compare(values[a], values[b]);
+		if (comparison == 0) {
+			return a > b;
+		}
+		return highest ? comparison < 0 : comparison > 0;
+	}
+
+	private static void siftDown(final double[] values, final int[] heap, final int size, final boolean highest) {
+		int parent = 0;
+		int child;
+		int index;
+		while ((child = 2*parent + 1) < size) {
+			if (child + 1 < size && worse(values, heap[child + 1], heap[child], highest)) {
+				child++;
+			}
+			if (!worse(values, heap[child], heap[parent], highest)) {
+				return;
+			}
+			index = heap[child];
+			heap[child] = heap[parent];
+			heap[parent] = index;
+			parent = child;
+		}
 	}
 
 	/* ***********
@@ -165,7 +458,16 @@ public class Util {
 		return sum;
 	}
 
-	public static <K> int sumValues(Map<K, Integer> map) {
+	/**
+	 * sumIntValues <br>
+	 * Returns the sum of the Integer values in a Map. <br>
+	 * Named apart from sumValues, as overloads differing only in the
+	 * value type of the Map have the same erasure. <br>
+	 *
+	 * @param map
+	 * @return
+	 **/
+	public static <K> int sumIntValues(Map<K, Integer> map) {
 		if (map == null) {
 			throw new NullPointerException();
 		}
@@ -179,7 +481,14 @@ public class Util {
 		return sum;
 	}
 
-	public static <K> float sumValues(Map<K, Float> map) {
+	/**
+	 * sumFloatValues <br>
+	 * Returns the sum of the Float values in a Map. <br>
+	 *
+	 * @param map
+	 * @return
+	 **/
+	public static <K> float sumFloatValues(Map<K, Float> map) {
 		if (map == null) {
 			throw new NullPointerException();
 		}
@@ -256,4 +565,117 @@ public class Util {
 	public static String join(Object[] values) {
 		return join(values, "");
 	}
-}
\ No newline at end of file
+
+	/* *****
+	 * run()
+	 * *****/
+
+	/**
+	 * Run the given tasks on up to the given number of threads, and
+	 * return their results in order. Tasks run in the calling thread
+	 * if there is one thread or fewer than 2 tasks. <br><br>
+	 *
+	 * @param tasks
+	 * @param threads number of threads, at least 1
+	 * @param caller name of the caller, for error messages
+	 * @return result of each task
+	 * @throws RuntimeException of the cause if a task fails or the calling thread is interrupted
+	 */
+	static <T> List<T> run(final List<? extends Callable<T>> tasks, final int threads, final String caller) {
+		if (threads == 1 || tasks.size() < 2) {
+			return Util.run(tasks, null, caller);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+		try {
+			return Util.run(tasks, executor, caller);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Run the given tasks on executor, or in the calling thread if
+	 * executor is null, and return their results in order. The caller
+	 * keeps ownership of executor, e.g. to reuse it across rounds of
+	 * tasks. <br><br>
+	 *
+	 * @param tasks
+	 * @param executor executor, or null
+	 * @param caller name of the caller, for error messages
+	 * @return result of each task
+	 * @throws RuntimeException of the cause if a task fails or the calling thread is interrupted
+	 */
+	static <T> List<T> run(final List<? extends Callable<T>> tasks, final ExecutorService executor, final String caller) {
+		ArrayList<T> result = new ArrayList<T>(tasks.size());
+		try {
+			if (executor == null) {
+				for (Callable<T> task: tasks) {
+					result.add(task.call());
+				}
+				return result;
+			}
+			for (Future<T> future: executor.invokeAll(tasks)) {
+				result.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(caller + " was interrupted.", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(caller + " failed.", e.getCause());
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(caller + " failed.", e);
+		}
+		return result;
+	}
+
+	/**
+	 * Split items into one contiguous chunk per thread, run task on
+	 * each chunk on up to the given number of threads, and return the
+	 * result of each chunk in order. There are no chunks if there are
+	 * no items. <br><br>
+	 *
+	 * @param items
+	 * @param threads number of threads, at least 1
+	 * @param task task to run on each chunk
+	 * @param caller name of the caller, for error messages
+	 * @return result of each chunk
+	 * @throws RuntimeException of the cause if a task fails or the calling thread is interrupted
+	 */
+	static <E, T> List<T> runChunks(final List<E> items, final int threads, final ChunkTask<E, T> task, final String caller) {
+		ArrayList<Callable<T>> tasks = new ArrayList<Callable<T>>(threads);
+		int chunkSize = Math.max((items.size()+threads-1)/threads, 1);
+		for (int start = 0; start < items.size(); start += chunkSize) {
+			final int first = start;
+			final List<E> chunk = items.subList(start, Math.min(start+chunkSize, items.size()));
+			tasks.add(new Callable<T>() {
+				@Override
+				public T call() throws Exception {
+					return task.call(chunk, first);
+				}
+			});
+		}
+		return Util.run(tasks, threads, caller);
+	}
+
+	/**
+	 * Task run on each chunk of a list by runChunks.
+	 *
+	 * @param <E> item type
+	 * @param <T> result type
+	 */
+	static abstract class ChunkTask<E, T> {
+
+		/**
+		 * Return the result of one chunk. Chunks run at once, so
+		 * tasks may only write state owned by their chunk.
+		 *
+		 * @param chunk items of the chunk
+		 * @param start index of the first item of the chunk in the list
+		 * @return result of the chunk
+		 * @throws Exception
+		 */
+		abstract T call(List<E> chunk, int start) throws Exception;
+	}
+}
@@ -1,21 +1,32 @@
 package machineLearningTools;
 
+import static machineLearningTools.Util.argmax;
+import static machineLearningTools.Util.argmin;
+import static machineLearningTools.Util.bottomN;
 import static machineLearningTools.Util.join;
 import static machineLearningTools.Util.maxKeyByValue;
 import static machineLearningTools.Util.minKeyByValue;
 import static machineLearningTools.Util.sortedKeysByValue;
+import static machineLearningTools.Util.sumFloatValues;
+import static machineLearningTools.Util.sumIntValues;
 import static machineLearningTools.Util.sumValues;
+import static machineLearningTools.Util.topKeysByValue;
+import static machineLearningTools.Util.topN;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -284,6 +295,87 @@ public class UtilTest {
 		assertEquals(minKeyByValue(oneMap), this.goldMaxKey);
 	}
 
+	/* ***************************
+	 *  argmax and top N tests
+	 * ***************************/
+
+	@Test
+	public void testMaxAndMinKeyByValueMatchSortedKeysByValue() {
+		// Many equal values, so ties must go to the first key in iteration order
+		HashMap<String, Integer> map = new HashMap<String, Integer>();
+		for (int i = 0; i < 50; i++) {
+			map.put("key" + i, i % 7);
+		}
+		assertEquals(sortedKeysByValue(map, true).get(0), maxKeyByValue(map));
+		assertEquals(sortedKeysByValue(map).get(0), minKeyByValue(map));
+	}
+
+	@Test
+	public void testTopKeysByValueMatchesSortedKeysByValue() {
+		Random random = new Random(5L);
+		HashMap<Integer, Integer> map = new HashMap<Integer, Integer>();
+		for (int i = 0; i < 200; i++) {
+			map.put(random.nextInt(), random.nextInt(20));
+		}
+		for (int n: new int[]{0, 1, 5, 37, 200, 500}) {
+			assertEquals(sortedKeysByValue(map).subList(0, Math.min(n, map.size())), topKeysByValue(map, n));
+			assertEquals(sortedKeysByValue(map, true).subList(0, Math.min(n, map.size())), topKeysByValue(map, n, true));
+		}
+	}
+
+	@Test
+	public void testArgmaxArgmin() {
+		double[] values = new double[]{1.0d, 3.0d, -2.0d, 3.0d, -2.0d};
+		assertEquals(1, argmax(values));
+		assertEquals(2, argmin(values));
+		assertEquals(-1, argmax(new double[0]));
+	}
+
+	@Test
+	public void testTopNAndBottomNMatchSorting() {
+		Random random = new Random(11L);
+		double[] values = new double[300];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextInt(40);
+		}
+		// Stable sort of indices by value
+		Integer[] ascending = new Integer[values.length];
+		for (int i = 0; i < values.length; i++) {
+			ascending[i] = i;
+		}
+		final double[] sortValues = values;
+		Arrays.sort(ascending, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Double.compare(sortValues[o1], sortValues[o2]);
+			}
+		});
+		Integer[] descending = ascending.clone();
+		Arrays.sort(descending, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Double.compare(sortValues[o2], sortValues[o1]);
+			}
+		});
+		int[] selected;
+		for (int n: new int[]{0, 1, 10, 300, 400}) {
+			selected = bottomN(values, n);
+			assertEquals(Math.min(n, values.length), selected.length);
+			for (int i = 0; i < selected.length; i++) {
+				assertEquals((int)ascending[i], selected[i]);
+			}
+			selected = topN(values, n);
+			for (int i = 0; i < selected.length; i++) {
+				assertEquals((int)descending[i], selected[i]);
+			}
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTopNNegativeThrows() {
+		topN(new double[]{1.0d}, -1);
+	}
+
 	/* ****************
 	 *  sumValues tests
 	 * ****************/
@@ -301,7 +393,7 @@ public class UtilTest {
 		HashMap<String, Integer> testSumValuesMapInteger = new HashMap<String, Integer>();
 		testSumValuesMapInteger.put("key1", 1);
 		testSumValuesMapInteger.put("key2", 1);
-		assertTrue(sumValues(testSumValuesMapInteger) == 2);
+		assertTrue(sumIntValues(testSumValuesMapInteger) == 2);
 	}
 
 	@Test
@@ -309,7 +401,7 @@ public class UtilTest {
 		HashMap<String, Float> testSumValuesMapFloat = new HashMap<String, Float>();
 		testSumValuesMapFloat.put("key1", 1.0f);
 		testSumValuesMapFloat.put("key2", 1.0f);
-		assertTrue(sumValues(testSumValuesMapFloat) == 2.0f);
+		assertTrue(sumFloatValues(testSumValuesMapFloat) == 2.0f);
 	}
 
 	@Test
@@ -412,4 +504,65 @@ public class UtilTest {
 	public void testJoinArrayWithOutSeparator() {
 		assertTrue(join(this.goldJoinInputArray).equals(this.goldJoinResultNoSeparator3));
 	}
+
+	// run tests
+
+	/**
+	 * Return tasks that each return their index.
+	 */
+	private static List<Callable<Integer>> indexTasks(final int count) {
+		ArrayList<Callable<Integer>> result = new ArrayList<Callable<Integer>>(count);
+		for (int i = 0; i < count; i++) {
+			final int index = i;
+			result.add(new Callable<Integer>() {
+				@Override
+				public Integer call() {
+					return index;
+				}
+			});
+		}
+		return result;
+	}
+
+	@Test
+	public void testRunKeepsOrder() {
+		List<Integer> gold = Arrays.asList(0, 1, 2, 3, 4, 5, 6);
+		assertEquals(gold, Util.run(UtilTest.indexTasks(7), 1, "UtilTest"));
+		assertEquals(gold, Util.run(UtilTest.indexTasks(7), 3, "UtilTest"));
+		assertEquals(gold, Util.run(UtilTest.indexTasks(7), 16, "UtilTest"));
+	}
+
+	@Test
+	public void testRunThrowsCause() {
+		List<Callable<Integer>> tasks = UtilTest.indexTasks(3);
+		final IllegalStateException cause = new IllegalStateException();
+		tasks.set(1, new Callable<Integer>() {
+			@Override
+			public Integer call() {
+				throw cause;
+			}
+		});
+		try {
+			Util.run(tasks, 2, "UtilTest");
+			fail();
+		} catch (RuntimeException e) {
+			assertTrue(e.getCause() == cause);
+		}
+	}
+
+	@Test
+	public void testRunChunks() {
+		final List<Integer> items = Arrays.asList(0, 1, 2, 3, 4, 5, 6);
+		Util.ChunkTask<Integer, Integer> first = new Util.ChunkTask<Integer, Integer>() {
+			@Override
+			Integer call(final List<Integer> chunk, final int start) {
+				assertEquals(items.get(start), chunk.get(0));
+				return chunk.size();
+			}
+		};
+		assertEquals(Arrays.asList(7), Util.runChunks(items, 1, first, "UtilTest"));
+		assertEquals(Arrays.asList(3, 3, 1), Util.runChunks(items, 3, first, "UtilTest"));
+		assertEquals(7, Util.runChunks(items, 16, first, "UtilTest").size());
+		assertTrue(Util.runChunks(new ArrayList<Integer>(), 4, first, "UtilTest").isEmpty());
+	}
 }
@@ -0,0 +1,201 @@
+package machineLearningTools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * VocabularySketch
+ *
+ * Approximate vocabulary statistics of documents, from one cheap pass
+ * over them, to size and prune dictionaries, models and arrays before
+ * building them, rather than first collecting every feature, as
+ * Data#getAllFeatures() does: <br><br>
+ * 	the document frequency of each feature, in a CountMinSketch <br>
+ * 	the number of distinct features, in a HyperLogLog <br>
+ * 	the features with the highest document frequencies, in a HeavyHitters <br><br>
+ *
+ * Document frequencies are never underestimated, so dictionary(Data, int)
+ * keeps every feature with a high enough true document frequency, and
+ * only a few rarer ones. <br><br>
+ *
+ * VocabularySketches of the same sizes merge, so documents may be
+ * sketched on several threads, as add(Data, int) does, or shards.
+ * A VocabularySketch is not thread safe.
+ *
+ * @see CountMinSketch
+ * @see HyperLogLog
+ * @see HeavyHitters
+ */
+public class VocabularySketch {
+
+	private final CountMinSketch frequencies;
+	private final HyperLogLog vocabulary;
+	private final HeavyHitters heavyHitters;
+	private int documents;
+
+	/**
+	 * Construct an empty VocabularySketch with a CountMinSketch of width
+	 * 2^16 and depth 4, a HyperLogLog of precision 14 and a HeavyHitters
+	 * of capacity 1000.
+	 */
+	public VocabularySketch() {
+		this(1 << 16, 4, 14, 1000);
+	}
+
+	/**
+	 * Construct an empty VocabularySketch.
+	 *
+	 * @param width width of the CountMinSketch, at least 1
+	 * @param depth depth of the CountMinSketch, at least 1
+	 * @param precision precision of the HyperLogLog, between 4 and 18
+	 * @param capacity capacity of the HeavyHitters, at least 1
+	 */
+	public VocabularySketch(final int width, final int depth, final int precision, final int capacity) {
+		this.frequencies = new CountMinSketch(width, depth);
+		this.vocabulary = new HyperLogLog(precision);
+		this.heavyHitters = new HeavyHitters(capacity);
+	}
+
+	/**
+	 * Add the features of the given document.
+	 *
+	 * @param document
+	 */
+	public void add(final Document document) {
+		if (document == null) {
+			throw new NullPointerException("VocabularySketch#add received a null parameter: document!");
+		}
+		for (String feature: document.getFeatures()) {
+			this.frequencies.add(feature);
+			this.vocabulary.add(feature);
+			this.heavyHitters.add(feature);
+		}
+		this.documents++;
+	}
+
+	/**
+	 * Add the features of every document of data, splitting the
+	 * documents among the given number of threads, each with
+	 * its own VocabularySketch, and merging them.
+	 *
+	 * @param data
+	 * @param threads number of threads, at least 1
+	 */
+	public void add(final Data data, final int threads) {
+		if (data == null) {
+			throw new NullPointerException("VocabularySketch#add received a null parameter: data!");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("VocabularySketch#add requires at least 1 thread;");
+		}
+		ArrayList<Document> documents = data.getDocs();
+		if (threads == 1 || documents.size() < 2) {
+			for (Document document: documents) {
+				this.add(document);
+			}
+			return;
+		}
+		List<VocabularySketch> sketches = Util.runChunks(documents, threads, new Util.ChunkTask<Document, VocabularySketch>() {
+			@Override
+			VocabularySketch call(final List<Document> chunk, final int start) {
+				VocabularySketch sketch = VocabularySketch.this.emptyCopy();
+				for (Document document: chunk) {
+					sketch.add(document);
+				}
+				return sketch;
+			}
+		}, "VocabularySketch#add");
+		for (VocabularySketch sketch: sketches) {
+			this.merge(sketch);
+		}
+	}
+
+	/**
+	 * Add the features of every document of data using one
+	 * thread per available processor.
+	 *
+	 * @param data
+	 */
+	public void add(final Data data) {
+		this.add(data, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Add another VocabularySketch of the same sizes to this one.
+	 *
+	 * @param other
+	 */
+	public void merge(final VocabularySketch other) {
+		if (other == null) {
+			throw new NullPointerException("VocabularySketch#merge received a null parameter: other!");
+		}
+		this.frequencies.merge(other.frequencies);
+		this.vocabulary.merge(other.vocabulary);
+		this.heavyHitters.merge(other.heavyHitters);
+		this.documents += other.documents;
+	}
+
+	/**
+	 * Return the features of data whose estimated document frequency is
+	 * at least minDocumentFrequency, in sorted order, e.g. to prune data
+	 * with Data#prune(Interner). Only features passing are collected.
+	 *
+	 * @param data
+	 * @param minDocumentFrequency
+	 * @return dictionary of features
+	 */
+	public Interner dictionary(final Data data, final int minDocumentFrequency) {
+		if (data == null) {
+			throw new NullPointerException("VocabularySketch#dictionary received a null parameter: data!");
+		}
+		TreeSet<String> features = new TreeSet<String>();
+		for (Document document: data.getDocs()) {
+			for (String feature: document.getFeatures()) {
+				if (this.frequencies.estimate(feature) >= minDocumentFrequency) {
+					features.add(feature);
+				}
+			}
+		}
+		return new Interner(features);
+	}
+
+	/**
+	 * Return the estimated document frequency of the given feature,
+	 * which is never below its true document frequency.
+	 *
+	 * @param feature
+	 * @return estimated document frequency
+	 */
+	public long getDocumentFrequency(final String feature) {
+		return this.frequencies.estimate(feature);
+	}
+
+	/**
+	 * @return estimated number of distinct features
+	 */
+	public long getVocabularySize() {
+		return this.vocabulary.cardinality();
+	}
+
+	/**
+	 * @return features with the highest document frequencies, most frequent first
+	 */
+	public List<String> getHeavyHitters() {
+		return this.heavyHitters.getHeavyHitters();
+	}
+
+	/**
+	 * @return number of documents added
+	 */
+	public int getDocumentCount() {
+		return this.documents;
+	}
+
+	/**
+	 * Return an empty VocabularySketch of the same sizes as this one.
+	 */
+	private VocabularySketch emptyCopy() {
+		return new VocabularySketch(this.frequencies.getWidth(), this.frequencies.getDepth(), this.vocabulary.getPrecision(), this.heavyHitters.getCapacity());
+	}
+}
@@ -0,0 +1,53 @@
+package machineLearningTools;
+
+import static machineLearningTools.Testing.testFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class VocabularySketchTest {
+
+	// Parameters
+	private final String trainingFile = testFile("example.real.vectors.txt");
+
+	// Variables
+	private Data data;
+
+	@Before
+	public void setupData() {
+		this.data = new RealValuedData(this.trainingFile);
+	}
+
+	@Test
+	public void testVocabularySketch() {
+		Map<String, int[]> counts = FeatureSelector.countDocuments(this.data, 1);
+		for (int threads: new int[]{1, 3}) {
+			VocabularySketch sketch = new VocabularySketch(256, 4, 10, 4);
+			sketch.add(this.data, threads);
+			assertEquals(this.data.size(), sketch.getDocumentCount());
+			assertEquals(7L, sketch.getVocabularySize());
+			assertEquals(4, sketch.getHeavyHitters().size());
+			long documentFrequency;
+			for (String feature: this.data.getAllFeatures()) {
+				documentFrequency = 0L;
+				for (int count: counts.get(feature)) {
+					documentFrequency += count;
+				}
+				assertTrue(sketch.getDocumentFrequency(feature) >= documentFrequency);
+			}
+		}
+	}
+
+	@Test
+	public void testVocabularySketchDictionary() {
+		VocabularySketch sketch = new VocabularySketch();
+		sketch.add(this.data, 2);
+		assertEquals(7, sketch.dictionary(this.data, 1).size());
+		Interner dictionary = sketch.dictionary(this.data, this.data.size()+1);
+		assertEquals(0, dictionary.size());
+	}
+}